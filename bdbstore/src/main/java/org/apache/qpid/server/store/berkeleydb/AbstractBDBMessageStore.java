@@ -59,9 +59,10 @@ import org.apache.qpid.server.store.StoreException;
 import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.server.store.TransactionLogResource;
 import org.apache.qpid.server.store.Xid;
+import org.apache.qpid.server.store.berkeleydb.entry.MessageContentKey;
 import org.apache.qpid.server.store.berkeleydb.entry.PreparedTransaction;
 import org.apache.qpid.server.store.berkeleydb.entry.QueueEntryKey;
-import org.apache.qpid.server.store.berkeleydb.tuple.ByteBufferBinding;
+import org.apache.qpid.server.store.berkeleydb.tuple.MessageContentKeyBinding;
 import org.apache.qpid.server.store.berkeleydb.tuple.MessageMetaDataBinding;
 import org.apache.qpid.server.store.berkeleydb.tuple.PreparedTransactionBinding;
 import org.apache.qpid.server.store.berkeleydb.tuple.QueueEntryBinding;
@@ -85,6 +86,12 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     private static final String BRIDGEDB_NAME = "BRIDGES";
     private static final String LINKDB_NAME = "LINKS";
     private static final String XID_DB_NAME = "XIDS";
+    /**
+     * Message content is stored in chunks of this size, keyed on the message id and chunk number, so that a range of
+     * the content can be read without reading the whole message.  Changing it requires the store to be upgraded
+     * (see UpgradeFrom9To10).
+     */
+    static final int CONTENT_CHUNK_SIZE = 64 * 1024;
     private static final ByteBuffer EMPTY_BYTE_BUFFER = ByteBuffer.allocateDirect(0);
 
     private final EventManager _eventManager = new EventManager();
@@ -242,9 +249,7 @@ public abstract class AbstractBDBMessageStore implements MessageStore
                     getLogger().debug("Deleted metadata for message {}", messageId);
 
                     //now remove the content data from the store if there is any.
-                    DatabaseEntry contentKeyEntry = new DatabaseEntry();
-                    LongBinding.longToEntry(messageId, contentKeyEntry);
-                    getMessageContentDb().delete(tx, contentKeyEntry);
+                    deleteContent(tx, messageId);
 
                     getLogger().debug("Deleted content for message {}", messageId);
 
@@ -311,6 +316,30 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     }
 
 
+    private void deleteContent(final Transaction tx, final long messageId)
+    {
+        DatabaseEntry key = new DatabaseEntry();
+        LongBinding.longToEntry(messageId, key);
+        DatabaseEntry value = new DatabaseEntry();
+        value.setPartial(0, 0, true);
+
+        Cursor cursor = getMessageContentDb().openCursor(tx, null);
+        try
+        {
+            OperationStatus status = cursor.getSearchKeyRange(key, value, LockMode.RMW);
+            while (status == OperationStatus.SUCCESS
+                   && MessageContentKeyBinding.getInstance().entryToObject(key).getMessageId() == messageId)
+            {
+                cursor.delete();
+                status = cursor.getNext(key, value, LockMode.RMW);
+            }
+        }
+        finally
+        {
+            closeCursorSafely(cursor, getEnvironmentFacade());
+        }
+    }
+
     /**
      * Fills the provided ByteBuffer with as much content for the specified message as possible, starting
      * from the specified offset in the message.
@@ -325,38 +354,35 @@ public abstract class AbstractBDBMessageStore implements MessageStore
      */
     int getContent(long messageId, int offset, ByteBuffer dst) throws StoreException
     {
-        DatabaseEntry contentKeyEntry = new DatabaseEntry();
-        LongBinding.longToEntry(messageId, contentKeyEntry);
-        DatabaseEntry value = new DatabaseEntry();
-        ByteBufferBinding contentTupleBinding = ByteBufferBinding.getInstance();
-
-
         getLogger().debug("Message Id: {} Getting content body from offset: {}", messageId, offset);
 
-
         try
         {
-
+            Collection<QpidByteBuffer> content = readContent(messageId, offset, dst.remaining());
             int written = 0;
-            OperationStatus status = getMessageContentDb().get(null, contentKeyEntry, value, LockMode.READ_UNCOMMITTED);
-            if (status == OperationStatus.SUCCESS)
+            if (content != null)
             {
-                QpidByteBuffer buffer = contentTupleBinding.entryToObject(value);
-                int size = buffer.remaining();
-                if (offset > size)
+                for (QpidByteBuffer buf : content)
                 {
-                    throw new RuntimeException("Offset " + offset + " is greater than message size " + size
-                                               + " for message id " + messageId + "!");
-
+                    written += buf.remaining();
+                    buf.get(dst);
+                    buf.dispose();
                 }
 
-                written = size - offset;
-                if(written > dst.remaining())
+                if (written == 0 && offset > 0)
                 {
-                    written = dst.remaining();
+                    int size = 0;
+                    for (QpidByteBuffer buf : readContent(messageId, 0, offset))
+                    {
+                        size += buf.remaining();
+                        buf.dispose();
+                    }
+                    if (offset > size)
+                    {
+                        throw new RuntimeException("Offset " + offset + " is greater than message size " + size
+                                                   + " for message id " + messageId + "!");
+                    }
                 }
-                buffer = buffer.view(offset, written);
-                buffer.get(dst);
             }
             return written;
         }
@@ -369,38 +395,26 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         }
     }
 
-    Collection<QpidByteBuffer> getAllContent(long messageId) throws StoreException
+    /**
+     * Reads the part of the content of the specified message which lies within the given range, reading only the
+     * chunks which overlap the range.
+     *
+     * @return the content, which is shorter than requested if the range extends beyond the end of the message
+     *
+     * @throws org.apache.qpid.server.store.StoreException If the operation fails for any reason, or if the specified message does not exist.
+     */
+    Collection<QpidByteBuffer> getContent(long messageId, int offset, int length) throws StoreException
     {
-        DatabaseEntry contentKeyEntry = new DatabaseEntry();
-        LongBinding.longToEntry(messageId, contentKeyEntry);
-        DatabaseEntry value = new DatabaseEntry();
-
-        getLogger().debug("Message Id: {} Getting content body", messageId);
+        getLogger().debug("Message Id: {} Getting {} bytes of content body from offset: {}", messageId, length, offset);
 
         try
         {
-            OperationStatus status = getMessageContentDb().get(null, contentKeyEntry, value, LockMode.READ_UNCOMMITTED);
-
-            if (status == OperationStatus.SUCCESS)
-            {
-                byte[] data = value.getData();
-                int offset = value.getOffset();
-                int length = value.getSize();
-                Collection<QpidByteBuffer> buffers = QpidByteBuffer.allocateDirectCollection(length);
-                for(QpidByteBuffer buf : buffers)
-                {
-                    int bufSize = buf.remaining();
-                    buf.put(data, offset, bufSize);
-                    buf.flip();
-                    offset+=bufSize;
-                }
-                return buffers;
-            }
-            else
+            Collection<QpidByteBuffer> content = readContent(messageId, offset, length);
+            if (content == null)
             {
                 throw new StoreException("Unable to find message with id " + messageId);
             }
-
+            return content;
         }
         catch (RuntimeException e)
         {
@@ -411,6 +425,92 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         }
     }
 
+    Collection<QpidByteBuffer> getAllContent(long messageId) throws StoreException
+    {
+        return getContent(messageId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns null if there is no content stored for the message.
+     */
+    private Collection<QpidByteBuffer> readContent(final long messageId, final int offset, int length)
+    {
+        length = Math.min(length, Integer.MAX_VALUE - offset);
+        final int firstChunk = offset / CONTENT_CHUNK_SIZE;
+        final MessageContentKeyBinding keyBinding = MessageContentKeyBinding.getInstance();
+
+        DatabaseEntry key = new DatabaseEntry();
+        keyBinding.objectToEntry(new MessageContentKey(messageId, firstChunk), key);
+        DatabaseEntry value = new DatabaseEntry();
+        value.setPartial(offset - firstChunk * CONTENT_CHUNK_SIZE, length, true);
+
+        Cursor cursor = getMessageContentDb().openCursor(null, null);
+        try
+        {
+            List<QpidByteBuffer> content = new ArrayList<>();
+            OperationStatus status = cursor.getSearchKey(key, value, LockMode.READ_UNCOMMITTED);
+            if (status != OperationStatus.SUCCESS)
+            {
+                if (firstChunk == 0)
+                {
+                    return null;
+                }
+                // the range starts beyond the end of the message, if there is one
+                keyBinding.objectToEntry(new MessageContentKey(messageId, 0), key);
+                value.setPartial(0, 0, true);
+                status = cursor.getSearchKey(key, value, LockMode.READ_UNCOMMITTED);
+                return status == OperationStatus.SUCCESS ? content : null;
+            }
+
+            int expectedChunk = firstChunk;
+            while (true)
+            {
+                copyToBuffers(value, content);
+                length -= value.getSize();
+                expectedChunk++;
+
+                if (length <= 0)
+                {
+                    break;
+                }
+                value.setPartial(0, Math.min(length, CONTENT_CHUNK_SIZE), true);
+                status = cursor.getNext(key, value, LockMode.READ_UNCOMMITTED);
+                if (status != OperationStatus.SUCCESS)
+                {
+                    break;
+                }
+                MessageContentKey contentKey = keyBinding.entryToObject(key);
+                if (contentKey.getMessageId() != messageId || contentKey.getChunkNumber() != expectedChunk)
+                {
+                    break;
+                }
+            }
+            return content;
+        }
+        finally
+        {
+            closeCursorSafely(cursor, getEnvironmentFacade());
+        }
+    }
+
+    private static void copyToBuffers(final DatabaseEntry value, final Collection<QpidByteBuffer> content)
+    {
+        byte[] data = value.getData();
+        int offset = value.getOffset();
+        int length = value.getSize();
+        if (length > 0)
+        {
+            for (QpidByteBuffer buf : QpidByteBuffer.allocateDirectCollection(length))
+            {
+                int bufSize = buf.remaining();
+                buf.put(data, offset, bufSize);
+                buf.flip();
+                offset += bufSize;
+                content.add(buf);
+            }
+        }
+    }
+
     private void visitMessagesInternal(MessageHandler handler, EnvironmentFacade environmentFacade)
     {
         Cursor cursor = null;
@@ -515,40 +615,55 @@ public abstract class AbstractBDBMessageStore implements MessageStore
     }
 
     /**
-     * Stores a chunk of message data.
+     * Stores the content of a message as a sequence of fixed size chunks.
      *
      * @param tx         The transaction for the operation.
      * @param messageId       The message to store the data for.
-     * @param contentBody     The content of the data chunk.
+     * @param contentBody     The content of the message.
      *
      * @throws org.apache.qpid.server.store.StoreException If the operation fails for any reason, or if the specified message does not exist.
      */
     private void addContent(final Transaction tx, long messageId,
                             Collection<QpidByteBuffer> contentBody) throws StoreException
     {
-        DatabaseEntry key = new DatabaseEntry();
-        LongBinding.longToEntry(messageId, key);
-        DatabaseEntry value = new DatabaseEntry();
-
         int size = 0;
 
         for(QpidByteBuffer buf : contentBody)
         {
             size += buf.remaining();
         }
-        byte[] data = new byte[size];
-        ByteBuffer dst = ByteBuffer.wrap(data);
-        for(QpidByteBuffer buf : contentBody)
-        {
-            buf.copyTo(dst);
-        }
-        value.setData(data);
+
+        // an empty message still has a (single, empty) chunk so that its content can be found
+        byte[] chunk = new byte[Math.min(size, CONTENT_CHUNK_SIZE)];
+        int chunkLength = 0;
+        int chunkNumber = 0;
         try
         {
-            OperationStatus status = getMessageContentDb().put(tx, key, value);
-            if (status != OperationStatus.SUCCESS)
+            for(QpidByteBuffer buf : contentBody)
             {
-                throw new StoreException("Error adding content for message id " + messageId + ": " + status);
+                QpidByteBuffer src = buf.duplicate();
+                try
+                {
+                    while (src.hasRemaining())
+                    {
+                        int length = Math.min(src.remaining(), chunk.length - chunkLength);
+                        src.get(chunk, chunkLength, length);
+                        chunkLength += length;
+                        if (chunkLength == chunk.length)
+                        {
+                            putContentChunk(tx, messageId, chunkNumber++, chunk, chunkLength);
+                            chunkLength = 0;
+                        }
+                    }
+                }
+                finally
+                {
+                    src.dispose();
+                }
+            }
+            if (chunkLength > 0 || chunkNumber == 0)
+            {
+                putContentChunk(tx, messageId, chunkNumber, chunk, chunkLength);
             }
 
             getLogger().debug("Storing content for message {} in transaction {}", messageId, tx);
@@ -563,6 +678,22 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         }
     }
 
+    private void putContentChunk(final Transaction tx,
+                                 final long messageId,
+                                 final int chunkNumber,
+                                 final byte[] data,
+                                 final int length)
+    {
+        DatabaseEntry key = new DatabaseEntry();
+        MessageContentKeyBinding.getInstance().objectToEntry(new MessageContentKey(messageId, chunkNumber), key);
+        DatabaseEntry value = new DatabaseEntry(data, 0, length);
+        OperationStatus status = getMessageContentDb().put(tx, key, value);
+        if (status != OperationStatus.SUCCESS)
+        {
+            throw new StoreException("Error adding content for message id " + messageId + ": " + status);
+        }
+    }
+
     /**
      * Stores message meta-data.
      *
@@ -1127,6 +1258,14 @@ public abstract class AbstractBDBMessageStore implements MessageStore
         @Override
         public synchronized Collection<QpidByteBuffer> getContent(int offset, int length)
         {
+            if (_messageDataRef != null && _messageDataRef.getData() == null && stored()
+                && (offset > 0 || length < getMetaData().getContentSize()))
+            {
+                // read only the chunks holding the requested range rather than reloading the whole message
+                checkMessageStoreOpen();
+                return AbstractBDBMessageStore.this.getContent(_messageId, offset, length);
+            }
+
             Collection<QpidByteBuffer> bufs = getContentAsByteBuffer();
             Collection<QpidByteBuffer> content = new ArrayList<>(bufs.size());
             int pos = 0;
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.qpid.server.store.berkeleydb.upgrade;
+
+import com.sleepycat.bind.tuple.LongBinding;
+import com.sleepycat.bind.tuple.TupleBase;
+import com.sleepycat.bind.tuple.TupleOutput;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.OperationStatus;
+import com.sleepycat.je.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.server.model.ConfiguredObject;
+import org.apache.qpid.server.store.StoreException;
+
+/**
+ * Upgrades from a v9 database to a v10 database.
+ *
+ * Message content held in MESSAGE_CONTENT changes from one record per message ( message-id: long ) {@literal ->}
+ * ( byte[] data ) to chunks of at most 64KB ( message-id: long, chunk-number: int ) {@literal ->} ( byte[] data ),
+ * so that a range of the content can be read without reading the whole message.  A message without content keeps
+ * a single, empty chunk.
+ *
+ * Earlier versions cannot read the chunked content, so once upgraded the store cannot be used by them.
+ */
+@SuppressWarnings("unused")
+public class UpgradeFrom9To10 extends AbstractStoreUpgrade
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpgradeFrom9To10.class);
+
+    static final String CONTENT_DB_NAME = "MESSAGE_CONTENT";
+    static final int CONTENT_CHUNK_SIZE = 64 * 1024;
+    private static final int LONG_KEY_SIZE = 8;
+
+    @Override
+    public void performUpgrade(final Environment environment,
+                               final UpgradeInteractionHandler handler,
+                               final ConfiguredObject<?> parent)
+    {
+        reportStarting(environment, 9);
+
+        if (environment.getDatabaseNames().contains(CONTENT_DB_NAME))
+        {
+            final Transaction transaction = environment.beginTransaction(null, null);
+            try
+            {
+                CursorOperation contentOperation = new CursorOperation()
+                {
+                    @Override
+                    public void processEntry(final Database contentDatabase,
+                                             final Database notUsed,
+                                             final Transaction contentTransaction,
+                                             final DatabaseEntry key,
+                                             final DatabaseEntry value)
+                    {
+                        // chunks written below follow the record they replace, and are passed over here
+                        if (key.getSize() == LONG_KEY_SIZE)
+                        {
+                            long messageId = LongBinding.entryToLong(key);
+                            byte[] data = value.getData();
+                            int offset = value.getOffset();
+                            int size = value.getSize();
+                            deleteCurrent();
+                            int chunkNumber = 0;
+                            do
+                            {
+                                int length = Math.min(size, CONTENT_CHUNK_SIZE);
+                                putChunk(contentDatabase, contentTransaction, messageId, chunkNumber++, data, offset, length);
+                                offset += length;
+                                size -= length;
+                            }
+                            while (size > 0);
+                        }
+                    }
+                };
+                new DatabaseTemplate(environment, CONTENT_DB_NAME, transaction).run(contentOperation);
+                LOGGER.info(contentOperation.getRowCount() + " Message Content Entries");
+
+                transaction.commit();
+            }
+            catch (RuntimeException e)
+            {
+                try
+                {
+                    if (transaction.isValid())
+                    {
+                        transaction.abort();
+                    }
+                }
+                finally
+                {
+                    throw e;
+                }
+            }
+        }
+
+        reportFinished(environment, 10);
+    }
+
+    private void putChunk(final Database contentDatabase,
+                          final Transaction transaction,
+                          final long messageId,
+                          final int chunkNumber,
+                          final byte[] data,
+                          final int offset,
+                          final int length)
+    {
+        TupleOutput output = new TupleOutput();
+        output.writeLong(messageId);
+        output.writeInt(chunkNumber);
+        DatabaseEntry key = new DatabaseEntry();
+        TupleBase.outputToEntry(output, key);
+
+        OperationStatus status = contentDatabase.put(transaction, key, new DatabaseEntry(data, offset, length));
+        if (status != OperationStatus.SUCCESS)
+        {
+            throw new StoreException("Error upgrading content for message id " + messageId + ": " + status);
+        }
+    }
+}
@@ -345,11 +345,53 @@ public class BDBMessageStoreTest extends MessageStoreTestCase
                         0, bdbStore.getContent(messageid_0_8, 0, dst));
     }
 
+    public void testGetContentSpanningStoredChunks() throws Exception
+    {
+        BDBMessageStore bdbStore = (BDBMessageStore) getStore();
+        byte[] content = new byte[2 * AbstractBDBMessageStore.CONTENT_CHUNK_SIZE + 100];
+        for (int i = 0; i < content.length; i++)
+        {
+            content[i] = (byte) i;
+        }
+        StoredMessage<MessageMetaData> storedMessage = createAndStoreMessage_0_8(bdbStore, content);
+        long messageId = storedMessage.getMessageNumber();
+
+        ByteBuffer dst = ByteBuffer.allocate(content.length);
+        assertEquals("Unexpected length", content.length, bdbStore.getContent(messageId, 0, dst));
+        assertTrue("Unexpected content", Arrays.equals(content, dst.array()));
+
+        int offset = AbstractBDBMessageStore.CONTENT_CHUNK_SIZE - 10;
+        int length = AbstractBDBMessageStore.CONTENT_CHUNK_SIZE + 20;
+        dst = ByteBuffer.allocate(length);
+        int read = 0;
+        for (QpidByteBuffer buf : bdbStore.getContent(messageId, offset, length))
+        {
+            read += buf.remaining();
+            buf.get(dst);
+            buf.dispose();
+        }
+        assertEquals("Unexpected length", length, read);
+        assertTrue("Unexpected content", Arrays.equals(Arrays.copyOfRange(content, offset, offset + length), dst.array()));
+
+        dst = ByteBuffer.allocate(200);
+        assertEquals("Unexpected length reading past the end of the message",
+                     50, bdbStore.getContent(messageId, content.length - 50, dst));
+
+        bdbStore.removeMessage(messageId, true);
+        assertEquals("Retrieved content when none was expected",
+                     0, bdbStore.getContent(messageId, AbstractBDBMessageStore.CONTENT_CHUNK_SIZE, dst));
+    }
+
     private StoredMessage<MessageMetaData> createAndStoreSingleChunkMessage_0_8(MessageStore store)
     {
-        QpidByteBuffer chunk1 = QpidByteBuffer.wrap(CONTENT_BYTES);
+        return createAndStoreMessage_0_8(store, CONTENT_BYTES);
+    }
+
+    private StoredMessage<MessageMetaData> createAndStoreMessage_0_8(MessageStore store, byte[] content)
+    {
+        QpidByteBuffer chunk1 = QpidByteBuffer.wrap(content);
 
-        int bodySize = CONTENT_BYTES.length;
+        int bodySize = content.length;
 
         //create and store the message using the MessageStore interface
         MessagePublishInfo pubInfoBody_0_8 = createPublishInfoBody_0_8();
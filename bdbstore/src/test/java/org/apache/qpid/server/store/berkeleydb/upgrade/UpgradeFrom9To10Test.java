@@ -0,0 +1,120 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.store.berkeleydb.upgrade;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sleepycat.bind.tuple.LongBinding;
+import com.sleepycat.bind.tuple.TupleBinding;
+import com.sleepycat.bind.tuple.TupleInput;
+import com.sleepycat.je.Database;
+import com.sleepycat.je.DatabaseEntry;
+import com.sleepycat.je.Transaction;
+
+public class UpgradeFrom9To10Test extends AbstractUpgradeTestCase
+{
+    private static final String CONTENT_DB_NAME = "MESSAGE_CONTENT";
+    private static final long LARGE_MESSAGE_ID = Long.MAX_VALUE - 1;
+
+    @Override
+    protected String getStoreDirectoryName()
+    {
+        // message content is held in the same form by version 8 and version 9 stores
+        return "bdbstore-v8";
+    }
+
+    public void testPerformUpgrade() throws Exception
+    {
+        final byte[] largeContent = new byte[2 * UpgradeFrom9To10.CONTENT_CHUNK_SIZE + 100];
+        for (int i = 0; i < largeContent.length; i++)
+        {
+            largeContent[i] = (byte) i;
+        }
+        new DatabaseTemplate(_environment, CONTENT_DB_NAME, null).run(new DatabaseRunnable()
+        {
+            @Override
+            public void run(final Database sourceDatabase, final Database targetDatabase, final Transaction transaction)
+            {
+                DatabaseEntry key = new DatabaseEntry();
+                LongBinding.longToEntry(LARGE_MESSAGE_ID, key);
+                sourceDatabase.put(transaction, key, new DatabaseEntry(largeContent));
+            }
+        });
+
+        final Map<Long, byte[]> contentBefore = new HashMap<>();
+        new DatabaseTemplate(_environment, CONTENT_DB_NAME, null).run(new CursorOperation()
+        {
+            @Override
+            public void processEntry(final Database sourceDatabase, final Database targetDatabase,
+                                     final Transaction transaction, final DatabaseEntry key, final DatabaseEntry value)
+            {
+                assertEquals("Unexpected key size before upgrade", 8, key.getSize());
+                contentBefore.put(LongBinding.entryToLong(key),
+                                  Arrays.copyOfRange(value.getData(), value.getOffset(), value.getOffset() + value.getSize()));
+            }
+        });
+        assertTrue("Expected content for the stored messages", contentBefore.size() > 1);
+
+        UpgradeFrom9To10 upgrade = new UpgradeFrom9To10();
+        upgrade.performUpgrade(_environment, UpgradeInteractionHandler.DEFAULT_HANDLER, getVirtualHost());
+
+        final Map<Long, ByteArrayOutputStream> contentAfter = new HashMap<>();
+        final Map<Long, Integer> chunkCounts = new HashMap<>();
+        new DatabaseTemplate(_environment, CONTENT_DB_NAME, null).run(new CursorOperation()
+        {
+            @Override
+            public void processEntry(final Database sourceDatabase, final Database targetDatabase,
+                                     final Transaction transaction, final DatabaseEntry key, final DatabaseEntry value)
+            {
+                assertEquals("Unexpected key size after upgrade", 12, key.getSize());
+                TupleInput input = TupleBinding.entryToInput(key);
+                long messageId = input.readLong();
+                int chunkNumber = input.readInt();
+
+                Integer previousChunks = chunkCounts.get(messageId);
+                int expectedChunk = previousChunks == null ? 0 : previousChunks;
+                assertEquals("Unexpected chunk number for message " + messageId, expectedChunk, chunkNumber);
+                assertTrue("Chunk too large", value.getSize() <= UpgradeFrom9To10.CONTENT_CHUNK_SIZE);
+                chunkCounts.put(messageId, expectedChunk + 1);
+
+                ByteArrayOutputStream content = contentAfter.get(messageId);
+                if (content == null)
+                {
+                    content = new ByteArrayOutputStream();
+                    contentAfter.put(messageId, content);
+                }
+                content.write(value.getData(), value.getOffset(), value.getSize());
+            }
+        });
+
+        assertEquals("Unexpected messages after upgrade", contentBefore.keySet(), contentAfter.keySet());
+        for (Map.Entry<Long, byte[]> entry : contentBefore.entrySet())
+        {
+            assertTrue("Unexpected content for message " + entry.getKey(),
+                       Arrays.equals(entry.getValue(), contentAfter.get(entry.getKey()).toByteArray()));
+        }
+        assertEquals("Unexpected number of chunks for large message", 3, (int) chunkCounts.get(LARGE_MESSAGE_ID));
+    }
+}
@@ -136,6 +136,7 @@ public class UpgraderTest extends AbstractUpgradeTestCase
             public void processEntry(Database sourceDatabase, Database targetDatabase, Transaction transaction, DatabaseEntry key,
                     DatabaseEntry value)
             {
+                assertEquals("Content not stored in chunks", 12, key.getSize());
                 long id = LongBinding.entryToLong(key);
                 assertTrue("Unexpected id", id > 0);
                 QpidByteBuffer content = contentBinding.entryToObject(value);
@@ -0,0 +1,81 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.bytebuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures allocating and disposing of buffers with the pool configured as the broker configures it by default.
+ * As the pool can only be initialised once per JVM, each combination of parameters must run in its own fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QpidByteBufferBenchmark
+{
+    private static final int POOLED_BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_POOL_SIZE = 1024;
+    private static final int LARGE_POOL_SIZE = 256;
+
+    /** requested buffer size: smaller than, equal to and larger than the pooled buffer size */
+    @Param({"64", "262144", "1048576"})
+    public int size;
+
+    @Param({"1", "3"})
+    public int sizeClassCount;
+
+    @Setup
+    public void setUp()
+    {
+        QpidByteBuffer.initialisePool(POOLED_BUFFER_SIZE, MAX_POOL_SIZE, sizeClassCount, LARGE_POOL_SIZE);
+    }
+
+    @Benchmark
+    public QpidByteBuffer allocateDirect()
+    {
+        QpidByteBuffer buffer = QpidByteBuffer.allocateDirect(size);
+        buffer.dispose();
+        return buffer;
+    }
+
+    @Benchmark
+    public QpidByteBuffer allocateHeap()
+    {
+        QpidByteBuffer buffer = QpidByteBuffer.allocate(size);
+        buffer.dispose();
+        return buffer;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.framing;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+
+/**
+ * Measures decoding an encoded 0-8/0-9/0-9-1 field table, either in full or to look up a single property.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FieldTableBenchmark
+{
+    @Param({"4", "32"})
+    public int properties;
+
+    private byte[] _encoded;
+    private String _lastKey;
+
+    @Setup
+    public void setUp()
+    {
+        FieldTable table = new FieldTable();
+        for (int i = 0; i < properties; i++)
+        {
+            switch (i % 4)
+            {
+                case 0:
+                    table.setString("string" + i, "value" + i);
+                    break;
+                case 1:
+                    table.setInteger("int" + i, i);
+                    break;
+                case 2:
+                    table.setLong("long" + i, i * 1000L);
+                    break;
+                default:
+                    table.setBoolean("boolean" + i, i % 2 == 0);
+                    break;
+            }
+        }
+        _lastKey = "string" + ((properties - 1) / 4 * 4);
+        _encoded = table.getDataAsBytes();
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeAll()
+    {
+        QpidByteBuffer buffer = QpidByteBuffer.wrap(_encoded);
+        FieldTable table = new FieldTable(buffer);
+        try
+        {
+            return FieldTable.convertToMap(table);
+        }
+        finally
+        {
+            table.dispose();
+            buffer.dispose();
+        }
+    }
+
+    @Benchmark
+    public String getSingleProperty()
+    {
+        QpidByteBuffer buffer = QpidByteBuffer.wrap(_encoded);
+        FieldTable table = new FieldTable(buffer);
+        try
+        {
+            return table.getString(_lastKey);
+        }
+        finally
+        {
+            table.dispose();
+            buffer.dispose();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.exchange.topic;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures matching routing keys against the state machine built by the topic exchange from its binding keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TopicParserBenchmark
+{
+    private static final int ROUTING_KEY_COUNT = 64;
+
+    /** number of bindings; a third are exact, a third use '*' and a third use '#' */
+    @Param({"12", "300"})
+    public int bindings;
+
+    private TopicParser _parser;
+    private String[] _routingKeys;
+    private int _index;
+
+    @Setup
+    public void setUp()
+    {
+        _parser = new TopicParser();
+        for (int i = 0; i < bindings; i++)
+        {
+            final String bindingKey;
+            switch (i % 3)
+            {
+                case 0:
+                    bindingKey = "stock.nyse." + i;
+                    break;
+                case 1:
+                    bindingKey = "stock.*." + i;
+                    break;
+                default:
+                    bindingKey = "stock.#." + i + ".#";
+                    break;
+            }
+            _parser.addBinding(bindingKey, new TopicMatcherResult()
+            {
+            });
+        }
+
+        _routingKeys = new String[ROUTING_KEY_COUNT];
+        for (int i = 0; i < ROUTING_KEY_COUNT; i++)
+        {
+            _routingKeys[i] = (i % 2 == 0 ? "stock.nyse." : "stock.lse.ord.") + (i * 7 % bindings);
+        }
+    }
+
+    @Benchmark
+    public Collection<TopicMatcherResult> parse()
+    {
+        final String routingKey = _routingKeys[_index];
+        _index = (_index + 1) % ROUTING_KEY_COUNT;
+        return _parser.parse(routingKey);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0.codec;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoderImpl;
+import org.apache.qpid.server.protocol.v1_0.type.AmqpErrorException;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.ApplicationProperties;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Properties;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+
+/**
+ * Measures parsing an AMQP 1.0 transfer performative followed by the properties and application-properties
+ * sections of the message it carries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValueHandlerBenchmark
+{
+    /** number of entries in the application-properties section */
+    @Param({"0", "16"})
+    public int applicationProperties;
+
+    private ValueHandler _valueHandler;
+    private byte[] _encoded;
+
+    @Setup
+    public void setUp()
+    {
+        AMQPDescribedTypeRegistry registry = AMQPDescribedTypeRegistry.newInstance()
+                                                                      .registerTransportLayer()
+                                                                      .registerMessagingLayer()
+                                                                      .registerTransactionLayer()
+                                                                      .registerSecurityLayer();
+        _valueHandler = new ValueHandler(registry);
+
+        Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.valueOf(42));
+        transfer.setDeliveryTag(new Binary(new byte[]{0, 0, 0, 42}));
+        transfer.setMessageFormat(UnsignedInteger.ZERO);
+        transfer.setSettled(Boolean.FALSE);
+
+        Properties properties = new Properties();
+        properties.setMessageId("ID:" + getClass().getName());
+        properties.setTo("queue");
+        properties.setSubject("subject");
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < applicationProperties; i++)
+        {
+            values.put("property" + i, i % 2 == 0 ? "value" + i : (Object) i);
+        }
+
+        SectionEncoderImpl encoder = new SectionEncoderImpl(registry);
+        encoder.encodeObject(transfer);
+        encoder.encodeObject(properties);
+        encoder.encodeObject(new ApplicationProperties(values));
+        _encoded = encoder.getEncoding().getArray();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws AmqpErrorException
+    {
+        QpidByteBuffer buffer = QpidByteBuffer.wrap(_encoded);
+        try
+        {
+            while (buffer.hasRemaining())
+            {
+                blackhole.consume(_valueHandler.parse(buffer));
+            }
+        }
+        finally
+        {
+            buffer.dispose();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.qpid.server.consumer.ConsumerOption;
+import org.apache.qpid.server.consumer.TestConsumerTarget;
+import org.apache.qpid.server.message.MessageInstance;
+import org.apache.qpid.server.message.MessageInstanceConsumer;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.message.internal.InternalMessage;
+import org.apache.qpid.server.message.internal.InternalMessageHeader;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+/**
+ * Measures enqueuing messages on a standard queue and delivering them to a number of acquiring consumers, each of
+ * which acknowledges a message as soon as it is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueueDeliveryBenchmark
+{
+    @Param({"1", "4", "16"})
+    public int consumers;
+
+    /** number of messages enqueued before the consumers are asked to process their pending work */
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private QueueManagingVirtualHost<?> _virtualHost;
+    private Queue<?> _queue;
+    private AcknowledgingConsumerTarget[] _targets;
+    private ServerMessage<?> _message;
+    private MessageReference<?> _reference;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        _virtualHost = BrokerTestHelper.createVirtualHost(getClass().getSimpleName());
+        _queue = BrokerTestHelper.createQueue("queue", _virtualHost);
+
+        InternalMessageHeader header = new InternalMessageHeader(Collections.<String, Object>emptyMap(),
+                                                                 null, 0L, null, null, "id", null, null,
+                                                                 (byte) 4, 0L, 0L, null, null);
+        _message = InternalMessage.convert(1L, false, header, "body");
+        // hold a reference of our own so that the message outlives the entries which are deleted
+        _reference = _message.newReference();
+
+        _targets = new AcknowledgingConsumerTarget[consumers];
+        for (int i = 0; i < consumers; i++)
+        {
+            _targets[i] = new AcknowledgingConsumerTarget();
+            _queue.addConsumer(_targets[i], null, _message.getClass(), "consumer" + i,
+                               EnumSet.of(ConsumerOption.ACQUIRES, ConsumerOption.SEES_REQUEUES), 0);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        _reference.release();
+        _virtualHost.close();
+    }
+
+    @Benchmark
+    public int enqueueAndDeliver()
+    {
+        for (int i = 0; i < batchSize; i++)
+        {
+            _queue.enqueue(_message, null, null);
+        }
+
+        int delivered = 0;
+        boolean progressed;
+        do
+        {
+            progressed = false;
+            for (AcknowledgingConsumerTarget target : _targets)
+            {
+                if (target.processPending())
+                {
+                    progressed = true;
+                    delivered++;
+                }
+            }
+        }
+        while (progressed);
+        return delivered;
+    }
+
+    private static class AcknowledgingConsumerTarget extends TestConsumerTarget
+    {
+        @Override
+        public long send(final MessageInstanceConsumer consumer, final MessageInstance entry, final boolean batch)
+        {
+            long size = entry.getMessage().getSize();
+            entry.delete();
+            return size;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.message.internal.InternalMessage;
+import org.apache.qpid.server.message.internal.InternalMessageHeader;
+import org.apache.qpid.server.model.BrokerTestHelper;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+/**
+ * Measures adding entries to, and walking, the entry list backing a standard queue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueueEntryListBenchmark
+{
+    /** number of entries added (and then consumed) per invocation of {@link #addAndConsume()} */
+    @Param({"100"})
+    public int batchSize;
+
+    /** number of entries in the list walked by {@link #next()} */
+    @Param({"1000"})
+    public int queueDepth;
+
+    private QueueManagingVirtualHost<?> _virtualHost;
+    private StandardQueueEntryList _entries;
+    private StandardQueueEntryList _populatedEntries;
+    private ServerMessage<?> _message;
+    private MessageReference<?> _reference;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        _virtualHost = BrokerTestHelper.createVirtualHost(getClass().getSimpleName());
+        _entries = ((StandardQueueImpl) BrokerTestHelper.createQueue("entries", _virtualHost)).getEntries();
+        _populatedEntries =
+                ((StandardQueueImpl) BrokerTestHelper.createQueue("populatedEntries", _virtualHost)).getEntries();
+
+        InternalMessageHeader header = new InternalMessageHeader(Collections.<String, Object>emptyMap(),
+                                                                 null, 0L, null, null, "id", null, null,
+                                                                 (byte) 4, 0L, 0L, null, null);
+        _message = InternalMessage.convert(1L, false, header, "body");
+        // hold a reference of our own so that the message outlives the entries which are deleted
+        _reference = _message.newReference();
+
+        for (int i = 0; i < queueDepth; i++)
+        {
+            _populatedEntries.add(_message, null);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        _reference.release();
+        _virtualHost.close();
+    }
+
+    @Benchmark
+    public int addAndConsume()
+    {
+        for (int i = 0; i < batchSize; i++)
+        {
+            _entries.add(_message, null);
+        }
+
+        int consumed = 0;
+        QueueEntryIterator iterator = _entries.iterator();
+        while (iterator.advance())
+        {
+            QueueEntry entry = iterator.getNode();
+            if (entry.acquire())
+            {
+                entry.delete();
+                consumed++;
+            }
+        }
+        return consumed;
+    }
+
+    @Benchmark
+    public int next()
+    {
+        int count = 0;
+        QueueEntry entry = _populatedEntries.getHead();
+        while ((entry = _populatedEntries.next(entry)) != null)
+        {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.transport.codec;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.apache.qpid.transport.DeliveryProperties;
+import org.apache.qpid.transport.MessageDeliveryMode;
+import org.apache.qpid.transport.MessageDeliveryPriority;
+import org.apache.qpid.transport.MessageProperties;
+
+/**
+ * Measures decoding the header segment of a 0-10 message transfer, as done by the assembler for every message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BBDecoderBenchmark
+{
+    /** number of application headers carried in the message properties */
+    @Param({"0", "16"})
+    public int applicationHeaders;
+
+    private final BBDecoder _decoder = new BBDecoder();
+    private ByteBuffer _encoded;
+
+    @Setup
+    public void setUp()
+    {
+        DeliveryProperties deliveryProperties = new DeliveryProperties();
+        deliveryProperties.setRoutingKey("routing.key");
+        deliveryProperties.setExchange("amq.topic");
+        deliveryProperties.setPriority(MessageDeliveryPriority.MEDIUM);
+        deliveryProperties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        deliveryProperties.setTimestamp(System.currentTimeMillis());
+
+        Map<String, Object> headers = new HashMap<>();
+        for (int i = 0; i < applicationHeaders; i++)
+        {
+            headers.put("header" + i, i % 2 == 0 ? "value" + i : (Object) i);
+        }
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setMessageId(UUID.randomUUID());
+        messageProperties.setContentType("text/plain");
+        messageProperties.setContentLength(1024);
+        messageProperties.setApplicationHeaders(headers);
+
+        BBEncoder encoder = new BBEncoder(4096);
+        encoder.init();
+        encoder.writeStruct32(deliveryProperties);
+        encoder.writeStruct32(messageProperties);
+        _encoded = encoder.segment();
+    }
+
+    @Benchmark
+    public void decodeHeader(Blackhole blackhole)
+    {
+        _decoder.init(_encoded.duplicate());
+        while (_decoder.hasRemaining())
+        {
+            blackhole.consume(_decoder.readStruct32());
+        }
+        _decoder.releaseBuffer();
+    }
+}
@@ -26,6 +26,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,6 +39,7 @@ import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
@@ -169,6 +171,8 @@ public class ConfiguredObjectFactoryGenerator extends AbstractProcessor
 
             generateAccessCheckedMethods(childClassSimpleName, classElement, pw, new HashSet<TypeElement>(), new HashSet<String>());
 
+            generateManagedGetterAccessor(classElement, pw);
+
             pw.println("}");
 
             pw.close();
@@ -226,6 +230,97 @@ public class ConfiguredObjectFactoryGenerator extends AbstractProcessor
 
     }
 
+    private void generateManagedGetterAccessor(final TypeElement classElement, final PrintWriter pw)
+    {
+        Set<String> getterNames = new LinkedHashSet<>();
+        collectManagedGetters(processingEnv.getElementUtils().getPackageOf(classElement),
+                              classElement,
+                              new HashSet<TypeElement>(),
+                              getterNames);
+        if(!getterNames.isEmpty())
+        {
+            pw.println("    @Override");
+            pw.println("    protected Object getManagedGetterValue(final String getterName)");
+            pw.println("    {");
+            pw.println("        switch(getterName)");
+            pw.println("        {");
+            for(String getterName : getterNames)
+            {
+                pw.println("            case \"" + getterName + "\":");
+                pw.println("                return " + getterName + "();");
+            }
+            pw.println("            default:");
+            pw.println("                return super.getManagedGetterValue(getterName);");
+            pw.println("        }");
+            pw.println("    }");
+            pw.println();
+        }
+    }
+
+    /**
+     * Collects the names of the managed getters which the generated class, in the given package, is able to call.
+     * Non-public getters declared in other packages are left to be read by reflection.
+     */
+    private void collectManagedGetters(final PackageElement generatedPackage,
+                                       final TypeElement typeElement,
+                                       final HashSet<TypeElement> processedClasses,
+                                       final Set<String> getterNames)
+    {
+        if(processedClasses.add(typeElement))
+        {
+            Element superClassElement = processingEnv.getTypeUtils().asElement(typeElement.getSuperclass());
+            if(superClassElement instanceof TypeElement)
+            {
+                collectManagedGetters(generatedPackage, (TypeElement) superClassElement, processedClasses, getterNames);
+            }
+
+            for(TypeMirror ifMirror : typeElement.getInterfaces())
+            {
+                Element ifElement = processingEnv.getTypeUtils().asElement(ifMirror);
+                if(ifElement instanceof TypeElement)
+                {
+                    collectManagedGetters(generatedPackage, (TypeElement) ifElement, processedClasses, getterNames);
+                }
+            }
+
+            for(Element element : typeElement.getEnclosedElements())
+            {
+                if(element instanceof ExecutableElement
+                   && element.getKind() == ElementKind.METHOD
+                   && !element.getModifiers().contains(Modifier.PRIVATE)
+                   && !element.getModifiers().contains(Modifier.STATIC)
+                   && ((ExecutableElement) element).getParameters().isEmpty()
+                   && ((ExecutableElement) element).getReturnType().getKind() != TypeKind.VOID
+                   && isAccessibleFrom(generatedPackage, typeElement, element))
+                {
+                    for(AnnotationMirror annotationMirror : element.getAnnotationMirrors())
+                    {
+                        String annotationType = annotationMirror.getAnnotationType().toString();
+                        if(annotationType.equals("org.apache.qpid.server.model.ManagedAttribute")
+                           || annotationType.equals("org.apache.qpid.server.model.DerivedAttribute")
+                           || annotationType.equals("org.apache.qpid.server.model.ManagedStatistic"))
+                        {
+                            getterNames.add(element.getSimpleName().toString());
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isAccessibleFrom(final PackageElement generatedPackage,
+                                     final TypeElement typeElement,
+                                     final Element element)
+    {
+        return typeElement.getKind() == ElementKind.INTERFACE
+               || element.getModifiers().contains(Modifier.PUBLIC)
+               || processingEnv.getElementUtils()
+                                .getPackageOf(typeElement)
+                                .getQualifiedName()
+                                .contentEquals(generatedPackage.getQualifiedName());
+    }
+
     private void processManagedOperation(final PrintWriter pw, final String className, final ExecutableElement methodElement, final AnnotationMirror annotationMirror)
     {
 
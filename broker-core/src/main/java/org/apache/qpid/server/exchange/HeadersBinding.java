@@ -116,6 +116,27 @@ class HeadersBinding
         return _binding;
     }
 
+    boolean isMatchAny()
+    {
+        return matchAny;
+    }
+
+    /**
+     * @return the names of the headers which must be present, whatever their value
+     */
+    Set<String> getRequiredHeaders()
+    {
+        return Collections.unmodifiableSet(required);
+    }
+
+    /**
+     * @return the names of the headers which must be present with a particular value, and those values
+     */
+    Map<String,Object> getRequiredValues()
+    {
+        return Collections.unmodifiableMap(matches);
+    }
+
     /**
      * Checks whether the supplied headers match the requirements of this binding
      * @param headers the headers to check
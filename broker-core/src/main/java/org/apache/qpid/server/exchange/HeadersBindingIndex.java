@@ -0,0 +1,188 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.exchange;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.qpid.server.message.AMQMessageHeader;
+
+/**
+ * Indexes the bindings of a headers exchange on the headers, and header values, that a message must carry in order
+ * to match them, so that a message is only tested against those bindings it could possibly match.
+ *
+ * A binding with x-match=all is indexed under one of its required header values, or if it has none under one of its
+ * required header names.  A binding with x-match=any is indexed under every one of its required header values and
+ * names.  Bindings with no requirements at all are candidates for every message.  The candidates for a message are a
+ * superset of the bindings it matches; each candidate must still be tested with {@link HeadersBinding#matches}.
+ */
+final class HeadersBindingIndex
+{
+    private final Set<HeadersBinding> _unconditional = newSet();
+    private final ConcurrentMap<String, Set<HeadersBinding>> _byName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<Object, Set<HeadersBinding>>> _byValue = new ConcurrentHashMap<>();
+
+    synchronized void add(final HeadersBinding binding)
+    {
+        final Set<String> requiredHeaders = binding.getRequiredHeaders();
+        final Map<String, Object> requiredValues = binding.getRequiredValues();
+        if (requiredHeaders.isEmpty() && requiredValues.isEmpty())
+        {
+            _unconditional.add(binding);
+        }
+        else if (binding.isMatchAny())
+        {
+            for (String name : requiredHeaders)
+            {
+                getNameSet(name).add(binding);
+            }
+            for (Map.Entry<String, Object> entry : requiredValues.entrySet())
+            {
+                getValueSet(entry.getKey(), entry.getValue()).add(binding);
+            }
+        }
+        else if (!requiredValues.isEmpty())
+        {
+            final Map.Entry<String, Object> entry = requiredValues.entrySet().iterator().next();
+            getValueSet(entry.getKey(), entry.getValue()).add(binding);
+        }
+        else
+        {
+            getNameSet(requiredHeaders.iterator().next()).add(binding);
+        }
+    }
+
+    synchronized void remove(final HeadersBinding binding)
+    {
+        _unconditional.remove(binding);
+        for (String name : binding.getRequiredHeaders())
+        {
+            final Set<HeadersBinding> bindings = _byName.get(name);
+            if (bindings != null && bindings.remove(binding) && bindings.isEmpty())
+            {
+                _byName.remove(name);
+            }
+        }
+        for (Map.Entry<String, Object> entry : binding.getRequiredValues().entrySet())
+        {
+            final ConcurrentMap<Object, Set<HeadersBinding>> values = _byValue.get(entry.getKey());
+            if (values != null)
+            {
+                final Set<HeadersBinding> bindings = values.get(entry.getValue());
+                if (bindings != null && bindings.remove(binding) && bindings.isEmpty())
+                {
+                    values.remove(entry.getValue());
+                    if (values.isEmpty())
+                    {
+                        _byValue.remove(entry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    Collection<HeadersBinding> getCandidates(final AMQMessageHeader headers)
+    {
+        final Collection<String> headerNames = headers == null ? null : headers.getHeaderNames();
+        if (headerNames == null || headerNames.isEmpty() || (_byName.isEmpty() && _byValue.isEmpty()))
+        {
+            return _unconditional.isEmpty()
+                    ? Collections.<HeadersBinding>emptyList()
+                    : new ArrayList<>(_unconditional);
+        }
+
+        final List<HeadersBinding> candidates = new ArrayList<>(_unconditional);
+        final Set<HeadersBinding> found = new HashSet<>();
+        for (String name : headerNames)
+        {
+            final Set<HeadersBinding> byName = _byName.get(name);
+            if (byName != null)
+            {
+                addCandidates(candidates, found, byName);
+            }
+            final ConcurrentMap<Object, Set<HeadersBinding>> values = _byValue.get(name);
+            if (values != null)
+            {
+                final Object value = headers.getHeader(name);
+                final Set<HeadersBinding> byValue = value == null ? null : values.get(value);
+                if (byValue != null)
+                {
+                    addCandidates(candidates, found, byValue);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static void addCandidates(final List<HeadersBinding> candidates,
+                                      final Set<HeadersBinding> found,
+                                      final Set<HeadersBinding> bindings)
+    {
+        for (HeadersBinding binding : bindings)
+        {
+            // bindings with x-match=any may be indexed under several of the message's headers
+            if (!binding.isMatchAny() || found.add(binding))
+            {
+                candidates.add(binding);
+            }
+        }
+    }
+
+    private Set<HeadersBinding> getNameSet(final String name)
+    {
+        Set<HeadersBinding> bindings = _byName.get(name);
+        if (bindings == null)
+        {
+            bindings = newSet();
+            _byName.put(name, bindings);
+        }
+        return bindings;
+    }
+
+    private Set<HeadersBinding> getValueSet(final String name, final Object value)
+    {
+        ConcurrentMap<Object, Set<HeadersBinding>> values = _byValue.get(name);
+        if (values == null)
+        {
+            values = new ConcurrentHashMap<>();
+            _byValue.put(name, values);
+        }
+        Set<HeadersBinding> bindings = values.get(value);
+        if (bindings == null)
+        {
+            bindings = newSet();
+            values.put(value, bindings);
+        }
+        return bindings;
+    }
+
+    private static Set<HeadersBinding> newSet()
+    {
+        return Collections.newSetFromMap(new ConcurrentHashMap<HeadersBinding, Boolean>());
+    }
+}
@@ -22,11 +22,9 @@ package org.apache.qpid.server.exchange;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.slf4j.Logger;
@@ -78,8 +76,9 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
     private final ConcurrentMap<String, CopyOnWriteArraySet<Binding<?>>> _bindingsByKey =
                             new ConcurrentHashMap<>();
 
-    private final CopyOnWriteArrayList<HeadersBinding> _bindingHeaderMatchers =
-                            new CopyOnWriteArrayList<HeadersBinding>();
+    private final ConcurrentMap<Binding<?>, HeadersBinding> _bindingHeaderMatchers = new ConcurrentHashMap<>();
+
+    private final HeadersBindingIndex _bindingIndex = new HeadersBindingIndex();
 
     @ManagedObjectFactoryConstructor
     public HeadersExchangeImpl(final Map<String, Object> attributes, final QueueManagingVirtualHost<?> vhost)
@@ -96,9 +95,10 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
 
         LinkedHashSet<BaseQueue> queues = new LinkedHashSet<BaseQueue>();
 
-        for (HeadersBinding hb : _bindingHeaderMatchers)
+        final Filterable filterable = Filterable.Factory.newInstance(payload, instanceProperties);
+        for (HeadersBinding hb : _bindingIndex.getCandidates(payload.getMessageHeader()))
         {
-            if (hb.matches(Filterable.Factory.newInstance(payload,instanceProperties)))
+            if (hb.matches(filterable))
             {
                 Binding<?> b = hb.getBinding();
 
@@ -143,7 +143,16 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
                           " with binding key '" +bindingKey + "' and args: " + binding.getArguments());
         }
 
-        _bindingHeaderMatchers.add(new HeadersBinding(binding));
+        HeadersBinding headersBinding = new HeadersBinding(binding);
+        synchronized (_bindingIndex)
+        {
+            HeadersBinding oldHeadersBinding = _bindingHeaderMatchers.put(binding, headersBinding);
+            if(oldHeadersBinding != null)
+            {
+                _bindingIndex.remove(oldHeadersBinding);
+            }
+            _bindingIndex.add(headersBinding);
+        }
         bindings.add(binding);
 
     }
@@ -152,12 +161,14 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
     protected void onBindingUpdated(final Binding<?> binding, final Map<String, Object> oldArguments)
     {
         HeadersBinding headersBinding = new HeadersBinding(binding);
-        ListIterator<HeadersBinding> iter = _bindingHeaderMatchers.listIterator();
-        while(iter.hasNext())
+        synchronized (_bindingIndex)
         {
-            if(iter.next().equals(headersBinding))
+            HeadersBinding oldHeadersBinding = _bindingHeaderMatchers.get(binding);
+            if(oldHeadersBinding != null)
             {
-                iter.set(headersBinding);
+                _bindingIndex.remove(oldHeadersBinding);
+                _bindingIndex.add(headersBinding);
+                _bindingHeaderMatchers.put(binding, headersBinding);
             }
         }
 
@@ -173,8 +184,16 @@ public class HeadersExchangeImpl extends AbstractExchange<HeadersExchangeImpl> i
             bindings.remove(binding);
         }
 
-        boolean removedBinding = _bindingHeaderMatchers.remove(new HeadersBinding(binding));
-        _logger.debug("Removing Binding: {}", removedBinding);
+        final HeadersBinding headersBinding;
+        synchronized (_bindingIndex)
+        {
+            headersBinding = _bindingHeaderMatchers.remove(binding);
+            if(headersBinding != null)
+            {
+                _bindingIndex.remove(headersBinding);
+            }
+        }
+        _logger.debug("Removing Binding: {}", headersBinding != null);
 
     }
 
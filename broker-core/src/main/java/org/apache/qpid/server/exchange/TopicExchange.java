@@ -22,10 +22,18 @@ package org.apache.qpid.server.exchange;
 
 import org.apache.qpid.exchange.ExchangeDefaults;
 import org.apache.qpid.server.model.Exchange;
+import org.apache.qpid.server.model.ManagedContextDefault;
 import org.apache.qpid.server.model.ManagedObject;
 
 @ManagedObject( category = false, type = ExchangeDefaults.TOPIC_EXCHANGE_CLASS,
         amqpName = "org.apache.qpid.TopicExchange" )
 public interface TopicExchange<X extends TopicExchange<X>> extends Exchange<X>
 {
+    String TOPIC_EXCHANGE_ROUTING_CACHE_SIZE = "exchange.topic.routingCacheSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = TOPIC_EXCHANGE_ROUTING_CACHE_SIZE,
+            description = "The maximum number of routing keys for which a topic exchange caches the result of matching "
+                          + "the key against its bindings.  The cache is discarded whenever a binding changes.  Zero "
+                          + "disables the cache.")
+    int DEFAULT_TOPIC_EXCHANGE_ROUTING_CACHE_SIZE = 1024;
 }
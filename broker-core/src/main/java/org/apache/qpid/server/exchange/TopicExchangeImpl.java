@@ -25,8 +25,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,12 +61,22 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
 
     private final Map<Binding<?>, Map<String,Object>> _bindings = new HashMap<>();
 
+    private volatile ConcurrentMap<String, CachedRoute> _routingCache = new ConcurrentHashMap<>();
+    private volatile int _routingCacheSize;
+
     @ManagedObjectFactoryConstructor
     public TopicExchangeImpl(final Map<String,Object> attributes, final QueueManagingVirtualHost<?> vhost)
     {
         super(attributes, vhost);
     }
 
+    @Override
+    protected void onOpen()
+    {
+        super.onOpen();
+        _routingCacheSize = getContextValue(Integer.class, TOPIC_EXCHANGE_ROUTING_CACHE_SIZE);
+    }
+
     @Override
     protected synchronized void onBindingUpdated(final Binding<?> binding, final Map<String, Object> oldArguments)
     {
@@ -122,7 +135,10 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
         {
             throw new ConnectionScopedRuntimeException(e);
         }
-
+        finally
+        {
+            invalidateRoutingCache();
+        }
 
     }
 
@@ -285,8 +301,34 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
 
     private Collection<Queue<?>> getMatchedQueues(Filterable message, String routingKey)
     {
+        final Collection<TopicMatcherResult> results;
+        final int routingCacheSize = _routingCacheSize;
+        if(routingCacheSize > 0)
+        {
+            final ConcurrentMap<String, CachedRoute> routingCache = _routingCache;
+            CachedRoute route = routingCache.get(routingKey);
+            if(route == null)
+            {
+                route = new CachedRoute(_parser.parse(routingKey));
+                if(routingCache.size() >= routingCacheSize)
+                {
+                    routingCache.clear();
+                }
+                routingCache.put(routingKey, route);
+            }
+
+            if(route.getQueues() != null)
+            {
+                route.incrementMatches();
+                return route.getQueues();
+            }
+            results = route.getResults();
+        }
+        else
+        {
+            results = _parser.parse(routingKey);
+        }
 
-        Collection<TopicMatcherResult> results = _parser.parse(routingKey);
         switch(results.size())
         {
             case 0:
@@ -301,10 +343,7 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
                 {
                     TopicExchangeResult res = (TopicExchangeResult)result;
 
-                    for(Binding<?> b : res.getBindings())
-                    {
-                        b.incrementMatches();
-                    }
+                    res.incrementMatches();
 
                     queues = res.processMessage(message, queues);
                 }
@@ -314,6 +353,16 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
 
     }
 
+    /**
+     * Discards the cached routes.  Must be called after, never before, the bindings have been changed: a publisher
+     * which read the old cache may still add a route computed from the old bindings to it, but the replacement cache
+     * only ever sees routes computed after the change.
+     */
+    private void invalidateRoutingCache()
+    {
+        _routingCache = new ConcurrentHashMap<>();
+    }
+
     protected void onBind(final Binding<?> binding)
     {
         try
@@ -325,11 +374,67 @@ class TopicExchangeImpl extends AbstractExchange<TopicExchangeImpl> implements T
             // TODO - this seems incorrect, handling of invalid bindings should be propagated more cleanly
             throw new ConnectionScopedRuntimeException(e);
         }
+        finally
+        {
+            invalidateRoutingCache();
+        }
     }
 
     protected void onUnbind(final Binding<?> binding)
     {
         deregisterQueue(binding);
+        invalidateRoutingCache();
+    }
+
+    /**
+     * The bindings matched by a routing key.  Where several bindings match and none of them have filters, the union
+     * of their queues is computed once rather than on every publish.
+     */
+    private static final class CachedRoute
+    {
+        private final Collection<TopicMatcherResult> _results;
+        private final TopicExchangeResult[] _exchangeResults;
+        private final ArrayList<Queue<?>> _queues;
+
+        private CachedRoute(final Collection<TopicMatcherResult> results)
+        {
+            _results = results;
+            _exchangeResults = results.toArray(new TopicExchangeResult[results.size()]);
+            _queues = results.size() > 1 ? getUnfilteredQueues(results) : null;
+        }
+
+        private static ArrayList<Queue<?>> getUnfilteredQueues(final Collection<TopicMatcherResult> results)
+        {
+            final Set<Queue<?>> queues = new LinkedHashSet<>();
+            for(TopicMatcherResult result : results)
+            {
+                final TopicExchangeResult exchangeResult = (TopicExchangeResult) result;
+                if(exchangeResult.hasFilteredQueues())
+                {
+                    return null;
+                }
+                queues.addAll(exchangeResult.getUnfilteredQueueList());
+            }
+            return new ArrayList<>(queues);
+        }
+
+        void incrementMatches()
+        {
+            for(TopicExchangeResult result : _exchangeResults)
+            {
+                result.incrementMatches();
+            }
+        }
+
+        Collection<TopicMatcherResult> getResults()
+        {
+            return _results;
+        }
+
+        ArrayList<Queue<?>> getQueues()
+        {
+            return _queues;
+        }
     }
 
 }
@@ -96,6 +96,24 @@ public final class TopicExchangeResult implements TopicMatcherResult
         return new ArrayList<>(_bindings);
     }
 
+    public void incrementMatches()
+    {
+        for(Binding<?> binding : _bindings)
+        {
+            binding.incrementMatches();
+        }
+    }
+
+    public boolean hasFilteredQueues()
+    {
+        return !_filteredQueues.isEmpty();
+    }
+
+    public List<Queue<?>> getUnfilteredQueueList()
+    {
+        return _unfilteredQueueList;
+    }
+
     public void addFilteredQueue(Queue<?> queue, FilterManager filter)
     {
         Map<FilterManager,Integer> filters = _filteredQueues.get(queue);
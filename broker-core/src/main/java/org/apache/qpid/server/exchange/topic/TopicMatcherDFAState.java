@@ -20,9 +20,6 @@
  */
 package org.apache.qpid.server.exchange.topic;
 
-import java.util.Arrays;
-import java.util.Iterator;
-
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -44,7 +41,7 @@ public class TopicMatcherDFAState
 
     private final Collection<TopicMatcherResult> _results;
     private final Map<TopicWord, TopicMatcherDFAState> _nextStateMap;
-    private static final String TOPIC_DELIMITER = "\\.";
+    private static final char TOPIC_DELIMITER = '.';
 
 
     public TopicMatcherDFAState(Map<TopicWord, TopicMatcherDFAState> nextStateMap,
@@ -69,34 +66,49 @@ public class TopicMatcherDFAState
 
     public Collection<TopicMatcherResult> parse(TopicWordDictionary dictionary, String routingKey)
     {
-        return parse(dictionary, Arrays.asList(routingKey.split(TOPIC_DELIMITER)).iterator());
-    }
-
-    private Collection<TopicMatcherResult> parse(final TopicWordDictionary dictionary,
-                                                 final Iterator<String> tokens)
-    {
-        if(!tokens.hasNext())
-        {
-            return _results;
-        }
-        TopicWord word = dictionary.getWord(tokens.next());
-        TopicMatcherDFAState nextState = _nextStateMap.get(word);
-        if(nextState == null && word != TopicWord.ANY_WORD)
-        {
-            nextState = _nextStateMap.get(TopicWord.ANY_WORD);
-        }
-        if(nextState == null)
+        // Scan the words of the routing key in place, giving the same words as routingKey.split("\\.") - in
+        // particular trailing empty words are ignored, but an empty routing key is a single empty word
+        int end = routingKey.length();
+        while(end > 0 && routingKey.charAt(end - 1) == TOPIC_DELIMITER)
         {
-            return Collections.EMPTY_LIST;
+            end--;
         }
-        // Shortcut if we are at a looping terminal state
-        if((nextState == this) && (_nextStateMap.size() == 1) && _nextStateMap.containsKey(TopicWord.ANY_WORD))
+        if(end == 0 && routingKey.length() != 0)
         {
             return _results;
         }
 
-        return nextState.parse(dictionary, tokens);
-
+        TopicMatcherDFAState state = this;
+        int start = 0;
+        while(true)
+        {
+            int wordEnd = routingKey.indexOf(TOPIC_DELIMITER, start);
+            if(wordEnd == -1 || wordEnd > end)
+            {
+                wordEnd = end;
+            }
+            TopicWord word = dictionary.getWord(routingKey, start, wordEnd);
+            TopicMatcherDFAState nextState = state._nextStateMap.get(word);
+            if(nextState == null && word != TopicWord.ANY_WORD)
+            {
+                nextState = state._nextStateMap.get(TopicWord.ANY_WORD);
+            }
+            if(nextState == null)
+            {
+                return Collections.EMPTY_LIST;
+            }
+            // Shortcut if we are at a looping terminal state
+            if((nextState == state) && (state._nextStateMap.size() == 1) && state._nextStateMap.containsKey(TopicWord.ANY_WORD))
+            {
+                return state._results;
+            }
+            state = nextState;
+            if(wordEnd == end)
+            {
+                return state._results;
+            }
+            start = wordEnd + 1;
+        }
     }
 
 
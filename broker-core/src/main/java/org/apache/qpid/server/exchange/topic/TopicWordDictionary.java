@@ -25,21 +25,40 @@ import java.util.concurrent.ConcurrentMap;
 
 public class TopicWordDictionary
 {
+    private static final int INITIAL_TABLE_SIZE = 16;
+
     private final ConcurrentMap<String,TopicWord> _dictionary =
             new ConcurrentHashMap<String,TopicWord>();
 
+    /**
+     * An open addressing hash table over the same words as the dictionary, allowing a word of a routing key to be
+     * looked up without first extracting it into a string.  Slots are only ever filled in place, or the whole table
+     * replaced, by a thread holding the lock on the dictionary; readers observe new words once the state machine
+     * which refers to them has been published.
+     */
+    private volatile TopicWord[] _table = new TopicWord[INITIAL_TABLE_SIZE];
+    private int _tableEntries;
+
     public TopicWordDictionary()
     {
-        _dictionary.put("*", TopicWord.ANY_WORD);
-        _dictionary.put("#", TopicWord.WILDCARD_WORD);
+        addWord(TopicWord.ANY_WORD);
+        addWord(TopicWord.WILDCARD_WORD);
     }
 
     public TopicWord getOrCreateWord(String name)
     {
-        TopicWord word = _dictionary.putIfAbsent(name, new TopicWord(name));
+        TopicWord word = _dictionary.get(name);
         if(word == null)
         {
-            word = _dictionary.get(name);
+            synchronized (this)
+            {
+                word = _dictionary.get(name);
+                if(word == null)
+                {
+                    word = new TopicWord(name);
+                    addWord(word);
+                }
+            }
         }
         return word;
     }
@@ -54,4 +73,80 @@ public class TopicWordDictionary
         }
         return word;
     }
+
+    /**
+     * Returns the word formed by the characters of the given string from start (inclusive) to end (exclusive), or
+     * {@link TopicWord#ANY_WORD} if there is no such word in the dictionary.
+     */
+    public TopicWord getWord(String routingKey, int start, int end)
+    {
+        final TopicWord[] table = _table;
+        final int length = end - start;
+        final int mask = table.length - 1;
+        int index = spread(hash(routingKey, start, end)) & mask;
+        TopicWord word;
+        while((word = table[index]) != null)
+        {
+            final String name = word.toString();
+            if(name.length() == length && routingKey.regionMatches(start, name, 0, length))
+            {
+                return word;
+            }
+            index = (index + 1) & mask;
+        }
+        return TopicWord.ANY_WORD;
+    }
+
+    private synchronized void addWord(final TopicWord word)
+    {
+        final String name = word.toString();
+        TopicWord[] table = _table;
+        if(2 * (_tableEntries + 1) > table.length)
+        {
+            final TopicWord[] newTable = new TopicWord[table.length * 2];
+            for(TopicWord existing : table)
+            {
+                if(existing != null)
+                {
+                    insert(newTable, existing);
+                }
+            }
+            insert(newTable, word);
+            _table = newTable;
+        }
+        else
+        {
+            insert(table, word);
+        }
+        _tableEntries++;
+        _dictionary.put(name, word);
+    }
+
+    private static void insert(final TopicWord[] table, final TopicWord word)
+    {
+        final String name = word.toString();
+        final int mask = table.length - 1;
+        int index = spread(name.hashCode()) & mask;
+        while(table[index] != null)
+        {
+            index = (index + 1) & mask;
+        }
+        table[index] = word;
+    }
+
+    private static int hash(final String value, final int start, final int end)
+    {
+        // the same function as String.hashCode(), so that words can be located from either form
+        int hash = 0;
+        for(int i = start; i < end; i++)
+        {
+            hash = 31 * hash + value.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int spread(final int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
 }
@@ -72,6 +72,22 @@ public class FilterManager
         return !_filters.isEmpty();
     }
 
+    public String getRequiredPropertyValue(final String propertyName)
+    {
+        for (MessageFilter filter : _filters.values())
+        {
+            if (filter instanceof JMSSelectorFilter)
+            {
+                String value = ((JMSSelectorFilter) filter).getRequiredPropertyValue(propertyName);
+                if (value != null)
+                {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
     public boolean hasFilter(final String name)
     {
         return _filters.containsKey(name);
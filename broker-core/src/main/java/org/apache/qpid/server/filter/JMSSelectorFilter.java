@@ -25,8 +25,13 @@ import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.common.AMQPFilterTypes;
 import org.apache.qpid.filter.BooleanExpression;
+import org.apache.qpid.filter.ComparisonExpression;
+import org.apache.qpid.filter.ConstantExpression;
+import org.apache.qpid.filter.Expression;
 import org.apache.qpid.filter.FilterableMessage;
 import org.apache.qpid.filter.JMSMessagePropertyExpression;
+import org.apache.qpid.filter.LogicExpression;
+import org.apache.qpid.filter.SelectorCompiler;
 import org.apache.qpid.filter.SelectorParsingException;
 import org.apache.qpid.filter.selector.ParseException;
 import org.apache.qpid.filter.selector.SelectorParser;
@@ -39,15 +44,33 @@ public class JMSSelectorFilter implements MessageFilter
 {
     private final static Logger _logger = LoggerFactory.getLogger(JMSSelectorFilter.class);
 
+    private static volatile boolean _compileSelectors;
+
     private String _selector;
+    private BooleanExpression _expression;
     private BooleanExpression _matcher;
 
     public JMSSelectorFilter(String selector) throws ParseException, TokenMgrError, SelectorParsingException
+    {
+        this(selector, _compileSelectors);
+    }
+
+    JMSSelectorFilter(String selector, boolean compile) throws ParseException, TokenMgrError, SelectorParsingException
     {
         _selector = selector;
         SelectorParser<FilterableMessage> selectorParser = new SelectorParser<>();
         selectorParser.setPropertyExpressionFactory(JMSMessagePropertyExpression.FACTORY);
-        _matcher = selectorParser.parse(selector);
+        _expression = selectorParser.parse(selector);
+        _matcher = compile ? SelectorCompiler.compile(_expression) : _expression;
+    }
+
+    /**
+     * Sets whether selectors created from now on are compiled into specialised expressions (see
+     * {@link SelectorCompiler}) rather than being evaluated by interpreting the parsed expression tree.
+     */
+    public static void setCompileSelectors(final boolean compileSelectors)
+    {
+        _compileSelectors = compileSelectors;
     }
 
     @Override
@@ -78,6 +101,51 @@ public class JMSSelectorFilter implements MessageFilter
         return _selector;
     }
 
+    /**
+     * Returns the string value which the given application property must have for a message to match this selector,
+     * or null if the selector places no such constraint on the property.  Only equality comparisons which are
+     * reachable from the root of the selector through AND expressions are considered.
+     *
+     * @param propertyName the application property name
+     * @return the required value, or null
+     */
+    public String getRequiredPropertyValue(String propertyName)
+    {
+        return getRequiredPropertyValue(_expression, propertyName);
+    }
+
+    private static String getRequiredPropertyValue(Expression<?> expression, String propertyName)
+    {
+        if (expression instanceof LogicExpression
+            && "AND".equals(((LogicExpression<?>) expression).getExpressionSymbol()))
+        {
+            LogicExpression<?> and = (LogicExpression<?>) expression;
+            String value = getRequiredPropertyValue(and.getLeft(), propertyName);
+            return value != null ? value : getRequiredPropertyValue(and.getRight(), propertyName);
+        }
+        else if (expression instanceof ComparisonExpression
+                 && "=".equals(((ComparisonExpression<?>) expression).getExpressionSymbol()))
+        {
+            ComparisonExpression<?> equal = (ComparisonExpression<?>) expression;
+            String value = getStringConstant(equal.getLeft(), equal.getRight(), propertyName);
+            return value != null ? value : getStringConstant(equal.getRight(), equal.getLeft(), propertyName);
+        }
+        return null;
+    }
+
+    private static String getStringConstant(Expression<?> property, Expression<?> constant, String propertyName)
+    {
+        if (property instanceof JMSMessagePropertyExpression
+            && ((JMSMessagePropertyExpression) property).isApplicationProperty()
+            && propertyName.equals(((JMSMessagePropertyExpression) property).getName())
+            && constant instanceof ConstantExpression
+            && ((ConstantExpression<?>) constant).getValue() instanceof String)
+        {
+            return (String) ((ConstantExpression<?>) constant).getValue();
+        }
+        return null;
+    }
+
     @Override
     public boolean equals(final Object o)
     {
@@ -29,6 +29,7 @@ import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.model.NamedAddressSpace;
 import org.apache.qpid.server.store.StorableMessageMetaData;
 import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.server.store.TransactionLogResource;
@@ -42,6 +43,10 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
 
     private static final AtomicReferenceFieldUpdater<AbstractServerMessageImpl, Collection> _resourcesUpdater =
             AtomicReferenceFieldUpdater.newUpdater(AbstractServerMessageImpl.class, Collection.class,"_resources");
+
+    private static final AtomicReferenceFieldUpdater<AbstractServerMessageImpl, Conversion[]> _conversionsUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(AbstractServerMessageImpl.class, Conversion[].class, "_conversions");
+
     private final long _size;
 
 
@@ -49,6 +54,7 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
     private final StoredMessage<T> _handle;
     private final Object _connectionReference;
     private volatile Collection<UUID> _resources;
+    private volatile Conversion[] _conversions;
 
 
     public AbstractServerMessageImpl(StoredMessage<T> handle, Object connectionReference, final long size)
@@ -116,6 +122,7 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
                     {
                         _handle.remove();
                     }
+                    clearConversions();
                 }
             }
             else
@@ -127,6 +134,125 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
         while (!updated);
     }
 
+    /**
+     * Returns the conversion of this message to the given class previously cached by
+     * {@link #cacheConversion(Class, NamedAddressSpace, ServerMessage)}, or null if there is none.
+     */
+    public final <N extends ServerMessage> N getCachedConversion(Class<N> clazz, NamedAddressSpace addressSpace)
+    {
+        Conversion[] conversions = _conversions;
+        if(conversions != null)
+        {
+            for(Conversion conversion : conversions)
+            {
+                if(conversion.matches(clazz, addressSpace))
+                {
+                    return clazz.cast(conversion.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Offers a conversion of this message to be shared with subsequent deliveries of this message.  The conversion is
+     * only retained while the message is referenced, and until evicted by the {@link MessageConversionCache} of the
+     * address space to make room for newer conversions.
+     *
+     * @return the conversion which should be used, which may have been cached concurrently by another thread
+     */
+    public final <N extends ServerMessage> N cacheConversion(Class<N> clazz,
+                                                             NamedAddressSpace addressSpace,
+                                                             N convertedMessage)
+    {
+        final MessageConversionCache cache = addressSpace.getMessageConversionCache();
+        if(cache == null || _refCountUpdater.get(this) <= 0)
+        {
+            return convertedMessage;
+        }
+
+        final Conversion conversion =
+                new Conversion(this, cache, clazz, addressSpace, convertedMessage, convertedMessage.getSize());
+        if(!cache.add(conversion))
+        {
+            return convertedMessage;
+        }
+
+        Conversion[] currentValue;
+        Conversion[] newValue;
+        do
+        {
+            currentValue = _conversions;
+            if(currentValue == null)
+            {
+                newValue = new Conversion[] { conversion };
+            }
+            else
+            {
+                for(Conversion existing : currentValue)
+                {
+                    if(existing.matches(clazz, addressSpace))
+                    {
+                        cache.remove(conversion);
+                        return clazz.cast(existing.getMessage());
+                    }
+                }
+                newValue = Arrays.copyOf(currentValue, currentValue.length + 1);
+                newValue[currentValue.length] = conversion;
+            }
+        }
+        while(!_conversionsUpdater.compareAndSet(this, currentValue, newValue));
+
+        // the message may have been deleted, or the conversion evicted, while the conversion was being added
+        if(_refCountUpdater.get(this) < 0)
+        {
+            clearConversions();
+        }
+        else if(!cache.contains(conversion))
+        {
+            evictConversion(conversion);
+        }
+        return convertedMessage;
+    }
+
+    private void evictConversion(final Conversion conversion)
+    {
+        Conversion[] currentValue;
+        Conversion[] newValue;
+        do
+        {
+            currentValue = _conversions;
+            int index = currentValue == null ? -1 : Arrays.asList(currentValue).indexOf(conversion);
+            if(index < 0)
+            {
+                return;
+            }
+            else if(currentValue.length == 1)
+            {
+                newValue = null;
+            }
+            else
+            {
+                newValue = new Conversion[currentValue.length - 1];
+                System.arraycopy(currentValue, 0, newValue, 0, index);
+                System.arraycopy(currentValue, index + 1, newValue, index, newValue.length - index);
+            }
+        }
+        while(!_conversionsUpdater.compareAndSet(this, currentValue, newValue));
+    }
+
+    private void clearConversions()
+    {
+        Conversion[] conversions = _conversionsUpdater.getAndSet(this, null);
+        if(conversions != null)
+        {
+            for(Conversion conversion : conversions)
+            {
+                conversion.getCache().remove(conversion);
+            }
+        }
+    }
+
     public String debugIdentity()
     {
         return "(HC:" + System.identityHashCode(this) + " ID:" + getMessageNumber() + " Ref:" + getReferenceCount() + ")";
@@ -203,6 +329,57 @@ public abstract class AbstractServerMessageImpl<X extends AbstractServerMessageI
         return "Message[" + debugIdentity() + "]";
     }
 
+    static final class Conversion
+    {
+        private final AbstractServerMessageImpl<?, ?> _source;
+        private final MessageConversionCache _cache;
+        private final Class<? extends ServerMessage> _class;
+        private final NamedAddressSpace _addressSpace;
+        private final ServerMessage _message;
+        private final long _size;
+
+        private Conversion(final AbstractServerMessageImpl<?, ?> source,
+                           final MessageConversionCache cache,
+                           final Class<? extends ServerMessage> clazz,
+                           final NamedAddressSpace addressSpace,
+                           final ServerMessage message,
+                           final long size)
+        {
+            _source = source;
+            _cache = cache;
+            _class = clazz;
+            _addressSpace = addressSpace;
+            _message = message;
+            _size = size;
+        }
+
+        private boolean matches(final Class<? extends ServerMessage> clazz, final NamedAddressSpace addressSpace)
+        {
+            // conversions may resolve addresses against the address space, so are only shared within it
+            return _class == clazz && _addressSpace == addressSpace;
+        }
+
+        private ServerMessage getMessage()
+        {
+            return _message;
+        }
+
+        long getSize()
+        {
+            return _size;
+        }
+
+        private MessageConversionCache getCache()
+        {
+            return _cache;
+        }
+
+        void evict()
+        {
+            _source.evictConversion(this);
+        }
+    }
+
     private static class Reference<X extends AbstractServerMessageImpl<X,T>, T extends StorableMessageMetaData>
             implements MessageReference<X>
     {
@@ -0,0 +1,94 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.message;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Limits the total size of the message conversions cached by the messages of a broker.  When a new conversion would
+ * exceed the limit, the conversions cached the longest ago are evicted from their messages to make room for it, so
+ * that conversions held by messages which remain on queues cannot prevent the caching of conversions of newer
+ * messages.
+ */
+public class MessageConversionCache
+{
+    private final long _maxSize;
+    private final Set<AbstractServerMessageImpl.Conversion> _conversions = new LinkedHashSet<>();
+    private long _size;
+
+    public MessageConversionCache(final long maxSize)
+    {
+        _maxSize = maxSize;
+    }
+
+    public long getMaxSize()
+    {
+        return _maxSize;
+    }
+
+    public synchronized long getSize()
+    {
+        return _size;
+    }
+
+    /**
+     * Accounts for a conversion cached by its message, evicting the oldest conversions if necessary.
+     *
+     * @return false if the conversion is larger than the cache, in which case it should not be cached
+     */
+    synchronized boolean add(final AbstractServerMessageImpl.Conversion conversion)
+    {
+        final long size = conversion.getSize();
+        if (size > _maxSize)
+        {
+            return false;
+        }
+        Iterator<AbstractServerMessageImpl.Conversion> iterator = _conversions.iterator();
+        while (_size + size > _maxSize)
+        {
+            AbstractServerMessageImpl.Conversion eldest = iterator.next();
+            iterator.remove();
+            _size -= eldest.getSize();
+            eldest.evict();
+        }
+        _conversions.add(conversion);
+        _size += size;
+        return true;
+    }
+
+    synchronized boolean contains(final AbstractServerMessageImpl.Conversion conversion)
+    {
+        return _conversions.contains(conversion);
+    }
+
+    /**
+     * Releases the size accounted for a conversion no longer cached by its message, unless it has been evicted.
+     */
+    synchronized void remove(final AbstractServerMessageImpl.Conversion conversion)
+    {
+        if (_conversions.remove(conversion))
+        {
+            _size -= conversion.getSize();
+        }
+    }
+}
@@ -100,6 +100,8 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
 
     public static final String SECURED_STRING_VALUE = "********";
 
+    static final Object UNKNOWN_GETTER = new Object();
+
     static
     {
         Map<Class,Object> secureValues = new HashMap<Class, Object>();
@@ -3201,7 +3203,7 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
     public Map<String, Object> getStatistics(List<String> statistics)
     {
         Collection<ConfiguredObjectStatistic> stats = getTypeRegistry().getStatistics(getClass());
-        Map<String,Object> map = new HashMap<>();
+        Map<String,Object> map = new HashMap<>(Math.max(16, 4 * stats.size() / 3 + 1));
         boolean allStats = statistics == null || statistics.isEmpty();
         for(ConfiguredObjectStatistic stat : stats)
         {
@@ -3213,6 +3215,16 @@ public abstract class AbstractConfiguredObject<X extends ConfiguredObject<X>> im
         return map;
     }
 
+    /**
+     * Returns the value of the managed attribute or statistic read by the named getter.  The subclasses generated
+     * by the annotation processor for each concrete type override this to call the getter directly; this
+     * implementation returns {@link #UNKNOWN_GETTER} so that the value is read by reflection instead.
+     */
+    protected Object getManagedGetterValue(final String getterName)
+    {
+        return UNKNOWN_GETTER;
+    }
+
 
     public <Y extends ConfiguredObject<Y>> Y findConfiguredObject(Class<Y> clazz, String name)
     {
@@ -31,6 +31,7 @@ import java.util.concurrent.TimeUnit;
 import org.apache.qpid.configuration.CommonProperties;
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.logging.EventLoggerProvider;
+import org.apache.qpid.server.message.MessageConversionCache;
 import org.apache.qpid.server.security.auth.SocketConnectionMetaData;
 import org.apache.qpid.server.stats.StatisticsGatherer;
 import org.apache.qpid.server.store.preferences.UserPreferencesCreator;
@@ -172,10 +173,43 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
     @ManagedContextDefault(name = SEND_QUEUE_DELETE_OK_REGARDLESS_CLIENT_VER_REGEXP)
     String DEFAULT_SEND_QUEUE_DELETE_OK_REGARDLESS_CLIENT_VER_REGEXP = "^0\\..*$";
 
+    String BROKER_MESSAGE_CONVERSION_CACHE_SIZE = "broker.messageConversionCacheSize";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = BROKER_MESSAGE_CONVERSION_CACHE_SIZE,
+            description = "The maximum total size in bytes of converted messages kept so that a message delivered to"
+                          + " many consumers of another protocol is only converted once. When the limit is reached the"
+                          + " oldest conversions are discarded to make room for new ones.")
+    long DEFAULT_BROKER_MESSAGE_CONVERSION_CACHE_SIZE = 32L * 1024L * 1024L;
+
+    String BROKER_SELECTOR_COMPILED = "broker.selectorCompiled";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = BROKER_SELECTOR_COMPILED,
+            description = "If true, message selectors of consumers created from then on are compiled into specialised"
+                          + " expressions rather than being interpreted.")
+    boolean DEFAULT_BROKER_SELECTOR_COMPILED = false;
+
     String BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE = "broker.directByteBufferPoolSize";
     @ManagedContextDefault(name = BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE)
     int DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE = 1024;
 
+    String BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE = "broker.directByteBufferPoolLargeSize";
+    @ManagedContextDefault(name = BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE,
+            description = "The memory, as a number of network buffers, which the pool may hold in direct buffers"
+                          + " larger than the network buffer size, in addition to that held in buffers of the network"
+                          + " buffer size. The memory is shared between the larger sizes, the share halving with each"
+                          + " size.")
+    int DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE = 256;
+
+    String BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE_CLASSES = "broker.directByteBufferPoolSizeClasses";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE_CLASSES,
+            description = "The number of direct buffer sizes pooled, the first being the network buffer size and each"
+                          + " subsequent size twice the one before. Direct buffers larger than the largest size are"
+                          + " not pooled. Buffers of the network buffer size are limited by "
+                          + BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE + " and the larger sizes share the memory set by "
+                          + BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE + ".")
+    int DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE_CLASSES = 3;
+
     @ManagedAttribute(validValues = {"org.apache.qpid.server.model.BrokerImpl#getAvailableConfigurationEncrypters()"})
     String getConfidentialConfigurationEncryptionProvider();
 
@@ -250,6 +284,30 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
                       description = "Number of objects pending finalization")
     int getNumberOfObjectsPendingFinalization();
 
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE,
+                      units = StatisticUnit.COUNT,
+                      label = "Direct Buffer Pool Hits",
+                      description = "Number of direct buffers taken from the pool")
+    long getDirectBufferPoolHits();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE,
+                      units = StatisticUnit.COUNT,
+                      label = "Direct Buffer Pool Misses",
+                      description = "Number of direct buffers allocated because none of the size required was pooled")
+    long getDirectBufferPoolMisses();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME,
+                      units = StatisticUnit.BYTES,
+                      label = "Direct Buffer Pool Outstanding",
+                      description = "Capacity of the pooled direct buffers in use")
+    long getDirectBufferPoolOutstandingBytes();
+
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME,
+                      units = StatisticUnit.BYTES,
+                      label = "Direct Buffer Pool Size",
+                      description = "Capacity of the direct buffers held in the pool")
+    long getDirectBufferPoolPooledBytes();
+
     @ManagedOperation(nonModifying = true,
             description = "Restart the broker within the same JVM",
             changesConfiguredObjectState = false,
@@ -261,6 +319,11 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
             changesConfiguredObjectState = false)
     void performGC();
 
+    @ManagedOperation(nonModifying = true,
+            description = "Returns the hits, misses, outstanding and pooled bytes of each size of direct buffer pooled",
+            changesConfiguredObjectState = false)
+    Map<String, Object> getDirectBufferPoolStatistics();
+
     @ManagedOperation(nonModifying = true,
                       description = "Collects thread stack traces and dead locks. Dumps stack traces into logs if requested",
             changesConfiguredObjectState = false)
@@ -335,6 +398,8 @@ public interface Broker<X extends Broker<X>> extends ConfiguredObject<X>, EventL
 
     int getNetworkBufferSize();
 
+    MessageConversionCache getMessageConversionCache();
+
     ScheduledFuture<?> scheduleHouseKeepingTask(long period, final TimeUnit unit, Runnable task);
 
     ScheduledFuture<?> scheduleTask(long delay, final TimeUnit unit, Runnable task);
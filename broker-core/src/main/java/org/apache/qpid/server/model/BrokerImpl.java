@@ -29,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -50,15 +51,18 @@ import com.google.common.util.concurrent.ListenableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.apache.qpid.bytebuffer.BufferPoolStatistics;
 import org.apache.qpid.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.configuration.CommonProperties;
 import org.apache.qpid.server.BrokerPrincipal;
 import org.apache.qpid.server.configuration.IllegalConfigurationException;
 import org.apache.qpid.server.configuration.updater.TaskExecutor;
 import org.apache.qpid.server.configuration.updater.TaskExecutorImpl;
+import org.apache.qpid.server.filter.JMSSelectorFilter;
 import org.apache.qpid.server.logging.EventLogger;
 import org.apache.qpid.server.logging.messages.BrokerMessages;
 import org.apache.qpid.server.logging.messages.VirtualHostMessages;
+import org.apache.qpid.server.message.MessageConversionCache;
 import org.apache.qpid.server.model.preferences.Preference;
 import org.apache.qpid.server.model.preferences.UserPreferences;
 import org.apache.qpid.server.model.preferences.UserPreferencesImpl;
@@ -141,6 +145,7 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
     private final boolean _virtualHostPropertiesNodeEnabled;
     private Collection<BrokerLogger> _brokerLoggersToClose;
     private int _networkBufferSize = DEFAULT_NETWORK_BUFFER_SIZE;
+    private MessageConversionCache _messageConversionCache;
     private final AddressSpaceRegistry _addressSpaceRegistry = new AddressSpaceRegistry();
     private ConfigurationChangeListener _accessControlProviderListener = new AccessControlProviderListener();
     private final AccessControl _accessControl;
@@ -204,8 +209,14 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         _networkBufferSize = networkBufferSize;
 
         int poolSize = getContextValue(Integer.class, BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE);
+        int poolSizeClasses = getContextValue(Integer.class, BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE_CLASSES);
+        int largePoolSize = getContextValue(Integer.class, BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE);
 
-        QpidByteBuffer.initialisePool(_networkBufferSize, poolSize);
+        QpidByteBuffer.initialisePool(_networkBufferSize, poolSize, poolSizeClasses, largePoolSize);
+
+        _messageConversionCache =
+                new MessageConversionCache(getContextValue(Long.class, BROKER_MESSAGE_CONVERSION_CACHE_SIZE));
+        JMSSelectorFilter.setCompileSelectors(getContextValue(Boolean.class, BROKER_SELECTOR_COMPILED));
     }
 
     @Override
@@ -650,6 +661,51 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         return getMessageDeliveryStatistics().getTotal();
     }
 
+    @Override
+    public long getDirectBufferPoolHits()
+    {
+        return getTotalDirectBufferPoolStatistics().getHits();
+    }
+
+    @Override
+    public long getDirectBufferPoolMisses()
+    {
+        return getTotalDirectBufferPoolStatistics().getMisses();
+    }
+
+    @Override
+    public long getDirectBufferPoolOutstandingBytes()
+    {
+        return getTotalDirectBufferPoolStatistics().getOutstandingBytes();
+    }
+
+    @Override
+    public long getDirectBufferPoolPooledBytes()
+    {
+        return getTotalDirectBufferPoolStatistics().getPooledBytes();
+    }
+
+    private BufferPoolStatistics getTotalDirectBufferPoolStatistics()
+    {
+        return BufferPoolStatistics.total(QpidByteBuffer.getBufferPoolStatistics());
+    }
+
+    @Override
+    public Map<String, Object> getDirectBufferPoolStatistics()
+    {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (BufferPoolStatistics statistics : QpidByteBuffer.getBufferPoolStatistics())
+        {
+            Map<String, Long> sizeClass = new LinkedHashMap<>();
+            sizeClass.put("hits", statistics.getHits());
+            sizeClass.put("misses", statistics.getMisses());
+            sizeClass.put("outstandingBytes", statistics.getOutstandingBytes());
+            sizeClass.put("pooledBytes", statistics.getPooledBytes());
+            result.put(String.valueOf(statistics.getBufferSize()), sizeClass);
+        }
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <C extends ConfiguredObject> ListenableFuture<C> addChildAsync(final Class<C> childClass, final Map<String, Object> attributes, final ConfiguredObject... otherParents)
@@ -967,6 +1023,12 @@ public class BrokerImpl extends AbstractContainer<BrokerImpl> implements Broker<
         return _networkBufferSize;
     }
 
+    @Override
+    public MessageConversionCache getMessageConversionCache()
+    {
+        return _messageConversionCache;
+    }
+
     public String getDocumentationUrl()
     {
         return _documentationUrl;
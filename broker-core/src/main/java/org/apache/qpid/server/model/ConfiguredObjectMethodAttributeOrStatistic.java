@@ -63,6 +63,14 @@ abstract class ConfiguredObjectMethodAttributeOrStatistic<C extends ConfiguredOb
     @Override
     public T getValue(C configuredObject)
     {
+        if(configuredObject instanceof AbstractConfiguredObject)
+        {
+            Object value = ((AbstractConfiguredObject<?>) configuredObject).getManagedGetterValue(_getter.getName());
+            if(value != AbstractConfiguredObject.UNKNOWN_GETTER)
+            {
+                return (T) value;
+            }
+        }
         try
         {
             return (T) getGetter().invoke(configuredObject);
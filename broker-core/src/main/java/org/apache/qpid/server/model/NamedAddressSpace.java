@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.apache.qpid.server.message.MessageConversionCache;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageSource;
 import org.apache.qpid.server.model.port.AmqpPort;
@@ -71,4 +72,6 @@ public interface NamedAddressSpace extends Named
     Collection<? extends Connection<?>> getConnections();
 
     List<String> getGlobalAddressDomains();
+
+    MessageConversionCache getMessageConversionCache();
 }
@@ -100,6 +100,36 @@ public interface Queue<X extends Queue<X>> extends ConfiguredObject<X>,
     int DEFAULT_QUEUE_SCAVANGE_COUNT = 100;
 
 
+    String QUEUE_INDEXED_HEADER_PROPERTIES = "queue.indexedHeaderProperties";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_INDEXED_HEADER_PROPERTIES,
+            description = "A list of application header names on which a standard queue maintains an index of its "
+                          + "entries.  Consumers whose selector requires one of these headers to equal a string literal "
+                          + "use the index to find their next message without testing every entry in the queue.")
+    String DEFAULT_QUEUE_INDEXED_HEADER_PROPERTIES = "[]";
+
+    String QUEUE_INCREMENTAL_HOUSEKEEPING = "queue.housekeeping.incremental";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_INCREMENTAL_HOUSEKEEPING,
+            description = "If true, housekeeping expires messages using an index ordered by expiration time and "
+                          + "performs its remaining per-message checks a portion of the queue at a time, rather than "
+                          + "visiting every entry in the queue on each run.")
+    boolean DEFAULT_QUEUE_INCREMENTAL_HOUSEKEEPING = false;
+
+    String QUEUE_HOUSEKEEPING_TIME_BUDGET = "queue.housekeeping.timeBudget";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_HOUSEKEEPING_TIME_BUDGET,
+            description = "When incremental housekeeping is enabled, the time in milliseconds each housekeeping run "
+                          + "may spend on per-message checks before resuming from the same point on the next run.")
+    long DEFAULT_QUEUE_HOUSEKEEPING_TIME_BUDGET = 50L;
+
+    String QUEUE_EXPIRY_INDEX_RESOLUTION = "queue.housekeeping.expiryIndexResolution";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_EXPIRY_INDEX_RESOLUTION,
+            description = "When incremental housekeeping is enabled, the interval of expiration times in milliseconds "
+                          + "covered by each bucket of the expiry index.")
+    long DEFAULT_QUEUE_EXPIRY_INDEX_RESOLUTION = 1000L;
+
     String MIME_TYPE_TO_FILE_EXTENSION = "qpid.mimeTypeToFileExtension";
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = MIME_TYPE_TO_FILE_EXTENSION, description = "A mapping of MIME types to file extensions.")
@@ -66,6 +66,18 @@ public interface SystemConfig<X extends SystemConfig<X>> extends ConfiguredObjec
     @ManagedContextDefault(name = SystemConfig.POSIX_FILE_PERMISSIONS)
     String DEFAULT_POSIX_FILE_PERMISSIONS = "rw-r-----";
 
+    String JSON_STORE_JOURNAL = "qpid.json_store.journal";
+    @ManagedContextDefault(name = SystemConfig.JSON_STORE_JOURNAL,
+            description = "If true, JSON configuration and preference stores append each change to a journal "
+                          + "rather than rewriting the whole store file, compacting the journal into the store "
+                          + "file in the background.")
+    boolean DEFAULT_JSON_STORE_JOURNAL = false;
+
+    String JSON_STORE_JOURNAL_COMPACTION_THRESHOLD = "qpid.json_store.journal_compaction_threshold";
+    @ManagedContextDefault(name = SystemConfig.JSON_STORE_JOURNAL_COMPACTION_THRESHOLD,
+            description = "The number of changes a JSON store appends to its journal before compacting it.")
+    int DEFAULT_JSON_STORE_JOURNAL_COMPACTION_THRESHOLD = 1000;
+
 
     String MANAGEMENT_MODE_USER_NAME = "mm_admin";
 
@@ -37,6 +37,7 @@ import org.apache.qpid.server.model.StatisticType;
 import org.apache.qpid.server.model.StatisticUnit;
 import org.apache.qpid.server.model.Transport;
 import org.apache.qpid.server.model.TrustStore;
+import org.apache.qpid.server.transport.TlsHandshakeTaskExecutor;
 
 @ManagedObject( category = false, type = "AMQP", amqpName = "org.apache.qpid.AmqpPort")
 public interface AmqpPort<X extends AmqpPort<X>> extends ClientAuthCapablePort<X>
@@ -56,7 +57,10 @@ public interface AmqpPort<X extends AmqpPort<X>> extends ClientAuthCapablePort<X
     String PORT_AMQP_THREAD_POOL_KEEP_ALIVE_TIMEOUT = "qpid.port.amqp.threadPool.keep_alive_timeout";
 
     String PORT_AMQP_NUMBER_OF_SELECTORS = "qpid.port.amqp.threadPool.numberOfSelectors";
+    String PORT_AMQP_THREAD_POOL_WORK_STEALING = "qpid.port.amqp.threadPool.workStealing";
     String PORT_AMQP_ACCEPT_BACKLOG = "qpid.port.amqp.acceptBacklog";
+    String PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_SIZE = "qpid.port.amqp.tlsHandshakeThreadPool.size";
+    String PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_QUEUE_SIZE = "qpid.port.amqp.tlsHandshakeThreadPool.queueSize";
 
     @ManagedContextDefault(name = DEFAULT_AMQP_PROTOCOLS)
     String INSTALLED_PROTOCOLS = AmqpPortImpl.getInstalledProtocolsAsString();
@@ -78,10 +82,30 @@ public interface AmqpPort<X extends AmqpPort<X>> extends ClientAuthCapablePort<X
     @ManagedContextDefault(name = PORT_AMQP_NUMBER_OF_SELECTORS)
     long DEFAULT_PORT_AMQP_NUMBER_OF_SELECTORS = Math.max(DEFAULT_PORT_AMQP_THREAD_POOL_SIZE / 8, 1);
 
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_THREAD_POOL_WORK_STEALING,
+                           description = "If true, each thread of the port's thread pool has its own run queue and"
+                                         + " steals work from the other threads when its queue is empty, rather than"
+                                         + " all threads sharing a single queue.")
+    boolean DEFAULT_PORT_AMQP_THREAD_POOL_WORK_STEALING = false;
+
     @SuppressWarnings("unused")
     @ManagedContextDefault(name = PORT_AMQP_ACCEPT_BACKLOG)
     int DEFAULT_PORT_AMQP_ACCEPT_BACKLOG = 1024;
 
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_SIZE,
+                           description = "Number of threads used to run the delegated tasks of TLS handshakes"
+                                         + " (such as key agreement) away from the port's IO threads. If zero, the"
+                                         + " tasks are run on the IO threads.")
+    int DEFAULT_PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_SIZE = Math.max(Runtime.getRuntime().availableProcessors() / 2, 1);
+
+    @SuppressWarnings("unused")
+    @ManagedContextDefault(name = PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_QUEUE_SIZE,
+                           description = "Maximum number of TLS handshakes whose delegated tasks may wait for a"
+                                         + " handshake thread. Once reached, further tasks are run on the IO threads.")
+    int DEFAULT_PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_QUEUE_SIZE = 1024;
+
     String OPEN_CONNECTIONS_WARN_PERCENT = "qpid.port.open_connections_warn_percent";
 
     @ManagedContextDefault(name = OPEN_CONNECTIONS_WARN_PERCENT)
@@ -100,6 +124,8 @@ public interface AmqpPort<X extends AmqpPort<X>> extends ClientAuthCapablePort<X
 
     SSLContext getSSLContext();
 
+    TlsHandshakeTaskExecutor getTlsHandshakeTaskExecutor();
+
     @ManagedAttribute(defaultValue = "*")
     String getBindingAddress();
 
@@ -138,6 +164,15 @@ public interface AmqpPort<X extends AmqpPort<X>> extends ClientAuthCapablePort<X
     @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT, label = "Connections")
     int getConnectionCount();
 
+    @ManagedStatistic(statisticType = StatisticType.POINT_IN_TIME, units = StatisticUnit.COUNT, label = "TLS Handshake Tasks Queued")
+    int getTlsHandshakeTasksQueued();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.COUNT, label = "TLS Handshake Tasks Completed")
+    long getTlsHandshakeTasksCompleted();
+
+    @ManagedStatistic(statisticType = StatisticType.CUMULATIVE, units = StatisticUnit.TIME_DURATION, label = "TLS Handshake Task Time")
+    long getTlsHandshakeTaskTime();
+
     @DerivedAttribute(description = "Maximum time allowed for a new connection to send a protocol header."
                                     + " If the connection does not send a protocol header within this time,"
                                     + " the connection will be aborted.")
@@ -72,6 +72,7 @@ import org.apache.qpid.server.plugin.QpidServiceLoader;
 import org.apache.qpid.server.plugin.TransportProviderFactory;
 import org.apache.qpid.server.transport.AcceptingTransport;
 import org.apache.qpid.server.transport.PortBindFailureException;
+import org.apache.qpid.server.transport.TlsHandshakeTaskExecutor;
 import org.apache.qpid.server.transport.TransportProvider;
 import org.apache.qpid.server.util.PortUtil;
 import org.apache.qpid.server.util.ServerScopedRuntimeException;
@@ -109,6 +110,7 @@ public class AmqpPortImpl extends AbstractClientAuthCapablePortWithAuthProvider<
 
     private AcceptingTransport _transport;
     private SSLContext _sslContext;
+    private volatile TlsHandshakeTaskExecutor _tlsHandshakeTaskExecutor;
     private volatile int _connectionWarnCount;
     private volatile long _protocolHandshakeTimeout;
 
@@ -138,6 +140,12 @@ public class AmqpPortImpl extends AbstractClientAuthCapablePortWithAuthProvider<
         return _sslContext;
     }
 
+    @Override
+    public TlsHandshakeTaskExecutor getTlsHandshakeTaskExecutor()
+    {
+        return _tlsHandshakeTaskExecutor;
+    }
+
     @Override
     public String getBindingAddress()
     {
@@ -230,6 +238,17 @@ public class AmqpPortImpl extends AbstractClientAuthCapablePortWithAuthProvider<
             if (transports.contains(Transport.SSL) || transports.contains(Transport.WSS))
             {
                 _sslContext = createSslContext();
+
+                final int handshakeThreadPoolSize =
+                        getContextValue(Integer.class, PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_SIZE);
+                if (transports.contains(Transport.SSL) && handshakeThreadPoolSize > 0)
+                {
+                    _tlsHandshakeTaskExecutor =
+                            new TlsHandshakeTaskExecutor("Port-" + getName(),
+                                                         handshakeThreadPoolSize,
+                                                         getContextValue(Integer.class,
+                                                                         PORT_AMQP_TLS_HANDSHAKE_THREAD_POOL_QUEUE_SIZE));
+                }
             }
             Protocol defaultSupportedProtocolReply = getDefaultAmqpSupportedReply();
             try
@@ -251,6 +270,10 @@ public class AmqpPortImpl extends AbstractClientAuthCapablePortWithAuthProvider<
             }
             catch (PortBindFailureException e)
             {
+                if (_tlsHandshakeTaskExecutor != null)
+                {
+                    _tlsHandshakeTaskExecutor.shutdown();
+                }
                 _container.getEventLogger().message(PortMessages.BIND_FAILED(getType().toUpperCase(), getPort()));
                 throw e;
             }
@@ -276,6 +299,10 @@ public class AmqpPortImpl extends AbstractClientAuthCapablePortWithAuthProvider<
 
             _transport.close();
         }
+        if (_tlsHandshakeTaskExecutor != null)
+        {
+            _tlsHandshakeTaskExecutor.shutdown();
+        }
         return Futures.immediateFuture(null);
     }
 
@@ -601,6 +628,27 @@ public class AmqpPortImpl extends AbstractClientAuthCapablePortWithAuthProvider<
         return _connectionCount.get();
     }
 
+    @Override
+    public int getTlsHandshakeTasksQueued()
+    {
+        final TlsHandshakeTaskExecutor executor = _tlsHandshakeTaskExecutor;
+        return executor == null ? 0 : executor.getQueueDepth();
+    }
+
+    @Override
+    public long getTlsHandshakeTasksCompleted()
+    {
+        final TlsHandshakeTaskExecutor executor = _tlsHandshakeTaskExecutor;
+        return executor == null ? 0L : executor.getTasksCompleted();
+    }
+
+    @Override
+    public long getTlsHandshakeTaskTime()
+    {
+        final TlsHandshakeTaskExecutor executor = _tlsHandshakeTaskExecutor;
+        return executor == null ? 0L : executor.getTaskTime();
+    }
+
     @Override
     public long getProtocolHandshakeTimeout()
     {
@@ -23,7 +23,10 @@ package org.apache.qpid.server.protocol;
 
 import java.util.HashMap;
 import java.util.Map;
+
+import org.apache.qpid.server.message.AbstractServerMessageImpl;
 import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.NamedAddressSpace;
 import org.apache.qpid.server.plugin.MessageConverter;
 import org.apache.qpid.server.plugin.QpidServiceLoader;
 
@@ -56,4 +59,35 @@ public class MessageConverterRegistry
         }
         return map == null ? null : map.get(to);
     }
+
+    /**
+     * Converts the message to the given class, sharing the result with other deliveries of the same message where
+     * possible so that a message delivered to many consumers is only converted once.
+     */
+    public static <M extends ServerMessage, N extends ServerMessage> N convert(M message,
+                                                                             Class<N> to,
+                                                                             NamedAddressSpace addressSpace)
+    {
+        if(to.isInstance(message))
+        {
+            return to.cast(message);
+        }
+
+        final Class<M> from = (Class<M>) message.getClass();
+        final MessageConverter<M, N> converter = getConverter(from, to);
+        if(message instanceof AbstractServerMessageImpl)
+        {
+            final AbstractServerMessageImpl<?, ?> abstractMessage = (AbstractServerMessageImpl<?, ?>) message;
+            N converted = abstractMessage.getCachedConversion(to, addressSpace);
+            if(converted == null)
+            {
+                converted = abstractMessage.cacheConversion(to, addressSpace, converter.convert(message, addressSpace));
+            }
+            return converted;
+        }
+        else
+        {
+            return converter.convert(message, addressSpace);
+        }
+    }
 }
@@ -50,6 +50,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -142,6 +143,8 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     };
 
     private static final long INITIAL_TARGET_QUEUE_SIZE = 102400l;
+    /** the number of entries incremental housekeeping visits between checks of its time budget */
+    private static final int HOUSEKEEPING_TIME_CHECK_INTERVAL = 64;
     private static final String UTF8 = StandardCharsets.UTF_8.name();
     private static final Operation PUBLISH_ACTION = Operation.ACTION("publish");
 
@@ -206,6 +209,12 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
     private AtomicBoolean _stopped = new AtomicBoolean(false);
 
+    private volatile QueueEntryExpiryIndex _expiryIndex;
+    private long _housekeepingTimeBudget;
+    /** the last entry visited by incremental housekeeping, or null if the next run should start from the head */
+    private QueueEntry _housekeepingCursor;
+    private long _housekeepingCumulativeSize;
+
     private final Set<AMQSessionModel<?,?>> _blockedChannels = new ConcurrentSkipListSet<>();
 
     private final AtomicBoolean _deleted = new AtomicBoolean(false);
@@ -466,6 +475,11 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         }
 
         _estimatedAverageMessageHeaderSize = getContextValue(Long.class, QUEUE_ESTIMATED_MESSAGE_MEMORY_OVERHEAD);
+        if(getContextValue(Boolean.class, QUEUE_INCREMENTAL_HOUSEKEEPING))
+        {
+            _housekeepingTimeBudget = getContextValue(Long.class, QUEUE_HOUSEKEEPING_TIME_BUDGET);
+            _expiryIndex = new QueueEntryExpiryIndex(getContextValue(Long.class, QUEUE_EXPIRY_INDEX_RESOLUTION));
+        }
         _mimeTypeToFileExtension = getContextValue(Map.class, MAP_OF_STRING_STRING, MIME_TYPE_TO_FILE_EXTENSION);
 
         if(_defaultFilters != null)
@@ -910,14 +924,16 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
             _exclusiveSubscriber = consumer;
         }
 
+        final QueueEntryPropertyIndex propertyIndex = getPropertyIndex();
+        final QueueEntryPropertyIndex.Key indexKey = propertyIndex == null ? null : propertyIndex.getKey(filters);
         QueueContext queueContext;
         if(filters == null || !filters.startAtTail())
         {
-            queueContext = new QueueContext(getEntries().getHead());
+            queueContext = new QueueContext(getEntries().getHead(), indexKey);
         }
         else
         {
-            queueContext = new QueueContext(getEntries().getTail());
+            queueContext = new QueueContext(getEntries().getTail(), indexKey);
         }
         consumer.setQueueContext(queueContext);
 
@@ -1139,6 +1155,11 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     {
         final QueueEntry entry = getEntries().add(message, enqueueRecord);
         updateExpiration(entry);
+        final QueueEntryExpiryIndex expiryIndex = _expiryIndex;
+        if(expiryIndex != null)
+        {
+            addToExpiryIndex(expiryIndex, entry);
+        }
 
         try
         {
@@ -1160,6 +1181,21 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
     }
 
+    private void addToExpiryIndex(final QueueEntryExpiryIndex expiryIndex, final QueueEntry entry)
+    {
+        final long expiration = entry.getExpiration();
+        if(expiration != 0L)
+        {
+            expiryIndex.add(entry, expiration);
+            // the entry may have been consumed before it reached the index, in which case its deletion did not
+            // find it there
+            if(entry.isDeleted())
+            {
+                expiryIndex.remove(entry, expiration);
+            }
+        }
+    }
+
     private void updateExpiration(final QueueEntry entry)
     {
         long expiration = entry.getMessage().getExpiration();
@@ -1462,6 +1498,15 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
     /** Used to track bindings to exchanges so that on deletion they can easily be cancelled. */
     abstract QueueEntryList getEntries();
 
+    /**
+     * @return the index over application header values used to locate candidate entries for selective consumers, or
+     * null if this queue does not maintain one
+     */
+    QueueEntryPropertyIndex getPropertyIndex()
+    {
+        return null;
+    }
+
     final QueueStatistics getQueueStatistics()
     {
         return _queueStatistics;
@@ -2026,8 +2071,8 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
             QueueEntry lastSeen = context.getLastSeenEntry();
             QueueEntry releasedNode = context.getReleasedEntry();
 
-            QueueEntry node = (releasedNode != null && lastSeen.compareTo(releasedNode)>=0) ? releasedNode : getEntries()
-                    .next(lastSeen);
+            QueueEntry node = (releasedNode != null && lastSeen.compareTo(releasedNode)>=0) ? releasedNode : getNextCandidateEntry(
+                    context, lastSeen);
 
             boolean expired = false;
             while (node != null && (!node.isAvailable() || (expired = node.expired()) || !sub.hasInterest(node) ||
@@ -2049,8 +2094,8 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
                 lastSeen = context.getLastSeenEntry();
                 releasedNode = context.getReleasedEntry();
-                node = (releasedNode != null && lastSeen.compareTo(releasedNode)>=0) ? releasedNode : getEntries().next(
-                        lastSeen);
+                node = (releasedNode != null && lastSeen.compareTo(releasedNode)>=0) ? releasedNode : getNextCandidateEntry(
+                        context, lastSeen);
             }
             return node;
         }
@@ -2060,6 +2105,12 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         }
     }
 
+    private QueueEntry getNextCandidateEntry(final QueueContext context, final QueueEntry lastSeen)
+    {
+        final QueueEntryPropertyIndex.Key indexKey = context.getIndexKey();
+        return indexKey == null ? getEntries().next(lastSeen) : getPropertyIndex().next(indexKey, lastSeen);
+    }
+
     public boolean isEntryAheadOfConsumer(QueueEntry entry, QueueConsumer<?,?> sub)
     {
         QueueContext context = sub.getQueueContext();
@@ -2076,6 +2127,19 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
 
 
     public void checkMessageStatus()
+    {
+        final QueueEntryExpiryIndex expiryIndex = _expiryIndex;
+        if(expiryIndex == null)
+        {
+            checkAllMessageStatus();
+        }
+        else
+        {
+            checkMessageStatusIncrementally(expiryIndex);
+        }
+    }
+
+    private void checkAllMessageStatus()
     {
         QueueEntryIterator queueListIterator = getEntries().iterator();
 
@@ -2085,17 +2149,7 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
         final Set<NotificationCheck> perMessageChecks = new HashSet<>();
         final Set<NotificationCheck> queueLevelChecks = new HashSet<>();
 
-        for(NotificationCheck check : getNotificationChecks())
-        {
-            if(check.isMessageSpecific())
-            {
-                perMessageChecks.add(check);
-            }
-            else
-            {
-                queueLevelChecks.add(check);
-            }
-        }
+        splitNotificationChecks(perMessageChecks, queueLevelChecks);
         QueueNotificationListener listener = _notificationListener;
         final long currentTime = System.currentTimeMillis();
         final long thresholdTime = currentTime - getAlertRepeatGap();
@@ -2110,51 +2164,168 @@ public abstract class AbstractQueue<X extends AbstractQueue<X>>
                 // If the node has expired then acquire it
                 if (node.expired())
                 {
-                    boolean acquiredForDequeueing = node.acquireOrSteal(new Runnable()
-                    {
-                        @Override
-                        public void run()
-                        {
-                            dequeueEntry(node);
-                        }
-                    });
-
-                    if(acquiredForDequeueing)
-                    {
-                        _logger.debug("Dequeuing expired node {}", node);
-                        // Then dequeue it.
-                        dequeueEntry(node);
-                    }
+                    expireEntry(node);
                 }
                 else
                 {
-                    node.checkHeld(currentTime);
+                    cumulativeQueueSize = checkEntryStatus(node, cumulativeQueueSize, true, perMessageChecks,
+                                                           listener, currentTime, thresholdTime);
+                }
+            }
+        }
 
-                    // There is a chance that the node could be deleted by
-                    // the time the check actually occurs. So verify we
-                    // can actually get the message to perform the check.
-                    ServerMessage msg = node.getMessage();
+        for(NotificationCheck check : queueLevelChecks)
+        {
+            checkForNotification(null, listener, currentTime, thresholdTime, check);
+        }
 
-                    if (msg != null)
-                    {
-                        cumulativeQueueSize += msg.getSize() + _estimatedAverageMessageHeaderSize;
-                        _flowToDiskChecker.flowToDiskIfNecessary(msg.getStoredMessage(), cumulativeQueueSize,
-                                                                 _targetQueueSize.get());
+    }
 
-                        for(NotificationCheck check : perMessageChecks)
-                        {
-                            checkForNotification(msg, listener, currentTime, thresholdTime, check);
-                        }
-                    }
+    /**
+     * Expires messages using the expiry index, then continues the per-message checks from wherever the previous run
+     * stopped, until either the end of the queue is reached or the time budget for the run is spent.  The running
+     * queue size counters decide whether the checks need to consider flowing messages to disk at all.
+     */
+    private void checkMessageStatusIncrementally(final QueueEntryExpiryIndex expiryIndex)
+    {
+        final long estimatedQueueSize = _queueStatistics.getQueueSize() + _queueStatistics.getQueueCount() * _estimatedAverageMessageHeaderSize;
+        final long targetQueueSize = _targetQueueSize.get();
+        _flowToDiskChecker.reportFlowToDiskStatusIfNecessary(estimatedQueueSize, targetQueueSize);
+
+        final Set<NotificationCheck> perMessageChecks = new HashSet<>();
+        final Set<NotificationCheck> queueLevelChecks = new HashSet<>();
+
+        splitNotificationChecks(perMessageChecks, queueLevelChecks);
+        QueueNotificationListener listener = _notificationListener;
+        final long currentTime = System.currentTimeMillis();
+        final long thresholdTime = currentTime - getAlertRepeatGap();
+
+        for(QueueEntry node : expiryIndex.removeExpired(currentTime))
+        {
+            if(!node.isDeleted())
+            {
+                expireEntry(node);
+            }
+        }
+
+        final boolean flowToDiskRequired = estimatedQueueSize > targetQueueSize;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(_housekeepingTimeBudget);
+        final QueueEntryList entries = getEntries();
+        QueueEntry node = _housekeepingCursor == null ? entries.getHead() : _housekeepingCursor;
+        long cumulativeQueueSize = _housekeepingCumulativeSize;
+        int visited = 0;
+        while (!_stopped.get())
+        {
+            node = entries.next(node);
+            if(node == null)
+            {
+                // reached the end of the queue, the next run starts again from the head
+                _housekeepingCursor = null;
+                _housekeepingCumulativeSize = 0L;
+                break;
+            }
+
+            if (!node.isDeleted())
+            {
+                if (node.expired())
+                {
+                    expireEntry(node);
+                }
+                else
+                {
+                    cumulativeQueueSize = checkEntryStatus(node, cumulativeQueueSize, flowToDiskRequired,
+                                                           perMessageChecks, listener, currentTime, thresholdTime);
                 }
             }
+
+            if((++visited % HOUSEKEEPING_TIME_CHECK_INTERVAL) == 0 && System.nanoTime() - deadline >= 0L)
+            {
+                _housekeepingCursor = node;
+                _housekeepingCumulativeSize = cumulativeQueueSize;
+                break;
+            }
         }
 
         for(NotificationCheck check : queueLevelChecks)
         {
             checkForNotification(null, listener, currentTime, thresholdTime, check);
         }
+    }
 
+    private void splitNotificationChecks(final Set<NotificationCheck> perMessageChecks,
+                                         final Set<NotificationCheck> queueLevelChecks)
+    {
+        for(NotificationCheck check : getNotificationChecks())
+        {
+            if(check.isMessageSpecific())
+            {
+                perMessageChecks.add(check);
+            }
+            else
+            {
+                queueLevelChecks.add(check);
+            }
+        }
+    }
+
+    private void expireEntry(final QueueEntry node)
+    {
+        boolean acquiredForDequeueing = node.acquireOrSteal(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                dequeueEntry(node);
+            }
+        });
+
+        if(acquiredForDequeueing)
+        {
+            _logger.debug("Dequeuing expired node {}", node);
+            // Then dequeue it.
+            dequeueEntry(node);
+        }
+    }
+
+    private long checkEntryStatus(final QueueEntry node,
+                                  long cumulativeQueueSize,
+                                  final boolean flowToDiskRequired,
+                                  final Set<NotificationCheck> perMessageChecks,
+                                  final QueueNotificationListener listener,
+                                  final long currentTime,
+                                  final long thresholdTime)
+    {
+        node.checkHeld(currentTime);
+
+        // There is a chance that the node could be deleted by
+        // the time the check actually occurs. So verify we
+        // can actually get the message to perform the check.
+        ServerMessage msg = node.getMessage();
+
+        if (msg != null)
+        {
+            cumulativeQueueSize += msg.getSize() + _estimatedAverageMessageHeaderSize;
+            if(flowToDiskRequired)
+            {
+                _flowToDiskChecker.flowToDiskIfNecessary(msg.getStoredMessage(), cumulativeQueueSize,
+                                                         _targetQueueSize.get());
+            }
+
+            for(NotificationCheck check : perMessageChecks)
+            {
+                checkForNotification(msg, listener, currentTime, thresholdTime, check);
+            }
+        }
+        return cumulativeQueueSize;
+    }
+
+    void expiringEntryDeleted(final QueueEntry entry)
+    {
+        final QueueEntryExpiryIndex expiryIndex = _expiryIndex;
+        if(expiryIndex != null)
+        {
+            expiryIndex.remove(entry, entry.getExpiration());
+        }
     }
 
     private boolean consumerHasAvailableMessages(final QueueConsumer consumer)
@@ -0,0 +1,168 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.store.MessageEnqueueRecord;
+
+/**
+ * A sorted implementation of QueueEntryList built on a concurrent skip list.
+ *
+ * Unlike SortedQueueEntryList neither adding nor deleting an entry takes a lock, so publishers and acknowledgements on
+ * the queue do not serialise on a single monitor.  The successor of an entry is always found by searching the skip
+ * list for the first live entry greater than it, so next() gives the same answer for entries which have already been
+ * deleted from the list.
+ */
+public class ConcurrentSortedQueueEntryList extends AbstractQueueEntryList
+{
+    private final ConcurrentSortedQueueEntry _head;
+    private final ConcurrentSkipListSet<ConcurrentSortedQueueEntry> _entries = new ConcurrentSkipListSet<>();
+    private final AtomicLong _entryId = new AtomicLong(Long.MIN_VALUE);
+    private final SortedQueueImpl _queue;
+    private final String _propertyName;
+
+    public ConcurrentSortedQueueEntryList(final SortedQueueImpl queue, final QueueStatistics queueStatistics)
+    {
+        super(queue, queueStatistics);
+        _queue = queue;
+        _head = new ConcurrentSortedQueueEntry(this);
+        _propertyName = queue.getSortKey();
+    }
+
+    public SortedQueueImpl getQueue()
+    {
+        return _queue;
+    }
+
+    public ConcurrentSortedQueueEntry add(final ServerMessage message, final MessageEnqueueRecord enqueueRecord)
+    {
+        String key = null;
+        final Object val = message.getMessageHeader().getHeader(_propertyName);
+        if(val != null)
+        {
+            key = val.toString();
+        }
+
+        final ConcurrentSortedQueueEntry entry =
+                new ConcurrentSortedQueueEntry(this, message, _entryId.incrementAndGet(), key, enqueueRecord);
+        updateStatsOnEnqueue(entry);
+
+        _entries.add(entry);
+
+        return entry;
+    }
+
+    public ConcurrentSortedQueueEntry next(final QueueEntry entry)
+    {
+        ConcurrentSortedQueueEntry next = _entries.higher((ConcurrentSortedQueueEntry) entry);
+        while(next != null && next.isDeleted())
+        {
+            next = _entries.higher(next);
+        }
+        return next;
+    }
+
+    public QueueEntryIterator iterator()
+    {
+        return new QueueEntryIteratorImpl(_head);
+    }
+
+    public ConcurrentSortedQueueEntry getHead()
+    {
+        return _head;
+    }
+
+    public ConcurrentSortedQueueEntry getTail()
+    {
+        try
+        {
+            return _entries.last();
+        }
+        catch (NoSuchElementException e)
+        {
+            return _head;
+        }
+    }
+
+    @Override
+    public QueueEntry getOldestEntry()
+    {
+        QueueEntry oldestEntry = null;
+        QueueEntryIterator iter = iterator();
+        while (iter.advance())
+        {
+            QueueEntry node = iter.getNode();
+            if (node != null && !node.isDeleted())
+            {
+                ServerMessage msg = node.getMessage();
+                if(msg != null && (oldestEntry == null || oldestEntry.getMessage().getMessageNumber() > msg.getMessageNumber()))
+                {
+                    oldestEntry = node;
+                }
+            }
+        }
+        return oldestEntry;
+    }
+
+    public void entryDeleted(final QueueEntry entry)
+    {
+        _entries.remove(entry);
+    }
+
+    public int getPriorities()
+    {
+        return 0;
+    }
+
+    public class QueueEntryIteratorImpl implements QueueEntryIterator
+    {
+        private ConcurrentSortedQueueEntry _lastNode;
+
+        public QueueEntryIteratorImpl(final ConcurrentSortedQueueEntry startNode)
+        {
+            _lastNode = startNode;
+        }
+
+        public boolean atTail()
+        {
+            return next(_lastNode) == null;
+        }
+
+        public ConcurrentSortedQueueEntry getNode()
+        {
+            return _lastNode;
+        }
+
+        public boolean advance()
+        {
+            ConcurrentSortedQueueEntry nextNode = next(_lastNode);
+            if(nextNode != null)
+            {
+                _lastNode = nextNode;
+            }
+            return nextNode != null;
+        }
+    }
+}
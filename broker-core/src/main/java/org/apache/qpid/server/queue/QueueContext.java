@@ -27,6 +27,7 @@ final class QueueContext
 {
     private volatile QueueEntry _lastSeenEntry;
     private volatile QueueEntry _releasedEntry;
+    private final QueueEntryPropertyIndex.Key _indexKey;
 
     static final AtomicReferenceFieldUpdater<QueueContext, QueueEntry>
             _lastSeenUpdater =
@@ -37,9 +38,10 @@ final class QueueContext
         AtomicReferenceFieldUpdater.newUpdater
         (QueueContext.class, QueueEntry.class, "_releasedEntry");
 
-    public QueueContext(QueueEntry head)
+    public QueueContext(QueueEntry head, QueueEntryPropertyIndex.Key indexKey)
     {
         _lastSeenEntry = head;
+        _indexKey = indexKey;
     }
 
     public QueueEntry getLastSeenEntry()
@@ -53,12 +55,18 @@ final class QueueContext
         return _releasedEntry;
     }
 
+    QueueEntryPropertyIndex.Key getIndexKey()
+    {
+        return _indexKey;
+    }
+
     @Override
     public String toString()
     {
         return "QueueContext{" +
                "_lastSeenEntry=" + _lastSeenEntry +
                ", _releasedEntry=" + _releasedEntry +
+               ", _indexKey=" + _indexKey +
                '}';
     }
 }
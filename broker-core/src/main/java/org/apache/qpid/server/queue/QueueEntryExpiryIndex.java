@@ -0,0 +1,141 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.queue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * An index of the entries of a queue which carry an expiration time, grouped into buckets (the slots of a timer wheel)
+ * each covering a fixed interval of expiration times.  Housekeeping uses the index to find the expired entries of a
+ * queue without visiting every entry in the queue.
+ *
+ * Entries are removed from the index when they are deleted from the queue, or when they are returned by
+ * {@link #removeExpired(long)}.  As with {@link QueueEntryPropertyIndex}, adds hold the lock on the index so that a
+ * bucket which is found to be empty under the lock can be safely discarded.
+ */
+final class QueueEntryExpiryIndex
+{
+    private final long _resolution;
+    private final ConcurrentSkipListMap<Long, ConcurrentSkipListSet<QueueEntry>> _buckets = new ConcurrentSkipListMap<>();
+
+    QueueEntryExpiryIndex(final long resolution)
+    {
+        if (resolution <= 0L)
+        {
+            throw new IllegalArgumentException("Expiry index resolution must be positive: " + resolution);
+        }
+        _resolution = resolution;
+    }
+
+    synchronized void add(final QueueEntry entry, final long expiration)
+    {
+        final Long slot = getSlot(expiration);
+        ConcurrentSkipListSet<QueueEntry> entries = _buckets.get(slot);
+        if (entries == null)
+        {
+            entries = new ConcurrentSkipListSet<>();
+            _buckets.put(slot, entries);
+        }
+        entries.add(entry);
+    }
+
+    void remove(final QueueEntry entry, final long expiration)
+    {
+        final Long slot = getSlot(expiration);
+        ConcurrentSkipListSet<QueueEntry> entries = _buckets.get(slot);
+        if (entries != null && entries.remove(entry))
+        {
+            removeIfEmpty(slot, entries);
+        }
+    }
+
+    /**
+     * Removes from the index, and returns, the entries whose expiration time is earlier than the given time.  Only the
+     * buckets up to and including the one containing the given time are visited.  An entry in those buckets whose
+     * expiration time has changed since it was added is moved to the bucket of its new expiration time, or dropped if
+     * it no longer expires or has been deleted.
+     */
+    List<QueueEntry> removeExpired(final long currentTime)
+    {
+        final List<QueueEntry> expired = new ArrayList<>();
+        final List<QueueEntry> moved = new ArrayList<>();
+        final long currentSlot = getSlot(currentTime);
+        final ConcurrentNavigableMap<Long, ConcurrentSkipListSet<QueueEntry>> dueBuckets =
+                _buckets.headMap(currentSlot, true);
+        for (Map.Entry<Long, ConcurrentSkipListSet<QueueEntry>> bucket : dueBuckets.entrySet())
+        {
+            final long slot = bucket.getKey();
+            final ConcurrentSkipListSet<QueueEntry> entries = bucket.getValue();
+            final Iterator<QueueEntry> iterator = entries.iterator();
+            while (iterator.hasNext())
+            {
+                final QueueEntry entry = iterator.next();
+                final long expiration = entry.getExpiration();
+                if (expiration != 0L && expiration < currentTime)
+                {
+                    iterator.remove();
+                    expired.add(entry);
+                }
+                else if (expiration == 0L || entry.isDeleted())
+                {
+                    iterator.remove();
+                }
+                else if (getSlot(expiration) != slot)
+                {
+                    iterator.remove();
+                    moved.add(entry);
+                }
+            }
+            removeIfEmpty(slot, entries);
+        }
+        for (QueueEntry entry : moved)
+        {
+            add(entry, entry.getExpiration());
+        }
+        return expired;
+    }
+
+    private void removeIfEmpty(final Long slot, final ConcurrentSkipListSet<QueueEntry> entries)
+    {
+        if (entries.isEmpty())
+        {
+            synchronized (this)
+            {
+                if (entries.isEmpty())
+                {
+                    _buckets.remove(slot, entries);
+                }
+            }
+        }
+    }
+
+    private long getSlot(final long expiration)
+    {
+        return expiration / _resolution;
+    }
+}
@@ -164,6 +164,11 @@ public abstract class QueueEntryImpl implements QueueEntry
         _expiration = expiration;
     }
 
+    public long getExpiration()
+    {
+        return _expiration;
+    }
+
     public InstanceProperties getInstanceProperties()
     {
         return new EntryInstanceProperties();
@@ -540,6 +545,14 @@ public abstract class QueueEntryImpl implements QueueEntry
         {
             notifyStateChange(state, DELETED_STATE);
             _queueEntryList.entryDeleted(this);
+            if(_expiration != 0L)
+            {
+                final Queue<?> queue = getQueue();
+                if(queue instanceof AbstractQueue)
+                {
+                    ((AbstractQueue<?>) queue).expiringEntryDeleted(this);
+                }
+            }
             onDelete();
             _message.release();
 
@@ -0,0 +1,180 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.apache.qpid.server.queue;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.apache.qpid.server.filter.FilterManager;
+import org.apache.qpid.server.message.AMQMessageHeader;
+
+/**
+ * A secondary index over the entries of a queue, keyed on the string values of a configured set of application
+ * headers.  Consumers whose selector requires one of the indexed headers to equal a constant use the index to move
+ * directly to the next candidate entry rather than testing every entry in the queue.
+ *
+ * Entries must be added to the index in entry order, and before any later entry is added to the queue, otherwise a
+ * consumer could move past an entry which is in the queue but not yet in the index.  Callers are therefore expected to
+ * hold the lock on the index while adding an entry to both the queue and the index.
+ */
+final class QueueEntryPropertyIndex
+{
+    private final Map<String, ConcurrentMap<String, ConcurrentSkipListSet<QueueEntry>>> _index;
+
+    QueueEntryPropertyIndex(final Collection<String> propertyNames)
+    {
+        Map<String, ConcurrentMap<String, ConcurrentSkipListSet<QueueEntry>>> index = new HashMap<>();
+        for (String propertyName : propertyNames)
+        {
+            index.put(propertyName, new ConcurrentHashMap<String, ConcurrentSkipListSet<QueueEntry>>());
+        }
+        _index = Collections.unmodifiableMap(index);
+    }
+
+    Key getKey(final FilterManager filters)
+    {
+        if (filters != null)
+        {
+            for (String propertyName : _index.keySet())
+            {
+                String value = filters.getRequiredPropertyValue(propertyName);
+                if (value != null)
+                {
+                    return new Key(propertyName, value);
+                }
+            }
+        }
+        return null;
+    }
+
+    synchronized void add(final QueueEntry entry)
+    {
+        final AMQMessageHeader header = entry.getMessage().getMessageHeader();
+        for (Map.Entry<String, ConcurrentMap<String, ConcurrentSkipListSet<QueueEntry>>> propertyIndex : _index.entrySet())
+        {
+            String value = getIndexValue(header, propertyIndex.getKey());
+            if (value != null)
+            {
+                ConcurrentMap<String, ConcurrentSkipListSet<QueueEntry>> valueIndex = propertyIndex.getValue();
+                ConcurrentSkipListSet<QueueEntry> entries = valueIndex.get(value);
+                if (entries == null)
+                {
+                    entries = new ConcurrentSkipListSet<>();
+                    valueIndex.put(value, entries);
+                }
+                entries.add(entry);
+            }
+        }
+    }
+
+    void remove(final QueueEntry entry)
+    {
+        final AMQMessageHeader header = entry.getMessage().getMessageHeader();
+        for (Map.Entry<String, ConcurrentMap<String, ConcurrentSkipListSet<QueueEntry>>> propertyIndex : _index.entrySet())
+        {
+            String value = getIndexValue(header, propertyIndex.getKey());
+            if (value != null)
+            {
+                removeEntry(propertyIndex.getValue(), value, entry);
+            }
+        }
+    }
+
+    QueueEntry next(final Key key, final QueueEntry after)
+    {
+        ConcurrentMap<String, ConcurrentSkipListSet<QueueEntry>> valueIndex = _index.get(key.getPropertyName());
+        ConcurrentSkipListSet<QueueEntry> entries = valueIndex.get(key.getValue());
+        QueueEntry next = entries == null ? null : entries.higher(after);
+        while (next != null && next.isDeleted())
+        {
+            removeEntry(valueIndex, key.getValue(), next);
+            next = entries.higher(next);
+        }
+        return next;
+    }
+
+    private void removeEntry(final ConcurrentMap<String, ConcurrentSkipListSet<QueueEntry>> valueIndex,
+                             final String value,
+                             final QueueEntry entry)
+    {
+        ConcurrentSkipListSet<QueueEntry> entries = valueIndex.get(value);
+        if (entries != null && entries.remove(entry) && entries.isEmpty())
+        {
+            // adds hold the lock on the index, so a set which is still empty under the lock can be safely discarded
+            synchronized (this)
+            {
+                if (entries.isEmpty())
+                {
+                    valueIndex.remove(value, entries);
+                }
+            }
+        }
+    }
+
+    private static String getIndexValue(final AMQMessageHeader header, final String propertyName)
+    {
+        Object value = header.getHeader(propertyName);
+        if (value instanceof String)
+        {
+            return (String) value;
+        }
+        else if (value instanceof Enum)
+        {
+            // selectors compare enum valued headers to string literals by name
+            return ((Enum<?>) value).name();
+        }
+        return null;
+    }
+
+    static final class Key
+    {
+        private final String _propertyName;
+        private final String _value;
+
+        private Key(final String propertyName, final String value)
+        {
+            _propertyName = propertyName;
+            _value = value;
+        }
+
+        String getPropertyName()
+        {
+            return _propertyName;
+        }
+
+        String getValue()
+        {
+            return _value;
+        }
+
+        @Override
+        public String toString()
+        {
+            return _propertyName + "='" + _value + "'";
+        }
+    }
+}
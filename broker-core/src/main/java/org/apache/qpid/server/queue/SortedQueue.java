@@ -21,6 +21,7 @@
 package org.apache.qpid.server.queue;
 
 import org.apache.qpid.server.model.ManagedAttribute;
+import org.apache.qpid.server.model.ManagedContextDefault;
 import org.apache.qpid.server.model.ManagedObject;
 import org.apache.qpid.server.model.Queue;
 
@@ -31,6 +32,13 @@ public interface SortedQueue<X extends SortedQueue<X>> extends Queue<X>
     String SORT_KEY = "sortKey";
     String SORTED_QUEUE_TYPE = "sorted";
 
+    String QUEUE_SORTED_CONCURRENT_ENTRY_LIST = "queue.sorted.concurrentEntryList";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = QUEUE_SORTED_CONCURRENT_ENTRY_LIST,
+            description = "If true, sorted queues hold their entries in a lock-free skip list rather than a red-black "
+                          + "tree guarded by a single lock, allowing messages to be enqueued and deleted concurrently.")
+    boolean DEFAULT_QUEUE_SORTED_CONCURRENT_ENTRY_LIST = false;
+
     @ManagedAttribute( mandatory = true )
     String getSortKey();
 
@@ -35,9 +35,53 @@ public class StandardQueueEntryList extends OrderedQueueEntryList
         }
     };
 
+    private final QueueEntryPropertyIndex _propertyIndex;
+
     public StandardQueueEntryList(final StandardQueue<?> queue, QueueStatistics queueStatistics)
+    {
+        this(queue, queueStatistics, null);
+    }
+
+    StandardQueueEntryList(final StandardQueue<?> queue,
+                           QueueStatistics queueStatistics,
+                           final QueueEntryPropertyIndex propertyIndex)
     {
         super(queue, queueStatistics, HEAD_CREATOR);
+        _propertyIndex = propertyIndex;
+    }
+
+    @Override
+    public QueueEntry add(final ServerMessage message, final MessageEnqueueRecord enqueueRecord)
+    {
+        if(_propertyIndex == null)
+        {
+            return super.add(message, enqueueRecord);
+        }
+        else
+        {
+            // entries must reach the index in the same order as the list, see QueueEntryPropertyIndex
+            synchronized (_propertyIndex)
+            {
+                final QueueEntry entry = super.add(message, enqueueRecord);
+                _propertyIndex.add(entry);
+                return entry;
+            }
+        }
+    }
+
+    @Override
+    public void entryDeleted(final QueueEntry queueEntry)
+    {
+        super.entryDeleted(queueEntry);
+        if(_propertyIndex != null)
+        {
+            _propertyIndex.remove(queueEntry);
+        }
+    }
+
+    QueueEntryPropertyIndex getPropertyIndex()
+    {
+        return _propertyIndex;
     }
 
 
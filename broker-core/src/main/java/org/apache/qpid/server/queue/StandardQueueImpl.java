@@ -20,6 +20,9 @@
  */
 package org.apache.qpid.server.queue;
 
+import static org.apache.qpid.server.util.ParameterizedTypes.LIST_OF_STRINGS;
+
+import java.util.List;
 import java.util.Map;
 
 import org.apache.qpid.server.model.ManagedObjectFactoryConstructor;
@@ -39,7 +42,11 @@ public class StandardQueueImpl extends AbstractQueue<StandardQueueImpl> implemen
     protected void onOpen()
     {
         super.onOpen();
-        _entries = new StandardQueueEntryList(this, getQueueStatistics());
+        List<String> indexedProperties = getContextValue(List.class, LIST_OF_STRINGS, QUEUE_INDEXED_HEADER_PROPERTIES);
+        QueueEntryPropertyIndex propertyIndex = indexedProperties == null || indexedProperties.isEmpty()
+                ? null
+                : new QueueEntryPropertyIndex(indexedProperties);
+        _entries = new StandardQueueEntryList(this, getQueueStatistics(), propertyIndex);
     }
 
     @Override
@@ -47,4 +54,10 @@ public class StandardQueueImpl extends AbstractQueue<StandardQueueImpl> implemen
     {
         return _entries;
     }
+
+    @Override
+    QueueEntryPropertyIndex getPropertyIndex()
+    {
+        return _entries.getPropertyIndex();
+    }
 }
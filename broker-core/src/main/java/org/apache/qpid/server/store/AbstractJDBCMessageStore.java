@@ -34,10 +34,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.util.concurrent.Futures;
@@ -74,7 +73,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     protected abstract boolean isMessageStoreOpen();
 
     protected abstract void checkMessageStoreOpen();
-    private ScheduledThreadPoolExecutor _executor;
+    private CommitThread _commitThread;
 
     public AbstractJDBCMessageStore()
     {
@@ -213,27 +212,16 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     protected void initMessageStore(final ConfiguredObject<?> parent)
     {
         _parent = parent;
-        _executor = new ScheduledThreadPoolExecutor(4, new ThreadFactory()
-        {
-            private final AtomicInteger _count = new AtomicInteger();
-            @Override
-            public Thread newThread(final Runnable r)
-            {
-                final Thread thread = Executors.defaultThreadFactory().newThread(r);
-                thread.setName(parent.getName() + "-store-"+_count.incrementAndGet());
-                return thread;
-            }
-        });
-        _executor.prestartAllCoreThreads();
-
+        _commitThread = new CommitThread(parent.getName() + "-store-commit");
+        _commitThread.start();
     }
 
     @Override
     public void closeMessageStore()
     {
-        if(_executor != null)
+        if(_commitThread != null)
         {
-            _executor.shutdown();
+            _commitThread.close();
         }
 
     }
@@ -529,73 +517,6 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         return new JDBCTransaction();
     }
 
-    private void enqueueMessage(ConnectionWrapper connWrapper, final TransactionLogResource queue, Long messageId) throws StoreException
-    {
-        Connection conn = connWrapper.getConnection();
-
-
-        try
-        {
-            if (getLogger().isDebugEnabled())
-            {
-                getLogger().debug("Enqueuing message {} on queue {} with id {} [Connection {}]",
-                                  messageId, queue.getName(), queue.getId(), conn);
-            }
-
-            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + getQueueEntryTableName()
-                                                                + " (queue_id, message_id) values (?,?)"))
-            {
-                stmt.setString(1, queue.getId().toString());
-                stmt.setLong(2, messageId);
-                stmt.executeUpdate();
-            }
-
-        }
-        catch (SQLException e)
-        {
-            getLogger().error("Failed to enqueue message {}", messageId, e);
-            throw new StoreException("Error writing enqueued message with id " + messageId + " for queue " + queue.getName() + " with id " + queue.getId()
-                                     + " to database", e);
-        }
-
-    }
-
-    private void dequeueMessage(ConnectionWrapper connWrapper, final UUID queueId,
-                                Long messageId) throws StoreException
-    {
-
-        Connection conn = connWrapper.getConnection();
-
-        try
-        {
-            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + getQueueEntryTableName()
-                                                                + " WHERE queue_id = ? AND message_id =?"))
-            {
-                stmt.setString(1, queueId.toString());
-                stmt.setLong(2, messageId);
-                int results = stmt.executeUpdate();
-
-
-                if (results != 1)
-                {
-                    throw new StoreException("Unable to find message with id " + messageId
-                                             + " on queue with id " + queueId);
-                }
-
-                getLogger().debug("Dequeuing message {} on queue with id {}", messageId, queueId);
-
-            }
-
-        }
-        catch (SQLException e)
-        {
-            getLogger().error("Failed to dequeue message {}", messageId, e);
-            throw new StoreException("Error deleting enqueued message with id " + messageId + " for queue with id "
-                                     + queueId + " from database", e);
-        }
-
-    }
-
     private void removeXid(ConnectionWrapper connWrapper, long format, byte[] globalId, byte[] branchId)
             throws StoreException
     {
@@ -784,45 +705,6 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     }
 
 
-    private void commitTran(ConnectionWrapper connWrapper) throws StoreException
-    {
-        try
-        {
-            Connection conn = connWrapper.getConnection();
-            conn.commit();
-
-            getLogger().debug("commit tran completed");
-
-            conn.close();
-        }
-        catch (SQLException e)
-        {
-            throw new StoreException("Error commit tx", e);
-        }
-    }
-
-    private <X> ListenableFuture<X> commitTranAsync(final ConnectionWrapper connWrapper, final X val) throws StoreException
-    {
-        final SettableFuture<X> future = SettableFuture.create();
-        _executor.submit(new Runnable()
-                        {
-                            @Override
-                            public void run()
-                            {
-                                try
-                                {
-                                    commitTran(connWrapper);
-                                    future.set(val);
-                                }
-                                catch (RuntimeException e)
-                                {
-                                    future.setException(e);
-                                }
-                            }
-                        });
-        return future;
-    }
-
     private void abortTran(ConnectionWrapper connWrapper) throws StoreException
     {
         if (connWrapper == null)
@@ -856,14 +738,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             stmt.setLong(1, messageId);
 
-            final int bodySize = 1 + metaData.getStorableSize();
-            byte[] underlying = new byte[bodySize];
-            underlying[0] = (byte) metaData.getType().ordinal();
-            QpidByteBuffer buf = QpidByteBuffer.wrap(underlying);
-            buf.position(1);
-            buf = buf.slice();
-
-            metaData.writeToBuffer(buf);
+            byte[] underlying = encodeMetaData(metaData);
             ByteArrayInputStream bis = new ByteArrayInputStream(underlying);
             try
             {
@@ -897,6 +772,36 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
     }
 
 
+    private static byte[] encodeMetaData(final StorableMessageMetaData metaData)
+    {
+        final int bodySize = 1 + metaData.getStorableSize();
+        byte[] underlying = new byte[bodySize];
+        underlying[0] = (byte) metaData.getType().ordinal();
+        QpidByteBuffer buf = QpidByteBuffer.wrap(underlying);
+        buf.position(1);
+        buf = buf.slice();
+
+        metaData.writeToBuffer(buf);
+        return underlying;
+    }
+
+    private static byte[] encodeContent(final Collection<QpidByteBuffer> contentBody)
+    {
+        int size = 0;
+
+        for(QpidByteBuffer buf : contentBody)
+        {
+            size += buf.remaining();
+        }
+        byte[] data = new byte[size];
+        ByteBuffer dst = ByteBuffer.wrap(data);
+        for(QpidByteBuffer buf : contentBody)
+        {
+            buf.copyTo(dst);
+        }
+        return data;
+    }
+
     private static class RecordImpl implements Transaction.EnqueueRecord, Transaction.DequeueRecord, TransactionLogResource, EnqueueableMessage
     {
 
@@ -1022,18 +927,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
         PreparedStatement stmt = null;
 
-        int size = 0;
-
-        for(QpidByteBuffer buf : contentBody)
-        {
-            size += buf.remaining();
-        }
-        byte[] data = new byte[size];
-        ByteBuffer dst = ByteBuffer.wrap(data);
-        for(QpidByteBuffer buf : contentBody)
-        {
-            buf.copyTo(dst);
-        }
+        byte[] data = encodeContent(contentBody);
 
         try
         {
@@ -1112,21 +1006,14 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
 
     protected class JDBCTransaction implements Transaction
     {
-        private final ConnectionWrapper _connWrapper;
-        private int _storeSizeIncrease;
-        private final List<Runnable> _preCommitActions = new ArrayList<>();
+        private ConnectionWrapper _connWrapper;
+        private final List<StoredJDBCMessage<?>> _messagesToStore = new ArrayList<>();
+        private final List<MessageEnqueueRecord> _enqueues = new ArrayList<>();
+        private final List<MessageEnqueueRecord> _dequeues = new ArrayList<>();
         private final List<Runnable> _postCommitActions = new ArrayList<>();
 
         protected JDBCTransaction()
         {
-            try
-            {
-                _connWrapper = new ConnectionWrapper(newConnection());
-            }
-            catch (SQLException e)
-            {
-                throw new StoreException(e);
-            }
         }
 
         @Override
@@ -1137,26 +1024,15 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             final StoredMessage storedMessage = message.getStoredMessage();
             if(storedMessage instanceof StoredJDBCMessage)
             {
-                _preCommitActions.add(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        try
-                        {
-                            ((StoredJDBCMessage) storedMessage).store(_connWrapper.getConnection());
-                            _storeSizeIncrease += storedMessage.getMetaData().getContentSize();
-                        }
-                        catch (SQLException e)
-                        {
-                            throw new StoreException("Exception on enqueuing message into message store" + _messageId,
-                                                     e);
-                        }
-                    }
-                });
+                _messagesToStore.add((StoredJDBCMessage<?>) storedMessage);
             }
-            AbstractJDBCMessageStore.this.enqueueMessage(_connWrapper, queue, message.getMessageNumber());
-            return new JDBCEnqueueRecord(queue.getId(), message.getMessageNumber());
+
+            getLogger().debug("Enqueuing message {} on queue {} with id {}",
+                              message.getMessageNumber(), queue.getName(), queue.getId());
+
+            final JDBCEnqueueRecord enqueueRecord = new JDBCEnqueueRecord(queue.getId(), message.getMessageNumber());
+            _enqueues.add(enqueueRecord);
+            return enqueueRecord;
         }
 
         @Override
@@ -1164,18 +1040,16 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
-            AbstractJDBCMessageStore.this.dequeueMessage(_connWrapper,
-                                                         enqueueRecord.getQueueId(),
-                                                         enqueueRecord.getMessageNumber());
+            _dequeues.add(enqueueRecord);
         }
 
         @Override
         public void commitTran()
         {
             checkMessageStoreOpen();
-            doPreCommitActions();
-            AbstractJDBCMessageStore.this.commitTran(_connWrapper);
-            storedSizeChange(_storeSizeIncrease);
+            final int storeSizeIncrease = getStoreSizeIncrease();
+            commitIndividually();
+            storedSizeChange(storeSizeIncrease);
             doPostCommitActions();
         }
 
@@ -1183,20 +1057,95 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         public <X> ListenableFuture<X> commitTranAsync(final X val)
         {
             checkMessageStoreOpen();
-            doPreCommitActions();
-            ListenableFuture<X> futureResult = AbstractJDBCMessageStore.this.commitTranAsync(_connWrapper, val);
-            storedSizeChange(_storeSizeIncrease);
+            final int storeSizeIncrease = getStoreSizeIncrease();
+            ListenableFuture<X> futureResult = _commitThread.commitAsync(this, val);
+            storedSizeChange(storeSizeIncrease);
             doPostCommitActions();
             return futureResult;
         }
 
-        private void doPreCommitActions()
+        private int getStoreSizeIncrease()
+        {
+            int storeSizeIncrease = 0;
+            for(StoredJDBCMessage<?> message : _messagesToStore)
+            {
+                storeSizeIncrease += message.getMetaData().getContentSize();
+            }
+            return storeSizeIncrease;
+        }
+
+        /**
+         * Adds the writes of this transaction to the given batch.  Writes which have already been made on the
+         * connection belonging to this transaction (if any) are not included.
+         */
+        private void addTo(final JDBCBatch batch) throws SQLException
+        {
+            for(StoredJDBCMessage<?> message : _messagesToStore)
+            {
+                batch.storeMessage(message);
+            }
+            for(MessageEnqueueRecord enqueueRecord : _enqueues)
+            {
+                batch.enqueue(enqueueRecord);
+            }
+            for(MessageEnqueueRecord dequeueRecord : _dequeues)
+            {
+                batch.dequeue(dequeueRecord);
+            }
+        }
+
+        /**
+         * Returns true if the transaction has already written to its own connection, and so must be committed on
+         * that connection rather than as part of a group.
+         */
+        private boolean hasConnection()
+        {
+            return _connWrapper != null;
+        }
+
+        private void commitIndividually()
+        {
+            final ConnectionWrapper connWrapper = getConnectionWrapper();
+            final Connection conn = connWrapper.getConnection();
+            try
+            {
+                JDBCBatch batch = new JDBCBatch(conn);
+                try
+                {
+                    addTo(batch);
+                    batch.commit();
+                }
+                finally
+                {
+                    batch.close();
+                }
+                getLogger().debug("commit tran completed");
+            }
+            catch (SQLException e)
+            {
+                throw new StoreException("Error commit tx", e);
+            }
+            finally
+            {
+                _connWrapper = null;
+                JdbcUtils.closeConnection(conn, getLogger());
+            }
+        }
+
+        private ConnectionWrapper getConnectionWrapper()
         {
-            for(Runnable action : _preCommitActions)
+            if(_connWrapper == null)
             {
-                action.run();
+                try
+                {
+                    _connWrapper = new ConnectionWrapper(newConnection());
+                }
+                catch (SQLException e)
+                {
+                    throw new StoreException(e);
+                }
             }
-            _preCommitActions.clear();
+            return _connWrapper;
         }
 
         private void doPostCommitActions()
@@ -1216,8 +1165,20 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         public void abortTran()
         {
             checkMessageStoreOpen();
-            _preCommitActions.clear();
-            AbstractJDBCMessageStore.this.abortTran(_connWrapper);
+            _messagesToStore.clear();
+            _enqueues.clear();
+            _dequeues.clear();
+            if(_connWrapper != null)
+            {
+                try
+                {
+                    AbstractJDBCMessageStore.this.abortTran(_connWrapper);
+                }
+                finally
+                {
+                    _connWrapper = null;
+                }
+            }
         }
 
         @Override
@@ -1225,7 +1186,7 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
-            AbstractJDBCMessageStore.this.removeXid(_connWrapper,
+            AbstractJDBCMessageStore.this.removeXid(getConnectionWrapper(),
                                                     record.getFormat(),
                                                     record.getGlobalId(),
                                                     record.getBranchId());
@@ -1240,13 +1201,381 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         {
             checkMessageStoreOpen();
 
-            _postCommitActions.addAll(AbstractJDBCMessageStore.this.recordXid(_connWrapper, format, globalId, branchId, enqueues, dequeues));
+            _postCommitActions.addAll(AbstractJDBCMessageStore.this.recordXid(getConnectionWrapper(), format, globalId, branchId, enqueues, dequeues));
             return new JDBCStoredXidRecord(format, globalId, branchId);
         }
 
 
     }
 
+    /**
+     * Accumulates the writes of one or more transactions on a single connection as JDBC batches, so that the writes
+     * of many transactions reach the database in a handful of round trips and a single commit.
+     */
+    private final class JDBCBatch
+    {
+        private final Connection _connection;
+        private final List<StoredJDBCMessage<?>> _messages = new ArrayList<>();
+        private final List<MessageEnqueueRecord> _dequeues = new ArrayList<>();
+        private PreparedStatement _insertMetaData;
+        private PreparedStatement _insertContent;
+        private PreparedStatement _insertQueueEntry;
+        private PreparedStatement _deleteQueueEntry;
+        private boolean _committed;
+
+        private JDBCBatch(final Connection connection)
+        {
+            _connection = connection;
+        }
+
+        private void storeMessage(final StoredJDBCMessage<?> message) throws SQLException
+        {
+            if(message.addToBatch(this))
+            {
+                _messages.add(message);
+            }
+        }
+
+        private void addMetaData(final long messageId, final StorableMessageMetaData metaData) throws SQLException
+        {
+            getLogger().debug("Adding metadata for message {}", messageId);
+
+            if(_insertMetaData == null)
+            {
+                _insertMetaData = _connection.prepareStatement("INSERT INTO " + getMetaDataTableName()
+                                                               + "( message_id , meta_data ) values (?, ?)");
+            }
+            byte[] underlying = encodeMetaData(metaData);
+            _insertMetaData.setLong(1, messageId);
+            _insertMetaData.setBinaryStream(2, new ByteArrayInputStream(underlying), underlying.length);
+            _insertMetaData.addBatch();
+        }
+
+        private void addContent(final long messageId, final Collection<QpidByteBuffer> contentBody) throws SQLException
+        {
+            getLogger().debug("Adding content for message {}", messageId);
+
+            if(_insertContent == null)
+            {
+                _insertContent = _connection.prepareStatement("INSERT INTO " + getMessageContentTableName()
+                                                              + "( message_id, content ) values (?, ?)");
+            }
+            byte[] data = encodeContent(contentBody);
+            _insertContent.setLong(1, messageId);
+            _insertContent.setBinaryStream(2, new ByteArrayInputStream(data), data.length);
+            _insertContent.addBatch();
+        }
+
+        private void enqueue(final MessageEnqueueRecord enqueueRecord) throws SQLException
+        {
+            if(_insertQueueEntry == null)
+            {
+                _insertQueueEntry = _connection.prepareStatement("INSERT INTO " + getQueueEntryTableName()
+                                                                 + " (queue_id, message_id) values (?,?)");
+            }
+            _insertQueueEntry.setString(1, enqueueRecord.getQueueId().toString());
+            _insertQueueEntry.setLong(2, enqueueRecord.getMessageNumber());
+            _insertQueueEntry.addBatch();
+        }
+
+        private void dequeue(final MessageEnqueueRecord enqueueRecord) throws SQLException
+        {
+            getLogger().debug("Dequeuing message {} on queue with id {}",
+                              enqueueRecord.getMessageNumber(), enqueueRecord.getQueueId());
+
+            if(_deleteQueueEntry == null)
+            {
+                _deleteQueueEntry = _connection.prepareStatement("DELETE FROM " + getQueueEntryTableName()
+                                                                 + " WHERE queue_id = ? AND message_id =?");
+            }
+            _deleteQueueEntry.setString(1, enqueueRecord.getQueueId().toString());
+            _deleteQueueEntry.setLong(2, enqueueRecord.getMessageNumber());
+            _deleteQueueEntry.addBatch();
+            _dequeues.add(enqueueRecord);
+        }
+
+        private void commit() throws SQLException
+        {
+            // messages must be stored before they are enqueued
+            executeBatch(_insertMetaData);
+            executeBatch(_insertContent);
+            executeBatch(_insertQueueEntry);
+            if(_deleteQueueEntry != null)
+            {
+                int[] results = _deleteQueueEntry.executeBatch();
+                for(int i = 0; i < results.length; i++)
+                {
+                    if(results[i] != 1 && results[i] != Statement.SUCCESS_NO_INFO)
+                    {
+                        MessageEnqueueRecord enqueueRecord = _dequeues.get(i);
+                        throw new StoreException("Unable to find message with id " + enqueueRecord.getMessageNumber()
+                                                 + " on queue with id " + enqueueRecord.getQueueId());
+                    }
+                }
+            }
+            _connection.commit();
+            _committed = true;
+        }
+
+        private void executeBatch(final PreparedStatement stmt) throws SQLException
+        {
+            if(stmt != null)
+            {
+                stmt.executeBatch();
+            }
+        }
+
+        private void close()
+        {
+            if(!_committed)
+            {
+                try
+                {
+                    _connection.rollback();
+                }
+                catch (SQLException e)
+                {
+                    getLogger().debug("Failed to roll back batch", e);
+                }
+            }
+            for(StoredJDBCMessage<?> message : _messages)
+            {
+                message.storeCompleted(_committed);
+            }
+            JdbcUtils.closePreparedStatement(_insertMetaData, getLogger());
+            JdbcUtils.closePreparedStatement(_insertContent, getLogger());
+            JdbcUtils.closePreparedStatement(_insertQueueEntry, getLogger());
+            JdbcUtils.closePreparedStatement(_deleteQueueEntry, getLogger());
+        }
+    }
+
+    private static final class CommitJob<X>
+    {
+        private final JDBCTransaction _transaction;
+        private final X _value;
+        private final SettableFuture<X> _future = SettableFuture.create();
+
+        private CommitJob(final JDBCTransaction transaction, final X value)
+        {
+            _transaction = transaction;
+            _value = value;
+        }
+
+        private JDBCTransaction getTransaction()
+        {
+            return _transaction;
+        }
+
+        private SettableFuture<X> getFuture()
+        {
+            return _future;
+        }
+
+        private void complete()
+        {
+            _future.set(_value);
+        }
+
+        private void abort(Throwable e)
+        {
+            _future.setException(e);
+        }
+    }
+
+    /**
+     * Commits asynchronous transactions on behalf of the store.  Transactions which are waiting while a commit is in
+     * progress are written to the database together as a single batch and committed with a single commit, in the same
+     * way as the CoalescingCommiter of the BDB store.  If a group fails, each of its transactions is retried on its
+     * own so that the failure of one transaction is not reported to the others.
+     */
+    private final class CommitThread extends Thread
+    {
+        private static final int MAX_GROUP_SIZE = 256;
+
+        private final BlockingQueue<CommitJob<?>> _jobQueue = new LinkedBlockingQueue<>();
+        private final List<CommitJob<?>> _inProcessJobs = new ArrayList<>(MAX_GROUP_SIZE);
+        private final Object _lock = new Object();
+        private volatile boolean _stopped;
+
+        private CommitThread(final String name)
+        {
+            super(name);
+        }
+
+        @Override
+        public void run()
+        {
+            while (!_stopped || !_jobQueue.isEmpty())
+            {
+                CommitJob<?> job;
+                try
+                {
+                    job = _jobQueue.poll(500, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    continue;
+                }
+
+                if (job != null)
+                {
+                    _inProcessJobs.add(job);
+                    _jobQueue.drainTo(_inProcessJobs, MAX_GROUP_SIZE - 1);
+                    try
+                    {
+                        processJobs();
+                    }
+                    catch (RuntimeException | Error e)
+                    {
+                        getLogger().error("Commit thread failed, aborting outstanding transactions", e);
+                        abortJobs(e);
+                        throw e;
+                    }
+                    finally
+                    {
+                        _inProcessJobs.clear();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Stops the thread accepting jobs and fails those it has not completed, so that no caller is left waiting on a
+         * commit which will never happen.
+         */
+        private void abortJobs(final Throwable cause)
+        {
+            synchronized (_lock)
+            {
+                _stopped = true;
+            }
+            for (CommitJob<?> job : _inProcessJobs)
+            {
+                job.abort(cause);
+            }
+            CommitJob<?> job;
+            while ((job = _jobQueue.poll()) != null)
+            {
+                job.abort(cause);
+            }
+        }
+
+        private void processJobs()
+        {
+            List<CommitJob<?>> group = new ArrayList<>(_inProcessJobs.size());
+            for (CommitJob<?> job : _inProcessJobs)
+            {
+                if (job.getTransaction().hasConnection())
+                {
+                    commitIndividually(job);
+                }
+                else
+                {
+                    group.add(job);
+                }
+            }
+
+            if (group.size() == 1)
+            {
+                commitIndividually(group.get(0));
+            }
+            else if (!group.isEmpty())
+            {
+                try
+                {
+                    commitGroup(group);
+                    for (CommitJob<?> job : group)
+                    {
+                        job.complete();
+                    }
+                }
+                catch (SQLException | RuntimeException e)
+                {
+                    getLogger().debug("Failed to commit group of {} transactions, committing individually",
+                                      group.size(), e);
+                    for (CommitJob<?> job : group)
+                    {
+                        commitIndividually(job);
+                    }
+                }
+            }
+        }
+
+        private void commitGroup(final List<CommitJob<?>> group) throws SQLException
+        {
+            final Connection conn = newConnection();
+            try
+            {
+                JDBCBatch batch = new JDBCBatch(conn);
+                try
+                {
+                    for (CommitJob<?> job : group)
+                    {
+                        job.getTransaction().addTo(batch);
+                    }
+                    batch.commit();
+                }
+                finally
+                {
+                    batch.close();
+                }
+                getLogger().debug("commit of group of {} transactions completed", group.size());
+            }
+            finally
+            {
+                JdbcUtils.closeConnection(conn, getLogger());
+            }
+        }
+
+        private void commitIndividually(final CommitJob<?> job)
+        {
+            try
+            {
+                job.getTransaction().commitIndividually();
+                job.complete();
+            }
+            catch (RuntimeException e)
+            {
+                job.abort(e);
+            }
+        }
+
+        private <X> ListenableFuture<X> commitAsync(final JDBCTransaction transaction, final X val)
+        {
+            synchronized (_lock)
+            {
+                if (_stopped)
+                {
+                    throw new IllegalStateException("Commit thread is stopped");
+                }
+                CommitJob<X> job = new CommitJob<>(transaction, val);
+                _jobQueue.add(job);
+                return job.getFuture();
+            }
+        }
+
+        private void close()
+        {
+            // jobs already queued are still committed before the thread exits
+            synchronized (_lock)
+            {
+                _stopped = true;
+            }
+            if (Thread.currentThread() != this)
+            {
+                try
+                {
+                    join();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new StoreException("Commit thread has not shutdown", e);
+                }
+            }
+        }
+    }
+
     private static class JDBCStoredXidRecord implements Transaction.StoredXidRecord
     {
         private final long _format;
@@ -1412,6 +1741,9 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
         private final long _messageId;
 
         private MessageDataRef<T> _messageDataRef;
+        private boolean _storePending;
+        private boolean _removedWhileStorePending;
+        private int _removedContentSize;
 
 
         StoredJDBCMessage(long messageId, T metaData)
@@ -1588,11 +1920,60 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
             }
         }
 
+        /**
+         * Adds the writes needed to store this message to the batch, unless the message is already stored or is being
+         * stored by another batch.  The message is only treated as stored once the batch has been committed.
+         *
+         * @return true if the message was added to the batch
+         */
+        synchronized boolean addToBatch(final JDBCBatch batch) throws SQLException
+        {
+            if (_messageDataRef == null || stored() || _storePending)
+            {
+                return false;
+            }
+            batch.addMetaData(_messageId, _messageDataRef.getMetaData());
+            batch.addContent(_messageId,
+                             _messageDataRef.getData() == null
+                                     ? Collections.<QpidByteBuffer>emptySet()
+                                     : _messageDataRef.getData());
+            _storePending = true;
+            return true;
+        }
+
+        synchronized void storeCompleted(final boolean committed)
+        {
+            _storePending = false;
+            if (_removedWhileStorePending)
+            {
+                // the message was removed whilst the batch storing it was in flight, so its removal is completed now
+                _removedWhileStorePending = false;
+                storedSizeChange(-_removedContentSize);
+                if (committed)
+                {
+                    try
+                    {
+                        AbstractJDBCMessageStore.this.removeMessage(_messageId);
+                    }
+                    catch (StoreException e)
+                    {
+                        getLogger().warn("Failed to remove message {} after it was stored", _messageId, e);
+                    }
+                }
+            }
+            else if (committed && _messageDataRef != null && _messageDataRef.isHardRef())
+            {
+                getLogger().debug("Stored message {} to store", _messageId);
+                _messageDataRef = new MessageDataSoftRef<>(_messageDataRef.getMetaData(), _messageDataRef.getData());
+            }
+        }
+
         synchronized ListenableFuture<Void> flushToStore()
         {
             if (_messageDataRef != null)
             {
-                if(!stored())
+                // a message which is being stored by a batch is held in memory until the batch completes
+                if(!stored() && !_storePending)
                 {
                     try (Connection conn = newConnection())
                     {
@@ -1625,6 +2006,12 @@ public abstract class AbstractJDBCMessageStore implements MessageStore
                 AbstractJDBCMessageStore.this.removeMessage(_messageId);
                 storedSizeChange(-delta);
             }
+            else if(_storePending)
+            {
+                // the rows are deleted once the batch storing the message completes
+                _removedWhileStorePending = true;
+                _removedContentSize = delta;
+            }
             if(data != null)
             {
                 _messageDataRef.setData(null);
@@ -19,20 +19,34 @@
 
 package org.apache.qpid.server.store;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.qpid.server.util.BaseAction;
+import org.apache.qpid.server.util.DaemonThreadFactory;
 import org.apache.qpid.server.util.FileHelper;
 import org.apache.qpid.util.FileUtils;
 
@@ -48,6 +62,16 @@ public abstract class AbstractJsonFileStore
     private String _backupFileName;
     private String _tempFileName;
     private String _lockFileName;
+    private String _journalFileName;
+    private String _compactingJournalFileName;
+    private String _posixFileAttributes;
+
+    private FileChannel _journal;
+    private ObjectWriter _journalWriter;
+    private int _journalCompactionThreshold;
+    private int _journalLength;
+    private ExecutorService _compactionExecutor;
+    private Future<?> _compaction;
 
     protected AbstractJsonFileStore()
     {
@@ -94,6 +118,7 @@ public abstract class AbstractJsonFileStore
             _configFileName = fileFromSettings.getName();
             _backupFileName = fileFromSettings.getName() + ".bak";
             _tempFileName = fileFromSettings.getName() + ".tmp";
+            _journalFileName = fileFromSettings.getName() + ".journal";
 
             _lockFileName = fileFromSettings.getName() + ".lck";
         }
@@ -103,9 +128,12 @@ public abstract class AbstractJsonFileStore
             _configFileName = name + ".json";
             _backupFileName = name + ".bak";
             _tempFileName = name + ".tmp";
+            _journalFileName = name + ".journal";
 
             _lockFileName = name + ".lck";
         }
+        _compactingJournalFileName = _journalFileName + ".compacting";
+        _posixFileAttributes = posixFileAttributes;
 
 
         checkDirectoryIsWritable(_directoryName);
@@ -152,7 +180,14 @@ public abstract class AbstractJsonFileStore
 
     protected void cleanup()
     {
-        releaseFileLock();
+        try
+        {
+            closeJournal();
+        }
+        finally
+        {
+            releaseFileLock();
+        }
     }
 
     private void getFileLock()
@@ -230,6 +265,268 @@ public abstract class AbstractJsonFileStore
         }
     }
 
+    /**
+     * Replays the change records left in the journal by a store which was not closed cleanly, oldest first.
+     *
+     * @return the number of records replayed
+     */
+    protected int replayJournal(final JournalRecordHandler handler)
+    {
+        awaitCompaction();
+        int replayed = 0;
+        for (Path journalFile : new Path[] {getCompactingJournalFile(), getJournalFile()})
+        {
+            if (Files.exists(journalFile))
+            {
+                try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8))
+                {
+                    String line;
+                    while ((line = reader.readLine()) != null)
+                    {
+                        if (line.isEmpty())
+                        {
+                            continue;
+                        }
+
+                        final Map<String, Object> record;
+                        try
+                        {
+                            record = getSerialisationObjectMapper().readValue(line, Map.class);
+                        }
+                        catch (JsonProcessingException e)
+                        {
+                            // the record was cut short by the broker stopping part way through appending it
+                            LOGGER.warn("Ignoring incomplete record at the end of journal {}", journalFile);
+                            break;
+                        }
+                        handler.handle(record);
+                        replayed++;
+                    }
+                }
+                catch (IOException e)
+                {
+                    throw new StoreException("Cannot read journal " + journalFile, e);
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Starts appending changes to the journal rather than rewriting the store file for each of them.
+     *
+     * @param compactionThreshold the number of records after which the journal is compacted into the store file
+     */
+    protected void openJournal(final int compactionThreshold)
+    {
+        _journalCompactionThreshold = compactionThreshold;
+        _journalWriter = getSerialisationObjectMapper().writer().without(SerializationFeature.INDENT_OUTPUT);
+        _journal = openJournalChannel();
+        _journalLength = 0;
+    }
+
+    protected boolean isJournalOpen()
+    {
+        return _journal != null;
+    }
+
+    protected void appendToJournal(final Object record)
+    {
+        try
+        {
+            final byte[] bytes = _journalWriter.writeValueAsBytes(record);
+            final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 1);
+            buffer.put(bytes).put((byte) '\n').flip();
+            while (buffer.hasRemaining())
+            {
+                _journal.write(buffer);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new StoreException("Cannot append to journal " + getJournalFile(), e);
+        }
+        _journalLength++;
+    }
+
+    protected boolean isJournalCompactionDue()
+    {
+        return _journalLength >= _journalCompactionThreshold && (_compaction == null || _compaction.isDone());
+    }
+
+    /**
+     * Writes the given store content to the store file in the background.  The journal records written so far are
+     * set aside until the store file has been written, new records going to a fresh journal in the meantime.
+     */
+    protected void compactJournal(final Object data)
+    {
+        final Path journalFile = getJournalFile();
+        final Path compactingJournalFile = getCompactingJournalFile();
+        closeJournalChannel();
+        try
+        {
+            if (Files.exists(compactingJournalFile))
+            {
+                // an earlier compaction failed, so the records it set aside are still required
+                try (FileChannel compactingJournal = FileChannel.open(compactingJournalFile,
+                                                                      StandardOpenOption.WRITE,
+                                                                      StandardOpenOption.APPEND))
+                {
+                    Files.copy(journalFile, Channels.newOutputStream(compactingJournal));
+                }
+                Files.delete(journalFile);
+            }
+            else
+            {
+                _fileHelper.atomicFileMoveOrReplace(journalFile, compactingJournalFile);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new StoreException("Cannot set aside journal " + journalFile, e);
+        }
+        _journal = openJournalChannel();
+        _journalLength = 0;
+
+        if (_compactionExecutor == null)
+        {
+            _compactionExecutor = Executors.newSingleThreadExecutor(
+                    new DaemonThreadFactory("JsonStoreCompaction-" + _configFileName));
+        }
+        _compaction = _compactionExecutor.submit(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    save(data);
+                    Files.deleteIfExists(compactingJournalFile);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    LOGGER.error("Failed to compact journal " + compactingJournalFile + " into the store file", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the given store content to the store file, discarding any journal records as they are now contained
+     * in the store file.
+     */
+    protected void saveAndDiscardJournal(final Object data)
+    {
+        awaitCompaction();
+        save(data);
+
+        final boolean journalOpen = isJournalOpen();
+        closeJournalChannel();
+        try
+        {
+            Files.deleteIfExists(getJournalFile());
+            Files.deleteIfExists(getCompactingJournalFile());
+        }
+        catch (IOException e)
+        {
+            throw new StoreException("Cannot delete journal " + getJournalFile(), e);
+        }
+        if (journalOpen)
+        {
+            _journal = openJournalChannel();
+        }
+        _journalLength = 0;
+    }
+
+    /**
+     * Stops appending changes to the journal, waiting for any compaction in progress to complete.  Records still in
+     * the journal are replayed when the store is next opened unless discarded beforehand with
+     * {@link #saveAndDiscardJournal(Object)}.
+     */
+    protected void closeJournal()
+    {
+        try
+        {
+            awaitCompaction();
+        }
+        finally
+        {
+            if (_compactionExecutor != null)
+            {
+                _compactionExecutor.shutdown();
+                _compactionExecutor = null;
+            }
+            closeJournalChannel();
+        }
+    }
+
+    private FileChannel openJournalChannel()
+    {
+        final Path journalFile = getJournalFile();
+        try
+        {
+            _fileHelper.createNewFile(journalFile, _posixFileAttributes);
+            return FileChannel.open(journalFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        catch (IOException e)
+        {
+            throw new StoreException("Cannot open journal " + journalFile, e);
+        }
+    }
+
+    private void closeJournalChannel()
+    {
+        if (_journal != null)
+        {
+            try
+            {
+                _journal.close();
+            }
+            catch (IOException e)
+            {
+                throw new StoreException("Cannot close journal " + getJournalFile(), e);
+            }
+            finally
+            {
+                _journal = null;
+            }
+        }
+    }
+
+    private void awaitCompaction()
+    {
+        if (_compaction != null)
+        {
+            try
+            {
+                _compaction.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new StoreException("Interrupted whilst waiting for journal compaction", e);
+            }
+            catch (ExecutionException e)
+            {
+                throw new StoreException("Journal compaction failed", e.getCause());
+            }
+            finally
+            {
+                _compaction = null;
+            }
+        }
+    }
+
+    private Path getJournalFile()
+    {
+        return new File(_directoryName, _journalFileName).toPath();
+    }
+
+    private Path getCompactingJournalFile()
+    {
+        return new File(_directoryName, _compactingJournalFileName).toPath();
+    }
+
     private void releaseFileLock()
     {
         if (_fileLock != null)
@@ -269,9 +566,27 @@ public abstract class AbstractJsonFileStore
             {
                 LOGGER.info("Failed to delete the store at location " + storePath);
             }
+
+            if (_directoryName != null && _journalFileName != null)
+            {
+                try
+                {
+                    Files.deleteIfExists(getJournalFile());
+                    Files.deleteIfExists(getCompactingJournalFile());
+                }
+                catch (IOException e)
+                {
+                    LOGGER.info("Failed to delete the journal of the store at location " + storePath, e);
+                }
+            }
         }
 
         _configFileName = null;
         _directoryName = null;
     }
+
+    protected interface JournalRecordHandler
+    {
+        void handle(Map<String, Object> record);
+    }
 }
@@ -56,6 +56,9 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(JsonFileConfigStore.class);
 
+    private static final String JOURNAL_REMOVE = "remove";
+    private static final String JOURNAL_UPDATE = "update";
+
     private static final Comparator<Class<? extends ConfiguredObject>> CATEGORY_CLASS_COMPARATOR =
             new Comparator<Class<? extends ConfiguredObject>>()
             {
@@ -85,6 +88,8 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
     private volatile Map<String,Class<? extends ConfiguredObject>> _classNameMapping;
 
     private ConfiguredObject<?> _parent;
+    private boolean _journalEnabled;
+    private int _journalCompactionThreshold;
 
     private enum State { CLOSED, CONFIGURED, OPEN };
     private State _state = State.CLOSED;
@@ -115,6 +120,13 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
               fileBasedSettings.getStorePath(),
               parent.getContextValue(String.class, SystemConfig.POSIX_FILE_PERMISSIONS),
               Collections.emptyMap());
+
+        _journalEnabled = Boolean.TRUE.equals(parent.getContextValue(Boolean.class, SystemConfig.JSON_STORE_JOURNAL));
+        Integer compactionThreshold =
+                parent.getContextValue(Integer.class, SystemConfig.JSON_STORE_JOURNAL_COMPACTION_THRESHOLD);
+        _journalCompactionThreshold = compactionThreshold == null || compactionThreshold <= 0
+                ? SystemConfig.DEFAULT_JSON_STORE_JOURNAL_COMPACTION_THRESHOLD
+                : compactionThreshold;
         changeState(State.CLOSED, State.CONFIGURED);
 
     }
@@ -125,6 +137,10 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
     {
         changeState(State.CONFIGURED, State.OPEN);
         boolean isNew = load(initialRecords);
+        if (_journalEnabled)
+        {
+            openJournal(_journalCompactionThreshold);
+        }
         List<ConfiguredObjectRecord> records = new ArrayList<ConfiguredObjectRecord>(_objectsById.values());
         for(ConfiguredObjectRecord record : records)
         {
@@ -219,9 +235,23 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
                 }
                 idsForType.add(record.getId());
             }
-            if(updated)
+
+            int replayed = replayJournal(new JournalRecordHandler()
             {
-                save();
+                @Override
+                public void handle(final Map<String, Object> journalRecord)
+                {
+                    applyJournalRecord(journalRecord);
+                }
+            });
+            if (replayed > 0)
+            {
+                LOGGER.info("Replayed {} change(s) from the journal of configuration store {}", replayed, configFile);
+            }
+
+            if(updated || replayed > 0)
+            {
+                saveAndDiscardJournal(buildData());
             }
             return updated;
         }
@@ -231,6 +261,55 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void applyJournalRecord(final Map<String, Object> journalRecord)
+    {
+        final List<String> removedIds = (List<String>) journalRecord.get(JOURNAL_REMOVE);
+        if (removedIds != null)
+        {
+            for (String removedId : removedIds)
+            {
+                ConfiguredObjectRecord record = _objectsById.remove(UUID.fromString(removedId));
+                if (record != null)
+                {
+                    _idsByType.get(record.getType()).remove(record.getId());
+                }
+            }
+        }
+
+        final List<Map<String, Object>> updatedRecords = (List<Map<String, Object>>) journalRecord.get(JOURNAL_UPDATE);
+        if (updatedRecords != null)
+        {
+            for (Map<String, Object> updatedRecord : updatedRecords)
+            {
+                final Map<String, UUID> parents = new HashMap<>();
+                final Map<String, String> parentIds = (Map<String, String>) updatedRecord.get("parents");
+                if (parentIds != null)
+                {
+                    for (Map.Entry<String, String> parent : parentIds.entrySet())
+                    {
+                        parents.put(parent.getKey(), UUID.fromString(parent.getValue()));
+                    }
+                }
+                final ConfiguredObjectRecord record =
+                        new ConfiguredObjectRecordImpl(UUID.fromString((String) updatedRecord.get("id")),
+                                                       (String) updatedRecord.get("type"),
+                                                       (Map<String, Object>) updatedRecord.get("attributes"),
+                                                       parents);
+                if (_objectsById.put(record.getId(), record) == null)
+                {
+                    List<UUID> idsForType = _idsByType.get(record.getType());
+                    if (idsForType == null)
+                    {
+                        idsForType = new ArrayList<>();
+                        _idsByType.put(record.getType(), idsForType);
+                    }
+                    idsForType.add(record.getId());
+                }
+            }
+        }
+    }
+
     @Override
     public synchronized void create(ConfiguredObjectRecord record) throws StoreException
     {
@@ -273,7 +352,7 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
 
             idsForType.add(record.getId());
 
-            save();
+            persist(Collections.<UUID>emptyList(), Collections.singletonList(record));
         }
     }
 
@@ -291,7 +370,43 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
         return ids.get(0);
     }
 
-    private void save()
+    private void persist(final Collection<UUID> removedIds, final Collection<ConfiguredObjectRecord> updatedRecords)
+    {
+        if (isJournalOpen())
+        {
+            final Map<String, Object> journalRecord = new LinkedHashMap<>();
+            if (!removedIds.isEmpty())
+            {
+                journalRecord.put(JOURNAL_REMOVE, removedIds);
+            }
+            if (!updatedRecords.isEmpty())
+            {
+                final List<Map<String, Object>> records = new ArrayList<>(updatedRecords.size());
+                for (ConfiguredObjectRecord record : updatedRecords)
+                {
+                    final Map<String, Object> map = new LinkedHashMap<>();
+                    map.put("id", record.getId());
+                    map.put("type", record.getType());
+                    map.put("attributes", record.getAttributes());
+                    map.put("parents", record.getParents());
+                    records.add(map);
+                }
+                journalRecord.put(JOURNAL_UPDATE, records);
+            }
+            appendToJournal(journalRecord);
+
+            if (isJournalCompactionDue())
+            {
+                compactJournal(buildData());
+            }
+        }
+        else
+        {
+            save(buildData());
+        }
+    }
+
+    private Map<String, Object> buildData()
     {
         UUID rootId = getRootId();
         final Map<String, Object> data;
@@ -303,8 +418,7 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
         {
             data = build(_rootClass, rootId, createChildMap());
         }
-
-        save(data);
+        return data;
     }
 
     private Map<UUID, Map<String, SortedSet<ConfiguredObjectRecord>>> createChildMap()
@@ -425,7 +539,7 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
                 _idsByType.get(record.getType()).remove(record.getId());
             }
         }
-        save();
+        persist(removedIds, Collections.<ConfiguredObjectRecord>emptyList());
         return removedIds.toArray(new UUID[removedIds.size()]);
     }
 
@@ -472,9 +586,11 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
                 throw new StoreException("Cannot update record of unknown type " + type);
             }
         }
+        final List<ConfiguredObjectRecord> updatedRecords = new ArrayList<>(records.length);
         for(ConfiguredObjectRecord record : records)
         {
             record = new ConfiguredObjectRecordImpl(record);
+            updatedRecords.add(record);
             final UUID id = record.getId();
             final String type = record.getType();
             if(_objectsById.put(id, record) == null)
@@ -494,7 +610,7 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
             }
         }
 
-        save();
+        persist(Collections.<UUID>emptyList(), updatedRecords);
     }
 
     @Override
@@ -503,15 +619,27 @@ public class JsonFileConfigStore extends AbstractJsonFileStore implements Durabl
 
         try
         {
-            cleanup();
+            if (isJournalOpen())
+            {
+                // fold the journal into the store file so that it need not be replayed when the store is next opened
+                closeJournal();
+                saveAndDiscardJournal(buildData());
+            }
         }
         finally
         {
-            _idsByType.clear();
-            _objectsById.clear();
-            synchronized (_lock)
+            try
             {
-                _state = State.CLOSED;
+                cleanup();
+            }
+            finally
+            {
+                _idsByType.clear();
+                _objectsById.clear();
+                synchronized (_lock)
+                {
+                    _state = State.CLOSED;
+                }
             }
         }
     }
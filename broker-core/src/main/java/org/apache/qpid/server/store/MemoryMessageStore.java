@@ -22,6 +22,7 @@ package org.apache.qpid.server.store;
 
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -29,6 +30,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.util.concurrent.Futures;
@@ -48,9 +50,10 @@ public class MemoryMessageStore implements MessageStore
     private final AtomicLong _messageId = new AtomicLong(1);
 
     private final ConcurrentMap<Long, StoredMemoryMessage> _messages = new ConcurrentHashMap<Long, StoredMemoryMessage>();
-    private final Object _transactionLock = new Object();
-    private final Map<UUID, Set<Long>> _messageInstances = new HashMap<UUID, Set<Long>>();
-    private final Map<Xid, DistributedTransactionRecords> _distributedTransactions = new HashMap<Xid, DistributedTransactionRecords>();
+    private final ConcurrentMap<UUID, QueueMessageInstances> _messageInstances =
+            new ConcurrentHashMap<UUID, QueueMessageInstances>();
+    private final ConcurrentMap<Xid, DistributedTransactionRecords> _distributedTransactions =
+            new ConcurrentHashMap<Xid, DistributedTransactionRecords>();
 
 
     private final class MemoryMessageStoreTransaction implements Transaction
@@ -224,47 +227,114 @@ public class MemoryMessageStore implements MessageStore
         }
     }
 
-    private void commitTransactionInternal(MemoryMessageStoreTransaction transaction)
+    /**
+     * The ids of the messages enqueued on a single queue.  Transactions add ids to and remove ids from the set without
+     * locking.  Once the set becomes empty it is discarded, which briefly holds off transactions wanting to add to it
+     * until it has been removed from the store.
+     */
+    private static final class QueueMessageInstances
     {
-        synchronized (_transactionLock )
+        private static final int DISCARDED = -1;
+
+        private final Set<Long> _messageIds = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+        /** the number of transactions currently adding ids to the set, or DISCARDED */
+        private final AtomicInteger _adders = new AtomicInteger();
+
+        private boolean beginAdd()
         {
-            for (Map.Entry<UUID, Set<Long>> localEnqueuedEntry : transaction._localEnqueueMap.entrySet())
+            int adders;
+            do
             {
-                Set<Long> messageIds = _messageInstances.get(localEnqueuedEntry.getKey());
-                if (messageIds == null)
+                adders = _adders.get();
+                if (adders == DISCARDED)
                 {
-                    messageIds = new HashSet<Long>();
-                    _messageInstances.put(localEnqueuedEntry.getKey(), messageIds);
+                    return false;
                 }
-                messageIds.addAll(localEnqueuedEntry.getValue());
             }
+            while (!_adders.compareAndSet(adders, adders + 1));
+            return true;
+        }
+
+        private void endAdd()
+        {
+            _adders.decrementAndGet();
+        }
 
-            for (Map.Entry<UUID, Set<Long>> loacalDequeueEntry : transaction._localDequeueMap.entrySet())
+        private boolean discardIfEmpty()
+        {
+            if (_messageIds.isEmpty() && _adders.compareAndSet(0, DISCARDED))
             {
-                Set<Long> messageIds = _messageInstances.get(loacalDequeueEntry.getKey());
-                if (messageIds != null)
+                // an id may have been added (and the adder finished) after the emptiness check above
+                if (_messageIds.isEmpty())
                 {
-                    messageIds.removeAll(loacalDequeueEntry.getValue());
-                    if (messageIds.isEmpty())
-                    {
-                        _messageInstances.remove(loacalDequeueEntry.getKey());
-                    }
+                    return true;
                 }
+                _adders.set(0);
             }
+            return false;
+        }
+    }
 
-            for (Map.Entry<Xid, DistributedTransactionRecords> entry : transaction._localDistributedTransactionsRecords.entrySet())
-            {
-                _distributedTransactions.put(entry.getKey(), entry.getValue());
-            }
+    private void commitTransactionInternal(MemoryMessageStoreTransaction transaction)
+    {
+        for (Map.Entry<UUID, Set<Long>> localEnqueuedEntry : transaction._localEnqueueMap.entrySet())
+        {
+            addMessageInstances(localEnqueuedEntry.getKey(), localEnqueuedEntry.getValue());
+        }
 
-            for (Xid removed : transaction._localDistributedTransactionsRemoves)
+        for (Map.Entry<UUID, Set<Long>> localDequeueEntry : transaction._localDequeueMap.entrySet())
+        {
+            final UUID queueId = localDequeueEntry.getKey();
+            final QueueMessageInstances instances = _messageInstances.get(queueId);
+            if (instances != null)
             {
-                _distributedTransactions.remove(removed);
+                instances._messageIds.removeAll(localDequeueEntry.getValue());
+                if (instances.discardIfEmpty())
+                {
+                    _messageInstances.remove(queueId, instances);
+                }
             }
+        }
+
+        _distributedTransactions.putAll(transaction._localDistributedTransactionsRecords);
 
+        for (Xid removed : transaction._localDistributedTransactionsRemoves)
+        {
+            _distributedTransactions.remove(removed);
         }
+    }
 
+    private void addMessageInstances(final UUID queueId, final Set<Long> messageIds)
+    {
+        while (true)
+        {
+            QueueMessageInstances instances = _messageInstances.get(queueId);
+            if (instances == null)
+            {
+                final QueueMessageInstances newInstances = new QueueMessageInstances();
+                instances = _messageInstances.putIfAbsent(queueId, newInstances);
+                if (instances == null)
+                {
+                    instances = newInstances;
+                }
+            }
 
+            if (instances.beginAdd())
+            {
+                try
+                {
+                    instances._messageIds.addAll(messageIds);
+                }
+                finally
+                {
+                    instances.endAdd();
+                }
+                return;
+            }
+
+            // the instances are being discarded by a concurrent dequeue, wait for them to be removed or reinstated
+            Thread.yield();
+        }
     }
 
 
@@ -322,11 +392,8 @@ public class MemoryMessageStore implements MessageStore
     public void closeMessageStore()
     {
         _messages.clear();
-        synchronized (_transactionLock)
-        {
-            _messageInstances.clear();
-            _distributedTransactions.clear();
-        }
+        _messageInstances.clear();
+        _distributedTransactions.clear();
     }
 
     @Override
@@ -398,17 +465,14 @@ public class MemoryMessageStore implements MessageStore
         @Override
         public void visitMessageInstances(final MessageInstanceHandler handler) throws StoreException
         {
-            synchronized (_transactionLock)
+            for (Map.Entry<UUID, QueueMessageInstances> enqueuedEntry : _messageInstances.entrySet())
             {
-                for (Map.Entry<UUID, Set<Long>> enqueuedEntry : _messageInstances.entrySet())
+                UUID resourceId = enqueuedEntry.getKey();
+                for (Long messageId : enqueuedEntry.getValue()._messageIds)
                 {
-                    UUID resourceId = enqueuedEntry.getKey();
-                    for (Long messageId : enqueuedEntry.getValue())
+                    if (!handler.handle(new MemoryEnqueueRecord(resourceId, messageId)))
                     {
-                        if (!handler.handle(new MemoryEnqueueRecord(resourceId, messageId)))
-                        {
-                            return;
-                        }
+                        return;
                     }
                 }
             }
@@ -417,19 +481,16 @@ public class MemoryMessageStore implements MessageStore
         @Override
         public void visitMessageInstances(TransactionLogResource queue, final MessageInstanceHandler handler) throws StoreException
         {
-            synchronized (_transactionLock)
+            QueueMessageInstances instances = _messageInstances.get(queue.getId());
+            if(instances != null)
             {
-                Set<Long> ids = _messageInstances.get(queue.getId());
-                if(ids != null)
+                for (long id : instances._messageIds)
                 {
-                    for (long id : ids)
+                    if (!handler.handle(new MemoryEnqueueRecord(queue.getId(), id)))
                     {
-                        if (!handler.handle(new MemoryEnqueueRecord(queue.getId(), id)))
-                        {
-                            return;
-                        }
-
+                        return;
                     }
+
                 }
             }
         }
@@ -450,20 +511,17 @@ public class MemoryMessageStore implements MessageStore
         @Override
         public void visitDistributedTransactions(final DistributedTransactionHandler handler) throws StoreException
         {
-            synchronized (_transactionLock)
+            for (Map.Entry<Xid, DistributedTransactionRecords> entry : _distributedTransactions.entrySet())
             {
-                for (Map.Entry<Xid, DistributedTransactionRecords> entry : _distributedTransactions.entrySet())
+                Xid xid = entry.getKey();
+                DistributedTransactionRecords records = entry.getValue();
+                if (!handler.handle(new MemoryStoredXidRecord(xid.getFormat(),
+                                                              xid.getGlobalId(),
+                                                              xid.getBranchId()),
+                                    records.getEnqueues(),
+                                    records.getDequeues()))
                 {
-                    Xid xid = entry.getKey();
-                    DistributedTransactionRecords records = entry.getValue();
-                    if (!handler.handle(new MemoryStoredXidRecord(xid.getFormat(),
-                                                                  xid.getGlobalId(),
-                                                                  xid.getBranchId()),
-                                        records.getEnqueues(),
-                                        records.getDequeues()))
-                    {
-                        break;
-                    }
+                    break;
                 }
             }
         }
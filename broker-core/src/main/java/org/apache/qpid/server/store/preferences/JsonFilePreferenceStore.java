@@ -20,10 +20,12 @@
 package org.apache.qpid.server.store.preferences;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -39,17 +41,30 @@ import org.apache.qpid.server.store.StoreException;
 public class JsonFilePreferenceStore extends AbstractJsonFileStore implements PreferenceStore
 {
     private static final String DEFAULT_FILE_NAME = "userPreferences";
+    private static final String JOURNAL_REMOVE = "remove";
+    private static final String JOURNAL_UPDATE = "update";
     private final String _storePath;
     private final String _posixFilePermissions;
+    private final int _journalCompactionThreshold;
     private final ObjectMapper _objectMapper;
     private final Map<UUID, StoredPreferenceRecord> _recordMap;
     private StoreState _storeState = StoreState.CLOSED;
 
     public JsonFilePreferenceStore(String path, String posixFilePermissions)
+    {
+        this(path, posixFilePermissions, 0);
+    }
+
+    /**
+     * @param journalCompactionThreshold if positive, changes are appended to a journal which is compacted into the
+     *                                   store file after this many changes, rather than rewriting the store file
+     */
+    public JsonFilePreferenceStore(String path, String posixFilePermissions, int journalCompactionThreshold)
     {
         super();
         _storePath = path;
         _posixFilePermissions = posixFilePermissions;
+        _journalCompactionThreshold = journalCompactionThreshold;
         _objectMapper = ConfiguredObjectJacksonModule.newObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
         _recordMap = new LinkedHashMap<>();
     }
@@ -90,18 +105,47 @@ public class JsonFilePreferenceStore extends AbstractJsonFileStore implements Pr
                         BrokerModel.MODEL_VERSION));
             }
 
+            for (StoredPreferenceRecord preferenceRecord : storeContent.getPreferences())
+            {
+                _recordMap.put(preferenceRecord.getId(), preferenceRecord);
+            }
+
+            int replayed = replayJournal(new JournalRecordHandler()
+            {
+                @Override
+                public void handle(final Map<String, Object> journalRecord)
+                {
+                    applyJournalRecord(journalRecord);
+                }
+            });
+            if (replayed > 0)
+            {
+                final Collection<StoredPreferenceRecord> values = _recordMap.values();
+                storeContent.setPreferences(values.toArray(new StoredPreferenceRecord[values.size()]));
+            }
+
             Collection<PreferenceRecord> records = Arrays.<PreferenceRecord>asList(storeContent.getPreferences());
             if (storedVersion.lessThan(currentVersion))
             {
                 records = updater.updatePreferences(storedVersion.toString(), records);
                 storeContent.setVersion(BrokerModel.MODEL_VERSION);
                 storeContent.setPreferences(records.toArray(new StoredPreferenceRecord[records.size()]));
-                save(storeContent);
+
+                _recordMap.clear();
+                for (StoredPreferenceRecord preferenceRecord : storeContent.getPreferences())
+                {
+                    _recordMap.put(preferenceRecord.getId(), preferenceRecord);
+                }
+                saveAndDiscardJournal(storeContent);
+            }
+            else if (replayed > 0)
+            {
+                saveAndDiscardJournal(storeContent);
             }
 
-            for (StoredPreferenceRecord preferenceRecord : storeContent.getPreferences())
+            if (_journalCompactionThreshold > 0)
             {
-                _recordMap.put(preferenceRecord.getId(), preferenceRecord);
+                openJournal(_journalCompactionThreshold);
             }
 
             _storeState = StoreState.OPENED;
@@ -121,10 +165,22 @@ public class JsonFilePreferenceStore extends AbstractJsonFileStore implements Pr
     {
         if (_storeState != StoreState.CLOSED)
         {
-            cleanup();
-            _recordMap.clear();
+            try
+            {
+                if (_storeState == StoreState.OPENED && isJournalOpen())
+                {
+                    // fold the journal into the store file so that it need not be replayed when the store is next opened
+                    closeJournal();
+                    saveAndDiscardJournal(createStoreContent());
+                }
+            }
+            finally
+            {
+                cleanup();
+                _recordMap.clear();
 
-            _storeState = StoreState.CLOSED;
+                _storeState = StoreState.CLOSED;
+            }
         }
     }
 
@@ -141,7 +197,7 @@ public class JsonFilePreferenceStore extends AbstractJsonFileStore implements Pr
             return;
         }
 
-        updateOrCreateInternal(preferenceRecords);
+        updateOrCreateInternal(Collections.<UUID>emptyList(), preferenceRecords);
     }
 
     @Override
@@ -159,7 +215,7 @@ public class JsonFilePreferenceStore extends AbstractJsonFileStore implements Pr
         }
 
         _recordMap.keySet().removeAll(preferenceRecordsToRemove);
-        updateOrCreateInternal(preferenceRecordsToAdd);
+        updateOrCreateInternal(preferenceRecordsToRemove, preferenceRecordsToAdd);
     }
 
     @Override
@@ -175,16 +231,68 @@ public class JsonFilePreferenceStore extends AbstractJsonFileStore implements Pr
         return _objectMapper;
     }
 
-    private void updateOrCreateInternal(final Collection<PreferenceRecord> preferenceRecords)
+    private void updateOrCreateInternal(final Collection<UUID> removedIds,
+                                        final Collection<PreferenceRecord> preferenceRecords)
     {
+        final List<StoredPreferenceRecord> updatedRecords = new ArrayList<>(preferenceRecords.size());
         for (PreferenceRecord preferenceRecord : preferenceRecords)
         {
-            _recordMap.put(preferenceRecord.getId(), new StoredPreferenceRecord(preferenceRecord));
+            final StoredPreferenceRecord storedRecord = new StoredPreferenceRecord(preferenceRecord);
+            _recordMap.put(preferenceRecord.getId(), storedRecord);
+            updatedRecords.add(storedRecord);
+        }
+
+        if (isJournalOpen())
+        {
+            final Map<String, Object> journalRecord = new LinkedHashMap<>();
+            if (!removedIds.isEmpty())
+            {
+                journalRecord.put(JOURNAL_REMOVE, removedIds);
+            }
+            if (!updatedRecords.isEmpty())
+            {
+                journalRecord.put(JOURNAL_UPDATE, updatedRecords);
+            }
+            appendToJournal(journalRecord);
+
+            if (isJournalCompactionDue())
+            {
+                compactJournal(createStoreContent());
+            }
+        }
+        else
+        {
+            save(createStoreContent());
         }
+    }
 
+    private StoreContent createStoreContent()
+    {
         final Collection<StoredPreferenceRecord> values = _recordMap.values();
-        StoreContent newContent = new StoreContent(BrokerModel.MODEL_VERSION, values.toArray(new StoredPreferenceRecord[values.size()]));
-        save(newContent);
+        return new StoreContent(BrokerModel.MODEL_VERSION, values.toArray(new StoredPreferenceRecord[values.size()]));
+    }
+
+    private void applyJournalRecord(final Map<String, Object> journalRecord)
+    {
+        final Collection<?> removedIds = (Collection<?>) journalRecord.get(JOURNAL_REMOVE);
+        if (removedIds != null)
+        {
+            for (Object removedId : removedIds)
+            {
+                _recordMap.remove(UUID.fromString(String.valueOf(removedId)));
+            }
+        }
+
+        final Collection<?> updatedRecords = (Collection<?>) journalRecord.get(JOURNAL_UPDATE);
+        if (updatedRecords != null)
+        {
+            for (Object updatedRecord : updatedRecords)
+            {
+                final StoredPreferenceRecord record =
+                        _objectMapper.convertValue(updatedRecord, StoredPreferenceRecord.class);
+                _recordMap.put(record.getId(), record);
+            }
+        }
     }
 
     private enum StoreState
@@ -43,7 +43,24 @@ public class JsonFilePreferenceStoreFactoryService implements PreferenceStoreFac
             throw new IllegalConfigurationException("JsonFilePreferenceStore requires path");
         }
         final String posixFilePermissions = parent.getContextValue(String.class, SystemConfig.POSIX_FILE_PERMISSIONS);
-        return new JsonFilePreferenceStore((String) path, posixFilePermissions);
+        final boolean journalEnabled =
+                Boolean.TRUE.equals(parent.getContextValue(Boolean.class, SystemConfig.JSON_STORE_JOURNAL));
+        final Integer compactionThreshold =
+                parent.getContextValue(Integer.class, SystemConfig.JSON_STORE_JOURNAL_COMPACTION_THRESHOLD);
+        final int journalCompactionThreshold;
+        if (!journalEnabled)
+        {
+            journalCompactionThreshold = 0;
+        }
+        else if (compactionThreshold == null || compactionThreshold <= 0)
+        {
+            journalCompactionThreshold = SystemConfig.DEFAULT_JSON_STORE_JOURNAL_COMPACTION_THRESHOLD;
+        }
+        else
+        {
+            journalCompactionThreshold = compactionThreshold;
+        }
+        return new JsonFilePreferenceStore((String) path, posixFilePermissions, journalCompactionThreshold);
     }
 
     @Override
@@ -45,13 +45,22 @@ public class NetworkConnectionScheduler
     private final long _threadKeepAliveTimeout;
     private final String _name;
     private final int _numberOfSelectors;
+    private final boolean _workStealing;
     private SelectorThread _selectorThread;
 
     public NetworkConnectionScheduler(final String name,
                                       final int numberOfSelectors, int threadPoolSize,
                                       long threadKeepAliveTimeout)
     {
-        this(name, numberOfSelectors, threadPoolSize, threadKeepAliveTimeout, new ThreadFactory()
+        this(name, numberOfSelectors, threadPoolSize, threadKeepAliveTimeout, false);
+    }
+
+    public NetworkConnectionScheduler(final String name,
+                                      final int numberOfSelectors, int threadPoolSize,
+                                      long threadKeepAliveTimeout,
+                                      boolean workStealing)
+    {
+        this(name, numberOfSelectors, threadPoolSize, threadKeepAliveTimeout, workStealing, new ThreadFactory()
                                     {
                                         final AtomicInteger _count = new AtomicInteger();
 
@@ -76,6 +85,7 @@ public class NetworkConnectionScheduler
                ", _threadKeepAliveTimeout=" + _threadKeepAliveTimeout +
                ", _name='" + _name + '\'' +
                ", _numberOfSelectors=" + _numberOfSelectors +
+               ", _workStealing=" + _workStealing +
                ", _selectorThread=" + _selectorThread +
                '}';
     }
@@ -84,8 +94,23 @@ public class NetworkConnectionScheduler
                                       final int numberOfSelectors, int threadPoolSize,
                                       long threadKeepAliveTimeout,
                                       ThreadFactory factory)
+    {
+        this(name, numberOfSelectors, threadPoolSize, threadKeepAliveTimeout, false, factory);
+    }
+
+    /**
+     * @param workStealing if true, each thread of the pool has its own run queue and steals work from the queues of
+     *                     the other threads when its own is empty, rather than all threads taking work from a single
+     *                     shared queue
+     */
+    public NetworkConnectionScheduler(String name,
+                                      final int numberOfSelectors, int threadPoolSize,
+                                      long threadKeepAliveTimeout,
+                                      boolean workStealing,
+                                      ThreadFactory factory)
     {
         _name = name;
+        _workStealing = workStealing;
         _poolSize = threadPoolSize;
         _threadKeepAliveTimeout = threadKeepAliveTimeout;
         _factory = factory;
@@ -98,7 +123,7 @@ public class NetworkConnectionScheduler
     {
         try
         {
-            _selectorThread = new SelectorThread(this, _numberOfSelectors);
+            _selectorThread = new SelectorThread(this, _numberOfSelectors, _workStealing);
             _executor = new ThreadPoolExecutor(_poolSize, _poolSize,
                                                _threadKeepAliveTimeout, TimeUnit.MINUTES,
                                                new LinkedBlockingQueue<Runnable>(), _factory);
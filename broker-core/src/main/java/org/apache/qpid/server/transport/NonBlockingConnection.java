@@ -216,7 +216,7 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
 
     boolean wantsRead()
     {
-        return _fullyWritten;
+        return _fullyWritten && _delegate.readyForRead();
     }
 
     boolean wantsWrite()
@@ -270,7 +270,7 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
                     boolean dataRead = doRead();
                     _protocolEngine.setTransportBlockedForWriting(!doWrite());
 
-                    if (!_fullyWritten || dataRead || (_delegate.needsWork() && _delegate.getNetInputBuffer().position() != 0))
+                    if (!_fullyWritten || dataRead || _delegate.needsWork())
                     {
                         _protocolEngine.notifyWork();
                     }
@@ -478,12 +478,13 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         {
             int readData = readFromNetwork();
 
-            if (readData > 0)
+            if (readData > 0 || _delegate.needsWork())
             {
                 return _delegate.processData();
             }
             else
             {
+                _delegate.releaseIdleBuffers();
                 return false;
             }
         }
@@ -593,6 +594,19 @@ public class NonBlockingConnection implements ServerNetworkConnection, ByteBuffe
         _protocolEngine.received(applicationData);
     }
 
+    /**
+     * Called from a TLS handshake thread once the engine's delegated tasks are done, so that the handshake
+     * carries on even if no further network data arrives.
+     */
+    void handshakeTaskCompleted()
+    {
+        _protocolEngine.notifyWork();
+        if(!_scheduled.get())
+        {
+            getScheduler().schedule(this);
+        }
+    }
+
     public void setTransportEncryption(TransportEncryption transportEncryption)
     {
         NonBlockingConnectionDelegate oldDelegate = _delegate;
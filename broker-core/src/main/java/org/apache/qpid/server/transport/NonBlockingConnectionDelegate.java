@@ -61,8 +61,18 @@ interface NonBlockingConnectionDelegate
 
     boolean needsWork();
 
+    /**
+     * Returns the buffer into which network input is read, borrowing one from the buffer pool if the
+     * delegate is not currently holding one.
+     */
     QpidByteBuffer getNetInputBuffer();
 
+    /**
+     * Returns any buffers that hold no unprocessed data to the pool so that idle connections do not pin
+     * direct memory.
+     */
+    void releaseIdleBuffers();
+
     void shutdownInput();
 
     void shutdownOutput();
@@ -42,7 +42,6 @@ public class NonBlockingConnectionPlainDelegate implements NonBlockingConnection
     {
         _parent = parent;
         _networkBufferSize = port.getNetworkBufferSize();
-        _netInputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
     }
 
     @Override
@@ -57,7 +56,14 @@ public class NonBlockingConnectionPlainDelegate implements NonBlockingConnection
         _netInputBuffer.flip();
         _parent.processAmqpData(_netInputBuffer);
 
-        restoreApplicationBufferForWrite();
+        if (_netInputBuffer.hasRemaining())
+        {
+            restoreApplicationBufferForWrite();
+        }
+        else
+        {
+            releaseNetInputBuffer();
+        }
 
         return false;
     }
@@ -143,11 +149,29 @@ public class NonBlockingConnectionPlainDelegate implements NonBlockingConnection
     @Override
     public QpidByteBuffer getNetInputBuffer()
     {
+        if (_netInputBuffer == null)
+        {
+            _netInputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+        }
         return _netInputBuffer;
     }
 
+    @Override
+    public void releaseIdleBuffers()
+    {
+        if (_netInputBuffer != null && _netInputBuffer.position() == 0)
+        {
+            releaseNetInputBuffer();
+        }
+    }
+
     @Override
     public void shutdownInput()
+    {
+        releaseNetInputBuffer();
+    }
+
+    private void releaseNetInputBuffer()
     {
         if (_netInputBuffer != null)
         {
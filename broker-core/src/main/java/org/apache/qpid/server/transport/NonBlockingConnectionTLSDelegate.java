@@ -57,6 +57,9 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     private QpidByteBuffer _netInputBuffer;
     private QpidByteBuffer _netOutputBuffer;
     private QpidByteBuffer _applicationBuffer;
+    private final TlsHandshakeTaskExecutor _handshakeTaskExecutor;
+    private volatile boolean _handshakeTaskPending;
+    private volatile boolean _handshakeTaskCompleted;
 
 
     public NonBlockingConnectionTLSDelegate(NonBlockingConnection parent, AmqpPort port)
@@ -64,6 +67,7 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
         _parent = parent;
         _sslEngine = createSSLEngine(port);
         _networkBufferSize = port.getNetworkBufferSize();
+        _handshakeTaskExecutor = port.getTlsHandshakeTaskExecutor();
 
         final int tlsPacketBufferSize = _sslEngine.getSession().getPacketBufferSize();
         if (tlsPacketBufferSize > _networkBufferSize)
@@ -71,22 +75,24 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
             throw new ServerScopedRuntimeException("TLS implementation packet buffer size (" + tlsPacketBufferSize
                     + ") is greater then broker network buffer size (" + _networkBufferSize + ")");
         }
-
-        _netInputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
-        _applicationBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
-        _netOutputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
     }
 
     @Override
     public boolean readyForRead()
     {
-        return _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_WRAP;
+        return !_handshakeTaskPending
+               && _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_WRAP;
     }
 
     @Override
     public boolean processData() throws IOException
     {
+        _handshakeTaskCompleted = false;
         _netInputBuffer.flip();
+        if (_applicationBuffer == null)
+        {
+            _applicationBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+        }
         boolean readData = false;
         boolean tasksRun;
         int oldNetBufferPos;
@@ -116,7 +122,8 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
             restoreApplicationBufferForWrite();
 
         }
-        while((_netInputBuffer.hasRemaining() && (_netInputBuffer.position()>oldNetBufferPos)) || tasksRun);
+        while(!_handshakeTaskPending
+              && ((_netInputBuffer.hasRemaining() && (_netInputBuffer.position()>oldNetBufferPos)) || tasksRun));
 
         if(_netInputBuffer.hasRemaining())
         {
@@ -124,7 +131,14 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
         }
         else
         {
-            _netInputBuffer.clear();
+            _netInputBuffer.dispose();
+            _netInputBuffer = null;
+        }
+
+        if (_applicationBuffer.position() == 0)
+        {
+            _applicationBuffer.dispose();
+            _applicationBuffer = null;
         }
         return readData;
     }
@@ -164,6 +178,12 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
                 }
             }
         }
+
+        if (_encryptedOutput.isEmpty() && _netOutputBuffer != null)
+        {
+            _netOutputBuffer.dispose();
+            _netOutputBuffer = null;
+        }
         return new WriteResult(bufsSent && _encryptedOutput.isEmpty(), totalConsumed);
     }
 
@@ -203,6 +223,16 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
 
     private int wrapBufferArray(Collection<QpidByteBuffer> bufferArray) throws SSLException
     {
+        if (!hasDataToWrap(bufferArray))
+        {
+            return 0;
+        }
+
+        if (_netOutputBuffer == null)
+        {
+            _netOutputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+        }
+
         int totalConsumed = 0;
         boolean encrypted;
         do
@@ -241,7 +271,9 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
             }
 
         }
-        while(encrypted && _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP);
+        while(encrypted
+              && !_handshakeTaskPending
+              && _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP);
 
         if(_netOutputBuffer.position() != 0)
         {
@@ -256,14 +288,67 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
         return totalConsumed;
     }
 
+    private boolean hasDataToWrap(final Collection<QpidByteBuffer> bufferArray)
+    {
+        final SSLEngineResult.HandshakeStatus handshakeStatus = _sslEngine.getHandshakeStatus();
+        if (_handshakeTaskPending || handshakeStatus == SSLEngineResult.HandshakeStatus.NEED_UNWRAP)
+        {
+            return false;
+        }
+        else if (handshakeStatus != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING)
+        {
+            return true;
+        }
+
+        for (QpidByteBuffer buf : bufferArray)
+        {
+            if (buf.hasRemaining())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the tasks the engine has delegated.  If a handshake task executor is available the tasks are handed to
+     * it and the connection is rescheduled once they are done; until then the engine is left alone.
+     *
+     * @return true if tasks were run inline and the engine can make further progress straight away
+     */
     private boolean runSSLEngineTasks(final SSLEngineResult status)
     {
-        if(status.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK)
+        if(!_handshakeTaskPending && status.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK)
         {
+            final List<Runnable> tasks = new ArrayList<>();
             Runnable task;
             while((task = _sslEngine.getDelegatedTask()) != null)
             {
-                task.run();
+                tasks.add(task);
+            }
+
+            if (_handshakeTaskExecutor != null && !tasks.isEmpty())
+            {
+                _handshakeTaskPending = true;
+                if (_handshakeTaskExecutor.execute(tasks, new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        _handshakeTaskCompleted = true;
+                        _handshakeTaskPending = false;
+                        _parent.handshakeTaskCompleted();
+                    }
+                }))
+                {
+                    return false;
+                }
+                _handshakeTaskPending = false;
+            }
+
+            for (Runnable delegatedTask : tasks)
+            {
+                delegatedTask.run();
             }
 
             return true;
@@ -289,7 +374,11 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     @Override
     public boolean needsWork()
     {
-        return _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP;
+        return !_handshakeTaskPending
+               && (_handshakeTaskCompleted
+                   || _sslEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NEED_UNWRAP)
+               && _netInputBuffer != null
+               && _netInputBuffer.position() != 0;
     }
 
     private synchronized void checkPeerPrincipal()
@@ -341,9 +430,29 @@ public class NonBlockingConnectionTLSDelegate implements NonBlockingConnectionDe
     @Override
     public QpidByteBuffer getNetInputBuffer()
     {
+        if (_netInputBuffer == null)
+        {
+            _netInputBuffer = QpidByteBuffer.allocateDirect(_networkBufferSize);
+        }
         return _netInputBuffer;
     }
 
+    @Override
+    public void releaseIdleBuffers()
+    {
+        if (_netInputBuffer != null && _netInputBuffer.position() == 0)
+        {
+            _netInputBuffer.dispose();
+            _netInputBuffer = null;
+        }
+
+        if (_applicationBuffer != null && _applicationBuffer.position() == 0)
+        {
+            _applicationBuffer.dispose();
+            _applicationBuffer = null;
+        }
+    }
+
     @Override
     public void shutdownInput()
     {
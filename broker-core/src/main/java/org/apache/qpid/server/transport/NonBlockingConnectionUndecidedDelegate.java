@@ -128,6 +128,11 @@ public class NonBlockingConnectionUndecidedDelegate implements NonBlockingConnec
         return _netInputBuffer;
     }
 
+    @Override
+    public void releaseIdleBuffers()
+    {
+    }
+
     @Override
     public void shutdownInput()
     {
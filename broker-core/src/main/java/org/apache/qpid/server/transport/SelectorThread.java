@@ -59,16 +59,22 @@ class SelectorThread extends Thread
                                CommonProperties.IO_NETWORK_TRANSPORT_TIMEOUT_DEFAULT);
 
     static final String IO_THREAD_NAME_PREFIX  = "IO-";
-    private final Queue<Runnable> _tasks = new ConcurrentLinkedQueue<>();
 
     private final AtomicBoolean _closed = new AtomicBoolean();
     private final NetworkConnectionScheduler _scheduler;
 
-    private final BlockingQueue<Runnable> _workQueue = new LinkedBlockingQueue<>();
-    private final  AtomicInteger _nextSelectorTaskIndex = new AtomicInteger();
+    private final BlockingQueue<Runnable> _workQueue;
+    private final WorkStealingQueue _workStealingQueue;
 
+    /**
+     * Selects on a shard of the connections of the scheduler.  A connection is assigned to a shard when it is first
+     * added and remains with it until it leaves the scheduler, so that its channel is only ever registered with a
+     * single selector.  Accepting sockets are registered with the first shard.
+     */
     public final class SelectionTask implements Runnable
     {
+        private final int _index;
+        private final String _threadName;
         private final Selector _selector;
         private final AtomicBoolean _selecting = new AtomicBoolean();
         private final AtomicBoolean _inSelect = new AtomicBoolean();
@@ -84,10 +90,15 @@ class SelectorThread extends Thread
         /** Set of connections that are currently being selected upon */
         private final Set<NonBlockingConnection> _unscheduledConnections = new HashSet<>();
 
+        /** Tasks (registration and cancellation of accepting sockets) to be run by the thread selecting */
+        private final Queue<Runnable> _tasks = new ConcurrentLinkedQueue<>();
 
-
-        private SelectionTask() throws IOException
+        private SelectionTask(final int index, final int numberOfSelectors) throws IOException
         {
+            _index = index;
+            _threadName = numberOfSelectors == 1
+                    ? _scheduler.getSelectorThreadName()
+                    : _scheduler.getSelectorThreadName() + "-" + index;
             _selector = Selector.open();
         }
 
@@ -122,6 +133,26 @@ class SelectorThread extends Thread
             return _unscheduledConnections;
         }
 
+        private SelectorThread getSelectorThread()
+        {
+            return SelectorThread.this;
+        }
+
+        private void addTask(final Runnable task)
+        {
+            _tasks.add(task);
+            wakeup();
+        }
+
+        private void runTasks()
+        {
+            Runnable task;
+            while ((task = _tasks.poll()) != null)
+            {
+                task.run();
+            }
+        }
+
         private List<NonBlockingConnection> processUnscheduledConnections()
         {
             _nextTimeout = Integer.MAX_VALUE;
@@ -193,7 +224,7 @@ class SelectorThread extends Thread
                                      localSocketAddress, e);
                     }
 
-                    _workQueue.add(new Runnable()
+                    addWork(new Runnable()
                     {
                         @Override
                         public void run()
@@ -292,7 +323,7 @@ class SelectorThread extends Thread
                         {
                             if (!_closed.get())
                             {
-                                Thread.currentThread().setName(_scheduler.getSelectorThreadName());
+                                Thread.currentThread().setName(_threadName);
                                 _inSelect.set(true);
                                 try
                                 {
@@ -347,8 +378,11 @@ class SelectorThread extends Thread
 
                         if (!connections.isEmpty())
                         {
-                            _workQueue.addAll(connections);
-                            _workQueue.add(this);
+                            for (ConnectionProcessor connectionProcessor : connections)
+                            {
+                                addWork(connectionProcessor);
+                            }
+                            addWork(this);
                             for (ConnectionProcessor connectionProcessor : connections)
                             {
                                 connectionProcessor.processConnection();
@@ -401,14 +435,43 @@ class SelectorThread extends Thread
     private SelectionTask[] _selectionTasks;
 
     SelectorThread(final NetworkConnectionScheduler scheduler, final int numberOfSelectors) throws IOException
+    {
+        this(scheduler, numberOfSelectors, false);
+    }
+
+    SelectorThread(final NetworkConnectionScheduler scheduler,
+                   final int numberOfSelectors,
+                   final boolean workStealing) throws IOException
     {
         _scheduler = scheduler;
+        if (workStealing)
+        {
+            _workQueue = null;
+            _workStealingQueue = new WorkStealingQueue(scheduler.getPoolSize(), _closed);
+        }
+        else
+        {
+            _workQueue = new LinkedBlockingQueue<>();
+            _workStealingQueue = null;
+        }
         _selectionTasks = new SelectionTask[numberOfSelectors];
         for(int i = 0; i < numberOfSelectors; i++)
         {
-            _selectionTasks[i] = new SelectionTask();
+            _selectionTasks[i] = new SelectionTask(i, numberOfSelectors);
         }
         for(SelectionTask task : _selectionTasks)
+        {
+            addWork(task);
+        }
+    }
+
+    private void addWork(final Runnable task)
+    {
+        if (_workStealingQueue != null)
+        {
+            _workStealingQueue.add(task);
+        }
+        else
         {
             _workQueue.add(task);
         }
@@ -417,7 +480,7 @@ class SelectorThread extends Thread
     public void addAcceptingSocket(final ServerSocketChannel socketChannel,
                                    final NonBlockingNetworkTransport nonBlockingNetworkTransport)
     {
-        _tasks.add(new Runnable()
+        _selectionTasks[0].addTask(new Runnable()
         {
             @Override
             public void run()
@@ -440,7 +503,6 @@ class SelectorThread extends Thread
                 }
             }
         });
-        _selectionTasks[0].wakeup();
     }
 
     public void cancelAcceptingSocket(final ServerSocketChannel socketChannel)
@@ -468,7 +530,7 @@ class SelectorThread extends Thread
     private Future<Void> cancelAcceptingSocketAsync(final ServerSocketChannel socketChannel)
     {
         final SettableFuture<Void> cancellationResult = SettableFuture.create();
-        _tasks.add(new Runnable()
+        _selectionTasks[0].addTask(new Runnable()
         {
             @Override
             public void run()
@@ -503,13 +565,17 @@ class SelectorThread extends Thread
                 }
             }
         });
-        _selectionTasks[0].wakeup();
         return cancellationResult;
     }
 
     @Override
     public void run()
     {
+        if (_workStealingQueue != null)
+        {
+            _workStealingQueue.runWorker();
+            return;
+        }
 
         final String name = Thread.currentThread().getName();
         try
@@ -571,15 +637,6 @@ class SelectorThread extends Thread
         register.cancel();
     }
 
-    private void runTasks()
-    {
-        while(_tasks.peek() != null)
-        {
-            Runnable task = _tasks.poll();
-            task.run();
-        }
-    }
-
     private boolean selectionInterestRequiresUpdate(NonBlockingConnection connection)
     {
         SelectionTask selectionTask = connection.getSelectionTask();
@@ -608,8 +665,12 @@ class SelectorThread extends Thread
     {
         if(selectionInterestRequiresUpdate(connection))
         {
-            SelectionTask selectionTask = getNextSelectionTask();
-            connection.setSelectionTask(selectionTask);
+            SelectionTask selectionTask = connection.getSelectionTask();
+            if (selectionTask == null || selectionTask.getSelectorThread() != this)
+            {
+                selectionTask = getSelectionTask(connection);
+                connection.setSelectionTask(selectionTask);
+            }
             selectionTask.getUnregisteredConnections().add(connection);
             selectionTask.wakeup();
         }
@@ -632,15 +693,16 @@ class SelectorThread extends Thread
 
     }
 
-    private SelectionTask getNextSelectionTask()
+    private SelectionTask getSelectionTask(final NonBlockingConnection connection)
     {
-        int index;
-        do
+        if (_selectionTasks.length == 1)
         {
-            index = _nextSelectorTaskIndex.get();
+            return _selectionTasks[0];
         }
-        while(!_nextSelectorTaskIndex.compareAndSet(index, (index + 1) % _selectionTasks.length));
-        return _selectionTasks[index];
+        final SocketAddress remoteAddress = connection.getRemoteAddress();
+        int hash = remoteAddress == null ? System.identityHashCode(connection) : remoteAddress.hashCode();
+        hash ^= (hash >>> 16);
+        return _selectionTasks[(hash & Integer.MAX_VALUE) % _selectionTasks.length];
     }
 
     void removeConnection(NonBlockingConnection connection)
@@ -678,10 +740,17 @@ class SelectorThread extends Thread
         };
         _closed.set(true);
 
-        int count = _scheduler.getPoolSize();
-        while(count-- > 0)
+        if (_workStealingQueue != null)
         {
-            _workQueue.offer(goodNight);
+            _workStealingQueue.close();
+        }
+        else
+        {
+            int count = _scheduler.getPoolSize();
+            while (count-- > 0)
+            {
+                _workQueue.offer(goodNight);
+            }
         }
 
         for(SelectionTask task : _selectionTasks)
@@ -699,7 +768,7 @@ class SelectorThread extends Thread
          }
          if(connection.setScheduled())
          {
-             _workQueue.add(new ConnectionProcessor(_scheduler, connection));
+             addWork(new ConnectionProcessor(_scheduler, connection));
          }
      }
 }
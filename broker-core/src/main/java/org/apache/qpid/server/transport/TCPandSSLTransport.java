@@ -71,9 +71,11 @@ class TCPandSSLTransport implements AcceptingTransport
         }
 
         long threadPoolKeepAliveTimeout = _port.getContextValue(Long.class, AmqpPort.PORT_AMQP_THREAD_POOL_KEEP_ALIVE_TIMEOUT);
+        boolean workStealing = _port.getContextValue(Boolean.class, AmqpPort.PORT_AMQP_THREAD_POOL_WORK_STEALING);
 
         _scheduler = new NetworkConnectionScheduler("Port-"+_port.getName(), _port.getNumberOfSelectors(),
-                                                    _port.getThreadPoolSize(), threadPoolKeepAliveTimeout);
+                                                    _port.getThreadPoolSize(), threadPoolKeepAliveTimeout,
+                                                    workStealing);
         _scheduler.start();
         _networkTransport = new NonBlockingNetworkTransport(protocolEngineFactory,
                                                             encryptionSet, _scheduler, _port);
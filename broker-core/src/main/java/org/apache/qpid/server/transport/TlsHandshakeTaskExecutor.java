@@ -0,0 +1,133 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the delegated tasks of TLS handshakes (key agreement, certificate validation) away from the IO threads
+ * so that a burst of handshakes cannot starve established connections.  The queue of waiting tasks is bounded;
+ * once it is full, {@link #execute(List, Runnable)} refuses the tasks and the caller runs them itself.
+ */
+public class TlsHandshakeTaskExecutor
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(TlsHandshakeTaskExecutor.class);
+
+    private final ThreadPoolExecutor _executor;
+    private final AtomicLong _tasksCompleted = new AtomicLong();
+    private final AtomicLong _taskTimeNanos = new AtomicLong();
+
+    public TlsHandshakeTaskExecutor(final String name, final int threadPoolSize, final int queueCapacity)
+    {
+        _executor = new ThreadPoolExecutor(threadPoolSize, threadPoolSize,
+                                           0L, TimeUnit.MILLISECONDS,
+                                           new ArrayBlockingQueue<Runnable>(queueCapacity),
+                                           new ThreadFactory()
+                                           {
+                                               final AtomicInteger _count = new AtomicInteger();
+
+                                               @Override
+                                               public Thread newThread(final Runnable r)
+                                               {
+                                                   Thread t = Executors.defaultThreadFactory().newThread(r);
+                                                   t.setName("TLS-handshake-" + name + "-" + _count.incrementAndGet());
+                                                   t.setDaemon(true);
+                                                   return t;
+                                               }
+                                           });
+    }
+
+    /**
+     * @param tasks the delegated tasks to run, in order
+     * @param onCompletion run once all of the tasks have finished
+     * @return false if the queue is full or the executor has been shut down, in which case nothing has been run
+     */
+    boolean execute(final List<Runnable> tasks, final Runnable onCompletion)
+    {
+        final long submitted = System.nanoTime();
+        try
+        {
+            _executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        for (Runnable task : tasks)
+                        {
+                            task.run();
+                        }
+                    }
+                    catch (RuntimeException e)
+                    {
+                        LOGGER.warn("Exception running TLS handshake task", e);
+                    }
+                    finally
+                    {
+                        _taskTimeNanos.addAndGet(System.nanoTime() - submitted);
+                        _tasksCompleted.incrementAndGet();
+                        onCompletion.run();
+                    }
+                }
+            });
+            return true;
+        }
+        catch (RejectedExecutionException e)
+        {
+            return false;
+        }
+    }
+
+    public int getQueueDepth()
+    {
+        return _executor.getQueue().size();
+    }
+
+    public long getTasksCompleted()
+    {
+        return _tasksCompleted.get();
+    }
+
+    /**
+     * @return the total time in milliseconds that completed tasks spent queued and running
+     */
+    public long getTaskTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(_taskTimeNanos.get());
+    }
+
+    public void shutdown()
+    {
+        _executor.shutdownNow();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Distributes the work of a {@link SelectorThread} between the threads of its pool using a run queue per thread
+ * rather than a single shared queue.  Work added by a pool thread is added to its own queue, work added by any
+ * other thread is spread across the queues in turn.  A thread takes work from the head of its own queue and, when
+ * that is empty, steals from the tail of the queues of the other threads before parking.
+ */
+final class WorkStealingQueue
+{
+    private final Worker[] _workers;
+    private final AtomicInteger _registeredWorkers = new AtomicInteger();
+    private final AtomicInteger _nextWorker = new AtomicInteger();
+    private final ThreadLocal<Worker> _currentWorker = new ThreadLocal<>();
+    private final ConcurrentLinkedQueue<Worker> _idleWorkers = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean _closed;
+
+    WorkStealingQueue(final int numberOfWorkers, final AtomicBoolean closed)
+    {
+        _workers = new Worker[numberOfWorkers];
+        for (int i = 0; i < numberOfWorkers; i++)
+        {
+            _workers[i] = new Worker(i);
+        }
+        _closed = closed;
+    }
+
+    void add(final Runnable task)
+    {
+        final Worker current = _currentWorker.get();
+        final Worker worker = current == null
+                ? _workers[(_nextWorker.getAndIncrement() & Integer.MAX_VALUE) % _workers.length]
+                : current;
+        worker._tasks.add(task);
+        signalIdleWorker(current);
+    }
+
+    /**
+     * Runs work on the calling thread until the queue is closed.
+     */
+    void runWorker()
+    {
+        final int index = _registeredWorkers.getAndIncrement();
+        if (index >= _workers.length)
+        {
+            throw new IllegalStateException("More threads than the " + _workers.length + " expected");
+        }
+        final Worker worker = _workers[index];
+        worker._thread = Thread.currentThread();
+        _currentWorker.set(worker);
+        final String name = Thread.currentThread().getName();
+        try
+        {
+            while (!_closed.get())
+            {
+                Runnable task = poll(worker);
+                if (task == null)
+                {
+                    if (worker._idle.compareAndSet(false, true))
+                    {
+                        _idleWorkers.add(worker);
+                    }
+                    // re-check having advertised as idle, so work added meanwhile cannot be missed
+                    task = poll(worker);
+                    if (task == null && !_closed.get())
+                    {
+                        LockSupport.park(this);
+                    }
+                    worker._idle.set(false);
+                }
+
+                if (task != null)
+                {
+                    Thread.currentThread().setName(name);
+                    task.run();
+                }
+            }
+        }
+        finally
+        {
+            _currentWorker.remove();
+        }
+    }
+
+    void close()
+    {
+        for (Worker worker : _workers)
+        {
+            Thread thread = worker._thread;
+            if (thread != null)
+            {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    private Runnable poll(final Worker worker)
+    {
+        Runnable task = worker._tasks.pollFirst();
+        if (task == null)
+        {
+            for (int i = 1; i < _workers.length && task == null; i++)
+            {
+                task = _workers[(worker._index + i) % _workers.length]._tasks.pollLast();
+            }
+        }
+        return task;
+    }
+
+    private void signalIdleWorker(final Worker current)
+    {
+        Worker idle;
+        while ((idle = _idleWorkers.poll()) != null)
+        {
+            if (idle != current && idle._idle.compareAndSet(true, false))
+            {
+                LockSupport.unpark(idle._thread);
+                break;
+            }
+        }
+    }
+
+    private static final class Worker
+    {
+        private final int _index;
+        private final ConcurrentLinkedDeque<Runnable> _tasks = new ConcurrentLinkedDeque<>();
+        private final AtomicBoolean _idle = new AtomicBoolean();
+        private volatile Thread _thread;
+
+        private Worker(final int index)
+        {
+            _index = index;
+        }
+    }
+}
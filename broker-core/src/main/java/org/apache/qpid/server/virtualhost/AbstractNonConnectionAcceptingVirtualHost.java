@@ -29,6 +29,7 @@ import java.util.Map;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import org.apache.qpid.server.logging.messages.VirtualHostMessages;
+import org.apache.qpid.server.message.MessageConversionCache;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageSource;
 import org.apache.qpid.server.model.AbstractConfiguredObject;
@@ -156,6 +157,12 @@ public abstract class AbstractNonConnectionAcceptingVirtualHost<X extends Abstra
         return Collections.emptyList();
     }
 
+    @Override
+    public MessageConversionCache getMessageConversionCache()
+    {
+        return getAncestor(Broker.class).getMessageConversionCache();
+    }
+
     @Override
     public boolean isActive()
     {
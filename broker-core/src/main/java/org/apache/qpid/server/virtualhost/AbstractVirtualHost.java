@@ -86,6 +86,7 @@ import org.apache.qpid.server.logging.messages.VirtualHostMessages;
 import org.apache.qpid.server.logging.subjects.MessageStoreLogSubject;
 import org.apache.qpid.server.message.AMQMessageHeader;
 import org.apache.qpid.server.message.InstanceProperties;
+import org.apache.qpid.server.message.MessageConversionCache;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageNode;
 import org.apache.qpid.server.message.MessageSource;
@@ -1321,6 +1322,12 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
         return _broker;
     }
 
+    @Override
+    public MessageConversionCache getMessageConversionCache()
+    {
+        return _broker.getMessageConversionCache();
+    }
+
     private ListenableFuture<? extends Queue<?>> addQueueAsync(Map<String, Object> attributes)
     {
         if (shouldCreateDLQ(attributes))
@@ -2455,6 +2462,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
     {
 
         long threadPoolKeepAliveTimeout = getContextValue(Long.class, CONNECTION_THREAD_POOL_KEEP_ALIVE_TIMEOUT);
+        boolean workStealing = getContextValue(Boolean.class, VIRTUALHOST_CONNECTION_THREAD_POOL_WORK_STEALING);
 
         final SuppressingInheritedAccessControlContextThreadFactory connectionThreadFactory =
                 new SuppressingInheritedAccessControlContextThreadFactory("virtualhost-" + getName() + "-iopool",
@@ -2464,6 +2472,7 @@ public abstract class AbstractVirtualHost<X extends AbstractVirtualHost<X>> exte
                                                                      getNumberOfSelectors(),
                                                                      getConnectionThreadPoolSize(),
                                                                      threadPoolKeepAliveTimeout,
+                                                                     workStealing,
                                                                      connectionThreadFactory);
         _networkConnectionScheduler.start();
 
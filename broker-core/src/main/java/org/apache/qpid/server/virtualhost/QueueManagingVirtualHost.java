@@ -150,6 +150,14 @@ public interface QueueManagingVirtualHost<X extends QueueManagingVirtualHost<X>>
     @ManagedAttribute( defaultValue = "${" + QueueManagingVirtualHost.VIRTUALHOST_CONNECTION_THREAD_POOL_NUMBER_OF_SELECTORS + "}")
     int getNumberOfSelectors();
 
+    String VIRTUALHOST_CONNECTION_THREAD_POOL_WORK_STEALING = "virtualhost.connectionThreadPool.workStealing";
+    @SuppressWarnings("unused")
+    @ManagedContextDefault( name = VIRTUALHOST_CONNECTION_THREAD_POOL_WORK_STEALING,
+                            description = "If true, each thread of the virtual host's connection thread pool has its"
+                                          + " own run queue and steals work from the other threads when its queue is"
+                                          + " empty, rather than all threads sharing a single queue.")
+    boolean DEFAULT_VIRTUALHOST_CONNECTION_THREAD_POOL_WORK_STEALING = false;
+
 
 
     @ManagedAttribute( defaultValue = "${virtualhost.housekeepingThreadCount}")
@@ -225,6 +225,17 @@ public class HeadersExchangeTest extends QpidTestCase
     }
 
 
+    public void testBindingWithoutRequiredHeaders() throws Exception
+    {
+        Queue<?> q1 = createAndBind("Q1");
+        Queue<?> q2 = createAndBind("Q2", "F0000=Aardvark");
+        Queue<?> q3 = createAndBind("Q3", "X-match=any");
+
+        routeAndTest(mockMessage(getArgsMapFromStrings()), q1, q3);
+        routeAndTest(mockMessage(getArgsMapFromStrings("F0002")), q1, q3);
+        routeAndTest(mockMessage(getArgsMapFromStrings("F0000=Aardvark")), q1, q2, q3);
+    }
+
     public void testWithSelectors() throws Exception
     {
         Queue<?> q1 = create("Q1");
@@ -429,6 +429,39 @@ public class TopicExchangeTest extends QpidTestCase
 
     }
 
+    public void testRoutingKeyWords() throws Exception
+    {
+        Queue<?> queue = createQueue("emptyWords");
+        createBinding(UUID.randomUUID(), "a.*.b", queue, _exchange, null);
+
+        Assert.assertEquals("Empty word should match *", 1, routeMessage("a..b", 0l));
+        Assert.assertEquals("Trailing delimiters should be ignored", 1, routeMessage("a.c.b..", 1l));
+        Assert.assertEquals("Leading delimiter should give an empty first word", 0, routeMessage(".a.c.b", 2l));
+        Assert.assertEquals("Prefix of a word should not match", 0, routeMessage("aa.c.b", 3l));
+    }
+
+    public void testCachedRouteUpdatedOnBindAndUnbind() throws Exception
+    {
+        Queue<?> queue1 = createQueue("queue1");
+        Queue<?> queue2 = createQueue("queue2");
+        Queue<?> queue3 = createQueue("queue3");
+        createBinding(UUID.randomUUID(), "a.#", queue1, _exchange, null);
+        createBinding(UUID.randomUUID(), "*.b", queue2, _exchange, null);
+
+        Assert.assertEquals(2, routeMessage("a.b", 0l));
+        Assert.assertEquals(2, routeMessage("a.b", 1l));
+
+        createBinding(UUID.randomUUID(), "a.b", queue3, _exchange, null);
+        Assert.assertEquals("Route not updated after bind", 3, routeMessage("a.b", 2l));
+
+        _exchange.deleteBinding("*.b", queue2);
+        Assert.assertEquals("Route not updated after unbind", 2, routeMessage("a.b", 3l));
+
+        Assert.assertEquals(4, queue1.getQueueDepthMessages());
+        Assert.assertEquals(2, queue2.getQueueDepthMessages());
+        Assert.assertEquals(2, queue3.getQueueDepthMessages());
+    }
+
     // This demonstrates QPID-5785.  Deleting the exchange after this combination of binding
     // updates generated a NPE
     public void testUpdateBindingAddingSelector() throws Exception
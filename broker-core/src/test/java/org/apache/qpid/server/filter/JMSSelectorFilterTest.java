@@ -18,6 +18,9 @@
  */
 package org.apache.qpid.server.filter;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 import org.apache.qpid.test.utils.QpidTestCase;
 
 public class JMSSelectorFilterTest extends QpidTestCase
@@ -37,6 +40,94 @@ public class JMSSelectorFilterTest extends QpidTestCase
         assertNotEqual(filter1, differentFilter);
     }
 
+    public void testRequiredPropertyValue() throws Exception
+    {
+        assertEquals("west", new JMSSelectorFilter("region = 'west'").getRequiredPropertyValue("region"));
+        assertEquals("west", new JMSSelectorFilter("'west' = region").getRequiredPropertyValue("region"));
+        assertEquals("west",
+                     new JMSSelectorFilter("size > 3 AND (colour = 'red' AND region = 'west')").getRequiredPropertyValue(
+                             "region"));
+
+        assertNull(new JMSSelectorFilter("region = 'west' OR size > 3").getRequiredPropertyValue("region"));
+        assertNull(new JMSSelectorFilter("NOT region = 'west'").getRequiredPropertyValue("region"));
+        assertNull(new JMSSelectorFilter("region <> 'west'").getRequiredPropertyValue("region"));
+        assertNull(new JMSSelectorFilter("region = 3").getRequiredPropertyValue("region"));
+        assertNull(new JMSSelectorFilter("colour = 'red'").getRequiredPropertyValue("region"));
+        assertNull(new JMSSelectorFilter("JMSType = 'west'").getRequiredPropertyValue("JMSType"));
+    }
+
+    public void testCompiledSelectorMatchesInterpretedSelector() throws Exception
+    {
+        final String[] selectors = {"a = 5", "5 < a", "a >= 5.0", "a = 'red'", "a IS NULL", "NOT (a = 'red')",
+                                    "a LIKE 'r%' OR b = 5", "NOT (a = 'red' AND b > 3)", "1 = 2 OR a <> 5",
+                                    "a BETWEEN 2 AND 6 AND b IN ('red', 'blue')", "a > 2 + 3", "JMSPriority > 3"};
+        final Object[] values = {null, 5, 7L, (short) 5, 4.5, "red", "blue", true};
+
+        for (String selector : selectors)
+        {
+            JMSSelectorFilter interpreted = new JMSSelectorFilter(selector, false);
+            JMSSelectorFilter compiled = new JMSSelectorFilter(selector, true);
+            for (Object a : values)
+            {
+                for (Object b : values)
+                {
+                    Filterable message = mock(Filterable.class);
+                    when(message.getHeader("a")).thenReturn(a);
+                    when(message.getHeader("b")).thenReturn(b);
+                    when(message.getPriority()).thenReturn((byte) 4);
+
+                    assertEquals("Unexpected result for selector '" + selector + "' with a=" + a + ", b=" + b,
+                                 interpreted.matches(message),
+                                 compiled.matches(message));
+                }
+            }
+        }
+    }
+
+    public void testCompiledSelectorFailsWhereInterpretedSelectorFails() throws Exception
+    {
+        final String[] selectors = {"a LIKE 'r%' OR b + 1 > 2", "b + 1 > 2 OR a LIKE 'r%'",
+                                    "a = 'red' AND b * 2 = 4 AND a IS NULL", "b - 1 = 0 AND 1 = 2",
+                                    "a IN ('red') OR (b / 2 > 1 AND a > 3)"};
+        final Object[] values = {null, 5, "red", "blue", true};
+
+        for (String selector : selectors)
+        {
+            JMSSelectorFilter interpreted = new JMSSelectorFilter(selector, false);
+            JMSSelectorFilter compiled = new JMSSelectorFilter(selector, true);
+            for (Object a : values)
+            {
+                for (Object b : values)
+                {
+                    Filterable message = mock(Filterable.class);
+                    when(message.getHeader("a")).thenReturn(a);
+                    when(message.getHeader("b")).thenReturn(b);
+
+                    assertEquals("Unexpected outcome for selector '" + selector + "' with a=" + a + ", b=" + b,
+                                 getOutcome(interpreted, message),
+                                 getOutcome(compiled, message));
+                }
+            }
+        }
+
+        Filterable message = mock(Filterable.class);
+        when(message.getHeader("a")).thenReturn("red");
+        when(message.getHeader("b")).thenReturn(true);
+        assertEquals(Boolean.TRUE, getOutcome(new JMSSelectorFilter("a LIKE 'r%' OR b + 1 > 2", true), message));
+    }
+
+    private Object getOutcome(JMSSelectorFilter filter, Filterable message)
+    {
+        try
+        {
+            return filter.matches(message);
+        }
+        catch (RuntimeException e)
+        {
+            return e.getClass();
+        }
+    }
+
     private void assertEqualsAndHashCodeMatch(JMSSelectorFilter filter1, JMSSelectorFilter filter2)
     {
         String message = filter1 + " and " + filter2 + " should be equal";
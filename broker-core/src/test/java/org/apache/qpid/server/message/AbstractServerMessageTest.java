@@ -25,6 +25,7 @@ import static org.mockito.Mockito.when;
 
 import java.util.UUID;
 
+import org.apache.qpid.server.model.NamedAddressSpace;
 import org.apache.qpid.server.store.StorableMessageMetaData;
 import org.apache.qpid.server.store.StoredMessage;
 import org.apache.qpid.server.store.TransactionLogResource;
@@ -38,7 +39,14 @@ public class AbstractServerMessageTest extends QpidTestCase
         public TestMessage(final StoredMessage<T> handle,
                            final Object connectionReference)
         {
-            super(handle, connectionReference, 0);
+            this(handle, connectionReference, 0);
+        }
+
+        public TestMessage(final StoredMessage<T> handle,
+                           final Object connectionReference,
+                           final long size)
+        {
+            super(handle, connectionReference, size);
         }
 
         @Override
@@ -143,4 +151,115 @@ public class AbstractServerMessageTest extends QpidTestCase
         }
 
     }
+
+    public void testConversionCache()
+    {
+        MessageConversionCache cache = new MessageConversionCache(1000);
+        NamedAddressSpace addressSpace = mock(NamedAddressSpace.class);
+        when(addressSpace.getMessageConversionCache()).thenReturn(cache);
+        TestMessage<StorableMessageMetaData> msg = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this);
+        TestMessage<StorableMessageMetaData> converted = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this,100);
+
+        assertSame("Unreferenced message should not cache conversions",
+                   converted, msg.cacheConversion(TestMessage.class, addressSpace, converted));
+        assertNull(msg.getCachedConversion(TestMessage.class, addressSpace));
+
+        MessageReference<TestMessage<StorableMessageMetaData>> ref = msg.newReference();
+
+        assertSame(converted, msg.cacheConversion(TestMessage.class, addressSpace, converted));
+        assertSame(converted, msg.getCachedConversion(TestMessage.class, addressSpace));
+        assertNull("Conversion should not be shared with another address space",
+                   msg.getCachedConversion(TestMessage.class, mock(NamedAddressSpace.class)));
+        assertEquals(100, cache.getSize());
+
+        TestMessage<StorableMessageMetaData> other = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this,100);
+        assertSame("Existing conversion should be returned in preference to a concurrent conversion",
+                   converted, msg.cacheConversion(TestMessage.class, addressSpace, other));
+        assertEquals(100, cache.getSize());
+
+        ref.release();
+        assertNull(msg.getCachedConversion(TestMessage.class, addressSpace));
+        assertEquals(0, cache.getSize());
+    }
+
+    public void testConversionCacheLimit()
+    {
+        MessageConversionCache cache = new MessageConversionCache(99);
+        NamedAddressSpace addressSpace = mock(NamedAddressSpace.class);
+        when(addressSpace.getMessageConversionCache()).thenReturn(cache);
+        TestMessage<StorableMessageMetaData> msg = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this);
+        TestMessage<StorableMessageMetaData> converted = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this,100);
+        MessageReference<TestMessage<StorableMessageMetaData>> ref = msg.newReference();
+        try
+        {
+            assertSame(converted, msg.cacheConversion(TestMessage.class, addressSpace, converted));
+            assertNull("Conversion exceeding the limit should not be cached",
+                       msg.getCachedConversion(TestMessage.class, addressSpace));
+            assertEquals(0, cache.getSize());
+        }
+        finally
+        {
+            ref.release();
+        }
+    }
+
+    public void testFullConversionCacheEvictsOldestConversions()
+    {
+        MessageConversionCache cache = new MessageConversionCache(250);
+        NamedAddressSpace addressSpace = mock(NamedAddressSpace.class);
+        when(addressSpace.getMessageConversionCache()).thenReturn(cache);
+
+        TestMessage<StorableMessageMetaData> first = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this);
+        TestMessage<StorableMessageMetaData> second = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this);
+        TestMessage<StorableMessageMetaData> third = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this);
+        MessageReference<TestMessage<StorableMessageMetaData>> firstRef = first.newReference();
+        MessageReference<TestMessage<StorableMessageMetaData>> secondRef = second.newReference();
+        MessageReference<TestMessage<StorableMessageMetaData>> thirdRef = third.newReference();
+        try
+        {
+            TestMessage<StorableMessageMetaData> firstConverted = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this,100);
+            TestMessage<StorableMessageMetaData> secondConverted = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this,100);
+            TestMessage<StorableMessageMetaData> thirdConverted = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this,100);
+            first.cacheConversion(TestMessage.class, addressSpace, firstConverted);
+            second.cacheConversion(TestMessage.class, addressSpace, secondConverted);
+            assertEquals(200, cache.getSize());
+
+            // the messages whose conversions fill the cache remain referenced, so only eviction can make room
+            assertSame(thirdConverted, third.cacheConversion(TestMessage.class, addressSpace, thirdConverted));
+            assertSame("Conversion not cached when the cache was full",
+                       thirdConverted, third.getCachedConversion(TestMessage.class, addressSpace));
+            assertNull("Oldest conversion not evicted", first.getCachedConversion(TestMessage.class, addressSpace));
+            assertSame("Newer conversion unexpectedly evicted",
+                       secondConverted, second.getCachedConversion(TestMessage.class, addressSpace));
+            assertEquals(200, cache.getSize());
+
+            firstRef.release();
+            assertEquals("Release of a message with an evicted conversion changed the cache size",
+                         200, cache.getSize());
+            secondRef.release();
+            assertEquals(100, cache.getSize());
+        }
+        finally
+        {
+            thirdRef.release();
+        }
+        assertEquals(0, cache.getSize());
+    }
+
+    public void testConversionNotCachedWithoutCache()
+    {
+        NamedAddressSpace addressSpace = mock(NamedAddressSpace.class);
+        TestMessage<StorableMessageMetaData> msg = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this);
+        TestMessage<StorableMessageMetaData> converted = new TestMessage<StorableMessageMetaData>(mock(StoredMessage.class),this,100);
+        MessageReference<TestMessage<StorableMessageMetaData>> ref = msg.newReference();
+        try
+        {
+            assertSame(converted, msg.cacheConversion(TestMessage.class, addressSpace, converted));
+            assertNull(msg.getCachedConversion(TestMessage.class, addressSpace));
+        }
+        finally
+        {
+            ref.release();
+        }
+    }
 }
@@ -201,9 +201,13 @@ public class BrokerTestHelper
                 host = (AbstractVirtualHost) objectFactory.create(VirtualHost.class, attributes, virtualHostNode );
         host.start();
         when(virtualHostNode.getVirtualHost()).thenReturn(host);
-        _createdVirtualHosts.add(host);
         QpidTestCase testCase = QpidTestCase.getCurrentInstance();
-        testCase.registerTearDown(_closeVirtualHosts);
+        // outside of a test (e.g. when used by the benchmarks) the caller is responsible for closing the host
+        if (testCase != null)
+        {
+            _createdVirtualHosts.add(host);
+            testCase.registerTearDown(_closeVirtualHosts);
+        }
         return host;
     }
 
@@ -21,6 +21,8 @@ package org.apache.qpid.server.model.testmodels.singleton;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
 import java.util.Collections;
@@ -911,6 +913,36 @@ public class AbstractConfiguredObjectTest extends QpidTestCase
         assertTrue("Expected statistic not found", stats.containsKey("longStatistic"));
     }
 
+    public void testStatisticAndAttributeValuesReadThroughGetters() throws Exception
+    {
+        final String objectName = "myName";
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(TestSingleton.NAME, objectName);
+        attributes.put(TestSingleton.STRING_VALUE, "value");
+
+        TestSingleton object = _model.getObjectFactory().create(TestSingleton.class, attributes);
+
+        final long before = System.currentTimeMillis();
+        final Map<String, Object> stats = object.getStatistics(Collections.singletonList("longStatistic"));
+        assertEquals("Unexpected number of statistics", 1, stats.size());
+        assertTrue("Unexpected statistic value", (Long) stats.get("longStatistic") >= before);
+
+        assertEquals("Unexpected name", objectName, object.getAttribute(TestSingleton.NAME));
+        assertEquals("Unexpected string value", "value", object.getAttribute(TestSingleton.STRING_VALUE));
+
+        // the factory creates the subclass generated for the type, whose accessor calls the getters directly
+        final Method accessor = object.getClass().getDeclaredMethod("getManagedGetterValue", String.class);
+        accessor.setAccessible(true);
+        assertEquals("Unexpected value from generated accessor", "value", accessor.invoke(object, "getStringValue"));
+        assertEquals("Unexpected value from generated accessor", objectName, accessor.invoke(object, "getName"));
+
+        final Field unknownGetter = AbstractConfiguredObject.class.getDeclaredField("UNKNOWN_GETTER");
+        unknownGetter.setAccessible(true);
+        assertSame("Generated accessor should not know getter",
+                   unknownGetter.get(null), accessor.invoke(object, "getUnknownValue"));
+    }
+
     public void testAuditInformation() throws Exception
     {
         final String creatingUser = "creatingUser";
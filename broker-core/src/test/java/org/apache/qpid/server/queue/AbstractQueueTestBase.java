@@ -765,6 +765,46 @@ abstract class AbstractQueueTestBase extends QpidTestCase
     }
 
 
+    public void testIncrementalHousekeepingExpiresMessages() throws Exception
+    {
+        // with no time budget a housekeeping run only checks the first few entries of the queue, so the expired
+        // message behind the others is only found through the expiry index
+        recreateQueueWithIncrementalHousekeeping(0L);
+
+        final int numberOfMessages = 200;
+        for (long messageId = 0; messageId < numberOfMessages; messageId++)
+        {
+            _queue.enqueue(createMessage(messageId), null, null);
+        }
+        ServerMessage unexpiredMessage = createMessage((long) numberOfMessages);
+        when(unexpiredMessage.getExpiration()).thenReturn(System.currentTimeMillis() + 60000L);
+        _queue.enqueue(unexpiredMessage, null, null);
+        ServerMessage expiredMessage = createMessage((long) numberOfMessages + 1);
+        when(expiredMessage.getExpiration()).thenReturn(System.currentTimeMillis() - 5000L);
+        _queue.enqueue(expiredMessage, null, null);
+        assertEquals("Unexpected queue depth before housekeeping",
+                     numberOfMessages + 2, _queue.getQueueDepthMessages());
+
+        _queue.checkMessageStatus();
+
+        assertEquals("Unexpected queue depth after housekeeping",
+                     numberOfMessages + 1, _queue.getQueueDepthMessages());
+    }
+
+    protected void recreateQueueWithIncrementalHousekeeping(final long timeBudget)
+    {
+        _queue.close();
+        Map<String,Object> attributes = new HashMap<>(_arguments);
+        attributes.put(Queue.NAME, _qname);
+        attributes.put(Queue.OWNER, _owner);
+        Map<String,String> context = new HashMap<>();
+        context.put(Queue.QUEUE_INCREMENTAL_HOUSEKEEPING, "true");
+        context.put(Queue.QUEUE_HOUSEKEEPING_TIME_BUDGET, String.valueOf(timeBudget));
+        attributes.put(Queue.CONTEXT, context);
+
+        _queue = (AbstractQueue<?>) _virtualHost.createChild(Queue.class, attributes);
+    }
+
     public void testMaximumMessageTtl() throws Exception
     {
 
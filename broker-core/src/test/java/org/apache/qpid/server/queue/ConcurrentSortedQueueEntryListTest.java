@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.qpid.server.configuration.updater.CurrentThreadTaskExecutor;
+import org.apache.qpid.server.configuration.updater.TaskExecutor;
+import org.apache.qpid.server.logging.EventLogger;
+import org.apache.qpid.server.message.AMQMessageHeader;
+import org.apache.qpid.server.message.MessageReference;
+import org.apache.qpid.server.message.ServerMessage;
+import org.apache.qpid.server.model.BrokerModel;
+import org.apache.qpid.server.model.ConfiguredObjectFactory;
+import org.apache.qpid.server.model.ConfiguredObjectFactoryImpl;
+import org.apache.qpid.server.model.LifetimePolicy;
+import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
+
+public class ConcurrentSortedQueueEntryListTest extends QueueEntryListTestBase
+{
+    private static final String[] KEYS = SortedQueueEntryListTest.keys;
+    private static final String[] KEYS_SORTED = KEYS.clone();
+
+    private SortedQueueImpl _testQueue;
+    private ConcurrentSortedQueueEntryList _csqel;
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        Map<String,Object> attributes = new HashMap<String,Object>();
+        attributes.put(Queue.ID,UUID.randomUUID());
+        attributes.put(Queue.NAME, getName());
+        attributes.put(Queue.DURABLE, false);
+        attributes.put(Queue.LIFETIME_POLICY, LifetimePolicy.PERMANENT);
+        attributes.put(SortedQueue.SORT_KEY, "KEY");
+
+        final QueueManagingVirtualHost virtualHost = mock(QueueManagingVirtualHost.class);
+        when(virtualHost.getEventLogger()).thenReturn(new EventLogger());
+        ConfiguredObjectFactory factory = new ConfiguredObjectFactoryImpl(BrokerModel.getInstance());
+        when(virtualHost.getObjectFactory()).thenReturn(factory);
+        when(virtualHost.getModel()).thenReturn(factory.getModel());
+        when(virtualHost.getPrincipal()).thenReturn(mock(Principal.class));
+        TaskExecutor taskExecutor = CurrentThreadTaskExecutor.newStartedInstance();
+        when(virtualHost.getTaskExecutor()).thenReturn(taskExecutor);
+        when(virtualHost.getChildExecutor()).thenReturn(taskExecutor);
+        _testQueue = new SortedQueueImpl(attributes, virtualHost);
+        _testQueue.open();
+        _csqel = new ConcurrentSortedQueueEntryList(_testQueue, _testQueue.getQueueStatistics());
+
+        super.setUp();
+
+        Arrays.sort(KEYS_SORTED);
+
+        long messageId = 0L;
+        for(final String key : KEYS)
+        {
+            _csqel.add(generateTestMessage(messageId++, key), null);
+        }
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntryList getTestList()
+    {
+        return getTestList(false);
+    }
+
+    @Override
+    public ConcurrentSortedQueueEntryList getTestList(boolean newList)
+    {
+        if(newList)
+        {
+            return new ConcurrentSortedQueueEntryList(_testQueue, _testQueue.getQueueStatistics());
+        }
+        else
+        {
+            return _csqel;
+        }
+    }
+
+    public int getExpectedListLength()
+    {
+        return KEYS.length;
+    }
+
+    public long getExpectedFirstMsgId()
+    {
+        return 67L;
+    }
+
+    public ServerMessage getTestMessageToAdd()
+    {
+        return generateTestMessage(1, "test value");
+    }
+
+    @Override
+    protected SortedQueueImpl getTestQueue()
+    {
+        return _testQueue;
+    }
+
+    private ServerMessage generateTestMessage(final long id, final String keyValue)
+    {
+        final ServerMessage message = mock(ServerMessage.class);
+        AMQMessageHeader hdr = mock(AMQMessageHeader.class);
+        when(message.getMessageHeader()).thenReturn(hdr);
+        when(hdr.getHeader(eq("KEY"))).thenReturn(keyValue);
+        when(hdr.containsHeader(eq("KEY"))).thenReturn(true);
+        when(hdr.getHeaderNames()).thenReturn(Collections.singleton("KEY"));
+        MessageReference ref = mock(MessageReference.class);
+        when(ref.getMessage()).thenReturn(message);
+        when(message.newReference()).thenReturn(ref);
+        when(message.newReference(any(TransactionLogResource.class))).thenReturn(ref);
+        when(message.getMessageNumber()).thenReturn(id);
+
+        return message;
+    }
+
+    public void testIterator()
+    {
+        super.testIterator();
+
+        final QueueEntryIterator iter = getTestList().iterator();
+        int count = 0;
+        while(iter.advance())
+        {
+            assertEquals("Sorted queue entry value does not match sorted key array",
+                         KEYS_SORTED[count++], iter.getNode().getMessage().getMessageHeader().getHeader("KEY"));
+        }
+    }
+
+    public void testNonUniqueAndNullSortKeysKeepArrivalOrder() throws Exception
+    {
+        _csqel = getTestList(true);
+
+        long messageId = 0L;
+        while(messageId < 200)
+        {
+            _csqel.add(generateTestMessage(messageId, messageId % 2 == 0 ? null : "samekey"), null);
+            messageId++;
+        }
+
+        final QueueEntryIterator iter = _csqel.iterator();
+        long expectedId = 0L;
+        while(iter.advance())
+        {
+            final ServerMessage message = iter.getNode().getMessage();
+            if(expectedId == 200L)
+            {
+                expectedId = 1L;
+            }
+            assertEquals("Message id not as expected", expectedId, message.getMessageNumber());
+            expectedId += 2;
+        }
+        assertEquals("Not all entries were iterated", 201L, expectedId);
+    }
+
+    public void testNextOfDeletedEntry() throws Exception
+    {
+        _csqel = getTestList(true);
+
+        final QueueEntry a = _csqel.add(generateTestMessage(1, "A"), null);
+        final QueueEntry c = _csqel.add(generateTestMessage(2, "C"), null);
+
+        a.acquire();
+        a.delete();
+
+        final QueueEntry b = _csqel.add(generateTestMessage(3, "B"), null);
+
+        assertSame("Unexpected first entry", b, _csqel.next(_csqel.getHead()));
+        assertSame("Deleted entry should still have a successor", b, _csqel.next(a));
+        assertSame("Unexpected next entry", c, _csqel.next(b));
+        assertSame("Unexpected tail", c, _csqel.getTail());
+    }
+
+    public void testConcurrentAdd() throws Exception
+    {
+        _csqel = getTestList(true);
+
+        final int threadCount = 4;
+        final int messagesPerThread = 250;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final Thread[] threads = new Thread[threadCount];
+        for(int t = 0; t < threadCount; t++)
+        {
+            final int threadNumber = t;
+            final ServerMessage[] messages = new ServerMessage[messagesPerThread];
+            for(int i = 0; i < messagesPerThread; i++)
+            {
+                final int messageNumber = threadNumber * messagesPerThread + i;
+                messages[i] = generateTestMessage(messageNumber, String.format("%05d", messageNumber));
+            }
+            threads[t] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        startLatch.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for(ServerMessage message : messages)
+                    {
+                        _csqel.add(message, null);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        startLatch.countDown();
+        for(Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        final QueueEntryIterator iter = _csqel.iterator();
+        long expectedId = 0L;
+        while(iter.advance())
+        {
+            assertEquals("Entries not in sort key order", expectedId++, iter.getNode().getMessage().getMessageNumber());
+        }
+        assertEquals("Unexpected number of entries", (long) threadCount * messagesPerThread, expectedId);
+    }
+}
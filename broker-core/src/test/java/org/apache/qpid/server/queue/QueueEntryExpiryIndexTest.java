@@ -0,0 +1,160 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.queue;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class QueueEntryExpiryIndexTest extends QpidTestCase
+{
+    private static final long RESOLUTION = 100L;
+
+    private final Map<QueueEntry, Long> _entryIds = new IdentityHashMap<>();
+    private QueueEntryExpiryIndex _index;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _index = new QueueEntryExpiryIndex(RESOLUTION);
+    }
+
+    public void testResolutionMustBePositive()
+    {
+        try
+        {
+            new QueueEntryExpiryIndex(0L);
+            fail("Exception not thrown");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    public void testExpiredEntriesReturnedInBucketOrder()
+    {
+        final QueueEntry third = createEntry(1L, 350L);
+        final QueueEntry first = createEntry(2L, 120L);
+        final QueueEntry second = createEntry(3L, 250L);
+        _index.add(third, 350L);
+        _index.add(first, 120L);
+        _index.add(second, 250L);
+
+        assertEquals("Unexpected expired entries", Arrays.asList(first, second, third), _index.removeExpired(1000L));
+        assertEquals("Expired entries not removed", Collections.emptyList(), _index.removeExpired(1000L));
+    }
+
+    public void testEntriesWithinCurrentBucketExpireIndividually()
+    {
+        final QueueEntry early = createEntry(1L, 150L);
+        final QueueEntry late = createEntry(2L, 180L);
+        _index.add(early, 150L);
+        _index.add(late, 180L);
+
+        assertEquals("Unexpected expired entries", Collections.singletonList(early), _index.removeExpired(160L));
+        assertEquals("Unexpected expired entries", Collections.singletonList(late), _index.removeExpired(181L));
+    }
+
+    public void testUnexpiredBucketsNotReturned()
+    {
+        final QueueEntry entry = createEntry(1L, 550L);
+        _index.add(entry, 550L);
+
+        assertEquals("Unexpected expired entries", Collections.emptyList(), _index.removeExpired(499L));
+        assertEquals("Unexpected expired entries", Collections.singletonList(entry), _index.removeExpired(551L));
+    }
+
+    public void testRemovedEntryNotReturned()
+    {
+        final QueueEntry removed = createEntry(1L, 120L);
+        final QueueEntry kept = createEntry(2L, 130L);
+        _index.add(removed, 120L);
+        _index.add(kept, 130L);
+
+        _index.remove(removed, 120L);
+
+        assertEquals("Unexpected expired entries", Collections.singletonList(kept), _index.removeExpired(1000L));
+    }
+
+    public void testEntryWithExtendedTtlMovedToLaterBucket()
+    {
+        final QueueEntry entry = createEntry(1L, 120L);
+        _index.add(entry, 120L);
+
+        when(entry.getExpiration()).thenReturn(720L);
+
+        assertEquals("Unexpected expired entries", Collections.emptyList(), _index.removeExpired(500L));
+        assertEquals("Unexpected expired entries", Collections.singletonList(entry), _index.removeExpired(721L));
+    }
+
+    public void testEntryWithTtlRemovedIsDropped()
+    {
+        final QueueEntry entry = createEntry(1L, 120L);
+        _index.add(entry, 120L);
+
+        when(entry.getExpiration()).thenReturn(0L);
+
+        assertEquals("Unexpected expired entries", Collections.emptyList(), _index.removeExpired(500L));
+        when(entry.getExpiration()).thenReturn(120L);
+        assertEquals("Entry not dropped", Collections.emptyList(), _index.removeExpired(500L));
+    }
+
+    public void testDeletedEntryWithChangedTtlIsDropped()
+    {
+        final QueueEntry entry = createEntry(1L, 120L);
+        _index.add(entry, 120L);
+
+        when(entry.getExpiration()).thenReturn(720L);
+        when(entry.isDeleted()).thenReturn(true);
+
+        assertEquals("Unexpected expired entries", Collections.emptyList(), _index.removeExpired(500L));
+        assertEquals("Entry not dropped", Collections.emptyList(), _index.removeExpired(1000L));
+    }
+
+    private QueueEntry createEntry(final long id, final long expiration)
+    {
+        final QueueEntry entry = mock(QueueEntry.class);
+        _entryIds.put(entry, id);
+        when(entry.getExpiration()).thenReturn(expiration);
+        when(entry.compareTo(any(QueueEntry.class))).thenAnswer(new Answer<Integer>()
+        {
+            @Override
+            public Integer answer(final InvocationOnMock invocation) throws Throwable
+            {
+                final QueueEntry other = (QueueEntry) invocation.getArguments()[0];
+                return _entryIds.get(entry).compareTo(_entryIds.get(other));
+            }
+        });
+        return entry;
+    }
+}
@@ -26,6 +26,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.security.Principal;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -34,7 +35,10 @@ import java.util.concurrent.ConcurrentMap;
 
 import org.apache.qpid.server.configuration.updater.CurrentThreadTaskExecutor;
 import org.apache.qpid.server.configuration.updater.TaskExecutor;
+import org.apache.qpid.server.filter.FilterManager;
+import org.apache.qpid.server.filter.JMSSelectorFilter;
 import org.apache.qpid.server.logging.EventLogger;
+import org.apache.qpid.server.message.AMQMessageHeader;
 import org.apache.qpid.server.message.MessageReference;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.BrokerModel;
@@ -301,4 +305,46 @@ public class StandardQueueEntryListTest extends QueueEntryListTestBase
         next = next.getNextValidEntry();
         assertNull("The next entry after the last should be null", next);
     }
+
+    public void testPropertyIndex() throws Exception
+    {
+        StandardQueueImpl mockQueue = mock(StandardQueueImpl.class);
+        when(mockQueue.getContextValue(Integer.class, QUEUE_SCAVANGE_COUNT)).thenReturn(9);
+        QueueEntryPropertyIndex index = new QueueEntryPropertyIndex(Collections.singleton("region"));
+        StandardQueueEntryList sqel = new StandardQueueEntryList(mockQueue, new QueueStatistics(), index);
+
+        final QueueEntry[] entries = new QueueEntry[6];
+        for(int i = 0; i < entries.length; i++)
+        {
+            ServerMessage message = mock(ServerMessage.class);
+            when(message.getMessageNumber()).thenReturn((long) i);
+            AMQMessageHeader header = mock(AMQMessageHeader.class);
+            when(header.getHeader("region")).thenReturn(i % 2 == 0 ? "east" : "west");
+            when(message.getMessageHeader()).thenReturn(header);
+            MessageReference ref = mock(MessageReference.class);
+            when(ref.getMessage()).thenReturn(message);
+            when(message.newReference()).thenReturn(ref);
+            when(message.newReference(any(TransactionLogResource.class))).thenReturn(ref);
+            entries[i] = sqel.add(message, null);
+        }
+
+        FilterManager filters = new FilterManager();
+        filters.add("selector", new JMSSelectorFilter("priority > 2 AND region = 'west'"));
+        QueueEntryPropertyIndex.Key key = index.getKey(filters);
+        assertNotNull("Selector should have been matched to the index", key);
+
+        assertEquals("Unexpected first candidate", entries[1], index.next(key, sqel.getHead()));
+        assertEquals("Unexpected next candidate", entries[3], index.next(key, entries[1]));
+        assertEquals("Unexpected next candidate", entries[3], index.next(key, entries[2]));
+
+        entries[3].acquire();
+        entries[3].delete();
+
+        assertEquals("Deleted entry should have been skipped", entries[5], index.next(key, entries[1]));
+        assertNull("There should be no candidate after the last entry", index.next(key, entries[5]));
+
+        FilterManager unindexedFilters = new FilterManager();
+        unindexedFilters.add("selector", new JMSSelectorFilter("region = 'west' OR priority > 2"));
+        assertNull("Disjunction should not be matched to the index", index.getKey(unindexedFilters));
+    }
 }
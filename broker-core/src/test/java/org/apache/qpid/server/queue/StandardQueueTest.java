@@ -20,7 +20,15 @@
  */
 package org.apache.qpid.server.queue;
 
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -35,6 +43,7 @@ import org.apache.qpid.server.message.MessageInstanceConsumer;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.LifetimePolicy;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.QueueNotificationListener;
 import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageEnqueueRecord;
 import org.apache.qpid.server.virtualhost.QueueManagingVirtualHost;
@@ -66,6 +75,32 @@ public class StandardQueueTest extends AbstractQueueTestBase
     }
 
 
+    public void testIncrementalHousekeepingResumesWhereBudgetWasSpent() throws Exception
+    {
+        // with no time budget each housekeeping run checks a fixed number of entries before stopping
+        recreateQueueWithIncrementalHousekeeping(0L);
+        getQueue().setAttributes(Collections.<String, Object>singletonMap(Queue.ALERT_THRESHOLD_MESSAGE_SIZE, 100L));
+        final int largeMessageIndex = 150;
+        for (long messageId = 0; messageId < 2 * largeMessageIndex; messageId++)
+        {
+            ServerMessage message = createMessage(messageId);
+            if (messageId == largeMessageIndex)
+            {
+                when(message.getSize()).thenReturn(1000L);
+            }
+            getQueue().enqueue(message, null, null);
+        }
+        final QueueNotificationListener listener = mock(QueueNotificationListener.class);
+        getQueue().setNotificationListener(listener);
+
+        getQueue().checkMessageStatus();
+        getQueue().checkMessageStatus();
+        verify(listener, never()).notifyClients(eq(NotificationCheck.MESSAGE_SIZE_ALERT), eq(getQueue()), anyString());
+
+        getQueue().checkMessageStatus();
+        verify(listener).notifyClients(eq(NotificationCheck.MESSAGE_SIZE_ALERT), eq(getQueue()), anyString());
+    }
+
     /**
      * Tests that entry in dequeued state are not enqueued and not delivered to consumer
      */
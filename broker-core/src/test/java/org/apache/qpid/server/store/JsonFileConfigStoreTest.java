@@ -29,6 +29,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -42,6 +43,7 @@ import org.apache.qpid.server.model.ConfiguredObject;
 import org.apache.qpid.server.model.ConfiguredObjectFactory;
 import org.apache.qpid.server.model.ConfiguredObjectFactoryImpl;
 import org.apache.qpid.server.model.Queue;
+import org.apache.qpid.server.model.SystemConfig;
 import org.apache.qpid.server.model.VirtualHost;
 import org.apache.qpid.server.store.handler.ConfiguredObjectRecordHandler;
 import org.apache.qpid.server.util.ServerScopedRuntimeException;
@@ -453,6 +455,85 @@ public class JsonFileConfigStoreTest extends QpidTestCase
     }
 
 
+    public void testJournaledChangesSurviveRestart() throws Exception
+    {
+        enableJournal(2);
+        _store.init(_parent);
+        _store.openConfigurationStore(mock(ConfiguredObjectRecordHandler.class));
+        createRootRecord();
+
+        final UUID queueId = new UUID(0, 1);
+        final UUID queue2Id = new UUID(1, 1);
+        final String queueType = Queue.class.getSimpleName();
+        Map<String, Object> queueAttr = Collections.singletonMap("name", (Object) "q1");
+        _store.create(new ConfiguredObjectRecordImpl(queueId, queueType, queueAttr, getRootAsParentMap()));
+
+        queueAttr = new HashMap<>(queueAttr);
+        queueAttr.put("owner", "theowner");
+        _store.update(false, new ConfiguredObjectRecordImpl(queueId, queueType, queueAttr, getRootAsParentMap()));
+
+        final ConfiguredObjectRecordImpl queue2Record =
+                new ConfiguredObjectRecordImpl(queue2Id, queueType,
+                                               Collections.<String, Object>singletonMap("name", "q2"),
+                                               getRootAsParentMap());
+        _store.create(queue2Record);
+        _store.remove(queue2Record);
+
+        _store.closeConfigurationStore();
+        assertFalse("Journal should not exist after close",
+                    new File(_storeLocation, _parent.getName() + ".journal").exists());
+
+        _store.init(_parent);
+        _store.openConfigurationStore(_handler);
+        verify(_handler, times(1)).handle(matchesRecord(queueId, queueType, queueAttr));
+        verify(_handler, times(2)).handle(any(ConfiguredObjectRecord.class));
+        _store.closeConfigurationStore();
+    }
+
+    public void testJournalReplayedAfterUncleanShutdown() throws Exception
+    {
+        enableJournal(100);
+        _store.init(_parent);
+        _store.openConfigurationStore(mock(ConfiguredObjectRecordHandler.class));
+        createRootRecord();
+
+        final UUID queueId = new UUID(0, 1);
+        final String queueType = Queue.class.getSimpleName();
+        final Map<String, Object> queueAttr = Collections.singletonMap("name", (Object) "q1");
+        _store.create(new ConfiguredObjectRecordImpl(queueId, queueType, queueAttr, getRootAsParentMap()));
+
+        // copy the files of the open store, as they would be left behind by a broker which stopped abruptly
+        final File crashedStoreLocation = TestFileUtils.createTestDirectory("json", true);
+        try
+        {
+            for (String suffix : new String[]{".json", ".journal"})
+            {
+                final String fileName = _parent.getName() + suffix;
+                Files.copy(new File(_storeLocation, fileName).toPath(),
+                           new File(crashedStoreLocation, fileName).toPath());
+            }
+            _store.closeConfigurationStore();
+
+            when(_parent.getStorePath()).thenReturn(crashedStoreLocation.getAbsolutePath());
+            _store.init(_parent);
+            _store.openConfigurationStore(_handler);
+            verify(_handler, times(1)).handle(matchesRecord(queueId, queueType, queueAttr));
+            verify(_handler, times(1)).handle(matchesRecord(ANY_UUID, VIRTUAL_HOST_TYPE, ANY_MAP));
+            _store.closeConfigurationStore();
+        }
+        finally
+        {
+            FileUtils.delete(crashedStoreLocation, true);
+        }
+    }
+
+    private void enableJournal(final int compactionThreshold)
+    {
+        when(_parent.getContextValue(Boolean.class, SystemConfig.JSON_STORE_JOURNAL)).thenReturn(true);
+        when(_parent.getContextValue(Integer.class, SystemConfig.JSON_STORE_JOURNAL_COMPACTION_THRESHOLD))
+                .thenReturn(compactionThreshold);
+    }
+
     private void createRootRecord()
     {
         UUID rootRecordId = UUID.randomUUID();
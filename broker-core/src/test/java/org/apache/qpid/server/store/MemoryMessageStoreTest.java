@@ -20,11 +20,23 @@
  */
 package org.apache.qpid.server.store;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.server.message.EnqueueableMessage;
 import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.store.handler.MessageInstanceHandler;
 import org.apache.qpid.server.virtualhost.TestMemoryVirtualHost;
 
-import static org.mockito.Mockito.mock;
-
 public class MemoryMessageStoreTest extends MessageStoreTestCase
 {
 
@@ -47,4 +59,82 @@ public class MemoryMessageStoreTest extends MessageStoreTestCase
         // cannot re-open memory message store as it is not persistent
     }
 
+    public void testConcurrentEnqueueAndDequeueOnSameQueue() throws Exception
+    {
+        final int threads = 8;
+        final int messagesPerThread = 500;
+        final UUID queueId = UUID.randomUUID();
+        final TransactionLogResource queue = mock(TransactionLogResource.class);
+        when(queue.getId()).thenReturn(queueId);
+
+        final EnqueueableMessage[][] messages = new EnqueueableMessage[threads][messagesPerThread];
+        final Set<Long> expectedIds = new HashSet<>();
+        for (int t = 0; t < threads; t++)
+        {
+            for (int i = 0; i < messagesPerThread; i++)
+            {
+                long messageNumber = t * messagesPerThread + i;
+                messages[t][i] = mock(EnqueueableMessage.class);
+                when(messages[t][i].getMessageNumber()).thenReturn(messageNumber);
+                if (i >= messagesPerThread - 10)
+                {
+                    expectedIds.add(messageNumber);
+                }
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++)
+            {
+                final EnqueueableMessage[] threadMessages = messages[t];
+                futures[t] = executor.submit(new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        for (int i = 0; i < threadMessages.length; i++)
+                        {
+                            Transaction enqueueTransaction = getStore().newTransaction();
+                            MessageEnqueueRecord record = enqueueTransaction.enqueueMessage(queue, threadMessages[i]);
+                            enqueueTransaction.commitTran();
+
+                            // dequeue all but the last few messages so that the queue keeps emptying
+                            if (i < threadMessages.length - 10)
+                            {
+                                Transaction dequeueTransaction = getStore().newTransaction();
+                                dequeueTransaction.dequeueMessage(record);
+                                dequeueTransaction.commitTran();
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        final Set<Long> enqueuedIds = new HashSet<>();
+        getStore().newMessageStoreReader().visitMessageInstances(queue, new MessageInstanceHandler()
+        {
+            @Override
+            public boolean handle(final MessageEnqueueRecord record)
+            {
+                assertTrue("Duplicate message id " + record.getMessageNumber(),
+                           enqueuedIds.add(record.getMessageNumber()));
+                return true;
+            }
+        });
+        assertEquals("Unexpected message instances", expectedIds, enqueuedIds);
+    }
+
 }
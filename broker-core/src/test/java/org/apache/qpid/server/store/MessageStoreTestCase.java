@@ -29,11 +29,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import org.hamcrest.Description;
 import org.mockito.ArgumentMatcher;
 
@@ -284,6 +289,41 @@ public abstract class MessageStoreTestCase extends QpidTestCase
         assertTrue("Message with id " + messageId2 + " is not found", enqueuedIds.contains(messageId2));
     }
 
+    public void testCommitTransactionAsync() throws Exception
+    {
+        final UUID mockQueueId = UUIDGenerator.generateRandomUUID();
+        TransactionLogResource mockQueue = createTransactionLogResource(mockQueueId);
+
+        List<ListenableFuture<Long>> futures = new ArrayList<>();
+        List<MessageEnqueueRecord> enqueueRecords = new ArrayList<>();
+        for (long messageId = 40L; messageId < 50L; messageId++)
+        {
+            Transaction txn = getStore().newTransaction();
+            enqueueRecords.add(txn.enqueueMessage(mockQueue, createEnqueueableMessage(messageId)));
+            futures.add(txn.commitTranAsync(messageId));
+        }
+
+        for (int i = 0; i < futures.size(); i++)
+        {
+            assertEquals("Unexpected future value", Long.valueOf(40L + i), futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+
+        Transaction txn = getStore().newTransaction();
+        txn.dequeueMessage(enqueueRecords.get(0));
+        txn.commitTranAsync(null).get(10, TimeUnit.SECONDS);
+
+        QueueFilteringMessageInstanceHandler filter = new QueueFilteringMessageInstanceHandler(mockQueueId);
+        _storeReader.visitMessageInstances(filter);
+        Set<Long> enqueuedIds = filter.getEnqueuedIds();
+
+        assertEquals("Number of enqueued messages is incorrect", 9, enqueuedIds.size());
+        assertFalse("Dequeued message is found", enqueuedIds.contains(40L));
+        for (long messageId = 41L; messageId < 50L; messageId++)
+        {
+            assertTrue("Message with id " + messageId + " is not found", enqueuedIds.contains(messageId));
+        }
+    }
+
     public void testRollbackTransactionBeforeCommit() throws Exception
     {
         final UUID mockQueueId = UUIDGenerator.generateRandomUUID();
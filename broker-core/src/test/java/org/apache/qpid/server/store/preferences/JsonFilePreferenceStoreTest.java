@@ -28,6 +28,7 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -160,6 +161,74 @@ public class JsonFilePreferenceStoreTest extends QpidTestCase
         }
     }
 
+    public void testJournaledReplace() throws Exception
+    {
+        UUID prefId = UUID.randomUUID();
+        Map<String, Object> attributes = Collections.<String, Object>singletonMap("test1", "test2");
+        createSingleEntryTestFile(prefId, attributes);
+
+        final UUID newPrefId = UUID.randomUUID();
+        final Map<String, Object> newAttributes = new HashMap<>();
+        newAttributes.put("test3", "test4");
+        final PreferenceRecord newRecord = new PreferenceRecordImpl(newPrefId, newAttributes);
+
+        _store = new JsonFilePreferenceStore(_storeFile.getPath(), SystemConfig.DEFAULT_POSIX_FILE_PERMISSIONS, 100);
+        _store.openAndLoad(_updater);
+        _store.replace(Collections.singleton(prefId), Collections.singleton(newRecord));
+
+        File journalFile = new File(_storeFile.getPath() + ".journal");
+        assertTrue("Journal should exist whilst the store is open", journalFile.exists());
+
+        _store.close();
+
+        assertFalse("Journal should not exist after close", journalFile.exists());
+        assertSinglePreferenceRecordInStore(newPrefId, newAttributes);
+    }
+
+    public void testJournalReplayedAfterUncleanShutdown() throws Exception
+    {
+        UUID prefId = UUID.randomUUID();
+        Map<String, Object> attributes = Collections.<String, Object>singletonMap("test1", "test2");
+        createSingleEntryTestFile(prefId, attributes);
+
+        final UUID newPrefId = UUID.randomUUID();
+        final Map<String, Object> newAttributes = new HashMap<>();
+        newAttributes.put("test3", "test4");
+        final PreferenceRecord newRecord = new PreferenceRecordImpl(newPrefId, newAttributes);
+
+        _store = new JsonFilePreferenceStore(_storeFile.getPath(), SystemConfig.DEFAULT_POSIX_FILE_PERMISSIONS, 100);
+        _store.openAndLoad(_updater);
+        _store.replace(Collections.singleton(prefId), Collections.singleton(newRecord));
+
+        // copy the files of the open store, as they would be left behind by a broker which stopped abruptly
+        final File crashedStoreFile = new File(TMP_FOLDER, getTestName() + System.currentTimeMillis() + ".crashed.json");
+        final File crashedJournalFile = new File(crashedStoreFile.getPath() + ".journal");
+        try
+        {
+            Files.copy(_storeFile.toPath(), crashedStoreFile.toPath());
+            Files.copy(new File(_storeFile.getPath() + ".journal").toPath(), crashedJournalFile.toPath());
+            _store.close();
+
+            _store = new JsonFilePreferenceStore(crashedStoreFile.getPath(),
+                                                 SystemConfig.DEFAULT_POSIX_FILE_PERMISSIONS);
+            Collection<PreferenceRecord> records = _store.openAndLoad(_updater);
+
+            assertEquals("Unexpected size of stored preferences", 1, records.size());
+            PreferenceRecord storeRecord = records.iterator().next();
+            assertEquals("Unexpected stored preference id", newPrefId, storeRecord.getId());
+            assertEquals("Unexpected stored preference attributes",
+                         newAttributes,
+                         new HashMap<>(storeRecord.getAttributes()));
+            assertFalse("Journal should be discarded once replayed", crashedJournalFile.exists());
+        }
+        finally
+        {
+            _store.close();
+            FileUtils.delete(crashedStoreFile, true);
+            FileUtils.delete(crashedJournalFile, true);
+        }
+    }
+
     private void createSingleEntryTestFile(final UUID prefId, final Map<String, Object> attributes) throws IOException
     {
         Map<String, Object> content = new HashMap<>();
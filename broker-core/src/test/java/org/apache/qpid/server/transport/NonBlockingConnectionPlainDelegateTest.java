@@ -0,0 +1,177 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.apache.qpid.bytebuffer.BufferPoolStatistics;
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class NonBlockingConnectionPlainDelegateTest extends QpidTestCase
+{
+    private static final int FRAME_SIZE = 4;
+
+    private final StringBuilder _received = new StringBuilder();
+    private NonBlockingConnectionPlainDelegate _delegate;
+    private long _outstandingBytes;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        if (QpidByteBuffer.getBufferPoolStatistics().isEmpty())
+        {
+            QpidByteBuffer.initialisePool(Broker.DEFAULT_NETWORK_BUFFER_SIZE,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE_CLASSES,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE);
+        }
+
+        NonBlockingConnection parent = mock(NonBlockingConnection.class);
+        doAnswer(new FrameConsumingAnswer(_received)).when(parent).processAmqpData(any(QpidByteBuffer.class));
+        AmqpPort port = mock(AmqpPort.class);
+        when(port.getNetworkBufferSize()).thenReturn(QpidByteBuffer.getPooledBufferSize());
+
+        _delegate = new NonBlockingConnectionPlainDelegate(parent, port);
+        _outstandingBytes = getOutstandingBytes();
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            _delegate.shutdownInput();
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testPartialFrameKeptAcrossReads() throws Exception
+    {
+        _delegate.getNetInputBuffer().put("abcdef".getBytes(StandardCharsets.US_ASCII));
+        _delegate.processData();
+
+        assertEquals("Unexpected data processed", "abcd", _received.toString());
+        assertEquals("Partial frame not kept", 2, _delegate.getNetInputBuffer().position());
+
+        _delegate.getNetInputBuffer().put("gh".getBytes(StandardCharsets.US_ASCII));
+        _delegate.processData();
+
+        assertEquals("Unexpected data processed", "abcdefgh", _received.toString());
+        assertEquals("Buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testFullDrainReturnsBufferToPool() throws Exception
+    {
+        _delegate.getNetInputBuffer().put("abcdefgh".getBytes(StandardCharsets.US_ASCII));
+        assertTrue("Buffer not taken from the pool", getOutstandingBytes() > _outstandingBytes);
+
+        _delegate.processData();
+
+        assertEquals("Unexpected data processed", "abcdefgh", _received.toString());
+        assertEquals("Buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testIdleBufferReleased() throws Exception
+    {
+        _delegate.getNetInputBuffer().put("ab".getBytes(StandardCharsets.US_ASCII));
+        _delegate.releaseIdleBuffers();
+        assertTrue("Buffer holding a partial frame released", getOutstandingBytes() > _outstandingBytes);
+
+        _delegate.getNetInputBuffer().put("cd".getBytes(StandardCharsets.US_ASCII));
+        _delegate.processData();
+        _delegate.getNetInputBuffer();
+        _delegate.releaseIdleBuffers();
+
+        assertEquals("Unexpected data processed", "abcd", _received.toString());
+        assertEquals("Idle buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testShutdownAfterBuffersReleased() throws Exception
+    {
+        _delegate.getNetInputBuffer().put("abcd".getBytes(StandardCharsets.US_ASCII));
+        _delegate.processData();
+        _delegate.releaseIdleBuffers();
+
+        _delegate.shutdownInput();
+        _delegate.shutdownInput();
+        _delegate.shutdownOutput();
+
+        assertEquals("Unexpected outstanding bytes after shutdown", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testShutdownReleasesPartialFrame() throws Exception
+    {
+        _delegate.getNetInputBuffer().put("ab".getBytes(StandardCharsets.US_ASCII));
+        _delegate.processData();
+
+        _delegate.shutdownInput();
+        _delegate.shutdownInput();
+
+        assertEquals("Unexpected data processed", "", _received.toString());
+        assertEquals("Buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    static long getOutstandingBytes()
+    {
+        return BufferPoolStatistics.total(QpidByteBuffer.getBufferPoolStatistics()).getOutstandingBytes();
+    }
+
+    /**
+     * Consumes only whole frames of {@link #FRAME_SIZE} bytes, leaving any partial frame in the buffer.
+     */
+    static class FrameConsumingAnswer implements Answer<Void>
+    {
+        private final StringBuilder _received;
+
+        FrameConsumingAnswer(final StringBuilder received)
+        {
+            _received = received;
+        }
+
+        @Override
+        public Void answer(final InvocationOnMock invocation) throws Throwable
+        {
+            QpidByteBuffer buffer = (QpidByteBuffer) invocation.getArguments()[0];
+            byte[] frame = new byte[FRAME_SIZE];
+            while (buffer.remaining() >= FRAME_SIZE)
+            {
+                buffer.get(frame);
+                _received.append(new String(frame, StandardCharsets.US_ASCII));
+            }
+            return null;
+        }
+    }
+}
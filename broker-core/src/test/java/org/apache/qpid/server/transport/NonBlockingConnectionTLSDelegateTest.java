@@ -0,0 +1,439 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import static org.apache.qpid.server.transport.NonBlockingConnectionPlainDelegateTest.getOutstandingBytes;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.transport.NonBlockingConnectionPlainDelegateTest.FrameConsumingAnswer;
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class NonBlockingConnectionTLSDelegateTest extends QpidTestCase
+{
+    private static final String KEYSTORE_RESOURCE = "ssl/test_keystore.jks";
+    private static final String KEYSTORE_PASSWORD = "password";
+    private static final int TLS_RECORD_HEADER_SIZE = 5;
+
+    private final StringBuilder _received = new StringBuilder();
+    private final ByteBuffer _toClient = ByteBuffer.allocate(1024 * 1024);
+    private final Semaphore _handshakeTasksCompleted = new Semaphore(0);
+    private NonBlockingConnection _parent;
+    private AmqpPort _port;
+    private SSLEngine _clientEngine;
+    private NonBlockingConnectionTLSDelegate _delegate;
+    private TlsHandshakeTaskExecutor _executor;
+    private long _outstandingBytes;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        if (QpidByteBuffer.getBufferPoolStatistics().isEmpty())
+        {
+            QpidByteBuffer.initialisePool(Broker.DEFAULT_NETWORK_BUFFER_SIZE,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE_CLASSES,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE);
+        }
+
+        _parent = mock(NonBlockingConnection.class);
+        doAnswer(new FrameConsumingAnswer(_received)).when(_parent).processAmqpData(any(QpidByteBuffer.class));
+        doAnswer(new Answer<Long>()
+        {
+            @Override
+            public Long answer(final InvocationOnMock invocation) throws Throwable
+            {
+                @SuppressWarnings("unchecked")
+                Collection<QpidByteBuffer> buffers = (Collection<QpidByteBuffer>) invocation.getArguments()[0];
+                long written = 0;
+                for (QpidByteBuffer buffer : buffers)
+                {
+                    byte[] data = new byte[buffer.remaining()];
+                    buffer.get(data);
+                    _toClient.put(data);
+                    written += data.length;
+                }
+                return written;
+            }
+        }).when(_parent).writeToTransport(any(Collection.class));
+        doAnswer(new Answer<Void>()
+        {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable
+            {
+                _handshakeTasksCompleted.release();
+                return null;
+            }
+        }).when(_parent).handshakeTaskCompleted();
+
+        _port = mock(AmqpPort.class);
+        when(_port.getSSLContext()).thenReturn(createServerContext());
+        when(_port.getNetworkBufferSize()).thenReturn(QpidByteBuffer.getPooledBufferSize());
+
+        _clientEngine = createClientContext().createSSLEngine();
+        _clientEngine.setUseClientMode(true);
+        // TLS 1.2 gives a second client flight of several records, the first of which needs delegated tasks
+        _clientEngine.setEnabledProtocols(new String[]{"TLSv1.2"});
+
+        _outstandingBytes = getOutstandingBytes();
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            if (_delegate != null)
+            {
+                _delegate.shutdownInput();
+                _delegate.shutdownOutput();
+            }
+            if (_executor != null)
+            {
+                _executor.shutdown();
+            }
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testHandshakeConsumesNetInputBufferedBehindDelegatedTask() throws Exception
+    {
+        _delegate = new NonBlockingConnectionTLSDelegate(_parent, _port);
+
+        sendToServer(clientWrap());
+        _delegate.processData();
+        assertFalse("Server should be waiting to send its hello", _delegate.readyForRead());
+        receiveFromServer();
+
+        ByteBuffer clientFlight = clientWrap();
+        assertTrue("Expected the client flight to contain several records", countRecords(clientFlight) > 1);
+        sendToServer(clientFlight);
+        _delegate.processData();
+
+        assertFalse("Records buffered behind the delegated task were not unwrapped", _delegate.needsWork());
+        assertFalse("Server should be waiting to send its finished message", _delegate.readyForRead());
+        assertEquals("Net input buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+
+        receiveFromServer();
+        assertEquals("Handshake did not complete",
+                     SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING, _clientEngine.getHandshakeStatus());
+        assertTrue("Server not ready for application data", _delegate.readyForRead());
+
+        sendToServer(clientWrap("abcdefgh"));
+        _delegate.processData();
+        assertEquals("Unexpected data processed", "abcdefgh", _received.toString());
+        assertEquals("Buffers not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testHandshakeTasksRunOnExecutor() throws Exception
+    {
+        _executor = new TlsHandshakeTaskExecutor("test", 1, 10);
+        when(_port.getTlsHandshakeTaskExecutor()).thenReturn(_executor);
+        _delegate = new NonBlockingConnectionTLSDelegate(_parent, _port);
+
+        sendToServer(clientWrap());
+        _delegate.processData();
+        assertTrue("Connection not rescheduled after the handshake tasks",
+                   _handshakeTasksCompleted.tryAcquire(5, TimeUnit.SECONDS));
+        assertFalse("Server should be waiting to send its hello", _delegate.readyForRead());
+        receiveFromServer();
+
+        // occupy the only handshake thread so that the tasks for the client key exchange stay pending
+        final CountDownLatch release = new CountDownLatch(1);
+        _executor.execute(Collections.<Runnable>singletonList(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }), new Runnable()
+        {
+            @Override
+            public void run()
+            {
+            }
+        });
+
+        ByteBuffer clientFlight = clientWrap();
+        assertTrue("Expected the client flight to contain several records", countRecords(clientFlight) > 1);
+        sendToServer(clientFlight);
+        _delegate.processData();
+
+        assertFalse("Read interest should be dropped while handshake tasks are pending", _delegate.readyForRead());
+        assertFalse("No work expected while handshake tasks are pending", _delegate.needsWork());
+        assertTrue("Records behind the delegated task should remain buffered",
+                   getOutstandingBytes() > _outstandingBytes);
+        assertEquals("Connection rescheduled before the handshake tasks completed",
+                     0, _handshakeTasksCompleted.availablePermits());
+
+        release.countDown();
+        assertTrue("Connection not rescheduled after the handshake tasks",
+                   _handshakeTasksCompleted.tryAcquire(5, TimeUnit.SECONDS));
+        assertTrue("Server should read again once the handshake tasks completed", _delegate.readyForRead());
+        assertTrue("Buffered records should be processed once the handshake tasks completed",
+                   _delegate.needsWork());
+
+        _delegate.processData();
+        assertFalse("Buffered records were not unwrapped", _delegate.needsWork());
+        assertFalse("Server should be waiting to send its finished message", _delegate.readyForRead());
+
+        receiveFromServer();
+        assertEquals("Handshake did not complete",
+                     SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING, _clientEngine.getHandshakeStatus());
+
+        sendToServer(clientWrap("abcdefgh"));
+        _delegate.processData();
+        assertEquals("Unexpected data processed", "abcdefgh", _received.toString());
+        assertEquals("Buffers not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testPartialRecordKeptAcrossReads() throws Exception
+    {
+        _delegate = new NonBlockingConnectionTLSDelegate(_parent, _port);
+        handshake();
+
+        ByteBuffer record = clientWrap("abcdefgh");
+        ByteBuffer firstPart = record.duplicate();
+        firstPart.limit(record.position() + record.remaining() / 2);
+        record.position(firstPart.limit());
+
+        sendToServer(firstPart);
+        _delegate.processData();
+        assertEquals("Unexpected data processed", "", _received.toString());
+        assertTrue("Partial record not kept", getOutstandingBytes() > _outstandingBytes);
+
+        sendToServer(record);
+        _delegate.processData();
+        assertEquals("Unexpected data processed", "abcdefgh", _received.toString());
+        assertEquals("Buffers not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testPartialFrameKeptAcrossRecords() throws Exception
+    {
+        _delegate = new NonBlockingConnectionTLSDelegate(_parent, _port);
+        handshake();
+
+        sendToServer(clientWrap("abcdef"));
+        _delegate.processData();
+        assertEquals("Unexpected data processed", "abcd", _received.toString());
+
+        sendToServer(clientWrap("gh"));
+        _delegate.processData();
+        assertEquals("Unexpected data processed", "abcdefgh", _received.toString());
+        assertEquals("Buffers not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testShutdownAfterBuffersReleased() throws Exception
+    {
+        _delegate = new NonBlockingConnectionTLSDelegate(_parent, _port);
+        handshake();
+
+        sendToServer(clientWrap("abcd"));
+        _delegate.processData();
+        _delegate.releaseIdleBuffers();
+        assertEquals("Buffers not returned to the pool", _outstandingBytes, getOutstandingBytes());
+
+        _delegate.shutdownInput();
+        _delegate.shutdownOutput();
+        _delegate.shutdownInput();
+        _delegate.shutdownOutput();
+
+        assertEquals("Unexpected outstanding bytes after shutdown", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testShutdownReleasesPartialRecord() throws Exception
+    {
+        _delegate = new NonBlockingConnectionTLSDelegate(_parent, _port);
+        handshake();
+
+        ByteBuffer record = clientWrap("abcd");
+        record.limit(record.position() + TLS_RECORD_HEADER_SIZE);
+        sendToServer(record);
+        _delegate.processData();
+
+        _delegate.shutdownInput();
+        _delegate.shutdownInput();
+        _delegate.shutdownOutput();
+
+        assertEquals("Buffers not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    private void handshake() throws Exception
+    {
+        do
+        {
+            ByteBuffer clientData = clientWrap();
+            if (clientData.hasRemaining())
+            {
+                sendToServer(clientData);
+                _delegate.processData();
+            }
+            receiveFromServer();
+        }
+        while (_clientEngine.getHandshakeStatus() != SSLEngineResult.HandshakeStatus.NOT_HANDSHAKING);
+    }
+
+    private ByteBuffer clientWrap() throws Exception
+    {
+        return clientWrap(ByteBuffer.allocate(0));
+    }
+
+    private ByteBuffer clientWrap(final String data) throws Exception
+    {
+        return clientWrap(ByteBuffer.wrap(data.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private ByteBuffer clientWrap(final ByteBuffer applicationData) throws Exception
+    {
+        ByteBuffer netData = ByteBuffer.allocate(_toClient.capacity());
+        do
+        {
+            _clientEngine.wrap(applicationData, netData);
+            runClientTasks();
+        }
+        while (_clientEngine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_WRAP
+               || applicationData.hasRemaining());
+        netData.flip();
+        return netData;
+    }
+
+    private void sendToServer(final ByteBuffer netData)
+    {
+        _delegate.getNetInputBuffer().put(netData);
+    }
+
+    private void receiveFromServer() throws Exception
+    {
+        _delegate.doWrite(Collections.<QpidByteBuffer>emptyList());
+        _toClient.flip();
+        ByteBuffer applicationData = ByteBuffer.allocate(_clientEngine.getSession().getApplicationBufferSize());
+        while (_toClient.hasRemaining())
+        {
+            SSLEngineResult result = _clientEngine.unwrap(_toClient, applicationData);
+            runClientTasks();
+            if (result.bytesConsumed() == 0)
+            {
+                break;
+            }
+        }
+        _toClient.compact();
+    }
+
+    private void runClientTasks()
+    {
+        Runnable task;
+        while ((task = _clientEngine.getDelegatedTask()) != null)
+        {
+            task.run();
+        }
+    }
+
+    private int countRecords(final ByteBuffer netData)
+    {
+        int records = 0;
+        int position = netData.position();
+        while (position + TLS_RECORD_HEADER_SIZE <= netData.limit())
+        {
+            position += TLS_RECORD_HEADER_SIZE + (netData.getShort(position + 3) & 0xFFFF);
+            records++;
+        }
+        return records;
+    }
+
+    private SSLContext createServerContext() throws Exception
+    {
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream(KEYSTORE_RESOURCE))
+        {
+            keyStore.load(inputStream, KEYSTORE_PASSWORD.toCharArray());
+        }
+        KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, KEYSTORE_PASSWORD.toCharArray());
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagerFactory.getKeyManagers(), null, null);
+        return context;
+    }
+
+    private SSLContext createClientContext() throws Exception
+    {
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, new TrustManager[]{new TrustingTrustManager()}, null);
+        return context;
+    }
+
+    private static class TrustingTrustManager implements X509TrustManager
+    {
+        @Override
+        public void checkClientTrusted(final X509Certificate[] chain, final String authType)
+        {
+        }
+
+        @Override
+        public void checkServerTrusted(final X509Certificate[] chain, final String authType)
+        {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers()
+        {
+            return new X509Certificate[0];
+        }
+    }
+}
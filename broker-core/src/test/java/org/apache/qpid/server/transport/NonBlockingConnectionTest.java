@@ -0,0 +1,162 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import static org.apache.qpid.server.transport.NonBlockingConnectionPlainDelegateTest.getOutstandingBytes;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.model.Broker;
+import org.apache.qpid.server.model.port.AmqpPort;
+import org.apache.qpid.server.transport.NonBlockingConnectionPlainDelegateTest.FrameConsumingAnswer;
+import org.apache.qpid.test.utils.QpidTestCase;
+import org.apache.qpid.transport.network.TransportEncryption;
+
+public class NonBlockingConnectionTest extends QpidTestCase
+{
+    private final StringBuilder _received = new StringBuilder();
+    private ServerSocketChannel _serverSocketChannel;
+    private SocketChannel _clientChannel;
+    private SocketChannel _serverChannel;
+    private ProtocolEngine _protocolEngine;
+    private NetworkConnectionScheduler _scheduler;
+    private NonBlockingConnection _connection;
+    private long _outstandingBytes;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        if (QpidByteBuffer.getBufferPoolStatistics().isEmpty())
+        {
+            QpidByteBuffer.initialisePool(Broker.DEFAULT_NETWORK_BUFFER_SIZE,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_SIZE_CLASSES,
+                                          Broker.DEFAULT_BROKER_DIRECT_BYTE_BUFFER_POOL_LARGE_SIZE);
+        }
+
+        _serverSocketChannel = ServerSocketChannel.open();
+        _serverSocketChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        _clientChannel = SocketChannel.open(_serverSocketChannel.socket().getLocalSocketAddress());
+        // left blocking so that each read returns the data the client has written
+        _serverChannel = _serverSocketChannel.accept();
+
+        _protocolEngine = mock(ProtocolEngine.class);
+        when(_protocolEngine.getAggregateTicker()).thenReturn(new AggregateTicker());
+        when(_protocolEngine.processPendingIterator()).thenReturn(Collections.<Runnable>emptyIterator());
+        doAnswer(new FrameConsumingAnswer(_received)).when(_protocolEngine).received(any(QpidByteBuffer.class));
+        _scheduler = mock(NetworkConnectionScheduler.class);
+        AmqpPort port = mock(AmqpPort.class);
+        when(port.getNetworkBufferSize()).thenReturn(QpidByteBuffer.getPooledBufferSize());
+
+        _connection = new NonBlockingConnection(_serverChannel,
+                                                _protocolEngine,
+                                                Collections.singleton(TransportEncryption.NONE),
+                                                null,
+                                                _scheduler,
+                                                port);
+        _outstandingBytes = getOutstandingBytes();
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            _clientChannel.close();
+            _serverChannel.close();
+            _serverSocketChannel.close();
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testPartialFrameKeptAcrossReads() throws Exception
+    {
+        send("abcdef");
+        _connection.doRead();
+
+        assertEquals("Unexpected data processed", "abcd", _received.toString());
+        assertTrue("Partial frame not kept", getOutstandingBytes() > _outstandingBytes);
+
+        send("gh");
+        _connection.doRead();
+
+        assertEquals("Unexpected data processed", "abcdefgh", _received.toString());
+        assertEquals("Buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testShutdownAfterBuffersReleased() throws Exception
+    {
+        send("abcd");
+        _connection.doRead();
+        assertEquals("Unexpected data processed", "abcd", _received.toString());
+        assertEquals("Buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+
+        _clientChannel.close();
+
+        assertTrue("Connection should have closed", _connection.doWork());
+        assertTrue("Connection should remain closed", _connection.doWork());
+
+        verify(_protocolEngine).closed();
+        verify(_scheduler).removeConnection(_connection);
+        assertEquals("Unexpected outstanding bytes after shutdown", _outstandingBytes, getOutstandingBytes());
+    }
+
+    public void testShutdownReleasesPartialFrame() throws Exception
+    {
+        send("ab");
+        _connection.doRead();
+        assertTrue("Partial frame not kept", getOutstandingBytes() > _outstandingBytes);
+
+        _clientChannel.close();
+
+        assertTrue("Connection should have closed", _connection.doWork());
+        assertTrue("Connection should remain closed", _connection.doWork());
+
+        verify(_protocolEngine).closed();
+        assertEquals("Unexpected data processed", "", _received.toString());
+        assertEquals("Buffer not returned to the pool", _outstandingBytes, getOutstandingBytes());
+    }
+
+    private void send(final String data) throws Exception
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(data.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining())
+        {
+            _clientChannel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class SelectorThreadTest extends QpidTestCase
+{
+    private static final int NUMBER_OF_SELECTORS = 4;
+
+    private SelectorThread _selectorThread;
+    private final List<SocketChannel> _channels = new ArrayList<>();
+    private final List<SelectorThread.SelectionTask> _selectionTasks = new ArrayList<>();
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        final NetworkConnectionScheduler scheduler = mock(NetworkConnectionScheduler.class);
+        when(scheduler.getSelectorThreadName()).thenReturn(getTestName());
+        when(scheduler.getPoolSize()).thenReturn(1);
+        _selectorThread = new SelectorThread(scheduler, NUMBER_OF_SELECTORS);
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            _selectorThread.close();
+            for (SelectorThread.SelectionTask selectionTask : _selectionTasks)
+            {
+                selectionTask.getSelector().close();
+            }
+            for (SocketChannel channel : _channels)
+            {
+                channel.close();
+            }
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testConnectionRemainsOnAssignedShard() throws Exception
+    {
+        final NonBlockingConnection connection = createConnection(50000);
+
+        _selectorThread.addConnection(connection);
+        final SelectorThread.SelectionTask selectionTask = connection.getSelectionTask();
+        assertNotNull("Connection not assigned to a shard", selectionTask);
+        assertEquals("Connection not queued for registration",
+                     connection, selectionTask.getUnregisteredConnections().poll());
+
+        _selectorThread.addConnection(connection);
+        assertSame("Connection moved to another shard", selectionTask, connection.getSelectionTask());
+        assertEquals("Connection not queued for registration",
+                     connection, selectionTask.getUnregisteredConnections().poll());
+
+        _selectorThread.returnConnectionToSelector(connection);
+        assertSame("Connection moved to another shard", selectionTask, connection.getSelectionTask());
+        assertEquals("Connection not queued for registration",
+                     connection, selectionTask.getUnregisteredConnections().poll());
+
+        verify(connection, times(1)).setSelectionTask(any(SelectorThread.SelectionTask.class));
+    }
+
+    public void testConnectionsSpreadAcrossShards() throws Exception
+    {
+        final int numberOfConnections = 16 * NUMBER_OF_SELECTORS;
+        final Map<SelectorThread.SelectionTask, Integer> connectionsPerShard = new HashMap<>();
+        for (int i = 0; i < numberOfConnections; i++)
+        {
+            final NonBlockingConnection connection = createConnection(50000 + i);
+            _selectorThread.addConnection(connection);
+
+            final SelectorThread.SelectionTask selectionTask = connection.getSelectionTask();
+            assertNotNull("Connection not assigned to a shard", selectionTask);
+            assertTrue("Connection not queued on its shard",
+                       selectionTask.getUnregisteredConnections().contains(connection));
+            final Integer count = connectionsPerShard.get(selectionTask);
+            connectionsPerShard.put(selectionTask, count == null ? 1 : count + 1);
+        }
+
+        assertEquals("Connections not spread across all shards", NUMBER_OF_SELECTORS, connectionsPerShard.size());
+        for (int count : connectionsPerShard.values())
+        {
+            assertTrue("Connections unevenly spread across shards: " + connectionsPerShard.values(),
+                       count >= numberOfConnections / NUMBER_OF_SELECTORS / 2);
+        }
+    }
+
+    private NonBlockingConnection createConnection(final int remotePort) throws Exception
+    {
+        final SocketChannel channel = SocketChannel.open();
+        _channels.add(channel);
+
+        final NonBlockingConnection connection = mock(NonBlockingConnection.class);
+        when(connection.getSocketChannel()).thenReturn(channel);
+        when(connection.getRemoteAddress()).thenReturn(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                                                             remotePort));
+        when(connection.wantsRead()).thenReturn(true);
+
+        final AtomicReference<SelectorThread.SelectionTask> selectionTask = new AtomicReference<>();
+        doAnswer(new Answer<Void>()
+        {
+            @Override
+            public Void answer(final InvocationOnMock invocation) throws Throwable
+            {
+                final SelectorThread.SelectionTask task = (SelectorThread.SelectionTask) invocation.getArguments()[0];
+                selectionTask.set(task);
+                if (!_selectionTasks.contains(task))
+                {
+                    _selectionTasks.add(task);
+                }
+                return null;
+            }
+        }).when(connection).setSelectionTask(any(SelectorThread.SelectionTask.class));
+        when(connection.getSelectionTask()).thenAnswer(new Answer<SelectorThread.SelectionTask>()
+        {
+            @Override
+            public SelectorThread.SelectionTask answer(final InvocationOnMock invocation) throws Throwable
+            {
+                return selectionTask.get();
+            }
+        });
+        return connection;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class TlsHandshakeTaskExecutorTest extends QpidTestCase
+{
+    private TlsHandshakeTaskExecutor _executor;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _executor = new TlsHandshakeTaskExecutor("test", 1, 1);
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            _executor.shutdown();
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testTasksRunInOrderBeforeCompletion() throws Exception
+    {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        boolean accepted = _executor.execute(Arrays.asList(new RecordingTask(events, "task1"),
+                                                           new RecordingTask(events, "task2")),
+                                             new Runnable()
+                                             {
+                                                 @Override
+                                                 public void run()
+                                                 {
+                                                     events.add("completion");
+                                                     completed.countDown();
+                                                 }
+                                             });
+
+        assertTrue("Tasks should have been accepted", accepted);
+        assertTrue("Completion was not run", completed.await(5, TimeUnit.SECONDS));
+        assertEquals("Unexpected events", Arrays.asList("task1", "task2", "completion"), events);
+        assertEquals("Unexpected number of completed tasks", 1L, _executor.getTasksCompleted());
+    }
+
+    public void testCompletionRunWhenTaskFails() throws Exception
+    {
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        _executor.execute(Collections.<Runnable>singletonList(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                throw new IllegalStateException("Test");
+            }
+        }), new LatchTask(completed));
+
+        assertTrue("Completion was not run", completed.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testTasksRefusedWhenQueueFull() throws Exception
+    {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(2);
+
+        assertTrue("First tasks should have been accepted",
+                   _executor.execute(Collections.<Runnable>singletonList(new Runnable()
+                   {
+                       @Override
+                       public void run()
+                       {
+                           running.countDown();
+                           try
+                           {
+                               release.await(5, TimeUnit.SECONDS);
+                           }
+                           catch (InterruptedException e)
+                           {
+                               Thread.currentThread().interrupt();
+                           }
+                       }
+                   }), new LatchTask(completed)));
+        assertTrue("First tasks did not start", running.await(5, TimeUnit.SECONDS));
+
+        assertTrue("Second tasks should have been queued",
+                   _executor.execute(Collections.<Runnable>emptyList(), new LatchTask(completed)));
+        assertEquals("Unexpected queue depth", 1, _executor.getQueueDepth());
+
+        assertFalse("Third tasks should have been refused",
+                    _executor.execute(Collections.<Runnable>emptyList(), new LatchTask(completed)));
+
+        release.countDown();
+        assertTrue("Queued tasks were not completed", completed.await(5, TimeUnit.SECONDS));
+        assertEquals("Unexpected queue depth", 0, _executor.getQueueDepth());
+        assertEquals("Unexpected number of completed tasks", 2L, _executor.getTasksCompleted());
+    }
+
+    private static class RecordingTask implements Runnable
+    {
+        private final List<String> _events;
+        private final String _name;
+
+        RecordingTask(final List<String> events, final String name)
+        {
+            _events = events;
+            _name = name;
+        }
+
+        @Override
+        public void run()
+        {
+            _events.add(_name);
+        }
+    }
+
+    private static class LatchTask implements Runnable
+    {
+        private final CountDownLatch _latch;
+
+        LatchTask(final CountDownLatch latch)
+        {
+            _latch = latch;
+        }
+
+        @Override
+        public void run()
+        {
+            _latch.countDown();
+        }
+    }
+}
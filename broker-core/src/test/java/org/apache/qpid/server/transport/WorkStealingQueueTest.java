@@ -0,0 +1,135 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.transport;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class WorkStealingQueueTest extends QpidTestCase
+{
+    private static final int NUMBER_OF_WORKERS = 3;
+
+    private final AtomicBoolean _closed = new AtomicBoolean();
+    private WorkStealingQueue _queue;
+    private Thread[] _threads;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _queue = new WorkStealingQueue(NUMBER_OF_WORKERS, _closed);
+        _threads = new Thread[NUMBER_OF_WORKERS];
+        for (int i = 0; i < NUMBER_OF_WORKERS; i++)
+        {
+            _threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    _queue.runWorker();
+                }
+            });
+            _threads[i].start();
+        }
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            _closed.set(true);
+            _queue.close();
+            for (Thread thread : _threads)
+            {
+                thread.join(1000);
+                assertFalse("Worker thread did not stop", thread.isAlive());
+            }
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testTasksAddedByOtherThreadsAreRun() throws Exception
+    {
+        final int numberOfTasks = 100;
+        final CountDownLatch latch = new CountDownLatch(numberOfTasks);
+        for (int i = 0; i < numberOfTasks; i++)
+        {
+            _queue.add(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue("Not all tasks were run", latch.await(5, TimeUnit.SECONDS));
+    }
+
+    public void testTaskAddedByBlockedWorkerIsStolen() throws Exception
+    {
+        final CountDownLatch blockedTaskRunning = new CountDownLatch(1);
+        final CountDownLatch stolenTaskRun = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        _queue.add(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                // added to this worker's own queue, so can only run if another worker steals it
+                _queue.add(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        stolenTaskRun.countDown();
+                    }
+                });
+                blockedTaskRunning.countDown();
+                try
+                {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        try
+        {
+            assertTrue("Blocking task did not run", blockedTaskRunning.await(5, TimeUnit.SECONDS));
+            assertTrue("Task was not stolen", stolenTaskRun.await(5, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            release.countDown();
+        }
+    }
+}
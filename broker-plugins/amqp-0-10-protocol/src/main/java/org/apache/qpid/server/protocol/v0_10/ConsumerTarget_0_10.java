@@ -40,7 +40,6 @@ import org.apache.qpid.server.message.MessageInstanceConsumer;
 import org.apache.qpid.server.message.ServerMessage;
 import org.apache.qpid.server.model.Exchange;
 import org.apache.qpid.server.model.Queue;
-import org.apache.qpid.server.plugin.MessageConverter;
 import org.apache.qpid.server.protocol.MessageConverterRegistry;
 import org.apache.qpid.server.store.TransactionLogResource;
 import org.apache.qpid.server.txn.AutoCommitTransaction;
@@ -196,22 +195,9 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
         DeliveryProperties deliveryProps;
         MessageProperties messageProps = null;
 
-        MessageTransferMessage msg;
+        MessageTransferMessage msg =
+                MessageConverterRegistry.convert(serverMsg, MessageTransferMessage.class, _session.getAddressSpace());
 
-        if(serverMsg instanceof MessageTransferMessage)
-        {
-
-            msg = (MessageTransferMessage) serverMsg;
-
-        }
-        else
-        {
-            MessageConverter converter =
-                    MessageConverterRegistry.getConverter(serverMsg.getClass(), MessageTransferMessage.class);
-
-
-            msg = (MessageTransferMessage) converter.convert(serverMsg, _session.getAddressSpace());
-        }
         DeliveryProperties origDeliveryProps = msg.getHeader() == null ? null : msg.getHeader().getDeliveryProperties();
         messageProps = msg.getHeader() == null ? null : msg.getHeader().getMessageProperties();
 
@@ -262,6 +248,8 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
         if(msgCompressed && !compressionSupported && bodyBuffers != null)
         {
             Collection<QpidByteBuffer> uncompressedBuffers = inflateIfPossible(bodyBuffers);
+            // the message header may be shared with other deliveries of the message, so must not be altered
+            messageProps = new MessageProperties(messageProps);
             messageProps.setContentEncoding(null);
             for (QpidByteBuffer buf : bodyBuffers)
             {
@@ -276,10 +264,7 @@ public class ConsumerTarget_0_10 extends AbstractConsumerTarget<ConsumerTarget_0
                 && ByteBufferUtils.remaining(bodyBuffers) > _session.getConnection().getMessageCompressionThreshold())
         {
             Collection<QpidByteBuffer> compressedBuffers = deflateIfPossible(bodyBuffers);
-            if(messageProps == null)
-            {
-                messageProps = new MessageProperties();
-            }
+            messageProps = messageProps == null ? new MessageProperties() : new MessageProperties(messageProps);
             messageProps.setContentEncoding(GZIPUtils.GZIP_CONTENT_ENCODING);
             for (QpidByteBuffer buf : bodyBuffers)
             {
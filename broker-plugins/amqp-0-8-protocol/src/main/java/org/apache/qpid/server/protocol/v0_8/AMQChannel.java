@@ -214,6 +214,10 @@ public class AMQChannel
     private long _blockingTimeout;
     private boolean _confirmOnPublish;
     private long _confirmedMessageCounter;
+    /** the highest delivery tag covered by a publisher confirm (ack or nack) already sent to the client */
+    private long _lastSentConfirm;
+    /** delivery tags of published messages to be nacked, in increasing order, which are yet to be sent */
+    private final List<Long> _pendingConfirmNacks = new ArrayList<>();
     private volatile long _uncommittedMessageSize;
     private final List<StoredMessage<MessageMetaData>> _uncommittedMessages = new ArrayList<>();
     private long _maxUncommittedInMemorySize;
@@ -505,12 +509,7 @@ public class AMQChannel
                         }
                         else
                         {
-                            if (_confirmOnPublish)
-                            {
-                                BasicAckBody responseBody = _connection.getMethodRegistry()
-                                        .createBasicAckBody(_confirmedMessageCounter, false);
-                                _connection.writeFrame(responseBody.generateFrame(_channelId));
-                            }
+                            // the confirm is sent by sendPendingConfirms() once any store futures are complete
                             incrementUncommittedMessageSize(storedMessage);
                             incrementOutstandingTxnsIfNecessary();
                         }
@@ -618,7 +617,7 @@ public class AMQChannel
             {
                 if(_confirmOnPublish)
                 {
-                    _connection.writeFrame(new AMQFrame(_channelId, new BasicNackBody(_confirmedMessageCounter, false, false)));
+                    _pendingConfirmNacks.add(_confirmedMessageCounter);
                 }
                 _transaction.addPostTransactionAction(new WriteReturnAction(ErrorCodes.NO_ROUTE,
                                                                             "No Route for message "
@@ -1839,6 +1838,43 @@ public class AMQChannel
         {
             ((LocalTransaction)_transaction).sync();
         }
+        sendPendingConfirms();
+    }
+
+    /**
+     * Sends the publisher confirms for all messages published since the last confirms were sent, coalescing
+     * consecutive acks into a single ack with multiple set.  This is only called once every outstanding store future
+     * recorded by the channel has completed, so no message is confirmed before it is durable.  Messages which were
+     * discarded as unroutable are acked along with their neighbours.
+     */
+    private void sendPendingConfirms()
+    {
+        if(_confirmOnPublish && _confirmedMessageCounter > _lastSentConfirm)
+        {
+            for(Long nackedTag : _pendingConfirmNacks)
+            {
+                if(nackedTag - 1 > _lastSentConfirm)
+                {
+                    sendConfirmAck(nackedTag - 1);
+                }
+                _connection.writeFrame(new AMQFrame(_channelId, new BasicNackBody(nackedTag, false, false)));
+                _lastSentConfirm = nackedTag;
+            }
+            _pendingConfirmNacks.clear();
+
+            if(_confirmedMessageCounter > _lastSentConfirm)
+            {
+                sendConfirmAck(_confirmedMessageCounter);
+            }
+        }
+    }
+
+    private void sendConfirmAck(final long deliveryTag)
+    {
+        final boolean multiple = deliveryTag - _lastSentConfirm > 1;
+        BasicAckBody responseBody = _connection.getMethodRegistry().createBasicAckBody(deliveryTag, multiple);
+        _connection.writeFrame(responseBody.generateFrame(_channelId));
+        _lastSentConfirm = deliveryTag;
     }
 
     private static class AsyncCommand
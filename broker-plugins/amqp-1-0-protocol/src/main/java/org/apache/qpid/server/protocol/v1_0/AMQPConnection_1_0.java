@@ -115,6 +115,7 @@ import org.apache.qpid.server.util.ServerScopedRuntimeException;
 import org.apache.qpid.server.virtualhost.VirtualHostUnavailableException;
 import org.apache.qpid.transport.ByteBufferSender;
 import org.apache.qpid.transport.util.Functions;
+import org.apache.qpid.util.ByteBufferUtils;
 
 public class AMQPConnection_1_0 extends AbstractAMQPConnection<AMQPConnection_1_0, ConnectionHandler>
         implements FrameOutputHandler, DescribedTypeConstructorRegistry.Source,
@@ -179,6 +180,8 @@ public class AMQPConnection_1_0 extends AbstractAMQPConnection<AMQPConnection_1_
 
     private static final short CONNECTION_CONTROL_CHANNEL = (short) 0;
     private static final QpidByteBuffer EMPTY_BYTE_BUFFER = QpidByteBuffer.wrap(new byte[0]);
+    /** size, data offset, type and channel */
+    private static final int FRAME_HEADER_SIZE = 8;
 
     private static final int DEFAULT_CHANNEL_MAX = Math.min(Integer.getInteger("amqp.channel_max", 255), 0xFFFF);
     private static final int DEFAULT_MAX_FRAME = Integer.getInteger("amqp.max_frame_size", 1 << 15);
@@ -444,7 +447,7 @@ public class AMQPConnection_1_0 extends AbstractAMQPConnection<AMQPConnection_1_
         }
     }
 
-    public int send(final short channel, final FrameBody body, final QpidByteBuffer payload)
+    public int send(final short channel, final FrameBody body, final List<QpidByteBuffer> payload)
     {
         return sendFrame(channel, body, payload);
     }
@@ -1027,17 +1030,25 @@ public class AMQPConnection_1_0 extends AbstractAMQPConnection<AMQPConnection_1_
         }
     }
 
-    int sendFrame(final short channel, final FrameBody body, final QpidByteBuffer payload)
+    int sendFrame(final short channel, final FrameBody body, final List<QpidByteBuffer> payload)
     {
         if (!_closedForOutput)
         {
             ValueWriter<FrameBody> writer = _describedTypeRegistry.getValueWriter(body);
             int size = writer.writeToBuffer(EMPTY_BYTE_BUFFER);
-            QpidByteBuffer payloadDup = payload == null ? null : payload.duplicate();
-            int payloadSent = _maxFrameSize - (size + 9);
+            int payloadSent = _maxFrameSize - (size + FRAME_HEADER_SIZE);
+            long payloadSize = 0L;
+            if (payload != null)
+            {
+                for (QpidByteBuffer buf : payload)
+                {
+                    payloadSize += buf.remaining();
+                }
+            }
+            List<QpidByteBuffer> payloadViews = null;
             try
             {
-                if (payload != null && payloadSent < payload.remaining())
+                if (payload != null && payloadSent < payloadSize)
                 {
 
                     if (body instanceof Transfer)
@@ -1047,21 +1058,25 @@ public class AMQPConnection_1_0 extends AbstractAMQPConnection<AMQPConnection_1_
 
                     writer = _describedTypeRegistry.getValueWriter(body);
                     size = writer.writeToBuffer(EMPTY_BYTE_BUFFER);
-                    payloadSent = _maxFrameSize - (size + 9);
+                    payloadSent = _maxFrameSize - (size + FRAME_HEADER_SIZE);
 
-                    payloadDup.limit(payloadDup.position() + payloadSent);
+                    payloadViews = ByteBufferUtils.view(payload, 0, payloadSent);
+                    send(AMQFrame.createAMQFrame(channel, body, payloadViews));
                 }
                 else
                 {
-                    payloadSent = payload == null ? 0 : payload.remaining();
+                    payloadSent = (int) payloadSize;
+                    send(AMQFrame.createAMQFrame(channel, body, payload));
                 }
-                send(AMQFrame.createAMQFrame(channel, body, payloadDup));
             }
             finally
             {
-                if (payloadDup != null)
+                if (payloadViews != null)
                 {
-                    payloadDup.dispose();
+                    for (QpidByteBuffer view : payloadViews)
+                    {
+                        view.dispose();
+                    }
                 }
             }
             return payloadSent;
@@ -21,7 +21,8 @@
 package org.apache.qpid.server.protocol.v1_0;
 
 import java.nio.ByteBuffer;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +32,6 @@ import org.apache.qpid.server.consumer.AbstractConsumerTarget;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageInstanceConsumer;
 import org.apache.qpid.server.message.ServerMessage;
-import org.apache.qpid.server.plugin.MessageConverter;
 import org.apache.qpid.server.protocol.MessageConverterRegistry;
 import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
 import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoder;
@@ -104,90 +104,21 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
     {
         // TODO
         ServerMessage serverMessage = entry.getMessage();
-        Message_1_0 message;
-        if(serverMessage instanceof Message_1_0)
-        {
-            message = (Message_1_0) serverMessage;
-        }
-        else
-        {
-            final MessageConverter converter = MessageConverterRegistry.getConverter(serverMessage.getClass(), Message_1_0.class);
-            message = (Message_1_0) converter.convert(serverMessage, _link.getAddressSpace());
-        }
+        final Message_1_0 message =
+                MessageConverterRegistry.convert(serverMessage, Message_1_0.class, _link.getAddressSpace());
 
         Transfer transfer = new Transfer();
         try
         {
-            QpidByteBuffer payload = null;
-            //TODO
-            Collection<QpidByteBuffer> fragments = message.getFragments();
-            if (fragments.size() == 1)
-            {
-                payload = fragments.iterator().next();
-            }
-            else
-            {
-                int size = 0;
-                for (QpidByteBuffer fragment : fragments)
-                {
-                    size += fragment.remaining();
-                }
-
-                payload = QpidByteBuffer.allocateDirect(size);
-
-                for (QpidByteBuffer fragment : fragments)
-                {
-                    payload.put(fragment);
-                    fragment.dispose();
-                }
-
-                payload.flip();
-            }
+            // the fragments are sent as they are, rather than being copied into a single buffer
+            List<QpidByteBuffer> payload = new ArrayList<>(message.getFragments());
+            transfer.setPayload(payload);
 
             if (entry.getDeliveryCount() != 0)
             {
-                ValueHandler valueHandler = new ValueHandler(_typeRegistry);
-
-                Header oldHeader = null;
-                try
-                {
-                    Object value = valueHandler.parse(payload);
-                    if (value instanceof Header)
-                    {
-                        oldHeader = (Header) value;
-                    }
-                    else
-                    {
-                        payload.position(0);
-                    }
-                }
-                catch (AmqpErrorException e)
-                {
-                    //TODO
-                    throw new ConnectionScopedRuntimeException(e);
-                }
-
-                Header header = new Header();
-                if (oldHeader != null)
-                {
-                    header.setDurable(oldHeader.getDurable());
-                    header.setPriority(oldHeader.getPriority());
-                    header.setTtl(oldHeader.getTtl());
-                }
-                header.setDeliveryCount(UnsignedInteger.valueOf(entry.getDeliveryCount()));
-                _sectionEncoder.reset();
-                _sectionEncoder.encodeObject(header);
-                Binary encodedHeader = _sectionEncoder.getEncoding();
-
-                QpidByteBuffer oldPayload = payload;
-                payload = QpidByteBuffer.allocateDirect(oldPayload.remaining() + encodedHeader.getLength());
-                payload.put(encodedHeader.getArray(), encodedHeader.getArrayOffset(), encodedHeader.getLength());
-                payload.put(oldPayload);
-                oldPayload.dispose();
-                payload.flip();
+                replaceHeader(payload, entry.getDeliveryCount(), _typeRegistry, _sectionEncoder);
             }
 
-            transfer.setPayload(payload);
             byte[] data = new byte[8];
             ByteBuffer.wrap(data).putLong(_deliveryTag++);
             final Binary tag = new Binary(data);
@@ -252,6 +183,103 @@ class ConsumerTarget_1_0 extends AbstractConsumerTarget<ConsumerTarget_1_0>
         }
     }
 
+    /**
+     * Replaces any header section at the start of the payload with one carrying the given delivery count.  Only the
+     * header is re-encoded; the remainder of the payload is left in place.
+     */
+    static void replaceHeader(final List<QpidByteBuffer> payload,
+                              final int deliveryCount,
+                              final AMQPDescribedTypeRegistry typeRegistry,
+                              final SectionEncoder sectionEncoder)
+    {
+        Header oldHeader = null;
+        if (!payload.isEmpty())
+        {
+            ValueHandler valueHandler = new ValueHandler(typeRegistry);
+            try
+            {
+                try
+                {
+                    oldHeader = parseHeader(valueHandler, payload.get(0));
+                }
+                catch (AmqpErrorException e)
+                {
+                    if (payload.size() == 1)
+                    {
+                        throw e;
+                    }
+                    // the first section spans more than one fragment, so fall back to combining the fragments
+                    combineFragments(payload);
+                    oldHeader = parseHeader(valueHandler, payload.get(0));
+                }
+            }
+            catch (AmqpErrorException e)
+            {
+                //TODO
+                throw new ConnectionScopedRuntimeException(e);
+            }
+        }
+
+        Header header = new Header();
+        if (oldHeader != null)
+        {
+            header.setDurable(oldHeader.getDurable());
+            header.setPriority(oldHeader.getPriority());
+            header.setTtl(oldHeader.getTtl());
+        }
+        header.setDeliveryCount(UnsignedInteger.valueOf(deliveryCount));
+        sectionEncoder.reset();
+        sectionEncoder.encodeObject(header);
+        Binary encodedHeader = sectionEncoder.getEncoding();
+
+        QpidByteBuffer headerBuffer = QpidByteBuffer.allocateDirect(encodedHeader.getLength());
+        headerBuffer.put(encodedHeader.getArray(), encodedHeader.getArrayOffset(), encodedHeader.getLength());
+        headerBuffer.flip();
+        payload.add(0, headerBuffer);
+    }
+
+    /**
+     * Parses the first section of the buffer, consuming it if it is a header.
+     */
+    private static Header parseHeader(final ValueHandler valueHandler, final QpidByteBuffer buf) throws AmqpErrorException
+    {
+        QpidByteBuffer view = buf.slice();
+        try
+        {
+            Object value = valueHandler.parse(view);
+            if (value instanceof Header)
+            {
+                buf.position(buf.position() + view.position());
+                return (Header) value;
+            }
+            return null;
+        }
+        finally
+        {
+            view.dispose();
+        }
+    }
+
+    private static void combineFragments(final List<QpidByteBuffer> payload)
+    {
+        int size = 0;
+        for (QpidByteBuffer fragment : payload)
+        {
+            size += fragment.remaining();
+        }
+
+        QpidByteBuffer combined = QpidByteBuffer.allocateDirect(size);
+        for (QpidByteBuffer fragment : payload)
+        {
+            combined.put(fragment);
+            fragment.dispose();
+        }
+        combined.flip();
+
+        payload.clear();
+        payload.add(combined);
+    }
+
     public void flushBatched()
     {
         // TODO
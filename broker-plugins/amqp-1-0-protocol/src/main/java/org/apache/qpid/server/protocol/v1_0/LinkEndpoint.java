@@ -216,7 +216,17 @@ public abstract class LinkEndpoint<T extends Link_1_0>
 
     public void settle(final Binary deliveryTag)
     {
-        _unsettledTransfers.remove(deliveryTag);
+        removeUnsettled(deliveryTag);
+    }
+
+    protected Delivery removeUnsettled(final Binary deliveryTag)
+    {
+        final Delivery delivery = _unsettledTransfers.remove(deliveryTag);
+        if (delivery != null)
+        {
+            getSession().settleOutgoing(delivery);
+        }
+        return delivery;
     }
 
     void setLocalHandle(final UnsignedInteger localHandle)
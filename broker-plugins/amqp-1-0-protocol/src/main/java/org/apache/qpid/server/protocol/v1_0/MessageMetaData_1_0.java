@@ -20,7 +20,10 @@
 */
 package org.apache.qpid.server.protocol.v1_0;
 
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -41,10 +44,9 @@ import org.apache.qpid.server.protocol.v1_0.type.Section;
 import org.apache.qpid.server.protocol.v1_0.type.Symbol;
 import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
-import org.apache.qpid.server.protocol.v1_0.type.messaging.AmqpSequence;
-import org.apache.qpid.server.protocol.v1_0.type.messaging.AmqpValue;
+import org.apache.qpid.server.protocol.v1_0.type.transport.AmqpError;
+import org.apache.qpid.server.protocol.v1_0.type.transport.ConnectionError;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.ApplicationProperties;
-import org.apache.qpid.server.protocol.v1_0.type.messaging.Data;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.DeliveryAnnotations;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Footer;
 import org.apache.qpid.server.protocol.v1_0.type.messaging.Header;
@@ -66,15 +68,60 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
     private static final Symbol JMS_TYPE = Symbol.valueOf("x-opt-jms-type");
     private static final Symbol DELIVERY_TIME = Symbol.valueOf("x-opt-delivery-time");
     private static final Symbol NOT_VALID_BEFORE = Symbol.valueOf("x-qpid-not-valid-before");
-
-
-    private Header _header;
-    private Properties _properties;
+    private static final byte[] JMS_TYPE_BYTES = JMS_TYPE.toString().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DELIVERY_TIME_BYTES = DELIVERY_TIME.toString().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NOT_VALID_BEFORE_BYTES =
+            NOT_VALID_BEFORE.toString().getBytes(StandardCharsets.US_ASCII);
+
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+            .registerTransportLayer()
+            .registerMessagingLayer()
+            .registerTransactionLayer()
+            .registerSecurityLayer();
+
+    // indices of the non-body sections, in the order in which they appear in a message
+    private static final int HEADER = 0;
+    private static final int DELIVERY_ANNOTATIONS = 1;
+    private static final int MESSAGE_ANNOTATIONS = 2;
+    private static final int PROPERTIES = 3;
+    private static final int APPLICATION_PROPERTIES = 4;
+    private static final int FOOTER = 5;
+    private static final int SECTION_COUNT = 6;
+    private static final int BODY = SECTION_COUNT;
+    private static final int UNKNOWN_SECTION = -1;
+
+    private static final byte DESCRIBED_TYPE = (byte) 0x00;
+    private static final byte NULL = (byte) 0x40;
+    private static final byte ULONG0 = (byte) 0x44;
+    private static final byte LIST0 = (byte) 0x45;
+    private static final byte SMALL_ULONG = (byte) 0x53;
+    private static final byte ULONG = (byte) 0x80;
+    private static final byte STR8 = (byte) 0xa1;
+    private static final byte SYM8 = (byte) 0xa3;
+    private static final byte STR32 = (byte) 0xb1;
+    private static final byte SYM32 = (byte) 0xb3;
+    private static final byte LIST8 = (byte) 0xc0;
+    private static final byte MAP8 = (byte) 0xc1;
+    private static final byte LIST32 = (byte) 0xd0;
+    private static final byte MAP32 = (byte) 0xd1;
+    private static final byte ARRAY8 = (byte) 0xe0;
+    private static final byte ARRAY32 = (byte) 0xf0;
+
+    private static final Object UNSCANNABLE = new Object();
+
+    private volatile Header _header;
+    private volatile Properties _properties;
     private Map _deliveryAnnotations;
-    private Map _messageAnnotations;
-    private Map _appProperties;
+    private volatile Map _messageAnnotations;
+    private volatile Map _appProperties;
     private Map _footer;
 
+    /**
+     * The start and end offsets within the encoded form of each section which has not been decoded up front, or -1
+     * where the message does not have the section.  Such sections are decoded when first required.
+     */
+    private final int[] _sectionBounds;
+
     private volatile List<QpidByteBuffer> _encodedSections = new ArrayList<>(3);
 
     private volatile QpidByteBuffer _encoded;
@@ -88,13 +135,63 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
     public Properties getPropertiesSection()
     {
-        return _properties;
+        Properties properties = _properties;
+        if(properties == null && isEncoded(PROPERTIES))
+        {
+            properties = (Properties) decodeSection(PROPERTIES);
+            _properties = properties;
+        }
+        return properties;
     }
 
 
     public Header getHeaderSection()
     {
-        return _header;
+        Header header = _header;
+        if(header == null && isEncoded(HEADER))
+        {
+            header = (Header) decodeSection(HEADER);
+            _header = header;
+        }
+        return header;
+    }
+
+    private Map getMessageAnnotations()
+    {
+        Map messageAnnotations = _messageAnnotations;
+        if(messageAnnotations == null && isEncoded(MESSAGE_ANNOTATIONS))
+        {
+            final MessageAnnotations section = (MessageAnnotations) decodeSection(MESSAGE_ANNOTATIONS);
+            messageAnnotations = section == null ? null : section.getValue();
+            _messageAnnotations = messageAnnotations;
+        }
+        return messageAnnotations;
+    }
+
+    private Map getApplicationProperties()
+    {
+        Map appProperties = _appProperties;
+        if(appProperties == null && isEncoded(APPLICATION_PROPERTIES))
+        {
+            final ApplicationProperties section = (ApplicationProperties) decodeSection(APPLICATION_PROPERTIES);
+            appProperties = section == null ? null : section.getValue();
+            _appProperties = appProperties;
+        }
+        return appProperties;
+    }
+
+    private Object getMessageAnnotation(final Symbol key, final byte[] encodedKey)
+    {
+        if(_messageAnnotations == null && isEncoded(MESSAGE_ANNOTATIONS))
+        {
+            final Object value = findEncodedMapValue(MESSAGE_ANNOTATIONS, SYM8, SYM32, encodedKey);
+            if(value != UNSCANNABLE)
+            {
+                return value;
+            }
+        }
+        final Map messageAnnotations = getMessageAnnotations();
+        return messageAnnotations == null ? null : messageAnnotations.get(key);
     }
 
     private static ArrayList<QpidByteBuffer> encodeSections(final List<Section> sections, final SectionEncoder encoder)
@@ -116,12 +213,15 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
     public MessageMetaData_1_0(QpidByteBuffer[] fragments, SectionDecoder decoder, List<QpidByteBuffer> immutableSections)
     {
-        this(constructSections(fragments, decoder,immutableSections), immutableSections);
+        _encodedSections = immutableSections;
+        _sectionBounds = scanSections(fragments, immutableSections);
+        _messageHeader = new MessageHeader_1_0();
     }
 
     private MessageMetaData_1_0(List<Section> sections, List<QpidByteBuffer> encodedSections)
     {
         _encodedSections = encodedSections;
+        _sectionBounds = null;
 
         Iterator<Section> sectIter = sections.iterator();
 
@@ -166,14 +266,18 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
     }
 
-    private static List<Section> constructSections(final QpidByteBuffer[] fragments, final SectionDecoder decoder, List<QpidByteBuffer> encodedSections)
+    /**
+     * Records where each section lies in the encoded message without decoding it, retaining the encoded form so
+     * that the sections can be decoded if and when they are required.  The encoding of each section other than the
+     * body is validated, so that a malformed message is rejected when it is received rather than when the section
+     * is first decoded.
+     */
+    private int[] scanSections(final QpidByteBuffer[] fragments, final List<QpidByteBuffer> encodedSections)
     {
-        List<Section> sections = new ArrayList<Section>(3);
-
         QpidByteBuffer src;
         if(fragments.length == 1)
         {
-            src = fragments[0].duplicate();
+            src = fragments[0].slice();
         }
         else
         {
@@ -193,111 +297,484 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
         }
 
+        final int[] sectionBounds = new int[2 * SECTION_COUNT];
+        Arrays.fill(sectionBounds, -1);
+        final QpidByteBuffer scanned = src.duplicate();
         try
         {
-            int startBarePos = -1;
-            int lastPos = src.position();
-            Section s = decoder.readSection(src);
-
-
-
-            if(s instanceof Header)
+            int nextSection = HEADER;
+            while(scanned.hasRemaining())
             {
-                sections.add(s);
-                lastPos = src.position();
-                s = src.hasRemaining() ? decoder.readSection(src) : null;
+                final int start = scanned.position();
+                final int section = skipSection(scanned);
+                if(section == BODY && nextSection <= FOOTER)
+                {
+                    nextSection = FOOTER;
+                }
+                else if(section >= nextSection && section < SECTION_COUNT)
+                {
+                    sectionBounds[2 * section] = start;
+                    sectionBounds[2 * section + 1] = scanned.position();
+                    nextSection = section + 1;
+                }
+                else
+                {
+                    // sections out of the prescribed order are ignored, as is anything following them
+                    break;
+                }
             }
 
-            if(s instanceof DeliveryAnnotations)
+            for(QpidByteBuffer buf : fragments)
             {
-                sections.add(s);
-                lastPos = src.position();
-                s = src.hasRemaining() ? decoder.readSection(src) : null;
+                encodedSections.add(buf.duplicate());
             }
 
-            if(s instanceof MessageAnnotations)
+            _encoded = src;
+            src = null;
+            return sectionBounds;
+        }
+        catch (AmqpErrorException e)
+        {
+            _logger.error("Decoding read section error", e);
+            throw new IllegalArgumentException(e);
+        }
+        catch (BufferUnderflowException e)
+        {
+            _logger.error("Decoding read section error", e);
+            throw new IllegalArgumentException("Insufficient data to read message section", e);
+        }
+        finally
+        {
+            scanned.dispose();
+            if(src != null)
             {
-                sections.add(s);
-                lastPos = src.position();
-                s = src.hasRemaining() ? decoder.readSection(src) : null;
+                src.dispose();
             }
+        }
+    }
 
-            if(s instanceof Properties)
-            {
-                sections.add(s);
-                if(startBarePos == -1)
-                {
-                    startBarePos = lastPos;
-                }
-                s = src.hasRemaining() ? decoder.readSection(src) : null;
-            }
+    /**
+     * Skips over a section, returning its index, {@link #BODY} for a body section or {@link #UNKNOWN_SECTION}.  The
+     * value of a section other than a body or unknown section is validated as it is skipped.
+     */
+    private static int skipSection(final QpidByteBuffer buf) throws AmqpErrorException
+    {
+        if(buf.get() != DESCRIBED_TYPE)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR, "Message section is not a described type");
+        }
 
-            if(s instanceof ApplicationProperties)
-            {
-                sections.add(s);
-                if(startBarePos == -1)
+        final long code;
+        final byte descriptorFormat = buf.get();
+        switch(descriptorFormat)
+        {
+            case ULONG0:
+                code = 0L;
+                break;
+            case SMALL_ULONG:
+                code = buf.get() & 0xFFL;
+                break;
+            case ULONG:
+                code = buf.getLong();
+                break;
+            case SYM8:
+            case SYM32:
+                final int length = descriptorFormat == SYM8 ? buf.get() & 0xFF : buf.getInt();
+                checkRemaining(buf, length);
+                final byte[] name = new byte[length];
+                buf.get(name);
+                code = getSectionCode(new String(name, StandardCharsets.US_ASCII));
+                break;
+            default:
+                throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                             "Unexpected message section descriptor format-code 0x%02x",
+                                             descriptorFormat);
+        }
+
+        final int section;
+        switch((int) code)
+        {
+            case 0x70:
+                section = HEADER;
+                break;
+            case 0x71:
+                section = DELIVERY_ANNOTATIONS;
+                break;
+            case 0x72:
+                section = MESSAGE_ANNOTATIONS;
+                break;
+            case 0x73:
+                section = PROPERTIES;
+                break;
+            case 0x74:
+                section = APPLICATION_PROPERTIES;
+                break;
+            case 0x75:
+            case 0x76:
+            case 0x77:
+                section = BODY;
+                break;
+            case 0x78:
+                section = FOOTER;
+                break;
+            default:
+                section = UNKNOWN_SECTION;
+                break;
+        }
+
+        if(section == BODY || section == UNKNOWN_SECTION)
+        {
+            skipValue(buf);
+        }
+        else
+        {
+            validateSectionValue(buf, section);
+        }
+        return section;
+    }
+
+    /**
+     * Skips over the value of a section, checking that it is a list for the header and properties and a map for the
+     * other sections, and that it and every value within it is well formed.
+     */
+    private static void validateSectionValue(final QpidByteBuffer buf, final int section) throws AmqpErrorException
+    {
+        final byte formatCode = buf.get(buf.position());
+        final boolean expectList = section == HEADER || section == PROPERTIES;
+        final boolean valid = expectList
+                ? formatCode == LIST0 || formatCode == LIST8 || formatCode == LIST32
+                : formatCode == MAP8 || formatCode == MAP32;
+        if(!valid && formatCode != NULL)
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                         "Message section %d must be encoded as a %s, not format-code 0x%02x",
+                                         section, expectList ? "list" : "map", formatCode);
+        }
+        validateValue(buf);
+    }
+
+    private static void validateValue(final QpidByteBuffer buf) throws AmqpErrorException
+    {
+        final byte formatCode = buf.get();
+        if(formatCode == DESCRIBED_TYPE)
+        {
+            validateValue(buf);
+            validateValue(buf);
+        }
+        else
+        {
+            validateEncoding(buf, formatCode);
+        }
+    }
+
+    /**
+     * Skips over an encoded value whose constructor has already been read, checking that the size and count of a
+     * compound value or array agree with its elements, that a map has an even number of elements and that every
+     * format-code is known.
+     */
+    private static void validateEncoding(final QpidByteBuffer buf, final byte formatCode) throws AmqpErrorException
+    {
+        final boolean small;
+        switch(formatCode)
+        {
+            case LIST8:
+            case MAP8:
+            case ARRAY8:
+                small = true;
+                break;
+            case LIST32:
+            case MAP32:
+            case ARRAY32:
+                small = false;
+                break;
+            default:
+                if(!isPrimitiveFormatCode(formatCode))
                 {
-                    startBarePos = lastPos;
+                    throw new AmqpErrorException(ConnectionError.FRAMING_ERROR,
+                                                 "Unknown type format-code 0x%02x", formatCode);
                 }
-                s = src.hasRemaining() ? decoder.readSection(src) : null;
-            }
+                skipEncoding(buf, formatCode);
+                return;
+        }
 
-            if(s instanceof AmqpValue)
+        final int size = small ? buf.get() & 0xFF : buf.getInt();
+        checkRemaining(buf, size);
+        final int end = buf.position() + size;
+        final int limit = buf.limit();
+        buf.limit(end);
+        try
+        {
+            final int count = small ? buf.get() & 0xFF : buf.getInt();
+            if(formatCode == ARRAY8 || formatCode == ARRAY32)
             {
-                if(startBarePos == -1)
+                byte elementFormatCode = buf.get();
+                if(elementFormatCode == DESCRIBED_TYPE)
                 {
-                    startBarePos = lastPos;
+                    validateValue(buf);
+                    elementFormatCode = buf.get();
                 }
-                s = src.hasRemaining() ? decoder.readSection(src) : null;
-            }
-            else if(s instanceof Data)
-            {
-                if(startBarePos == -1)
+                for(int i = 0; i < count; i++)
                 {
-                    startBarePos = lastPos;
+                    validateEncoding(buf, elementFormatCode);
                 }
-                do
-                {
-                    s = src.hasRemaining() ? decoder.readSection(src) : null;
-                } while(s instanceof Data);
             }
-            else if(s instanceof AmqpSequence)
+            else
             {
-                if(startBarePos == -1)
+                if((formatCode == MAP8 || formatCode == MAP32) && (count & 1) != 0)
                 {
-                    startBarePos = lastPos;
+                    throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                                 "Map cannot have odd number of elements: %d", count);
                 }
-                do
+                for(int i = 0; i < count; i++)
                 {
-                    s = src.hasRemaining() ? decoder.readSection(src) : null;
+                    validateValue(buf);
                 }
-                while(s instanceof AmqpSequence);
             }
-
-            if(s instanceof Footer)
+            if(buf.hasRemaining())
             {
-                sections.add(s);
+                throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                             "Compound value incorrectly encoded, %d bytes remaining after %d elements",
+                                             buf.remaining(), count);
             }
+        }
+        finally
+        {
+            buf.limit(limit);
+        }
+    }
 
+    private static boolean isPrimitiveFormatCode(final byte formatCode)
+    {
+        final int code = formatCode & 0xFF;
+        switch(code >> 4)
+        {
+            case 0x4:
+                return code <= 0x45;
+            case 0x5:
+                return code <= 0x56;
+            case 0x6:
+                return code <= 0x61;
+            case 0x7:
+                return code <= 0x74;
+            case 0x8:
+                return code <= 0x84;
+            case 0x9:
+                return code == 0x94 || code == 0x98;
+            case 0xA:
+            case 0xB:
+                return (code & 0x0F) <= 0x3;
+            default:
+                return false;
+        }
+    }
 
-            for(QpidByteBuffer buf : fragments)
+    private static long getSectionCode(final String descriptor)
+    {
+        switch(descriptor)
+        {
+            case "amqp:header:list":
+                return 0x70L;
+            case "amqp:delivery-annotations:map":
+                return 0x71L;
+            case "amqp:message-annotations:map":
+                return 0x72L;
+            case "amqp:properties:list":
+                return 0x73L;
+            case "amqp:application-properties:map":
+                return 0x74L;
+            case "amqp:data:binary":
+                return 0x75L;
+            case "amqp:amqp-sequence:list":
+                return 0x76L;
+            case "amqp:amqp-value:*":
+                return 0x77L;
+            case "amqp:footer:map":
+                return 0x78L;
+            default:
+                return -1L;
+        }
+    }
+
+    private static void skipValue(final QpidByteBuffer buf) throws AmqpErrorException
+    {
+        final byte formatCode = buf.get();
+        if(formatCode == DESCRIBED_TYPE)
+        {
+            skipValue(buf);
+            skipValue(buf);
+        }
+        else
+        {
+            skipEncoding(buf, formatCode);
+        }
+    }
+
+    private static void skipEncoding(final QpidByteBuffer buf, final byte formatCode) throws AmqpErrorException
+    {
+        final int length;
+        switch((formatCode >> 4) & 0x0F)
+        {
+            case 0x4:
+                length = 0;
+                break;
+            case 0x5:
+                length = 1;
+                break;
+            case 0x6:
+                length = 2;
+                break;
+            case 0x7:
+                length = 4;
+                break;
+            case 0x8:
+                length = 8;
+                break;
+            case 0x9:
+                length = 16;
+                break;
+            case 0xA:
+            case 0xC:
+            case 0xE:
+                length = buf.get() & 0xFF;
+                break;
+            case 0xB:
+            case 0xD:
+            case 0xF:
+                length = buf.getInt();
+                break;
+            default:
+                throw new AmqpErrorException(ConnectionError.FRAMING_ERROR,
+                                             "Unknown type format-code 0x%02x", formatCode);
+        }
+        checkRemaining(buf, length);
+        buf.position(buf.position() + length);
+    }
+
+    private static void checkRemaining(final QpidByteBuffer buf, final int length) throws AmqpErrorException
+    {
+        if(length < 0 || length > buf.remaining())
+        {
+            throw new AmqpErrorException(AmqpError.DECODE_ERROR,
+                                         "Insufficient data - expected %d bytes, %d remaining",
+                                         length, buf.remaining());
+        }
+    }
+
+    private boolean isEncoded(final int section)
+    {
+        return _sectionBounds != null && _sectionBounds[2 * section] >= 0;
+    }
+
+    private QpidByteBuffer getEncodedSection(final int section)
+    {
+        final QpidByteBuffer encoded = _encoded;
+        if(encoded == null)
+        {
+            throw new IllegalStateException("Message meta-data has been disposed");
+        }
+        final QpidByteBuffer buf = encoded.duplicate();
+        buf.position(_sectionBounds[2 * section]);
+        buf.limit(_sectionBounds[2 * section + 1]);
+        return buf;
+    }
+
+    private Section decodeSection(final int section)
+    {
+        final QpidByteBuffer buf = getEncodedSection(section);
+        try
+        {
+            return (Section) new ValueHandler(TYPE_REGISTRY).parse(buf);
+        }
+        catch (AmqpErrorException e)
+        {
+            throw new ConnectionScopedRuntimeException(e);
+        }
+        finally
+        {
+            buf.dispose();
+        }
+    }
+
+    /**
+     * Finds the value of a single entry in an encoded map section without decoding the rest of the map.
+     *
+     * @return the value, null if the map has no such entry, or {@link #UNSCANNABLE} if the map must be decoded
+     */
+    private Object findEncodedMapValue(final int section, final byte keyFormat8, final byte keyFormat32,
+                                       final byte[] key)
+    {
+        final QpidByteBuffer buf = getEncodedSection(section);
+        try
+        {
+            buf.get();
+            skipValue(buf);
+
+            final int count;
+            final byte mapFormat = buf.get();
+            if(mapFormat == MAP8)
             {
-                encodedSections.add(buf.duplicate());
+                buf.get();
+                count = buf.get() & 0xFF;
+            }
+            else if(mapFormat == MAP32)
+            {
+                buf.getInt();
+                count = buf.getInt();
+            }
+            else if(mapFormat == NULL)
+            {
+                return null;
+            }
+            else
+            {
+                return UNSCANNABLE;
             }
 
-            return sections;
+            for(int i = 0; i < count / 2; i++)
+            {
+                final int keyStart = buf.position();
+                final byte keyFormat = buf.get();
+                if(keyFormat == keyFormat8 || keyFormat == keyFormat32)
+                {
+                    final int length = keyFormat == keyFormat8 ? buf.get() & 0xFF : buf.getInt();
+                    checkRemaining(buf, length);
+                    final int keyEnd = buf.position() + length;
+                    if(length == key.length && matches(buf, key))
+                    {
+                        return new ValueHandler(TYPE_REGISTRY).parse(buf);
+                    }
+                    buf.position(keyEnd);
+                }
+                else
+                {
+                    buf.position(keyStart);
+                    skipValue(buf);
+                }
+                skipValue(buf);
+            }
+            return null;
         }
-        catch (AmqpErrorException e)
+        catch (AmqpErrorException | BufferUnderflowException e)
         {
-            _logger.error("Decoding read section error", e);
-            throw new IllegalArgumentException(e);
+            return UNSCANNABLE;
         }
         finally
         {
-            src.dispose();
+            buf.dispose();
         }
     }
 
+    private static boolean matches(final QpidByteBuffer buf, final byte[] bytes)
+    {
+        for(byte b : bytes)
+        {
+            if(buf.get() != b)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
 
     public MessageMetaDataType getType()
     {
@@ -370,7 +847,8 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
     public boolean isPersistent()
     {
-        return _header != null && Boolean.TRUE.equals(_header.getDurable());
+        final Header header = getHeaderSection();
+        return header != null && Boolean.TRUE.equals(header.getDurable());
     }
 
     public MessageHeader_1_0 getMessageHeader()
@@ -386,8 +864,11 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
             bin.dispose();
         }
         _encodedSections = null;
-        _encoded.dispose();
-        _encoded = null;
+        if(_encoded != null)
+        {
+            _encoded.dispose();
+            _encoded = null;
+        }
     }
 
     @Override
@@ -445,54 +926,59 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
         public String getCorrelationId()
         {
-            if(_properties == null || _properties.getCorrelationId() == null)
+            final Properties properties = getPropertiesSection();
+            if(properties == null || properties.getCorrelationId() == null)
             {
                 return null;
             }
             else
             {
-                return _properties.getCorrelationId().toString();
+                return properties.getCorrelationId().toString();
             }
         }
 
         @Override
         public long getExpiration()
         {
-            final Date absoluteExpiryTime = _properties == null ? null : _properties.getAbsoluteExpiryTime();
+            final Properties properties = getPropertiesSection();
+            final Date absoluteExpiryTime = properties == null ? null : properties.getAbsoluteExpiryTime();
             if(absoluteExpiryTime != null)
             {
                 return absoluteExpiryTime.getTime();
             }
             else
             {
-                final Date creationTime = _properties == null ? null : _properties.getCreationTime();
-                final UnsignedInteger ttl = _header == null ? null : _header.getTtl();
+                final Date creationTime = properties == null ? null : properties.getCreationTime();
+                final Header header = getHeaderSection();
+                final UnsignedInteger ttl = header == null ? null : header.getTtl();
                 return ttl == null || creationTime == null ? 0L : ttl.longValue() + creationTime.getTime();
             }
         }
 
         public String getMessageId()
         {
-            if(_properties == null || _properties.getMessageId() == null)
+            final Properties properties = getPropertiesSection();
+            if(properties == null || properties.getMessageId() == null)
             {
                 return null;
             }
             else
             {
-                return _properties.getMessageId().toString();
+                return properties.getMessageId().toString();
             }
         }
 
         public String getMimeType()
         {
 
-            if(_properties == null || _properties.getContentType() == null)
+            final Properties properties = getPropertiesSection();
+            if(properties == null || properties.getContentType() == null)
             {
                 return null;
             }
             else
             {
-                return _properties.getContentType().toString();
+                return properties.getContentType().toString();
             }
         }
 
@@ -503,25 +989,27 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
         public byte getPriority()
         {
-            if(_header == null || _header.getPriority() == null)
+            final Header header = getHeaderSection();
+            if(header == null || header.getPriority() == null)
             {
                 return 4; //javax.jms.Message.DEFAULT_PRIORITY;
             }
             else
             {
-                return _header.getPriority().byteValue();
+                return header.getPriority().byteValue();
             }
         }
 
         public long getTimestamp()
         {
-            if(_properties == null || _properties.getCreationTime() == null)
+            final Properties properties = getPropertiesSection();
+            if(properties == null || properties.getCreationTime() == null)
             {
                 return 0L;
             }
             else
             {
-                return _properties.getCreationTime().getTime();
+                return properties.getCreationTime().getTime();
             }
 
         }
@@ -533,11 +1021,11 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
             long notValidBefore;
             Object annotation;
 
-            if(_messageAnnotations != null && (annotation = _messageAnnotations.get(DELIVERY_TIME)) instanceof Number)
+            if((annotation = getMessageAnnotation(DELIVERY_TIME, DELIVERY_TIME_BYTES)) instanceof Number)
             {
                 notValidBefore = ((Number)annotation).longValue();
             }
-            else if(_messageAnnotations != null && (annotation = _messageAnnotations.get(NOT_VALID_BEFORE)) instanceof Number)
+            else if((annotation = getMessageAnnotation(NOT_VALID_BEFORE, NOT_VALID_BEFORE_BYTES)) instanceof Number)
             {
                 notValidBefore = ((Number)annotation).longValue();
             }
@@ -557,25 +1045,20 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
             }
 
             // Use legacy annotation if present and there was no subject
-            if(_messageAnnotations == null || _messageAnnotations.get(JMS_TYPE) == null)
-            {
-                return null;
-            }
-            else
-            {
-                return _messageAnnotations.get(JMS_TYPE).toString();
-            }
+            final Object type = getMessageAnnotation(JMS_TYPE, JMS_TYPE_BYTES);
+            return type == null ? null : type.toString();
         }
 
         public String getReplyTo()
         {
-            if(_properties == null || _properties.getReplyTo() == null)
+            final Properties properties = getPropertiesSection();
+            if(properties == null || properties.getReplyTo() == null)
             {
                 return null;
             }
             else
             {
-                return _properties.getReplyTo();
+                return properties.getReplyTo();
             }
         }
 
@@ -593,19 +1076,30 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
 
         public Object getHeader(final String name)
         {
-            return _appProperties == null ? null : _appProperties.get(name);
+            if(_appProperties == null && isEncoded(APPLICATION_PROPERTIES))
+            {
+                final Object value = findEncodedMapValue(APPLICATION_PROPERTIES, STR8, STR32,
+                                                         name.getBytes(StandardCharsets.UTF_8));
+                if(value != UNSCANNABLE)
+                {
+                    return value;
+                }
+            }
+            final Map appProperties = getApplicationProperties();
+            return appProperties == null ? null : appProperties.get(name);
         }
 
         public boolean containsHeaders(final Set<String> names)
         {
-            if(_appProperties == null)
+            final Map appProperties = getApplicationProperties();
+            if(appProperties == null)
             {
                 return false;
             }
 
             for(String key : names)
             {
-                if(!_appProperties.containsKey(key))
+                if(!appProperties.containsKey(key))
                 {
                     return false;
                 }
@@ -616,31 +1110,36 @@ public class MessageMetaData_1_0 implements StorableMessageMetaData
         @Override
         public Collection<String> getHeaderNames()
         {
-            if(_appProperties == null)
+            final Map appProperties = getApplicationProperties();
+            if(appProperties == null)
             {
                 return Collections.emptySet();
             }
-            return Collections.unmodifiableCollection(_appProperties.keySet());
+            return Collections.unmodifiableCollection(appProperties.keySet());
         }
 
         public boolean containsHeader(final String name)
         {
-            return _appProperties != null && _appProperties.containsKey(name);
+            final Map appProperties = getApplicationProperties();
+            return appProperties != null && appProperties.containsKey(name);
         }
 
         public String getSubject()
         {
-            return _properties == null ? null : _properties.getSubject();
+            final Properties properties = getPropertiesSection();
+            return properties == null ? null : properties.getSubject();
         }
 
         public String getTo()
         {
-            return _properties == null ? null : _properties.getTo();
+            final Properties properties = getPropertiesSection();
+            return properties == null ? null : properties.getTo();
         }
 
         public Map<String, Object> getHeadersAsMap()
         {
-            return _appProperties == null ? new HashMap<String,Object>() : new HashMap<String,Object>(_appProperties);
+            final Map appProperties = getApplicationProperties();
+            return appProperties == null ? new HashMap<String,Object>() : new HashMap<String,Object>(appProperties);
         }
     }
 
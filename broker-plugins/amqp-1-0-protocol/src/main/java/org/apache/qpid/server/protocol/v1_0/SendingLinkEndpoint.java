@@ -40,7 +40,6 @@ public class SendingLinkEndpoint extends LinkEndpoint<SendingLink_1_0>
     public static final Symbol PRIORITY = Symbol.valueOf("priority");
     private UnsignedInteger _lastDeliveryId;
     private Binary _lastDeliveryTag;
-    private Map<Binary, UnsignedInteger> _unsettledMap = new HashMap<Binary, UnsignedInteger>();
     private Binary _transactionId;
     private Integer _priority;
 
@@ -123,11 +122,6 @@ public class SendingLinkEndpoint extends LinkEndpoint<SendingLink_1_0>
 
         s.sendTransfer(xfr, this, !xfr.getDeliveryTag().equals(_lastDeliveryTag));
 
-        if(!Boolean.TRUE.equals(xfr.getSettled()))
-        {
-            _unsettledMap.put(xfr.getDeliveryTag(), xfr.getDeliveryId());
-        }
-
         if(Boolean.TRUE.equals(xfr.getMore()))
         {
             _lastDeliveryTag = xfr.getDeliveryTag();
@@ -195,17 +189,6 @@ public class SendingLinkEndpoint extends LinkEndpoint<SendingLink_1_0>
                && getSession().hasCreditToSend();
     }
 
-    public void receiveDeliveryState(final Delivery unsettled,
-                                               final DeliveryState state,
-                                               final Boolean settled)
-    {
-        super.receiveDeliveryState(unsettled, state, settled);
-        if(settled)
-        {
-            _unsettledMap.remove(unsettled.getDeliveryTag());
-        }
-    }
-
     public UnsignedInteger getLastDeliveryId()
     {
         return _lastDeliveryId;
@@ -218,10 +201,10 @@ public class SendingLinkEndpoint extends LinkEndpoint<SendingLink_1_0>
 
     public void updateDisposition(final Binary deliveryTag, DeliveryState state, boolean settled)
     {
-        UnsignedInteger deliveryId;
-        if(settled && (deliveryId = _unsettledMap.remove(deliveryTag))!=null)
+        Delivery delivery;
+        if(settled && (delivery = removeUnsettled(deliveryTag))!=null)
         {
-            settle(deliveryTag);
+            final UnsignedInteger deliveryId = delivery.getDeliveryId();
             getSession().updateDisposition(getRole(), deliveryId, deliveryId, state, settled);
         }
     }
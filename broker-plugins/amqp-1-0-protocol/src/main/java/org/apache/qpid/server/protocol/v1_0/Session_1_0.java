@@ -108,6 +108,7 @@ import org.apache.qpid.server.txn.ServerTransaction;
 import org.apache.qpid.server.util.Action;
 import org.apache.qpid.server.util.ConnectionScopedRuntimeException;
 import org.apache.qpid.transport.network.Ticker;
+import org.apache.qpid.util.ByteBufferUtils;
 
 public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_1_0>, LogSubject
 {
@@ -164,8 +165,8 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
     private SequenceNumber _nextIncomingTransferId;
     private SequenceNumber _nextOutgoingTransferId = new SequenceNumber(_initialOutgoingId.intValue());
 
-    private LinkedHashMap<UnsignedInteger,Delivery> _outgoingUnsettled = new LinkedHashMap<>(DEFAULT_SESSION_BUFFER_SIZE);
-    private LinkedHashMap<UnsignedInteger,Delivery> _incomingUnsettled = new LinkedHashMap<>(DEFAULT_SESSION_BUFFER_SIZE);
+    private final UnsettledDeliveries _outgoingUnsettled = new UnsettledDeliveries(DEFAULT_SESSION_BUFFER_SIZE);
+    private final UnsettledDeliveries _incomingUnsettled = new UnsettledDeliveries(DEFAULT_SESSION_BUFFER_SIZE);
 
     private int _availableIncomingCredit = DEFAULT_SESSION_BUFFER_SIZE;
     private int _availableOutgoingCredit = DEFAULT_SESSION_BUFFER_SIZE;
@@ -309,17 +310,15 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
         {
             if(role == Role.RECEIVER)
             {
-                SequenceNumber pos = new SequenceNumber(first.intValue());
-                SequenceNumber end = new SequenceNumber(last.intValue());
-                while(pos.compareTo(end)<=0)
+                final int end = last.intValue();
+                for(int pos = first.intValue(); pos - end <= 0; pos++)
                 {
-                    Delivery d = _incomingUnsettled.remove(new UnsignedInteger(pos.intValue()));
+                    Delivery d = _incomingUnsettled.remove(pos);
 
 /*
                     _availableIncomingCredit += d.getTransfers().size();
 */
 
-                    pos.incr();
                 }
             }
         }
@@ -358,10 +357,10 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
         if(!Boolean.TRUE.equals(xfr.getSettled()))
         {
             Delivery delivery;
-            if((delivery = _outgoingUnsettled.get(deliveryId))== null)
+            if((delivery = _outgoingUnsettled.get(deliveryId.intValue()))== null)
             {
                 delivery = new Delivery(xfr, endpoint);
-                _outgoingUnsettled.put(deliveryId, delivery);
+                _outgoingUnsettled.put(deliveryId.intValue(), delivery);
 
             }
             else
@@ -375,30 +374,30 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
 
         try
         {
-            QpidByteBuffer payload = xfr.getPayload();
+            List<QpidByteBuffer> payload = xfr.getPayload();
+            final long payloadSize = xfr.getPayloadSize();
             int payloadSent = _connection.sendFrame(_sendingChannel, xfr, payload);
 
-            if(payload != null && payloadSent < payload.remaining() && payloadSent >= 0)
+            if(payload != null && payloadSent < payloadSize && payloadSent >= 0)
             {
-                payload = payload.duplicate();
+                List<QpidByteBuffer> remainingPayload =
+                        ByteBufferUtils.view(payload, payloadSent, (int) (payloadSize - payloadSent));
+
+                Transfer secondTransfer = new Transfer();
                 try
                 {
-                    payload.position(payload.position()+payloadSent);
-
-                    Transfer secondTransfer = new Transfer();
-
                     secondTransfer.setDeliveryTag(xfr.getDeliveryTag());
                     secondTransfer.setHandle(xfr.getHandle());
                     secondTransfer.setSettled(xfr.getSettled());
                     secondTransfer.setState(xfr.getState());
                     secondTransfer.setMessageFormat(xfr.getMessageFormat());
-                    secondTransfer.setPayload(payload);
+                    secondTransfer.setPayload(remainingPayload);
 
                     sendTransfer(secondTransfer, endpoint, false);
                 }
                 finally
                 {
-                    payload.dispose();
+                    secondTransfer.dispose();
                 }
 
             }
@@ -502,7 +501,7 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
     {
         Role dispositionRole = disposition.getRole();
 
-        LinkedHashMap<UnsignedInteger, Delivery> unsettledTransfers;
+        UnsettledDeliveries unsettledTransfers;
 
         if(dispositionRole == Role.RECEIVER)
         {
@@ -514,15 +513,10 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
 
         }
 
-        UnsignedInteger deliveryId = disposition.getFirst();
-        UnsignedInteger last = disposition.getLast();
-        if(last == null)
-        {
-            last = deliveryId;
-        }
-
+        final int first = disposition.getFirst().intValue();
+        final int last = disposition.getLast() == null ? first : disposition.getLast().intValue();
 
-        while(deliveryId.compareTo(last)<=0)
+        for(int deliveryId = first; deliveryId - last <= 0; deliveryId++)
         {
 
             Delivery delivery = unsettledTransfers.get(deliveryId);
@@ -532,7 +526,6 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
                                                            disposition.getState(),
                                                            disposition.getSettled());
             }
-            deliveryId = deliveryId.add(UnsignedInteger.ONE);
         }
         if(disposition.getSettled())
         {
@@ -685,11 +678,11 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
                 deliveryId = endpoint.getLastDeliveryId();
             }
 
-            Delivery delivery = _incomingUnsettled.get(deliveryId);
+            Delivery delivery = _incomingUnsettled.get(deliveryId.intValue());
             if (delivery == null)
             {
                 delivery = new Delivery(transfer, endpoint);
-                _incomingUnsettled.put(deliveryId, delivery);
+                _incomingUnsettled.put(deliveryId.intValue(), delivery);
 
                 if (Boolean.TRUE.equals(transfer.getMore()))
                 {
@@ -729,11 +722,20 @@ public class Session_1_0 implements AMQSessionModel<Session_1_0, ConsumerTarget_
 
             if ((delivery.isComplete() && delivery.isSettled() || Boolean.TRUE.equals(transfer.getAborted())))
             {
-                _incomingUnsettled.remove(deliveryId);
+                _incomingUnsettled.remove(deliveryId.intValue());
             }
         }
     }
 
+    void settleOutgoing(final Delivery delivery)
+    {
+        final int deliveryId = delivery.getDeliveryId().intValue();
+        if (_outgoingUnsettled.get(deliveryId) == delivery)
+        {
+            _outgoingUnsettled.remove(deliveryId);
+        }
+    }
+
     private Collection<LinkEndpoint> getLocalLinkEndpoints()
     {
         return new ArrayList<>(_localLinkEndpoints.keySet());
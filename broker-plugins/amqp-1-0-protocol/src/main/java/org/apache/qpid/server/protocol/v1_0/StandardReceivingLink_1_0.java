@@ -110,7 +110,10 @@ public class StandardReceivingLink_1_0 implements ReceivingLink_1_0
 
             for(Transfer t : _incompleteMessage)
             {
-                fragments.add(t.getPayload().duplicate());
+                for(QpidByteBuffer payload : t.getPayload())
+                {
+                    fragments.add(payload.duplicate());
+                }
                 t.dispose();
             }
             _incompleteMessage=null;
@@ -120,7 +123,11 @@ public class StandardReceivingLink_1_0 implements ReceivingLink_1_0
         {
             _resumedMessage = Boolean.TRUE.equals(xfr.getResume());
             _messageDeliveryTag = deliveryTag;
-            fragments = Collections.singletonList(xfr.getPayload().duplicate());
+            fragments = new ArrayList<>(xfr.getPayload().size());
+            for(QpidByteBuffer payload : xfr.getPayload())
+            {
+                fragments.add(payload.duplicate());
+            }
             xfr.dispose();
         }
 
@@ -97,12 +97,15 @@ public class TxnCoordinatorReceivingLink_1_0 implements ReceivingLink_1_0
             int size = 0;
             for(Transfer t : _incompleteMessage)
             {
-                size += t.getPayload().limit();
+                size += t.getPayloadSize();
             }
             payload = QpidByteBuffer.allocateDirect(size);
             for(Transfer t : _incompleteMessage)
             {
-                payload.put(t.getPayload().duplicate());
+                for(QpidByteBuffer buf : t.getPayload())
+                {
+                    payload.put(buf.duplicate());
+                }
                 t.dispose();
             }
             payload.flip();
@@ -111,7 +114,12 @@ public class TxnCoordinatorReceivingLink_1_0 implements ReceivingLink_1_0
         }
         else
         {
-            payload = xfr.getPayload().duplicate();
+            payload = QpidByteBuffer.allocateDirect((int) xfr.getPayloadSize());
+            for(QpidByteBuffer buf : xfr.getPayload())
+            {
+                payload.put(buf.duplicate());
+            }
+            payload.flip();
             xfr.dispose();
         }
 
@@ -0,0 +1,238 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The unsettled deliveries of one direction of a session, indexed by delivery-id.
+ * <p>
+ * Delivery-ids are assigned sequentially, so the deliveries are held in a ring whose slot is given by the low bits
+ * of the delivery-id, making insertion, lookup and removal O(1) without boxing the id.  The ring spans the ids from
+ * the oldest to the newest unsettled delivery.  It grows when the deliveries within that span fill much of it, and
+ * shrinks again as the span contracts when deliveries are settled.
+ * <p>
+ * A delivery which remains unsettled while many later deliveries are settled, for instance one awaiting a
+ * transaction or a slow consumer, would otherwise stretch the span so that the ring grows around it.  Instead, when
+ * the ring is mostly empty, the oldest deliveries are moved to a map as newer ones arrive, so that the ring only
+ * spans the recent deliveries.  Deliveries whose ids lie too far from the others to be spanned at all are also held
+ * in the map.
+ * <p>
+ * Instances are not thread safe.
+ */
+class UnsettledDeliveries
+{
+    private static final int MAXIMUM_CAPACITY = 1 << 20;
+
+    private final int _minimumCapacity;
+    private Delivery[] _deliveries;
+    private int _mask;
+    private int _head;
+    private int _end;
+    private int _ringSize;
+    private Map<Integer, Delivery> _overflow;
+
+    UnsettledDeliveries(final int initialCapacity)
+    {
+        if (initialCapacity <= 0 || Integer.bitCount(initialCapacity) != 1)
+        {
+            throw new IllegalArgumentException("Capacity must be a positive power of two: " + initialCapacity);
+        }
+        _minimumCapacity = initialCapacity;
+        _deliveries = new Delivery[initialCapacity];
+        _mask = initialCapacity - 1;
+    }
+
+    Delivery get(final int deliveryId)
+    {
+        if (isInRing(deliveryId))
+        {
+            final Delivery delivery = _deliveries[deliveryId & _mask];
+            if (delivery != null)
+            {
+                return delivery;
+            }
+        }
+        return _overflow == null ? null : _overflow.get(deliveryId);
+    }
+
+    /**
+     * Adds a delivery, which must not already be held.
+     */
+    void put(final int deliveryId, final Delivery delivery)
+    {
+        if (_ringSize != 0)
+        {
+            // delivery-ids are compared using serial number arithmetic as they wrap
+            final boolean beforeHead = deliveryId - _head < 0;
+            final boolean afterEnd = deliveryId - _end >= 0;
+            final int end = afterEnd ? deliveryId + 1 : _end;
+            if (afterEnd)
+            {
+                while (_ringSize != 0 && isSparse() && !fitsInRing(end - _head))
+                {
+                    moveHeadToOverflow();
+                }
+            }
+
+            if (_ringSize != 0)
+            {
+                final int head = beforeHead ? deliveryId : _head;
+                final int span = end - head;
+                if (!fitsInRing(span))
+                {
+                    if (span < 0 || span > MAXIMUM_CAPACITY || (beforeHead && isSparse()))
+                    {
+                        addToOverflow(deliveryId, delivery);
+                        return;
+                    }
+                    resize(Integer.highestOneBit(span - 1) << 1);
+                }
+                _head = head;
+                _end = end;
+            }
+        }
+
+        if (_ringSize == 0)
+        {
+            _head = deliveryId;
+            _end = deliveryId + 1;
+        }
+        _deliveries[deliveryId & _mask] = delivery;
+        _ringSize++;
+    }
+
+    Delivery remove(final int deliveryId)
+    {
+        if (isInRing(deliveryId))
+        {
+            final int index = deliveryId & _mask;
+            final Delivery delivery = _deliveries[index];
+            if (delivery != null)
+            {
+                _deliveries[index] = null;
+                if (--_ringSize == 0)
+                {
+                    if (_deliveries.length != _minimumCapacity)
+                    {
+                        _deliveries = new Delivery[_minimumCapacity];
+                        _mask = _minimumCapacity - 1;
+                    }
+                }
+                else if (deliveryId == _head || deliveryId == _end - 1)
+                {
+                    if (deliveryId == _head)
+                    {
+                        advanceHead();
+                    }
+                    else
+                    {
+                        do
+                        {
+                            _end--;
+                        }
+                        while (_deliveries[(_end - 1) & _mask] == null);
+                    }
+
+                    final int capacity = _deliveries.length;
+                    if (capacity != _minimumCapacity && _end - _head <= capacity >> 2)
+                    {
+                        resize(capacity >> 1);
+                    }
+                }
+                return delivery;
+            }
+        }
+        return _overflow == null ? null : _overflow.remove(deliveryId);
+    }
+
+    int size()
+    {
+        return _ringSize + (_overflow == null ? 0 : _overflow.size());
+    }
+
+    boolean isEmpty()
+    {
+        return size() == 0;
+    }
+
+    int getCapacity()
+    {
+        return _deliveries.length;
+    }
+
+    private boolean isInRing(final int deliveryId)
+    {
+        return _ringSize != 0 && deliveryId - _head >= 0 && deliveryId - _end < 0;
+    }
+
+    private boolean fitsInRing(final int span)
+    {
+        return span >= 0 && span <= _deliveries.length;
+    }
+
+    private boolean isSparse()
+    {
+        return _ringSize <= _deliveries.length >> 1;
+    }
+
+    private void moveHeadToOverflow()
+    {
+        final int index = _head & _mask;
+        addToOverflow(_head, _deliveries[index]);
+        _deliveries[index] = null;
+        if (--_ringSize != 0)
+        {
+            advanceHead();
+        }
+    }
+
+    private void advanceHead()
+    {
+        do
+        {
+            _head++;
+        }
+        while (_deliveries[_head & _mask] == null);
+    }
+
+    private void addToOverflow(final int deliveryId, final Delivery delivery)
+    {
+        if (_overflow == null)
+        {
+            _overflow = new HashMap<>();
+        }
+        _overflow.put(deliveryId, delivery);
+    }
+
+    private void resize(final int capacity)
+    {
+        final Delivery[] deliveries = new Delivery[capacity];
+        final int mask = capacity - 1;
+        for (int deliveryId = _head; deliveryId != _end; deliveryId++)
+        {
+            deliveries[deliveryId & mask] = _deliveries[deliveryId & _mask];
+        }
+        _deliveries = deliveries;
+        _mask = mask;
+    }
+}
@@ -21,6 +21,8 @@
 
 package org.apache.qpid.server.protocol.v1_0.codec;
 
+import java.util.List;
+
 import org.apache.qpid.server.protocol.v1_0.framing.AMQFrame;
 import org.apache.qpid.bytebuffer.QpidByteBuffer;
 import org.apache.qpid.transport.ByteBufferSender;
@@ -39,9 +41,16 @@ public class FrameWriter
 
     public <T> int send(AMQFrame<T> frame)
     {
-        final QpidByteBuffer payload = frame.getPayload() == null ? null : frame.getPayload().duplicate();
+        final List<QpidByteBuffer> payload = frame.getPayload();
 
-        final int payloadLength = payload == null ? 0 : payload.remaining();
+        int payloadLength = 0;
+        if(payload != null)
+        {
+            for(QpidByteBuffer buf : payload)
+            {
+                payloadLength += buf.remaining();
+            }
+        }
         final T frameBody = frame.getFrameBody();
 
         final ValueWriter<T> typeWriter = frameBody == null ? null : _registry.getValueWriter(frameBody);
@@ -73,8 +82,14 @@ public class FrameWriter
         body.dispose();
         if(payload != null)
         {
-            _sender.send(payload);
-            payload.dispose();
+            // the payload buffers are handed to the sender individually so that they are written with a gathering
+            // write rather than being copied into a single buffer
+            for(QpidByteBuffer buf : payload)
+            {
+                QpidByteBuffer dup = buf.duplicate();
+                _sender.send(dup);
+                dup.dispose();
+            }
         }
         return totalSize;
     }
@@ -24,6 +24,9 @@
 package org.apache.qpid.server.protocol.v1_0.type.transport;
 
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.qpid.server.protocol.v1_0.ConnectionHandler;
 import org.apache.qpid.server.protocol.v1_0.type.*;
 import org.apache.qpid.bytebuffer.QpidByteBuffer;
@@ -33,7 +36,7 @@ public class Transfer
   {
 
 
-    private volatile QpidByteBuffer _payload;
+    private volatile List<QpidByteBuffer> _payload;
 
     private UnsignedInteger _handle;
 
@@ -282,20 +285,47 @@ public class Transfer
     }
 
     public void setPayload(QpidByteBuffer payload)
+    {
+        _payload = payload == null ? null : Collections.singletonList(payload);
+    }
+
+    /**
+     * Sets the payload as a sequence of buffers which are written to the transport in turn, avoiding the need to copy
+     * the content of a message into a single buffer.  The transfer takes ownership of the buffers.
+     */
+    public void setPayload(List<QpidByteBuffer> payload)
     {
         _payload = payload;
     }
 
-    public QpidByteBuffer getPayload()
+    public List<QpidByteBuffer> getPayload()
     {
         return _payload;
     }
 
+    public long getPayloadSize()
+    {
+        long size = 0L;
+        List<QpidByteBuffer> payload = _payload;
+        if (payload != null)
+        {
+            for (QpidByteBuffer buf : payload)
+            {
+                size += buf.remaining();
+            }
+        }
+        return size;
+    }
+
     public void dispose()
     {
-        if (_payload != null)
+        List<QpidByteBuffer> payload = _payload;
+        if (payload != null)
         {
-            _payload.dispose();
+            for (QpidByteBuffer buf : payload)
+            {
+                buf.dispose();
+            }
             _payload = null;
         }
     }
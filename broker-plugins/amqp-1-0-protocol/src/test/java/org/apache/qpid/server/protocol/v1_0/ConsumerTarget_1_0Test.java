@@ -0,0 +1,163 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoder;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoderImpl;
+import org.apache.qpid.server.protocol.v1_0.type.Section;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedByte;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.AmqpValue;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Header;
+import org.apache.qpid.test.utils.QpidTestCase;
+import org.apache.qpid.util.ByteBufferUtils;
+
+public class ConsumerTarget_1_0Test extends QpidTestCase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+            .registerTransportLayer()
+            .registerMessagingLayer()
+            .registerTransactionLayer()
+            .registerSecurityLayer();
+
+    private SectionEncoder _encoder;
+    private Header _header;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _encoder = new SectionEncoderImpl(TYPE_REGISTRY);
+        _header = new Header();
+        _header.setDurable(true);
+        _header.setPriority(UnsignedByte.valueOf((byte) 7));
+        _header.setTtl(UnsignedInteger.valueOf(1000));
+    }
+
+    public void testHeaderReplacedWithinSingleFragment() throws Exception
+    {
+        final List<QpidByteBuffer> payload = createPayload(encode(_header, new AmqpValue("body")), 1);
+
+        ConsumerTarget_1_0.replaceHeader(payload, 3, TYPE_REGISTRY, _encoder);
+
+        assertEquals("Original fragment should be kept", 2, payload.size());
+        assertReplacedHeader(payload, true);
+    }
+
+    public void testHeaderSpanningFragmentsReplaced() throws Exception
+    {
+        final byte[] encoded = encode(_header, new AmqpValue("body"));
+        final List<QpidByteBuffer> payload = createPayload(encoded, encoded.length / 3);
+
+        ConsumerTarget_1_0.replaceHeader(payload, 3, TYPE_REGISTRY, _encoder);
+
+        assertEquals("Fragments should be combined", 2, payload.size());
+        assertReplacedHeader(payload, true);
+    }
+
+    public void testHeaderAddedWhenAbsent() throws Exception
+    {
+        final List<QpidByteBuffer> payload = createPayload(encode(new AmqpValue("body")), 1);
+
+        ConsumerTarget_1_0.replaceHeader(payload, 3, TYPE_REGISTRY, _encoder);
+
+        assertReplacedHeader(payload, false);
+    }
+
+    private void assertReplacedHeader(final List<QpidByteBuffer> payload, final boolean copied) throws Exception
+    {
+        final byte[] bytes = new byte[ByteBufferUtils.remaining(payload)];
+        int pos = 0;
+        for (QpidByteBuffer buf : payload)
+        {
+            final int size = buf.remaining();
+            buf.get(bytes, pos, size);
+            pos += size;
+            buf.dispose();
+        }
+
+        final QpidByteBuffer buf = QpidByteBuffer.wrap(bytes);
+        final List<Object> sections = new ArrayList<>();
+        final ValueHandler valueHandler = new ValueHandler(TYPE_REGISTRY);
+        while (buf.hasRemaining())
+        {
+            sections.add(valueHandler.parse(buf));
+        }
+        buf.dispose();
+
+        assertEquals("Unexpected number of sections", 2, sections.size());
+        assertTrue("Unexpected first section: " + sections.get(0), sections.get(0) instanceof Header);
+        final Header header = (Header) sections.get(0);
+        assertEquals("Unexpected delivery count", UnsignedInteger.valueOf(3), header.getDeliveryCount());
+        if (copied)
+        {
+            assertEquals("Unexpected durable", Boolean.TRUE, header.getDurable());
+            assertEquals("Unexpected priority", UnsignedByte.valueOf((byte) 7), header.getPriority());
+            assertEquals("Unexpected ttl", UnsignedInteger.valueOf(1000), header.getTtl());
+        }
+        else
+        {
+            assertNull("Unexpected durable", header.getDurable());
+            assertNull("Unexpected priority", header.getPriority());
+        }
+        assertTrue("Unexpected second section: " + sections.get(1), sections.get(1) instanceof AmqpValue);
+        assertEquals("Unexpected body", "body", ((AmqpValue) sections.get(1)).getValue());
+    }
+
+    private byte[] encode(final Section... sections)
+    {
+        final List<byte[]> encodedSections = new ArrayList<>();
+        int size = 0;
+        for (Section section : sections)
+        {
+            _encoder.encodeObject(section);
+            final ByteBuffer encoding = _encoder.getEncoding().asByteBuffer();
+            final byte[] bytes = new byte[encoding.remaining()];
+            encoding.get(bytes);
+            encodedSections.add(bytes);
+            size += bytes.length;
+            _encoder.reset();
+        }
+        final ByteBuffer encoded = ByteBuffer.allocate(size);
+        for (byte[] bytes : encodedSections)
+        {
+            encoded.put(bytes);
+        }
+        return encoded.array();
+    }
+
+    private List<QpidByteBuffer> createPayload(final byte[] encoded, final int fragmentSize)
+    {
+        final List<QpidByteBuffer> payload = new ArrayList<>();
+        for (int offset = 0; offset < encoded.length; offset += fragmentSize)
+        {
+            payload.add(QpidByteBuffer.wrap(encoded, offset, Math.min(fragmentSize, encoded.length - offset)));
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionDecoderImpl;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoder;
+import org.apache.qpid.server.protocol.v1_0.messaging.SectionEncoderImpl;
+import org.apache.qpid.server.protocol.v1_0.type.Section;
+import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedByte;
+import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.AmqpValue;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.ApplicationProperties;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Footer;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Header;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.MessageAnnotations;
+import org.apache.qpid.server.protocol.v1_0.type.messaging.Properties;
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class MessageMetaData_1_0Test extends QpidTestCase
+{
+    private static final AMQPDescribedTypeRegistry TYPE_REGISTRY = AMQPDescribedTypeRegistry.newInstance()
+            .registerTransportLayer()
+            .registerMessagingLayer()
+            .registerTransactionLayer()
+            .registerSecurityLayer();
+
+    private SectionEncoder _encoder;
+    private List<Section> _sections;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _encoder = new SectionEncoderImpl(TYPE_REGISTRY);
+
+        final Header header = new Header();
+        header.setDurable(true);
+        header.setPriority(UnsignedByte.valueOf((byte) 7));
+
+        final Map<Symbol, Object> annotations = new LinkedHashMap<>();
+        annotations.put(Symbol.valueOf("x-opt-other"), "other");
+        annotations.put(Symbol.valueOf("x-opt-jms-type"), "jmsType");
+        annotations.put(Symbol.valueOf("x-opt-delivery-time"), 12345L);
+
+        final Properties properties = new Properties();
+        properties.setTo("address");
+
+        final Map<String, Object> applicationProperties = new LinkedHashMap<>();
+        applicationProperties.put("colour", "red");
+        applicationProperties.put("routing-key", "key");
+        applicationProperties.put("size", 3);
+
+        _sections = Arrays.asList(header,
+                                  new MessageAnnotations(annotations),
+                                  properties,
+                                  new ApplicationProperties(applicationProperties),
+                                  new AmqpValue("body"),
+                                  new Footer(Collections.singletonMap(Symbol.valueOf("checksum"), "sum")));
+    }
+
+    public void testSectionsDecodedFromSingleFragment()
+    {
+        assertMetaData(createMetaData(encode(_sections), 1));
+    }
+
+    public void testSectionsDecodedFromMultipleFragments()
+    {
+        assertMetaData(createMetaData(encode(_sections), 3));
+    }
+
+    public void testSingleHeaderLookup()
+    {
+        final MessageMetaData_1_0 metaData = createMetaData(encode(_sections), 1);
+        final MessageMetaData_1_0.MessageHeader_1_0 header = metaData.getMessageHeader();
+
+        assertEquals("Unexpected header", "key", header.getHeader("routing-key"));
+        assertEquals("Unexpected header", 3, header.getHeader("size"));
+        assertNull("Unexpected header", header.getHeader("absent"));
+        assertEquals("Unexpected type", "jmsType", new MessageMetaData_1_0(_sections.subList(0, 2), _encoder)
+                .getMessageHeader().getType());
+        assertEquals("Unexpected not valid before", 12345L, header.getNotValidBefore());
+    }
+
+    public void testAbsentSections()
+    {
+        final MessageMetaData_1_0 metaData =
+                createMetaData(encode(Collections.<Section>singletonList(new AmqpValue("body"))), 1);
+        final MessageMetaData_1_0.MessageHeader_1_0 header = metaData.getMessageHeader();
+
+        assertFalse("Message should not be persistent", metaData.isPersistent());
+        assertNull("Unexpected properties", metaData.getPropertiesSection());
+        assertNull("Unexpected header", header.getHeader("routing-key"));
+        assertTrue("Unexpected header names", header.getHeaderNames().isEmpty());
+        assertEquals("Unexpected not valid before", 0L, header.getNotValidBefore());
+        assertEquals("Unexpected priority", 4, header.getPriority());
+    }
+
+    public void testCompoundValuesWithinSections()
+    {
+        final Map<Symbol, Object> annotations = new LinkedHashMap<>();
+        annotations.put(Symbol.valueOf("x-opt-list"), Arrays.asList(1, "two", null));
+        annotations.put(Symbol.valueOf("x-opt-map"), Collections.singletonMap("key", Collections.emptyList()));
+        annotations.put(Symbol.valueOf("x-opt-array"), new Symbol[]{Symbol.valueOf("a"), Symbol.valueOf("b")});
+        annotations.put(Symbol.valueOf("x-opt-jms-type"), "jmsType");
+
+        final MessageMetaData_1_0 metaData = createMetaData(encode(Arrays.<Section>asList(
+                new MessageAnnotations(annotations), new AmqpValue("body"))), 2);
+
+        assertEquals("Unexpected type", "jmsType", metaData.getMessageHeader().getType());
+    }
+
+    public void testMalformedSectionsRejected()
+    {
+        final byte[] body = encode(Collections.<Section>singletonList(new AmqpValue("body")));
+
+        // header encoded as a map
+        assertRejected(concat(new byte[]{0x00, 0x53, 0x70, (byte) 0xc1, 0x01, 0x00}, body));
+        // properties whose list is larger than the message
+        assertRejected(concat(new byte[]{0x00, 0x53, 0x73, (byte) 0xc0, 0x10, 0x01, 0x40}, body));
+        // message-annotations map with an odd number of elements
+        assertRejected(concat(new byte[]{0x00, 0x53, 0x72, (byte) 0xc1, 0x02, 0x01, 0x40}, body));
+        // application-properties map whose size does not agree with its elements
+        assertRejected(concat(new byte[]{0x00, 0x53, 0x74, (byte) 0xc1, 0x04, 0x02, 0x40, 0x40, 0x40}, body));
+        // application-properties value with an unknown format-code
+        assertRejected(concat(new byte[]{0x00, 0x53, 0x74, (byte) 0xc1, 0x04, 0x02, (byte) 0xa1, 0x00, 0x4f},
+                              body));
+        // footer array whose elements overrun it
+        assertRejected(concat(body, new byte[]{0x00, 0x53, 0x78, (byte) 0xc1, 0x08, 0x02, (byte) 0xa3, 0x01, 0x6b,
+                                               (byte) 0xe0, 0x02, 0x02, 0x50}));
+    }
+
+    public void testDecodingAfterDisposeFails()
+    {
+        final MessageMetaData_1_0 metaData = createMetaData(encode(_sections), 1);
+        metaData.dispose();
+
+        try
+        {
+            metaData.getPropertiesSection();
+            fail("Exception not thrown");
+        }
+        catch (IllegalStateException e)
+        {
+            // pass
+        }
+    }
+
+    private void assertRejected(final byte[] encoded)
+    {
+        try
+        {
+            createMetaData(encoded, 1);
+            fail("Malformed message accepted");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // pass
+        }
+    }
+
+    private static byte[] concat(final byte[] first, final byte[] second)
+    {
+        final byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private void assertMetaData(final MessageMetaData_1_0 metaData)
+    {
+        final MessageMetaData_1_0.MessageHeader_1_0 header = metaData.getMessageHeader();
+
+        assertTrue("Message should be persistent", metaData.isPersistent());
+        assertEquals("Unexpected priority", 7, header.getPriority());
+        assertEquals("Unexpected to", "address", header.getTo());
+        assertEquals("Unexpected type", "jmsType", header.getType());
+        assertEquals("Unexpected not valid before", 12345L, header.getNotValidBefore());
+        assertEquals("Unexpected header", "key", header.getHeader("routing-key"));
+        assertEquals("Unexpected header names",
+                     new HashSet<>(Arrays.asList("colour", "routing-key", "size")),
+                     new HashSet<>(header.getHeaderNames()));
+        assertTrue("Unexpected headers", header.containsHeaders(new HashSet<>(Arrays.asList("colour", "size"))));
+        assertEquals("Unexpected header", "red", header.getHeader("colour"));
+    }
+
+    private byte[] encode(final List<Section> sections)
+    {
+        final List<byte[]> encodedSections = new ArrayList<>();
+        int size = 0;
+        for (Section section : sections)
+        {
+            _encoder.encodeObject(section);
+            final ByteBuffer encoding = _encoder.getEncoding().asByteBuffer();
+            final byte[] bytes = new byte[encoding.remaining()];
+            encoding.get(bytes);
+            encodedSections.add(bytes);
+            size += bytes.length;
+            _encoder.reset();
+        }
+        final ByteBuffer encoded = ByteBuffer.allocate(size);
+        for (byte[] bytes : encodedSections)
+        {
+            encoded.put(bytes);
+        }
+        return encoded.array();
+    }
+
+    private MessageMetaData_1_0 createMetaData(final byte[] encoded, final int fragmentCount)
+    {
+        final QpidByteBuffer[] fragments = new QpidByteBuffer[fragmentCount];
+        final int fragmentSize = (encoded.length + fragmentCount - 1) / fragmentCount;
+        for (int i = 0; i < fragmentCount; i++)
+        {
+            final int offset = i * fragmentSize;
+            fragments[i] = QpidByteBuffer.wrap(encoded, offset, Math.min(fragmentSize, encoded.length - offset));
+        }
+        final MessageMetaData_1_0 metaData =
+                new MessageMetaData_1_0(fragments, new SectionDecoderImpl(TYPE_REGISTRY));
+        for (QpidByteBuffer fragment : fragments)
+        {
+            fragment.dispose();
+        }
+        return metaData;
+    }
+}
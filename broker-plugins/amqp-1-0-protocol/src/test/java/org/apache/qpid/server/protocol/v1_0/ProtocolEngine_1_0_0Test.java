@@ -29,6 +29,7 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
@@ -38,6 +39,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 
 import javax.security.auth.Subject;
@@ -60,12 +62,16 @@ import org.apache.qpid.server.model.Transport;
 import org.apache.qpid.server.model.VirtualHost;
 import org.apache.qpid.server.model.port.AmqpPort;
 import org.apache.qpid.server.protocol.v1_0.codec.FrameWriter;
+import org.apache.qpid.server.protocol.v1_0.codec.ValueHandler;
 import org.apache.qpid.server.protocol.v1_0.framing.AMQFrame;
 import org.apache.qpid.server.protocol.v1_0.framing.SASLFrame;
+import org.apache.qpid.server.protocol.v1_0.type.Binary;
 import org.apache.qpid.server.protocol.v1_0.type.Symbol;
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
 import org.apache.qpid.server.protocol.v1_0.type.codec.AMQPDescribedTypeRegistry;
 import org.apache.qpid.server.protocol.v1_0.type.security.SaslInit;
 import org.apache.qpid.server.protocol.v1_0.type.transport.Open;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
 import org.apache.qpid.server.security.SubjectCreator;
 import org.apache.qpid.server.security.auth.AuthenticatedPrincipal;
 import org.apache.qpid.server.security.auth.manager.AnonymousAuthenticationManager;
@@ -76,6 +82,7 @@ import org.apache.qpid.server.transport.ServerNetworkConnection;
 import org.apache.qpid.server.virtualhost.VirtualHostPrincipal;
 import org.apache.qpid.test.utils.QpidTestCase;
 import org.apache.qpid.transport.ByteBufferSender;
+import org.apache.qpid.util.ByteBufferUtils;
 import org.apache.qpid.server.transport.AggregateTicker;
 
 public class ProtocolEngine_1_0_0Test extends QpidTestCase
@@ -290,6 +297,160 @@ public class ProtocolEngine_1_0_0Test extends QpidTestCase
     }
 
 
+    public void testPayloadBelowFrameSizeLimitSentInSingleFrame() throws Exception
+    {
+        createEngine(Transport.TCP);
+        final int limit = getPayloadLimit();
+
+        final List<Integer> frameSizes = sendPayload(limit - 1, limit - 1);
+
+        assertEquals("Unexpected frame sizes",
+                     Collections.singletonList(_protocolEngine_1_0_0.getMaxFrameSize() - 1), frameSizes);
+    }
+
+    public void testPayloadAtFrameSizeLimitSentInSingleFrame() throws Exception
+    {
+        createEngine(Transport.TCP);
+        final int limit = getPayloadLimit();
+
+        final List<Integer> frameSizes = sendPayload(limit, limit);
+
+        assertEquals("Unexpected frame sizes",
+                     Collections.singletonList(_protocolEngine_1_0_0.getMaxFrameSize()), frameSizes);
+    }
+
+    public void testPayloadAboveFrameSizeLimitSplitAcrossFrames() throws Exception
+    {
+        createEngine(Transport.TCP);
+        final int limit = getPayloadLimit();
+
+        final List<Integer> frameSizes = sendPayload(limit + 1, limit + 1);
+
+        assertEquals("Unexpected number of frames", 2, frameSizes.size());
+        assertEquals("First frame should be filled",
+                     _protocolEngine_1_0_0.getMaxFrameSize(), (int) frameSizes.get(0));
+    }
+
+    public void testFragmentedPayloadSplitAcrossTransfersReassembles() throws Exception
+    {
+        createEngine(Transport.TCP);
+        final int maxFrameSize = _protocolEngine_1_0_0.getMaxFrameSize();
+
+        final List<Integer> frameSizes = sendPayload(3 * maxFrameSize + 17, 1000);
+
+        assertEquals("Unexpected number of frames", 4, frameSizes.size());
+        for (int frameSize : frameSizes)
+        {
+            assertTrue("Frame exceeds maximum frame size: " + frameSize, frameSize <= maxFrameSize);
+        }
+    }
+
+    /**
+     * Sends a payload of the given size, made up of fragments of the given size, in as many transfers as it takes in
+     * the way the session does, and checks that the frames written reassemble to the original payload.
+     *
+     * @return the sizes of the frames written
+     */
+    private List<Integer> sendPayload(final int payloadSize, final int fragmentSize) throws Exception
+    {
+        final byte[] data = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(data);
+        final List<QpidByteBuffer> payload = new ArrayList<>();
+        for (int offset = 0; offset < payloadSize; offset += fragmentSize)
+        {
+            payload.add(QpidByteBuffer.wrap(data, offset, Math.min(fragmentSize, payloadSize - offset)));
+        }
+
+        int sent = 0;
+        while (sent < payloadSize)
+        {
+            final List<QpidByteBuffer> remaining = ByteBufferUtils.view(payload, sent, payloadSize - sent);
+            try
+            {
+                final int payloadSent = _protocolEngine_1_0_0.sendFrame((short) 0, createTransfer(), remaining);
+                assertTrue("No payload sent", payloadSent > 0);
+                sent += payloadSent;
+            }
+            finally
+            {
+                for (QpidByteBuffer buf : remaining)
+                {
+                    buf.dispose();
+                }
+            }
+        }
+        for (QpidByteBuffer buf : payload)
+        {
+            buf.dispose();
+        }
+
+        int written = 0;
+        for (ByteBuffer buf : _sentBuffers)
+        {
+            written += buf.remaining();
+        }
+        final ByteBuffer frames = ByteBuffer.allocate(written);
+        for (ByteBuffer buf : _sentBuffers)
+        {
+            frames.put(buf.duplicate());
+        }
+        frames.flip();
+
+        final ValueHandler valueHandler = new ValueHandler(_protocolEngine_1_0_0.getDescribedTypeRegistry());
+        final ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+        final List<Integer> frameSizes = new ArrayList<>();
+        while (frames.hasRemaining())
+        {
+            final int frameSize = frames.getInt();
+            frameSizes.add(frameSize);
+            assertEquals("Unexpected data offset", 2, frames.get());
+            frames.get();
+            frames.getShort();
+
+            final byte[] frameBody = new byte[frameSize - 8];
+            frames.get(frameBody);
+            final QpidByteBuffer frameBodyBuffer = QpidByteBuffer.wrap(frameBody);
+            try
+            {
+                final Object performative = valueHandler.parse(frameBodyBuffer);
+                assertTrue("Unexpected performative: " + performative, performative instanceof Transfer);
+                assertEquals("Unexpected more flag",
+                             frames.hasRemaining(), Boolean.TRUE.equals(((Transfer) performative).getMore()));
+                final byte[] transferPayload = new byte[frameBodyBuffer.remaining()];
+                frameBodyBuffer.get(transferPayload);
+                reassembled.write(transferPayload);
+            }
+            finally
+            {
+                frameBodyBuffer.dispose();
+            }
+        }
+
+        assertTrue("Reassembled payload differs from original", Arrays.equals(data, reassembled.toByteArray()));
+        return frameSizes;
+    }
+
+    /**
+     * Returns the largest payload that fits in a single frame alongside the transfer performative.
+     */
+    private int getPayloadLimit()
+    {
+        final Transfer transfer = createTransfer();
+        final int performativeSize = _protocolEngine_1_0_0.getDescribedTypeRegistry()
+                                                          .getValueWriter(transfer)
+                                                          .writeToBuffer(QpidByteBuffer.wrap(new byte[0]));
+        return _protocolEngine_1_0_0.getMaxFrameSize() - 8 - performativeSize;
+    }
+
+    private Transfer createTransfer()
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setHandle(UnsignedInteger.ZERO);
+        transfer.setDeliveryId(UnsignedInteger.ONE);
+        transfer.setDeliveryTag(new Binary(new byte[] {1, 2, 3, 4}));
+        return transfer;
+    }
+
     private void createEngine(Transport transport)
     {
         _protocolEngine_1_0_0 =
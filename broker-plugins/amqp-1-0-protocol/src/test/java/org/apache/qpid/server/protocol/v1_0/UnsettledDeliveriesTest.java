@@ -0,0 +1,186 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.server.protocol.v1_0;
+
+import org.apache.qpid.server.protocol.v1_0.type.UnsignedInteger;
+import org.apache.qpid.server.protocol.v1_0.type.transport.Transfer;
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class UnsettledDeliveriesTest extends QpidTestCase
+{
+    private UnsettledDeliveries _deliveries;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _deliveries = new UnsettledDeliveries(4);
+    }
+
+    public void testPutGetAndRemove()
+    {
+        final Delivery first = createDelivery(10);
+        final Delivery second = createDelivery(11);
+        _deliveries.put(10, first);
+        _deliveries.put(11, second);
+
+        assertEquals("Unexpected size", 2, _deliveries.size());
+        assertSame("Unexpected delivery", first, _deliveries.get(10));
+        assertSame("Unexpected delivery", second, _deliveries.get(11));
+        assertNull("Unexpected delivery", _deliveries.get(12));
+        assertNull("Unexpected delivery", _deliveries.get(14));
+
+        assertSame("Unexpected removed delivery", first, _deliveries.remove(10));
+        assertNull("Delivery should have been removed", _deliveries.get(10));
+        assertNull("Delivery should not be removed twice", _deliveries.remove(10));
+        assertSame("Unexpected removed delivery", second, _deliveries.remove(11));
+        assertTrue("Deliveries should be empty", _deliveries.isEmpty());
+    }
+
+    public void testOutOfOrderSettlementBeyondInitialCapacity()
+    {
+        final int count = 100;
+        for (int i = 0; i < count; i++)
+        {
+            _deliveries.put(i, createDelivery(i));
+        }
+        assertEquals("Unexpected size", count, _deliveries.size());
+
+        for (int i = 1; i < count; i += 2)
+        {
+            assertEquals("Unexpected removed delivery", UnsignedInteger.valueOf(i), _deliveries.remove(i).getDeliveryId());
+        }
+        for (int i = 0; i < count; i++)
+        {
+            final Delivery delivery = _deliveries.get(i);
+            if (i % 2 == 0)
+            {
+                assertEquals("Unexpected delivery", UnsignedInteger.valueOf(i), delivery.getDeliveryId());
+            }
+            else
+            {
+                assertNull("Unexpected delivery " + i, delivery);
+            }
+        }
+
+        for (int i = count - 2; i >= 0; i -= 2)
+        {
+            assertNotNull("Delivery " + i + " not found", _deliveries.remove(i));
+        }
+        assertTrue("Deliveries should be empty", _deliveries.isEmpty());
+    }
+
+    public void testDeliveryIdWraparound()
+    {
+        final int start = Integer.MAX_VALUE - 1;
+        for (int i = 0; i < 8; i++)
+        {
+            _deliveries.put(start + i, createDelivery(start + i));
+        }
+        for (int i = 0; i < 8; i++)
+        {
+            assertNotNull("Delivery " + (start + i) + " not found", _deliveries.remove(start + i));
+        }
+        assertTrue("Deliveries should be empty", _deliveries.isEmpty());
+
+        _deliveries.put(-1, createDelivery(-1));
+        _deliveries.put(0, createDelivery(0));
+        assertNotNull("Delivery not found across unsigned wraparound", _deliveries.get(-1));
+        assertNotNull("Delivery not found across unsigned wraparound", _deliveries.get(0));
+    }
+
+    public void testOutlyingDeliveryId()
+    {
+        final Delivery first = createDelivery(0);
+        final Delivery outlier = createDelivery(Integer.MAX_VALUE);
+        _deliveries.put(0, first);
+        _deliveries.put(Integer.MAX_VALUE, outlier);
+
+        assertEquals("Unexpected size", 2, _deliveries.size());
+        assertSame("Unexpected delivery", first, _deliveries.get(0));
+        assertSame("Unexpected delivery", outlier, _deliveries.get(Integer.MAX_VALUE));
+        assertSame("Unexpected removed delivery", outlier, _deliveries.remove(Integer.MAX_VALUE));
+        assertSame("Unexpected removed delivery", first, _deliveries.remove(0));
+        assertTrue("Deliveries should be empty", _deliveries.isEmpty());
+    }
+
+    public void testRingShrinksWhenSpanContracts()
+    {
+        final int count = 100;
+        for (int i = 0; i < count; i++)
+        {
+            _deliveries.put(i, createDelivery(i));
+        }
+        assertTrue("Ring should have grown", _deliveries.getCapacity() >= count);
+
+        for (int i = 0; i < count - 3; i++)
+        {
+            assertNotNull("Delivery " + i + " not found", _deliveries.remove(i));
+        }
+        assertTrue("Ring should have shrunk", _deliveries.getCapacity() <= 8);
+        for (int i = count - 3; i < count; i++)
+        {
+            assertEquals("Unexpected delivery", UnsignedInteger.valueOf(i), _deliveries.get(i).getDeliveryId());
+        }
+
+        for (int i = count - 1; i >= count - 3; i--)
+        {
+            assertNotNull("Delivery " + i + " not found", _deliveries.remove(i));
+        }
+        assertTrue("Deliveries should be empty", _deliveries.isEmpty());
+        assertEquals("Unexpected capacity", 4, _deliveries.getCapacity());
+    }
+
+    public void testLongLivedDeliveryUnderSustainedTraffic()
+    {
+        final Delivery longLived = createDelivery(0);
+        _deliveries.put(0, longLived);
+
+        final int window = 2;
+        for (int i = 1; i < 10000; i++)
+        {
+            _deliveries.put(i, createDelivery(i));
+            if (i > window)
+            {
+                assertNotNull("Delivery " + (i - window) + " not found", _deliveries.remove(i - window));
+            }
+            assertTrue("Ring should not grow around the long lived delivery at " + i,
+                       _deliveries.getCapacity() <= 8);
+        }
+
+        assertEquals("Unexpected size", window + 1, _deliveries.size());
+        assertSame("Unexpected delivery", longLived, _deliveries.get(0));
+        assertEquals("Unexpected delivery", UnsignedInteger.valueOf(9999), _deliveries.get(9999).getDeliveryId());
+        assertNull("Unexpected delivery", _deliveries.get(5000));
+
+        assertSame("Unexpected removed delivery", longLived, _deliveries.remove(0));
+        assertNotNull("Delivery not found", _deliveries.remove(9998));
+        assertNotNull("Delivery not found", _deliveries.remove(9999));
+        assertTrue("Deliveries should be empty", _deliveries.isEmpty());
+    }
+
+    private Delivery createDelivery(final int deliveryId)
+    {
+        final Transfer transfer = new Transfer();
+        transfer.setDeliveryId(UnsignedInteger.valueOf(deliveryId));
+        return new Delivery(transfer, null);
+    }
+}
@@ -86,13 +86,14 @@ public abstract class AbstractDerbyMessageStore extends AbstractJDBCMessageStore
     {
         if (_messageStoreOpen.compareAndSet(true,  false))
         {
+            // the commit thread must finish with the database before it is closed
             try
             {
-                doClose();
+                super.closeMessageStore();
             }
             finally
             {
-                super.closeMessageStore();
+                doClose();
             }
         }
     }
@@ -22,10 +22,25 @@ package org.apache.qpid.server.store.derby;
 
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.apache.qpid.server.message.EnqueueableMessage;
 import org.apache.qpid.server.model.VirtualHost;
+import org.apache.qpid.server.store.MessageDurability;
 import org.apache.qpid.server.store.MessageStore;
 import org.apache.qpid.server.store.MessageStoreTestCase;
+import org.apache.qpid.server.store.StoredMessage;
+import org.apache.qpid.server.store.TestMessageMetaData;
+import org.apache.qpid.server.store.Transaction;
+import org.apache.qpid.server.store.TransactionLogResource;
+import org.apache.qpid.server.store.handler.MessageHandler;
 import org.apache.qpid.server.virtualhost.derby.DerbyVirtualHost;
 import org.apache.qpid.util.FileUtils;
 
@@ -64,6 +79,94 @@ public class DerbyMessageStoreTest extends MessageStoreTestCase
         assertFalse("Store exists at " + _storeLocation, location.exists());
     }
 
+    public void testMessageRemovedWhileAsyncCommitInProgressIsNotLeftInStore() throws Exception
+    {
+        final TransactionLogResource queue = createQueue();
+        final List<ListenableFuture<Void>> futures = new ArrayList<>();
+        for (long messageId = 1L; messageId <= 100L; messageId++)
+        {
+            final StoredMessage<TestMessageMetaData> message = createMessage(messageId);
+            final Transaction txn = getStore().newTransaction();
+            txn.enqueueMessage(queue, createEnqueueableMessage(message));
+            futures.add(txn.commitTranAsync((Void) null));
+            // depending on the progress of the commit thread the message is removed before, during or after its store
+            message.remove();
+        }
+        for (ListenableFuture<Void> future : futures)
+        {
+            future.get(10, TimeUnit.SECONDS);
+        }
+
+        assertTrue("Removed messages found in store: " + getStoredMessageIds(), getStoredMessageIds().isEmpty());
+    }
+
+    public void testCloseCompletesQueuedAsyncCommits() throws Exception
+    {
+        final TransactionLogResource queue = createQueue();
+        final List<ListenableFuture<Void>> futures = new ArrayList<>();
+        for (long messageId = 1L; messageId <= 100L; messageId++)
+        {
+            final Transaction txn = getStore().newTransaction();
+            txn.enqueueMessage(queue, createEnqueueableMessage(createMessage(messageId)));
+            futures.add(txn.commitTranAsync((Void) null));
+        }
+
+        reopenStore();
+
+        for (ListenableFuture<Void> future : futures)
+        {
+            assertTrue("Commit not completed by close", future.isDone());
+            future.get();
+        }
+        assertEquals("Unexpected number of messages in store", 100, getStoredMessageIds().size());
+    }
+
+    private StoredMessage<TestMessageMetaData> createMessage(final long messageId)
+    {
+        return getStore().addMessage(new TestMessageMetaData(messageId, 0)).allContentAdded();
+    }
+
+    private EnqueueableMessage createEnqueueableMessage(final StoredMessage<TestMessageMetaData> message)
+    {
+        final EnqueueableMessage enqueueableMessage = mock(EnqueueableMessage.class);
+        when(enqueueableMessage.isPersistent()).thenReturn(true);
+        when(enqueueableMessage.getMessageNumber()).thenReturn(message.getMessageNumber());
+        when(enqueueableMessage.getStoredMessage()).thenReturn(message);
+        return enqueueableMessage;
+    }
+
+    private TransactionLogResource createQueue()
+    {
+        final TransactionLogResource queue = mock(TransactionLogResource.class);
+        when(queue.getId()).thenReturn(UUID.randomUUID());
+        when(queue.getName()).thenReturn("testQueue");
+        when(queue.getMessageDurability()).thenReturn(MessageDurability.DEFAULT);
+        return queue;
+    }
+
+    private Set<Long> getStoredMessageIds()
+    {
+        final Set<Long> messageIds = new HashSet<>();
+        final MessageStore.MessageStoreReader reader = getStore().newMessageStoreReader();
+        try
+        {
+            reader.visitMessages(new MessageHandler()
+            {
+                @Override
+                public boolean handle(final StoredMessage<?> storedMessage)
+                {
+                    messageIds.add(storedMessage.getMessageNumber());
+                    return true;
+                }
+            });
+        }
+        finally
+        {
+            reader.close();
+        }
+        return messageIds;
+    }
+
     @Override
     protected VirtualHost createVirtualHost()
     {
@@ -78,8 +78,15 @@ public abstract class GenericAbstractJDBCMessageStore extends org.apache.qpid.se
             }
             finally
             {
-                doClose();
-                super.closeMessageStore();
+                // the commit thread must finish with the database before it is closed
+                try
+                {
+                    super.closeMessageStore();
+                }
+                finally
+                {
+                    doClose();
+                }
             }
 
         }
@@ -32,6 +32,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.qpid.exchange.ExchangeDefaults;
 import org.apache.qpid.server.message.InstanceProperties;
+import org.apache.qpid.server.message.MessageConversionCache;
 import org.apache.qpid.server.message.MessageDestination;
 import org.apache.qpid.server.message.MessageInstance;
 import org.apache.qpid.server.message.MessageSource;
@@ -221,6 +222,12 @@ public class ManagementAddressSpace implements NamedAddressSpace
         return Collections.emptyList();
     }
 
+    @Override
+    public MessageConversionCache getMessageConversionCache()
+    {
+        return _broker.getMessageConversionCache();
+    }
+
     private class DefaultDestination implements MessageDestination
     {
         @Override
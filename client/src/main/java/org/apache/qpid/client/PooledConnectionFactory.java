@@ -29,14 +29,19 @@ import java.lang.reflect.Proxy;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
@@ -49,6 +54,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import javax.jms.*;
 import javax.jms.Connection;
 import javax.jms.IllegalStateException;
+import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.naming.NamingException;
 import javax.naming.Reference;
@@ -70,11 +76,29 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
 
     public static final String JNDI_ADDRESS_MAX_POOL_SIZE = "maxPoolSize";
     public static final String JNDI_ADDRESS_CONNECTION_TIMEOUT = "connectionTimeout";
+    public static final String JNDI_ADDRESS_MAX_SESSION_POOL_SIZE = "maxSessionPoolSize";
+    public static final String JNDI_ADDRESS_MAX_CACHED_PRODUCERS = "maxCachedProducers";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PooledConnectionFactory.class);
 
     private static final AtomicInteger POOL_ID = new AtomicInteger();
 
+    private static final Set<String> SESSION_CREATE_METHODS =
+            new HashSet<>(Arrays.asList("createSession", "createQueueSession", "createTopicSession"));
+    private static final Set<String> PRODUCER_CREATE_METHODS =
+            new HashSet<>(Arrays.asList("createProducer", "createSender", "createPublisher"));
+    // sessions on which any of these have been called hold state which must not leak to the next user of the session
+    private static final Set<String> NON_POOLABLE_SESSION_METHODS =
+            new HashSet<>(Arrays.asList("createConsumer",
+                                        "createReceiver",
+                                        "createSubscriber",
+                                        "createDurableSubscriber",
+                                        "createBrowser",
+                                        "createTemporaryQueue",
+                                        "createTemporaryTopic",
+                                        "setMessageListener",
+                                        "run"));
+
     private static final ScheduledExecutorService SCHEDULER =
             Executors.newSingleThreadScheduledExecutor(
                     new ThreadFactory()
@@ -105,10 +129,19 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
 
     private final AtomicInteger _maxPoolSize = new AtomicInteger(10);
     private final AtomicLong _connectionTimeout = new AtomicLong(30000l);
+    private final AtomicInteger _maxSessionPoolSize = new AtomicInteger(0);
+    private final AtomicInteger _maxCachedProducers = new AtomicInteger(10);
     private final AtomicReference<ConnectionURL> _connectionDetails = new AtomicReference<>();
 
     transient private final AtomicInteger _connectionInstanceId = new AtomicInteger();
 
+    transient private final AtomicLong _sessionsCreated = new AtomicLong();
+    transient private final AtomicLong _sessionsReused = new AtomicLong();
+    transient private final AtomicLong _sessionsEvicted = new AtomicLong();
+    transient private final AtomicLong _producersCreated = new AtomicLong();
+    transient private final AtomicLong _producersReused = new AtomicLong();
+    transient private final AtomicLong _producersEvicted = new AtomicLong();
+
     transient private final int _poolId = POOL_ID.incrementAndGet();
 
     transient private final byte[] _factoryId = new byte[16];
@@ -229,6 +262,7 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
             throws JMSException
     {
         CommonConnection underlying = null;
+        SessionPool sessionPool = null;
 
         synchronized (_pool)
         {
@@ -241,6 +275,7 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
                     {
                         ConnectionHolder holder = pooledConnections.remove(pooledConnections.size() - 1);
                         underlying = holder._connection;
+                        sessionPool = holder._sessionPool;
                     }
                 }
             }
@@ -252,8 +287,9 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
             if(underlying == null)
             {
                 underlying = newConnectionInstance(connectionDetails);
+                sessionPool = new SessionPool();
             }
-            return proxyConnection(underlying, identity);
+            return proxyConnection(underlying, sessionPool, identity);
         }
         catch (QpidException e)
         {
@@ -300,7 +336,9 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
 
 
 
-    private synchronized void returnToPool(final CommonConnection connection, final ConnectionDetailsIdentifier identityHash)
+    private synchronized void returnToPool(final CommonConnection connection,
+                                          final SessionPool sessionPool,
+                                          final ConnectionDetailsIdentifier identityHash)
             throws JMSException
     {
         if(!connection.isClosed())
@@ -321,7 +359,7 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
             {
                 if(connections.size()<_maxPoolSize.get())
                 {
-                    connections.add(new ConnectionHolder(connection, System.currentTimeMillis()));
+                    connections.add(new ConnectionHolder(connection, sessionPool, System.currentTimeMillis()));
                 }
                 else
                 {
@@ -351,6 +389,10 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
                     LOGGER.warn("Error when closing expired connection in pool", e);
                 }
             }
+            else
+            {
+                ch._sessionPool.removeExpiredSessions(expiryTime);
+            }
         }
     }
 
@@ -374,6 +416,65 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
         _connectionTimeout.set(timeout);
     }
 
+    public int getMaxSessionPoolSize()
+    {
+        return _maxSessionPoolSize.get();
+    }
+
+    /**
+     * Sets the maximum number of idle sessions kept open on each pooled connection.  A session closed by the
+     * application is returned to the pool rather than closed, unless it has been used to consume messages or to
+     * create temporary destinations.  Zero, the default, disables session pooling.
+     */
+    public void setMaxSessionPoolSize(int maxSessionPoolSize)
+    {
+        _maxSessionPoolSize.set(maxSessionPoolSize);
+    }
+
+    public int getMaxCachedProducers()
+    {
+        return _maxCachedProducers.get();
+    }
+
+    /**
+     * Sets the maximum number of idle producers, and of destinations looked up by name, cached on each pooled
+     * session.  Only takes effect when session pooling is enabled.
+     */
+    public void setMaxCachedProducers(int maxCachedProducers)
+    {
+        _maxCachedProducers.set(maxCachedProducers);
+    }
+
+    public long getSessionsCreated()
+    {
+        return _sessionsCreated.get();
+    }
+
+    public long getSessionsReused()
+    {
+        return _sessionsReused.get();
+    }
+
+    public long getSessionsEvicted()
+    {
+        return _sessionsEvicted.get();
+    }
+
+    public long getProducersCreated()
+    {
+        return _producersCreated.get();
+    }
+
+    public long getProducersReused()
+    {
+        return _producersReused.get();
+    }
+
+    public long getProducersEvicted()
+    {
+        return _producersEvicted.get();
+    }
+
 
     public synchronized ConnectionURL getConnectionURL()
     {
@@ -405,19 +506,26 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
 
         reference.add(new StringRefAddr(JNDI_ADDRESS_MAX_POOL_SIZE, String.valueOf(getMaxPoolSize())));
         reference.add(new StringRefAddr(JNDI_ADDRESS_CONNECTION_TIMEOUT, String.valueOf(getConnectionTimeout())));
+        reference.add(new StringRefAddr(JNDI_ADDRESS_MAX_SESSION_POOL_SIZE, String.valueOf(getMaxSessionPoolSize())));
+        reference.add(new StringRefAddr(JNDI_ADDRESS_MAX_CACHED_PRODUCERS, String.valueOf(getMaxCachedProducers())));
         return reference;
     }
 
-    private CommonConnection proxyConnection(CommonConnection underlying, ConnectionDetailsIdentifier identifier) throws JMSException
+    private CommonConnection proxyConnection(CommonConnection underlying,
+                                             SessionPool sessionPool,
+                                             ConnectionDetailsIdentifier identifier) throws JMSException
     {
 
-        final ConnectionInvocationHandler invocationHandler = new ConnectionInvocationHandler(underlying, identifier);
+        final ConnectionInvocationHandler invocationHandler =
+                new ConnectionInvocationHandler(underlying, sessionPool, identifier);
         return (CommonConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
                                                          new Class[] { CommonConnection.class },
                                                          invocationHandler);
     }
 
-    private <X extends Session> X proxySession(X underlying, ConnectionInvocationHandler connectionHandler)
+    private <X extends Session> X proxySession(X underlying,
+                                               ConnectionInvocationHandler connectionHandler,
+                                               PooledSession pooledSession)
     {
         List<Class<?>> interfaces = new ArrayList<>();
         interfaces.add(Session.class);
@@ -435,22 +543,47 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
         }
         return (X) Proxy.newProxyInstance(getClass().getClassLoader(),
                                           interfaces.toArray(new Class[interfaces.size()]),
-                                          new SessionInvocationHandler<X>(underlying, connectionHandler));
+                                          new SessionInvocationHandler<X>(underlying, connectionHandler, pooledSession));
+    }
+
+    private MessageProducer proxyProducer(MessageProducer underlying, ProducerInvocationHandler producerHandler)
+    {
+        List<Class<?>> interfaces = new ArrayList<>();
+        interfaces.add(MessageProducer.class);
+        if(underlying instanceof org.apache.qpid.jms.MessageProducer)
+        {
+            interfaces.add(org.apache.qpid.jms.MessageProducer.class);
+        }
+        if(underlying instanceof TopicPublisher)
+        {
+            interfaces.add(TopicPublisher.class);
+        }
+        if(underlying instanceof QueueSender)
+        {
+            interfaces.add(QueueSender.class);
+        }
+        return (MessageProducer) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                        interfaces.toArray(new Class[interfaces.size()]),
+                                                        producerHandler);
     }
 
     private class ConnectionInvocationHandler  implements InvocationHandler, ExceptionListener
     {
         private final CommonConnection _underlyingConnection;
         private final ConnectionDetailsIdentifier _identityHash;
+        private final SessionPool _sessionPool;
         private boolean _closed;
         private volatile boolean _exceptionThrown;
         private final List<Session> _openSessions = new ArrayList<>();
         private volatile ExceptionListener _exceptionListener;
         private final int _instanceId;
 
-        public ConnectionInvocationHandler(final CommonConnection underlying, ConnectionDetailsIdentifier identityHash) throws JMSException
+        public ConnectionInvocationHandler(final CommonConnection underlying,
+                                           final SessionPool sessionPool,
+                                           ConnectionDetailsIdentifier identityHash) throws JMSException
         {
             _underlyingConnection = underlying;
+            _sessionPool = sessionPool;
             _underlyingConnection.setExceptionListener(this);
             _identityHash = identityHash;
             _instanceId = _connectionInstanceId.incrementAndGet();
@@ -501,7 +634,7 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
 
                 if(!_exceptionThrown)
                 {
-                    returnToPool(_underlyingConnection, _identityHash);
+                    returnToPool(_underlyingConnection, _sessionPool, _identityHash);
                 }
                 else
                 {
@@ -525,6 +658,10 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
                     throw thrown == null ? e : thrown;
                 }
             }
+            else if(_maxSessionPoolSize.get() > 0 && isCreateSessionMethod(method))
+            {
+                return createPooledSession(underlyingMethod, method.getReturnType(), args);
+            }
             else
             {
                 try
@@ -533,7 +670,7 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
 
                     if(returnVal instanceof Session)
                     {
-                        returnVal = proxySession((Session)returnVal, this);
+                        returnVal = proxySession((Session)returnVal, this, null);
                         _openSessions.add((Session)returnVal);
                     }
                     return returnVal;
@@ -548,6 +685,55 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
         }
 
 
+        private boolean isCreateSessionMethod(final Method method)
+        {
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            return SESSION_CREATE_METHODS.contains(method.getName())
+                   && parameterTypes.length == 2
+                   && parameterTypes[0] == boolean.class
+                   && parameterTypes[1] == int.class;
+        }
+
+        private Session createPooledSession(final Method underlyingMethod,
+                                            final Class<?> sessionType,
+                                            final Object[] args) throws Throwable
+        {
+            final boolean transacted = (Boolean) args[0];
+            final int acknowledgeMode = transacted ? Session.SESSION_TRANSACTED : (Integer) args[1];
+
+            _sessionPool.removeExpiredSessions(System.currentTimeMillis() - _connectionTimeout.get());
+            PooledSession pooledSession = _sessionPool.take(acknowledgeMode);
+            if(pooledSession != null && !sessionType.isInstance(pooledSession._session))
+            {
+                _sessionPool.offer(pooledSession);
+                pooledSession = null;
+            }
+
+            if(pooledSession == null)
+            {
+                try
+                {
+                    pooledSession = new PooledSession((Session) underlyingMethod.invoke(_underlyingConnection, args),
+                                                      acknowledgeMode);
+                }
+                catch (InvocationTargetException e)
+                {
+                    _exceptionThrown = true;
+                    Throwable thrown = e.getCause();
+                    throw thrown == null ? e : thrown;
+                }
+                _sessionsCreated.incrementAndGet();
+            }
+            else
+            {
+                _sessionsReused.incrementAndGet();
+            }
+
+            Session session = proxySession(pooledSession._session, this, pooledSession);
+            _openSessions.add(session);
+            return session;
+        }
+
         @Override
         public void onException(final JMSException exception)
         {
@@ -569,36 +755,243 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
     {
         private final X _underlying;
         private final ConnectionInvocationHandler _connectionHandler;
+        private final PooledSession _pooledSession;
+        private final List<ProducerInvocationHandler> _openProducers =
+                Collections.synchronizedList(new ArrayList<ProducerInvocationHandler>());
+        private volatile boolean _closed;
 
         public SessionInvocationHandler(final X underlying,
-                                        final ConnectionInvocationHandler connectionHandler)
+                                        final ConnectionInvocationHandler connectionHandler,
+                                        final PooledSession pooledSession)
         {
             _underlying = underlying;
             _connectionHandler = connectionHandler;
+            _pooledSession = pooledSession;
         }
 
         @Override
         public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+        {
+            if(_pooledSession != null)
+            {
+                return invokePooled(proxy, method, args);
+            }
+
+            Object returnVal = invokeUnderlying(method, args);
+
+            if(method.getName().equals("close") && method.getParameterTypes().length == 0)
+            {
+                _connectionHandler.removeSession((Session)proxy);
+            }
+
+            return returnVal;
+        }
+
+        private Object invokePooled(final Object proxy, final Method method, final Object[] args) throws Throwable
+        {
+            final String methodName = method.getName();
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+
+            // the underlying session outlives this proxy, so the proxy must not take its identity
+            if(methodName.equals("equals") && parameterTypes.length == 1)
+            {
+                return proxy == args[0];
+            }
+            else if(methodName.equals("hashCode") && parameterTypes.length == 0)
+            {
+                return System.identityHashCode(proxy);
+            }
+            else if(methodName.equals("close") && parameterTypes.length == 0)
+            {
+                if(!_closed)
+                {
+                    _closed = true;
+                    _connectionHandler.removeSession((Session) proxy);
+                    releaseSession();
+                }
+                return null;
+            }
+            else if(_closed && method.getDeclaringClass() != Object.class)
+            {
+                throw new IllegalStateException("Session is closed");
+            }
+            else if(PRODUCER_CREATE_METHODS.contains(methodName) && parameterTypes.length == 1)
+            {
+                return createProducer(method, args);
+            }
+            else if((methodName.equals("createQueue") || methodName.equals("createTopic"))
+                    && parameterTypes.length == 1 && parameterTypes[0] == String.class)
+            {
+                final String name = methodName + ":" + args[0];
+                Destination destination = _pooledSession.getDestination(name);
+                if(destination == null)
+                {
+                    destination = (Destination) invokeUnderlying(method, args);
+                    _pooledSession.putDestination(name, destination);
+                }
+                return destination;
+            }
+            else
+            {
+                if(NON_POOLABLE_SESSION_METHODS.contains(methodName) || PRODUCER_CREATE_METHODS.contains(methodName))
+                {
+                    _pooledSession._reusable = false;
+                }
+                return invokeUnderlying(method, args);
+            }
+        }
+
+        private Object invokeUnderlying(final Method method, final Object[] args) throws Throwable
         {
             Method underlyingMethod = _underlying.getClass().getMethod(method.getName(), method.getParameterTypes());
             try
             {
-                Object returnVal = underlyingMethod.invoke(_underlying, args);
+                return underlyingMethod.invoke(_underlying, args);
+            }
+            catch (InvocationTargetException e)
+            {
+                _connectionHandler._exceptionThrown = true;
+                Throwable thrown = e.getCause();
+                throw thrown == null ? e : thrown;
+            }
+        }
+
+        private MessageProducer createProducer(final Method method, final Object[] args) throws Throwable
+        {
+            final ProducerKey key = new ProducerKey(method.getName(), (Destination) args[0]);
+            PooledProducer producer = _pooledSession.takeProducer(key);
+            if(producer == null)
+            {
+                producer = new PooledProducer((MessageProducer) invokeUnderlying(method, args));
+                _producersCreated.incrementAndGet();
+            }
+            else
+            {
+                _producersReused.incrementAndGet();
+            }
 
-                if(method.getName().equals("close") && method.getParameterTypes().length == 0)
+            ProducerInvocationHandler producerHandler = new ProducerInvocationHandler(key, producer, this);
+            _openProducers.add(producerHandler);
+            return proxyProducer(producer._producer, producerHandler);
+        }
+
+        private void releaseProducer(final ProducerInvocationHandler producerHandler) throws JMSException
+        {
+            _openProducers.remove(producerHandler);
+            final PooledProducer producer = producerHandler._producer;
+            if(_pooledSession._reusable && !_connectionHandler._exceptionThrown)
+            {
+                try
                 {
-                    _connectionHandler.removeSession((Session)proxy);
+                    producer.reset();
                 }
+                catch (JMSException | RuntimeException e)
+                {
+                    _pooledSession._reusable = false;
+                    throw e;
+                }
+                _pooledSession.returnProducer(producerHandler._key, producer);
+            }
+            else
+            {
+                producer._producer.close();
+            }
+        }
 
-                return returnVal;
+        private void releaseSession() throws JMSException
+        {
+            List<ProducerInvocationHandler> openProducers;
+            synchronized (_openProducers)
+            {
+                openProducers = new ArrayList<>(_openProducers);
             }
-            catch (InvocationTargetException e)
+            try
+            {
+                for(ProducerInvocationHandler producer : openProducers)
+                {
+                    producer.close();
+                }
+
+                if(_pooledSession._reusable && !_connectionHandler._exceptionThrown)
+                {
+                    if(_pooledSession._acknowledgeMode == Session.SESSION_TRANSACTED)
+                    {
+                        _underlying.rollback();
+                    }
+                    if(_connectionHandler._sessionPool.offer(_pooledSession))
+                    {
+                        return;
+                    }
+                    _sessionsEvicted.incrementAndGet();
+                }
+                _underlying.close();
+            }
+            catch (JMSException | RuntimeException e)
             {
                 _connectionHandler._exceptionThrown = true;
+                throw e;
+            }
+        }
+    }
+
+    private class ProducerInvocationHandler implements InvocationHandler
+    {
+        private final ProducerKey _key;
+        private final PooledProducer _producer;
+        private final SessionInvocationHandler<?> _sessionHandler;
+        private final AtomicBoolean _closed = new AtomicBoolean();
+
+        public ProducerInvocationHandler(final ProducerKey key,
+                                         final PooledProducer producer,
+                                         final SessionInvocationHandler<?> sessionHandler)
+        {
+            _key = key;
+            _producer = producer;
+            _sessionHandler = sessionHandler;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable
+        {
+            final String methodName = method.getName();
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+
+            if(methodName.equals("equals") && parameterTypes.length == 1)
+            {
+                return proxy == args[0];
+            }
+            else if(methodName.equals("hashCode") && parameterTypes.length == 0)
+            {
+                return System.identityHashCode(proxy);
+            }
+            else if(methodName.equals("close") && parameterTypes.length == 0)
+            {
+                close();
+                return null;
+            }
+            else if(_closed.get() && method.getDeclaringClass() != Object.class)
+            {
+                throw new IllegalStateException("Producer is closed");
+            }
+
+            try
+            {
+                return method.invoke(_producer._producer, args);
+            }
+            catch (InvocationTargetException e)
+            {
+                _sessionHandler._pooledSession._reusable = false;
                 Throwable thrown = e.getCause();
                 throw thrown == null ? e : thrown;
             }
+        }
 
+        private void close() throws JMSException
+        {
+            if(_closed.compareAndSet(false, true))
+            {
+                _sessionHandler.releaseProducer(this);
+            }
         }
     }
 
@@ -683,13 +1076,225 @@ public class PooledConnectionFactory implements ConnectionFactory, QueueConnecti
     private class ConnectionHolder
     {
         private final CommonConnection _connection;
+        private final SessionPool _sessionPool;
         private final long _lastUse;
 
-        public ConnectionHolder(final CommonConnection connection, final long lastUse)
+        public ConnectionHolder(final CommonConnection connection, final SessionPool sessionPool, final long lastUse)
         {
             _connection = connection;
+            _sessionPool = sessionPool;
             _lastUse = lastUse;
         }
     }
 
+    private class SessionPool
+    {
+        private final Map<Integer, Deque<PooledSession>> _idleSessions = new HashMap<>();
+        private int _size;
+
+        private synchronized PooledSession take(final int acknowledgeMode)
+        {
+            final Deque<PooledSession> sessions = _idleSessions.get(acknowledgeMode);
+            final PooledSession session = sessions == null ? null : sessions.pollFirst();
+            if(session != null)
+            {
+                _size--;
+            }
+            return session;
+        }
+
+        private synchronized boolean offer(final PooledSession session)
+        {
+            if(_size >= _maxSessionPoolSize.get())
+            {
+                return false;
+            }
+            Deque<PooledSession> sessions = _idleSessions.get(session._acknowledgeMode);
+            if(sessions == null)
+            {
+                sessions = new ArrayDeque<>();
+                _idleSessions.put(session._acknowledgeMode, sessions);
+            }
+            session._lastUse = System.currentTimeMillis();
+            sessions.addFirst(session);
+            _size++;
+            return true;
+        }
+
+        private void removeExpiredSessions(final long expiryTime)
+        {
+            List<PooledSession> expired = null;
+            synchronized (this)
+            {
+                if(_size == 0)
+                {
+                    return;
+                }
+                for(Deque<PooledSession> sessions : _idleSessions.values())
+                {
+                    while(!sessions.isEmpty() && sessions.peekLast()._lastUse < expiryTime)
+                    {
+                        if(expired == null)
+                        {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(sessions.pollLast());
+                        _size--;
+                    }
+                }
+            }
+
+            if(expired != null)
+            {
+                for(PooledSession session : expired)
+                {
+                    _sessionsEvicted.incrementAndGet();
+                    try
+                    {
+                        session._session.close();
+                    }
+                    catch (JMSException | RuntimeException e)
+                    {
+                        LOGGER.warn("Error when closing expired session in pool", e);
+                    }
+                }
+            }
+        }
+    }
+
+    private class PooledSession
+    {
+        private final Session _session;
+        private final int _acknowledgeMode;
+        private final Map<ProducerKey, PooledProducer> _idleProducers = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<String, Destination> _destinations = new LinkedHashMap<String, Destination>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Destination> eldest)
+            {
+                return size() > _maxCachedProducers.get();
+            }
+        };
+        private volatile boolean _reusable = true;
+        private long _lastUse;
+
+        private PooledSession(final Session session, final int acknowledgeMode)
+        {
+            _session = session;
+            _acknowledgeMode = acknowledgeMode;
+        }
+
+        private synchronized Destination getDestination(final String name)
+        {
+            return _destinations.get(name);
+        }
+
+        private synchronized void putDestination(final String name, final Destination destination)
+        {
+            _destinations.put(name, destination);
+        }
+
+        private synchronized PooledProducer takeProducer(final ProducerKey key)
+        {
+            return _idleProducers.remove(key);
+        }
+
+        private synchronized void returnProducer(final ProducerKey key, final PooledProducer producer)
+        {
+            if(_idleProducers.containsKey(key) || _maxCachedProducers.get() <= 0)
+            {
+                closeProducer(producer);
+            }
+            else
+            {
+                _idleProducers.put(key, producer);
+                Iterator<PooledProducer> iterator = _idleProducers.values().iterator();
+                while(_idleProducers.size() > _maxCachedProducers.get())
+                {
+                    PooledProducer eldest = iterator.next();
+                    iterator.remove();
+                    closeProducer(eldest);
+                }
+            }
+        }
+
+        private void closeProducer(final PooledProducer producer)
+        {
+            _producersEvicted.incrementAndGet();
+            try
+            {
+                producer._producer.close();
+            }
+            catch (JMSException | RuntimeException e)
+            {
+                LOGGER.warn("Error when closing evicted producer in pool", e);
+            }
+        }
+    }
+
+    private static class PooledProducer
+    {
+        private final MessageProducer _producer;
+        private final int _deliveryMode;
+        private final int _priority;
+        private final long _timeToLive;
+        private final boolean _disableMessageID;
+        private final boolean _disableMessageTimestamp;
+
+        private PooledProducer(final MessageProducer producer) throws JMSException
+        {
+            _producer = producer;
+            _deliveryMode = producer.getDeliveryMode();
+            _priority = producer.getPriority();
+            _timeToLive = producer.getTimeToLive();
+            _disableMessageID = producer.getDisableMessageID();
+            _disableMessageTimestamp = producer.getDisableMessageTimestamp();
+        }
+
+        private void reset() throws JMSException
+        {
+            _producer.setDeliveryMode(_deliveryMode);
+            _producer.setPriority(_priority);
+            _producer.setTimeToLive(_timeToLive);
+            _producer.setDisableMessageID(_disableMessageID);
+            _producer.setDisableMessageTimestamp(_disableMessageTimestamp);
+        }
+    }
+
+    private static class ProducerKey
+    {
+        private final String _methodName;
+        private final Destination _destination;
+
+        private ProducerKey(final String methodName, final Destination destination)
+        {
+            _methodName = methodName;
+            _destination = destination;
+        }
+
+        @Override
+        public boolean equals(final Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+
+            final ProducerKey that = (ProducerKey) o;
+
+            return _methodName.equals(that._methodName)
+                   && (_destination == null ? that._destination == null : _destination.equals(that._destination));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * _methodName.hashCode() + (_destination == null ? 0 : _destination.hashCode());
+        }
+    }
+
 }
@@ -23,6 +23,8 @@ package org.apache.qpid.jndi;
 import static org.apache.qpid.client.AMQConnection.JNDI_ADDRESS_CONNECTION_URL;
 import static org.apache.qpid.client.PooledConnectionFactory.JNDI_ADDRESS_MAX_POOL_SIZE;
 import static org.apache.qpid.client.PooledConnectionFactory.JNDI_ADDRESS_CONNECTION_TIMEOUT;
+import static org.apache.qpid.client.PooledConnectionFactory.JNDI_ADDRESS_MAX_CACHED_PRODUCERS;
+import static org.apache.qpid.client.PooledConnectionFactory.JNDI_ADDRESS_MAX_SESSION_POOL_SIZE;
 import static org.apache.qpid.client.AMQDestination.JNDI_ADDRESS_DESTINATION_ADDRESS;
 
 import java.net.URISyntaxException;
@@ -99,6 +101,18 @@ public class ObjectFactory implements javax.naming.spi.ObjectFactory
                 connectionFactory.setConnectionTimeout(connectionTimeout instanceof Number ? ((Number) connectionTimeout).longValue() : Long.parseLong(String.valueOf(connectionTimeout)));
             }
 
+            Object maxSessionPoolSize = getRefAddressContent(reference, JNDI_ADDRESS_MAX_SESSION_POOL_SIZE);
+            if (maxSessionPoolSize != null)
+            {
+                connectionFactory.setMaxSessionPoolSize(maxSessionPoolSize instanceof Number ? ((Number) maxSessionPoolSize).intValue() : Integer.parseInt(String.valueOf(maxSessionPoolSize)));
+            }
+
+            Object maxCachedProducers = getRefAddressContent(reference, JNDI_ADDRESS_MAX_CACHED_PRODUCERS);
+            if (maxCachedProducers != null)
+            {
+                connectionFactory.setMaxCachedProducers(maxCachedProducers instanceof Number ? ((Number) maxCachedProducers).intValue() : Integer.parseInt(String.valueOf(maxCachedProducers)));
+            }
+
             return connectionFactory;
         }
 
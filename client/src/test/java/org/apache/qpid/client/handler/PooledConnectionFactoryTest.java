@@ -426,5 +426,97 @@ public class PooledConnectionFactoryTest extends QpidTestCase
         assertEquals(2, createdConnections.size());
     }
 
+    public void testSessionsAndProducersArePooled() throws Exception
+    {
+        _connectionFactory.setConnectionURLString("amqp://user:pass@/?brokerlist='tcp://localhost:5672'");
+        _connectionFactory.setMaxSessionPoolSize(2);
+
+        final Message message = mock(Message.class);
+        final Queue queue = mock(Queue.class);
+        final MessageProducer producer = mock(MessageProducer.class);
+        final Session session = mock(Session.class);
+        when(session.createQueue("queue")).thenReturn(queue);
+        when(session.createProducer(queue)).thenReturn(producer);
+        final CommonConnection connection = mock(CommonConnection.class);
+        when(connection.isClosed()).thenReturn(false);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(_connectionCreator.newConnection(any(ConnectionURL.class))).thenReturn(connection);
+
+        Connection conn = _connectionFactory.createConnection();
+        for (int i = 0; i < 3; i++)
+        {
+            Session pooledSession = conn.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            MessageProducer pooledProducer = pooledSession.createProducer(pooledSession.createQueue("queue"));
+            pooledProducer.send(message);
+            pooledProducer.close();
+            pooledSession.close();
+
+            try
+            {
+                pooledSession.createQueue("queue");
+                fail("Closed session should not be usable");
+            }
+            catch (IllegalStateException e)
+            {
+                // pass
+            }
+        }
+        conn.close();
+
+        verify(connection, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+        verify(session, times(1)).createQueue("queue");
+        verify(session, times(1)).createProducer(queue);
+        verify(producer, times(3)).send(message);
+        verify(producer, never()).close();
+        verify(session, never()).close();
+
+        assertEquals(1, _connectionFactory.getSessionsCreated());
+        assertEquals(2, _connectionFactory.getSessionsReused());
+        assertEquals(1, _connectionFactory.getProducersCreated());
+        assertEquals(2, _connectionFactory.getProducersReused());
+    }
+
+    public void testSessionWithConsumerNotPooled() throws Exception
+    {
+        _connectionFactory.setConnectionURLString("amqp://user:pass@/?brokerlist='tcp://localhost:5672'");
+        _connectionFactory.setMaxSessionPoolSize(2);
+
+        final Queue queue = mock(Queue.class);
+        final Session session = mock(Session.class);
+        final CommonConnection connection = mock(CommonConnection.class);
+        when(connection.isClosed()).thenReturn(false);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(_connectionCreator.newConnection(any(ConnectionURL.class))).thenReturn(connection);
+
+        Connection conn = _connectionFactory.createConnection();
+        Session pooledSession = conn.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        pooledSession.createConsumer(queue);
+        pooledSession.close();
+        verify(session, times(1)).close();
+
+        conn.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        verify(connection, times(2)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+        assertEquals(0, _connectionFactory.getSessionsReused());
+    }
 
+    public void testTransactedSessionRolledBackWhenPooled() throws Exception
+    {
+        _connectionFactory.setConnectionURLString("amqp://user:pass@/?brokerlist='tcp://localhost:5672'");
+        _connectionFactory.setMaxSessionPoolSize(2);
+
+        final Session session = mock(Session.class);
+        final CommonConnection connection = mock(CommonConnection.class);
+        when(connection.isClosed()).thenReturn(false);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(_connectionCreator.newConnection(any(ConnectionURL.class))).thenReturn(connection);
+
+        Connection conn = _connectionFactory.createConnection();
+        conn.createSession(true, Session.SESSION_TRANSACTED).close();
+        verify(session, times(1)).rollback();
+        verify(session, never()).close();
+
+        conn.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        verify(connection, times(1)).createSession(true, Session.SESSION_TRANSACTED);
+        verify(connection, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+    }
 }
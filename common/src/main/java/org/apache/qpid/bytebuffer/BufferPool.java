@@ -21,34 +21,289 @@
 package org.apache.qpid.bytebuffer;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * A pool of direct buffers in a number of size classes, the smallest being the pooled buffer size and each
+ * subsequent class being twice the size of the one before.  The smallest class may hold up to the maximum pool
+ * size of buffers, as a pool of a single size would.  The larger classes share a separate, usually smaller, budget
+ * given as a number of buffers of the smallest size, the share halving with each class.
+ *
+ * To reduce contention between threads each class is split into stripes, with a thread returning buffers to,
+ * and preferring to take buffers from, the stripe selected by its id.  Buffers of the smallest class, which are
+ * used for network I/O and so by far the most frequently, are additionally held in a small per-thread cache.
+ */
 class BufferPool
 {
+    private static final int THREAD_CACHE_SIZE = 2;
+    private static final int STRIPES = stripeCount(Runtime.getRuntime().availableProcessors());
+
     private final int _maxSize;
-    private final ConcurrentLinkedQueue<ByteBuffer> _pooledBuffers = new ConcurrentLinkedQueue<>();
+    private final int _largeBufferPoolSize;
+    private final SizeClass[] _sizeClasses;
+    private final ThreadLocal<ThreadCache> _threadCache = new ThreadLocal<ThreadCache>()
+    {
+        @Override
+        protected ThreadCache initialValue()
+        {
+            return new ThreadCache(Math.min(THREAD_CACHE_SIZE, _maxSize));
+        }
+    };
 
-    BufferPool(final int maxSize)
+    BufferPool(final int bufferSize, final int maxSize, final int sizeClassCount, final int largeBufferPoolSize)
     {
+        if (sizeClassCount <= 0)
+        {
+            throw new IllegalArgumentException("Negative or zero sizeClassCount illegal : " + sizeClassCount);
+        }
         _maxSize = maxSize;
+        _largeBufferPoolSize = largeBufferPoolSize;
+        _sizeClasses = new SizeClass[sizeClassCount];
+        _sizeClasses[0] = new SizeClass(bufferSize, maxSize);
+        // of the larger classes each but the last may hold half the bytes of the large buffer budget left by the
+        // classes before, and the last the remainder, so that together they hold no more than largeBufferPoolSize
+        // buffers of the smallest class
+        for (int i = 1; i < sizeClassCount; i++)
+        {
+            final int shift = (i == sizeClassCount - 1 ? i - 1 : i) + i;
+            _sizeClasses[i] = new SizeClass(bufferSize << i, shift < Integer.SIZE ? largeBufferPoolSize >> shift : 0);
+        }
     }
 
-    ByteBuffer getBuffer()
+    /**
+     * Returns a buffer with a capacity of the smallest size class able to hold the requested size, allocating a new
+     * buffer if none is pooled.  The size must not be greater than {@link #getMaxBufferSize()}.
+     */
+    ByteBuffer getBuffer(final int size)
     {
-        return _pooledBuffers.poll();
+        final SizeClass sizeClass = getSizeClass(size);
+        ByteBuffer buf = null;
+        if (sizeClass == _sizeClasses[0])
+        {
+            buf = _threadCache.get().poll();
+        }
+        if (buf == null)
+        {
+            buf = sizeClass.poll();
+        }
+
+        if (buf == null)
+        {
+            sizeClass._misses.incrementAndGet();
+            buf = ByteBuffer.allocateDirect(sizeClass._bufferSize);
+        }
+        else
+        {
+            sizeClass._hits.incrementAndGet();
+        }
+        sizeClass._outstanding.incrementAndGet();
+        return buf;
     }
 
     void returnBuffer(ByteBuffer buf)
     {
         buf.clear();
-        if (_pooledBuffers.size() < _maxSize)
+        final SizeClass sizeClass = getSizeClass(buf.capacity());
+        sizeClass._outstanding.decrementAndGet();
+        if (sizeClass != _sizeClasses[0] || !_threadCache.get().offer(buf))
         {
-            _pooledBuffers.add(buf);
+            sizeClass.offer(buf);
         }
     }
 
+    void discardBuffer(ByteBuffer buf)
+    {
+        getSizeClass(buf.capacity())._outstanding.decrementAndGet();
+    }
+
     public int getMaxSize()
     {
         return _maxSize;
     }
+
+    int getLargeBufferPoolSize()
+    {
+        return _largeBufferPoolSize;
+    }
+
+    int getSizeClassCount()
+    {
+        return _sizeClasses.length;
+    }
+
+    int getMaxBufferSize()
+    {
+        return _sizeClasses[_sizeClasses.length - 1]._bufferSize;
+    }
+
+    long getMaxPooledBytes()
+    {
+        long bytes = 0;
+        for (SizeClass sizeClass : _sizeClasses)
+        {
+            bytes += (long) sizeClass._bufferSize * sizeClass._maxPooled;
+        }
+        return bytes;
+    }
+
+    int getMaxPooledCount(final int sizeClassIndex)
+    {
+        return _sizeClasses[sizeClassIndex]._maxPooled;
+    }
+
+    List<BufferPoolStatistics> getStatistics()
+    {
+        List<BufferPoolStatistics> statistics = new ArrayList<>(_sizeClasses.length);
+        for (SizeClass sizeClass : _sizeClasses)
+        {
+            statistics.add(new BufferPoolStatistics(sizeClass._bufferSize,
+                                                    sizeClass._hits.get(),
+                                                    sizeClass._misses.get(),
+                                                    (long) sizeClass._bufferSize * sizeClass._outstanding.get(),
+                                                    (long) sizeClass._bufferSize * sizeClass.getPooledCount()));
+        }
+        return Collections.unmodifiableList(statistics);
+    }
+
+    private SizeClass getSizeClass(final int size)
+    {
+        int index = 0;
+        while (_sizeClasses[index]._bufferSize < size)
+        {
+            index++;
+        }
+        return _sizeClasses[index];
+    }
+
+    private static int stripeCount(final int processors)
+    {
+        int stripes = 1;
+        while (stripes < processors && stripes < 16)
+        {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    private static int getStripeIndex()
+    {
+        return (int) Thread.currentThread().getId() & (STRIPES - 1);
+    }
+
+    private static final class SizeClass
+    {
+        private final int _bufferSize;
+        private final int _maxPooled;
+        private final int _maxPooledPerStripe;
+        private final Stripe[] _stripes = new Stripe[STRIPES];
+        private final AtomicLong _hits = new AtomicLong();
+        private final AtomicLong _misses = new AtomicLong();
+        private final AtomicInteger _outstanding = new AtomicInteger();
+
+        private SizeClass(final int bufferSize, final int maxPooled)
+        {
+            _bufferSize = bufferSize;
+            _maxPooled = maxPooled;
+            _maxPooledPerStripe = (maxPooled + STRIPES - 1) / STRIPES;
+            for (int i = 0; i < STRIPES; i++)
+            {
+                _stripes[i] = new Stripe();
+            }
+        }
+
+        private ByteBuffer poll()
+        {
+            final int home = getStripeIndex();
+            for (int i = 0; i < STRIPES; i++)
+            {
+                ByteBuffer buf = _stripes[(home + i) & (STRIPES - 1)].poll();
+                if (buf != null)
+                {
+                    return buf;
+                }
+            }
+            return null;
+        }
+
+        private void offer(final ByteBuffer buf)
+        {
+            _stripes[getStripeIndex()].offer(buf, _maxPooledPerStripe);
+        }
+
+        private int getPooledCount()
+        {
+            int count = 0;
+            for (Stripe stripe : _stripes)
+            {
+                count += stripe._size.get();
+            }
+            return count;
+        }
+    }
+
+    private static final class Stripe
+    {
+        private final ConcurrentLinkedQueue<ByteBuffer> _buffers = new ConcurrentLinkedQueue<>();
+        // ConcurrentLinkedQueue.size() traverses the queue, so the size is tracked separately
+        private final AtomicInteger _size = new AtomicInteger();
+
+        private ByteBuffer poll()
+        {
+            ByteBuffer buf = _buffers.poll();
+            if (buf != null)
+            {
+                _size.decrementAndGet();
+            }
+            return buf;
+        }
+
+        private void offer(final ByteBuffer buf, final int maxSize)
+        {
+            if (_size.incrementAndGet() <= maxSize)
+            {
+                _buffers.add(buf);
+            }
+            else
+            {
+                _size.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class ThreadCache
+    {
+        private final ByteBuffer[] _buffers;
+        private int _size;
+
+        private ThreadCache(final int capacity)
+        {
+            _buffers = new ByteBuffer[Math.max(capacity, 0)];
+        }
+
+        private ByteBuffer poll()
+        {
+            if (_size == 0)
+            {
+                return null;
+            }
+            ByteBuffer buf = _buffers[--_size];
+            _buffers[_size] = null;
+            return buf;
+        }
+
+        private boolean offer(final ByteBuffer buf)
+        {
+            if (_size == _buffers.length)
+            {
+                return false;
+            }
+            _buffers[_size++] = buf;
+            return true;
+        }
+    }
 }
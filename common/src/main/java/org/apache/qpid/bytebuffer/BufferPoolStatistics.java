@@ -0,0 +1,98 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.bytebuffer;
+
+import java.util.Collection;
+
+/**
+ * A snapshot of the statistics of one size class of the direct buffer pool.
+ */
+public final class BufferPoolStatistics
+{
+    private final int _bufferSize;
+    private final long _hits;
+    private final long _misses;
+    private final long _outstandingBytes;
+    private final long _pooledBytes;
+
+    BufferPoolStatistics(final int bufferSize,
+                         final long hits,
+                         final long misses,
+                         final long outstandingBytes,
+                         final long pooledBytes)
+    {
+        _bufferSize = bufferSize;
+        _hits = hits;
+        _misses = misses;
+        _outstandingBytes = outstandingBytes;
+        _pooledBytes = pooledBytes;
+    }
+
+    /**
+     * Returns the sum of the given statistics.  The buffer size of the result is that of the largest size class.
+     */
+    public static BufferPoolStatistics total(final Collection<BufferPoolStatistics> statistics)
+    {
+        int bufferSize = 0;
+        long hits = 0;
+        long misses = 0;
+        long outstandingBytes = 0;
+        long pooledBytes = 0;
+        for (BufferPoolStatistics sizeClass : statistics)
+        {
+            bufferSize = Math.max(bufferSize, sizeClass.getBufferSize());
+            hits += sizeClass.getHits();
+            misses += sizeClass.getMisses();
+            outstandingBytes += sizeClass.getOutstandingBytes();
+            pooledBytes += sizeClass.getPooledBytes();
+        }
+        return new BufferPoolStatistics(bufferSize, hits, misses, outstandingBytes, pooledBytes);
+    }
+
+    public int getBufferSize()
+    {
+        return _bufferSize;
+    }
+
+    /** the number of buffers taken from the pool */
+    public long getHits()
+    {
+        return _hits;
+    }
+
+    /** the number of buffers allocated because none was pooled */
+    public long getMisses()
+    {
+        return _misses;
+    }
+
+    /** the capacity of the buffers handed out and not yet returned */
+    public long getOutstandingBytes()
+    {
+        return _outstandingBytes;
+    }
+
+    /** the capacity of the buffers held in the pool, excluding those cached by individual threads */
+    public long getPooledBytes()
+    {
+        return _pooledBytes;
+    }
+}
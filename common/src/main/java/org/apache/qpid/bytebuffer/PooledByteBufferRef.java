@@ -28,11 +28,26 @@ class PooledByteBufferRef implements ByteBufferRef
     private static final AtomicIntegerFieldUpdater<PooledByteBufferRef> REF_COUNT = AtomicIntegerFieldUpdater.newUpdater(PooledByteBufferRef.class, "_refCount");
 
     private final ByteBuffer _buffer;
+    private final ByteBuffer _view;
     private volatile int _refCount;
 
-    PooledByteBufferRef(final ByteBuffer buffer)
+    /**
+     * @param buffer the pooled buffer, which may have a greater capacity than the size requested
+     * @param size the size requested
+     */
+    PooledByteBufferRef(final ByteBuffer buffer, final int size)
     {
         _buffer = buffer;
+        if (buffer.capacity() == size)
+        {
+            _view = buffer;
+        }
+        else
+        {
+            ByteBuffer view = buffer.duplicate();
+            view.limit(size);
+            _view = view.slice();
+        }
     }
 
     @Override
@@ -57,13 +72,16 @@ class PooledByteBufferRef implements ByteBufferRef
     @Override
     public ByteBuffer getBuffer()
     {
-        return _buffer.duplicate();
+        return _view.duplicate();
     }
 
     @Override
     public void removeFromPool()
     {
-        REF_COUNT.set(this, Integer.MIN_VALUE/2);
+        if (REF_COUNT.getAndSet(this, Integer.MIN_VALUE/2) > 0)
+        {
+            QpidByteBuffer.removedFromPool(_buffer);
+        }
     }
 
 
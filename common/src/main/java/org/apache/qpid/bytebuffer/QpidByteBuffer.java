@@ -566,16 +566,15 @@ public class QpidByteBuffer
         }
 
         final ByteBufferRef ref;
-        if (_isPoolInitialized && _pooledBufferSize >= size)
+        if (_isPoolInitialized && size > _pooledBufferSize && size <= _bufferPool.getMaxBufferSize())
+        {
+            ref = new PooledByteBufferRef(_bufferPool.getBuffer(size), size);
+        }
+        else if (_isPoolInitialized && _pooledBufferSize >= size)
         {
             if (_pooledBufferSize == size)
             {
-                ByteBuffer buf = _bufferPool.getBuffer();
-                if (buf == null)
-                {
-                    buf = ByteBuffer.allocateDirect(size);
-                }
-                ref = new PooledByteBufferRef(buf);
+                ref = new PooledByteBufferRef(_bufferPool.getBuffer(size), size);
             }
             else
             {
@@ -773,32 +772,67 @@ public class QpidByteBuffer
     static void returnToPool(final ByteBuffer buffer)
     {
         buffer.clear();
-        final ByteBuffer duplicate = _zeroed.duplicate();
-        duplicate.limit(buffer.capacity());
-        buffer.put(duplicate);
+        while (buffer.hasRemaining())
+        {
+            final ByteBuffer duplicate = _zeroed.duplicate();
+            duplicate.limit(Math.min(duplicate.capacity(), buffer.remaining()));
+            buffer.put(duplicate);
+        }
 
         _bufferPool.returnBuffer(buffer);
     }
 
-    public synchronized static void initialisePool(int bufferSize, int maxPoolSize)
+    static void removedFromPool(final ByteBuffer buffer)
     {
-        if (_isPoolInitialized && (bufferSize != _pooledBufferSize || maxPoolSize != _bufferPool.getMaxSize()))
+        _bufferPool.discardBuffer(buffer);
+    }
+
+    public static void initialisePool(int bufferSize, int maxPoolSize)
+    {
+        initialisePool(bufferSize, maxPoolSize, 1, 0);
+    }
+
+    /**
+     * @param maxPoolSize the maximum number of buffers of {@code bufferSize} pooled
+     * @param sizeClassCount the number of buffer sizes pooled, each twice the size of the one before, so that
+     *                       direct buffers up to {@code bufferSize << (sizeClassCount - 1)} bytes are pooled
+     * @param largeBufferPoolSize the memory, as a number of buffers of {@code bufferSize}, which may be pooled in
+     *                            buffers larger than {@code bufferSize}
+     */
+    public synchronized static void initialisePool(int bufferSize,
+                                                   int maxPoolSize,
+                                                   int sizeClassCount,
+                                                   int largeBufferPoolSize)
+    {
+        if (_isPoolInitialized && (bufferSize != _pooledBufferSize
+                                   || maxPoolSize != _bufferPool.getMaxSize()
+                                   || sizeClassCount != _bufferPool.getSizeClassCount()
+                                   || largeBufferPoolSize != _bufferPool.getLargeBufferPoolSize()))
         {
             final String errorMessage = String.format(
-                    "QpidByteBuffer pool has already been initialised with bufferSize=%d and maxPoolSize=%d." +
-                    "Re-initialisation with different bufferSize=%d and maxPoolSize=%d is not allowed.",
+                    "QpidByteBuffer pool has already been initialised with bufferSize=%d, maxPoolSize=%d, sizeClassCount=%d and largeBufferPoolSize=%d." +
+                    "Re-initialisation with different bufferSize=%d, maxPoolSize=%d, sizeClassCount=%d and largeBufferPoolSize=%d is not allowed.",
                     _pooledBufferSize,
                     _bufferPool.getMaxSize(),
+                    _bufferPool.getSizeClassCount(),
+                    _bufferPool.getLargeBufferPoolSize(),
                     bufferSize,
-                    maxPoolSize);
+                    maxPoolSize,
+                    sizeClassCount,
+                    largeBufferPoolSize);
             throw new IllegalStateException(errorMessage);
         }
         if (bufferSize <= 0)
         {
             throw new IllegalArgumentException("Negative or zero bufferSize illegal : " + bufferSize);
         }
+        if (sizeClassCount <= 0 || sizeClassCount > Integer.numberOfLeadingZeros(bufferSize))
+        {
+            throw new IllegalArgumentException("Illegal sizeClassCount " + sizeClassCount
+                                               + " for bufferSize " + bufferSize);
+        }
 
-        _bufferPool = new BufferPool(maxPoolSize);
+        _bufferPool = new BufferPool(bufferSize, maxPoolSize, sizeClassCount, largeBufferPoolSize);
         _pooledBufferSize = bufferSize;
         _zeroed = ByteBuffer.allocateDirect(_pooledBufferSize);
         _isPoolInitialized = true;
@@ -809,6 +843,15 @@ public class QpidByteBuffer
         return _pooledBufferSize;
     }
 
+    /**
+     * Returns the statistics of each size class of the direct buffer pool, smallest first, or an empty list if the
+     * pool has not been initialised.
+     */
+    public static List<BufferPoolStatistics> getBufferPoolStatistics()
+    {
+        return _isPoolInitialized ? _bufferPool.getStatistics() : Collections.<BufferPoolStatistics>emptyList();
+    }
+
     private static final class BufferInputStream extends InputStream
     {
         private final QpidByteBuffer _qpidByteBuffer;
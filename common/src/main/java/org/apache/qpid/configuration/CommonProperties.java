@@ -52,6 +52,18 @@ public class CommonProperties
     public static final String IO_NETWORK_TRANSPORT_TIMEOUT_PROP_NAME = "qpid.io_network_transport_timeout";
     public static final int IO_NETWORK_TRANSPORT_TIMEOUT_DEFAULT = 60000;
 
+    /**
+     * If true, outgoing connections are serviced by a small pool of selector threads shared by all connections
+     * rather than each connection having its own IoSender and IoReceiver threads
+     */
+    public static final String NIO_NETWORK_TRANSPORT_PROP_NAME = "qpid.nio_network_transport";
+
+    /**
+     * The number of selector threads used when {@link #NIO_NETWORK_TRANSPORT_PROP_NAME} is set, by default the number
+     * of available processors
+     */
+    public static final String NIO_NETWORK_TRANSPORT_THREADS_PROP_NAME = "qpid.nio_network_transport_threads";
+
     public static final String QPID_CLIENT_SECURITY_TLS_PROTOCOL_WHITE_LIST = "qpid.client.security.tls.protocolWhiteList";
     public static final String QPID_CLIENT_SECURITY_TLS_PROTOCOL_BLACK_LIST = "qpid.client.security.tls.protocolBlackList";
     public static final String QPID_CLIENT_SECURITY_TLS_CIPHER_SUITE_WHITE_LIST = "qpid.client.security.tls.cipherSuiteWhiteList";
@@ -121,6 +121,15 @@ public class JMSMessagePropertyExpression implements PropertyExpression<Filterab
         return name;
     }
 
+    /**
+     * @return true if this expression is evaluated against the application headers of the message rather than one
+     * of the JMS defined message properties (JMSType, JMSPriority etc)
+     */
+    public boolean isApplicationProperty()
+    {
+        return jmsPropertyExpression == null;
+    }
+
     /**
      * @see Object#toString()
      */
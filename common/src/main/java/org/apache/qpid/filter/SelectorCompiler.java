@@ -0,0 +1,864 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compiles a parsed selector into a tree of specialised expressions which gives the same result as the parsed tree
+ * but is cheaper to evaluate:
+ * <ul>
+ *     <li>sub-expressions which do not refer to the message are evaluated once, at compile time;</li>
+ *     <li>comparisons between a property and a string or numeric literal test the common property types directly,
+ *     comparing primitive values rather than going through the general type promotion of
+ *     {@link ComparisonExpression};</li>
+ *     <li>the terms of AND and OR expressions are evaluated cheapest first, where that cannot change the
+ *     outcome.</li>
+ * </ul>
+ * The interpreted AND and OR expressions distinguish between a FALSE and an unknown (null) result depending on the
+ * order of their terms, so terms are only reordered where the expression is tested for a match and that difference
+ * cannot be observed.  Evaluating a term may also fail, for instance arithmetic on a string property, and whether the
+ * parsed tree fails depends on whether an earlier term decided the result first, so a term which may fail is never
+ * reordered with respect to the other terms.  Any expression the compiler does not recognise is evaluated by the
+ * parsed tree.
+ */
+public final class SelectorCompiler
+{
+    private static final int PROPERTY_TEST_COST = 1;
+    private static final int IN_COST = 3;
+    private static final int INTERPRETED_COST = 5;
+    private static final int LIKE_COST = 10;
+
+    private static final Comparator<CompiledExpression<?>> COST_COMPARATOR = new Comparator<CompiledExpression<?>>()
+    {
+        @Override
+        public int compare(final CompiledExpression<?> left, final CompiledExpression<?> right)
+        {
+            return Integer.compare(left.getCost(), right.getCost());
+        }
+    };
+
+    private SelectorCompiler()
+    {
+    }
+
+    public static <E> BooleanExpression<E> compile(BooleanExpression<E> expression)
+    {
+        return compile(expression, true);
+    }
+
+    private static <E> CompiledExpression<E> compile(BooleanExpression<E> expression, boolean matchOnly)
+    {
+        if (isConstant(expression))
+        {
+            Object value = evaluateConstant(expression);
+            if (value != NOT_CONSTANT)
+            {
+                return new Constant<>(value);
+            }
+        }
+
+        if (expression instanceof LogicExpression)
+        {
+            String symbol = ((LogicExpression<E>) expression).getExpressionSymbol();
+            if ("AND".equals(symbol) || "OR".equals(symbol))
+            {
+                return compileLogic((LogicExpression<E>) expression, "AND".equals(symbol), matchOnly);
+            }
+        }
+        else if (expression instanceof UnaryExpression
+                 && "NOT".equals(((UnaryExpression<E>) expression).getExpressionSymbol()))
+        {
+            // whether the operand is FALSE or unknown decides whether NOT matches, so it must be evaluated exactly
+            Expression<E> operand = ((UnaryExpression<E>) expression).getRight();
+            if (operand instanceof BooleanExpression)
+            {
+                return new Not<>(compile((BooleanExpression<E>) operand, false));
+            }
+        }
+        else if (expression instanceof ComparisonExpression)
+        {
+            CompiledExpression<E> comparison = compileComparison((ComparisonExpression<E>) expression);
+            if (comparison != null)
+            {
+                return comparison;
+            }
+        }
+        return new Interpreted<>(expression);
+    }
+
+    private static <E> CompiledExpression<E> compileLogic(LogicExpression<E> expression,
+                                                          boolean and,
+                                                          boolean matchOnly)
+    {
+        List<BooleanExpression<E>> terms = new ArrayList<>();
+        addTerms(expression, expression.getExpressionSymbol(), terms);
+
+        List<CompiledExpression<E>> compiledTerms = new ArrayList<>(terms.size());
+        boolean mayFail = false;
+        for (BooleanExpression<E> term : terms)
+        {
+            CompiledExpression<E> compiledTerm = compile(term, matchOnly);
+            if (matchOnly && compiledTerm instanceof Constant)
+            {
+                boolean isTrue = ((Constant<E>) compiledTerm).getValue() == Boolean.TRUE;
+                if (isTrue != and)
+                {
+                    if (!mayFail)
+                    {
+                        // the term alone decides whether the expression matches
+                        return new Constant<>(isTrue);
+                    }
+                    // an earlier term may still fail, but the terms after this one are never evaluated
+                    compiledTerms.add(compiledTerm);
+                    break;
+                }
+                // otherwise the term cannot change whether the expression matches
+            }
+            else
+            {
+                compiledTerms.add(compiledTerm);
+                mayFail |= compiledTerm.mayFail();
+            }
+        }
+
+        if (compiledTerms.isEmpty())
+        {
+            return new Constant<>(and);
+        }
+        else if (compiledTerms.size() == 1 && matchOnly)
+        {
+            return compiledTerms.get(0);
+        }
+
+        if (matchOnly)
+        {
+            sortByCost(compiledTerms);
+        }
+        CompiledExpression<E>[] termArray = compiledTerms.toArray(new CompiledExpression[compiledTerms.size()]);
+        return and ? new And<>(termArray) : new Or<>(termArray);
+    }
+
+    /**
+     * Sorts the terms cheapest first, except that a term which may fail keeps its position and no other term is moved
+     * past it: the terms before it may decide the result so that it is never evaluated, and the terms after it must
+     * not do so.
+     */
+    private static <E> void sortByCost(List<CompiledExpression<E>> terms)
+    {
+        int start = 0;
+        for (int i = 0; i <= terms.size(); i++)
+        {
+            if (i == terms.size() || terms.get(i).mayFail())
+            {
+                Collections.sort(terms.subList(start, i), COST_COMPARATOR);
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Nested AND (or OR) expressions are flattened into a single list of terms.  Evaluating the terms in order gives
+     * the same result as the nested binary expressions, however they are associated.
+     */
+    private static <E> void addTerms(BooleanExpression<E> expression, String symbol, List<BooleanExpression<E>> terms)
+    {
+        if (expression instanceof LogicExpression
+            && symbol.equals(((LogicExpression<E>) expression).getExpressionSymbol()))
+        {
+            LogicExpression<E> logicExpression = (LogicExpression<E>) expression;
+            addTerms((BooleanExpression<E>) logicExpression.getLeft(), symbol, terms);
+            addTerms((BooleanExpression<E>) logicExpression.getRight(), symbol, terms);
+        }
+        else
+        {
+            terms.add(expression);
+        }
+    }
+
+    private static <E> CompiledExpression<E> compileComparison(ComparisonExpression<E> expression)
+    {
+        String symbol = expression.getExpressionSymbol();
+        Expression<E> left = expression.getLeft();
+        Expression<E> right = expression.getRight();
+
+        boolean propertyOnLeft;
+        Object constant;
+        if (left instanceof PropertyExpression && isConstant(right))
+        {
+            propertyOnLeft = true;
+            constant = evaluateConstant(right);
+        }
+        else if (right instanceof PropertyExpression && isConstant(left))
+        {
+            propertyOnLeft = false;
+            constant = evaluateConstant(left);
+        }
+        else
+        {
+            return null;
+        }
+        Expression<E> property = propertyOnLeft ? left : right;
+
+        if (constant == NOT_CONSTANT)
+        {
+            return null;
+        }
+        else if ("=".equals(symbol))
+        {
+            if (constant == null)
+            {
+                return new IsNull<>(property);
+            }
+            else if (constant instanceof String)
+            {
+                return new StringEquals<>(expression, property, (String) constant);
+            }
+        }
+
+        if (constant instanceof Integer || constant instanceof Long || constant instanceof Double)
+        {
+            Operator operator = Operator.forSymbol(symbol, propertyOnLeft);
+            if (operator != null)
+            {
+                return new NumericComparison<>(expression, property, (Number) constant, operator, propertyOnLeft);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isConstant(Expression<?> expression)
+    {
+        if (expression instanceof ConstantExpression)
+        {
+            return true;
+        }
+        else if (expression instanceof BinaryExpression)
+        {
+            return isConstant(((BinaryExpression<?>) expression).getLeft())
+                   && isConstant(((BinaryExpression<?>) expression).getRight());
+        }
+        else if (expression instanceof UnaryExpression)
+        {
+            // the list of an IN expression may itself contain expressions, so it is never treated as constant
+            UnaryExpression<?> unaryExpression = (UnaryExpression<?>) expression;
+            return !unaryExpression.getExpressionSymbol().endsWith("IN") && isConstant(unaryExpression.getRight());
+        }
+        return false;
+    }
+
+    private static final Object NOT_CONSTANT = new Object();
+
+    private static <E> Object evaluateConstant(Expression<E> expression)
+    {
+        try
+        {
+            return expression.evaluate(null);
+        }
+        catch (RuntimeException e)
+        {
+            // leave the failure to be reported when the selector is evaluated, as the parsed tree would
+            return NOT_CONSTANT;
+        }
+    }
+
+    /**
+     * LIKE and IN expressions on a property cannot fail, as they only test the type of the property value.  Any other
+     * expression the compiler does not recognise may, for instance where it performs arithmetic on the value.
+     */
+    private static boolean mayInterpretedFail(BooleanExpression<?> expression)
+    {
+        if (expression instanceof UnaryExpression)
+        {
+            UnaryExpression<?> unaryExpression = (UnaryExpression<?>) expression;
+            String symbol = unaryExpression.getExpressionSymbol();
+            if ("LIKE".equals(symbol) || symbol.endsWith("IN"))
+            {
+                return !(unaryExpression.getRight() instanceof PropertyExpression);
+            }
+        }
+        return true;
+    }
+
+    private static int getInterpretedCost(BooleanExpression<?> expression)
+    {
+        if (expression instanceof UnaryExpression)
+        {
+            String symbol = ((UnaryExpression<?>) expression).getExpressionSymbol();
+            if ("LIKE".equals(symbol))
+            {
+                return LIKE_COST;
+            }
+            else if (symbol.endsWith("IN"))
+            {
+                return IN_COST;
+            }
+        }
+        return INTERPRETED_COST;
+    }
+
+    private static abstract class CompiledExpression<E> implements BooleanExpression<E>
+    {
+        abstract int getCost();
+
+        /**
+         * Returns true if evaluating this expression may throw an exception rather than giving a result.
+         */
+        abstract boolean mayFail();
+
+        @Override
+        public boolean matches(E message)
+        {
+            return evaluate(message) == Boolean.TRUE;
+        }
+    }
+
+    private static final class Constant<E> extends CompiledExpression<E>
+    {
+        private final Object _value;
+
+        private Constant(final Object value)
+        {
+            _value = value;
+        }
+
+        Object getValue()
+        {
+            return _value;
+        }
+
+        @Override
+        int getCost()
+        {
+            return 0;
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return false;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            return _value;
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.valueOf(_value);
+        }
+    }
+
+    private static final class Interpreted<E> extends CompiledExpression<E>
+    {
+        private final BooleanExpression<E> _expression;
+        private final int _cost;
+        private final boolean _mayFail;
+
+        private Interpreted(final BooleanExpression<E> expression)
+        {
+            _expression = expression;
+            _cost = getInterpretedCost(expression);
+            _mayFail = mayInterpretedFail(expression);
+        }
+
+        @Override
+        int getCost()
+        {
+            return _cost;
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return _mayFail;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            return _expression.evaluate(message);
+        }
+
+        @Override
+        public boolean matches(final E message)
+        {
+            return _expression.matches(message);
+        }
+
+        @Override
+        public String toString()
+        {
+            return _expression.toString();
+        }
+    }
+
+    private static final class And<E> extends CompiledExpression<E>
+    {
+        private final CompiledExpression<E>[] _terms;
+        private final int _cost;
+        private final boolean _mayFail;
+
+        private And(final CompiledExpression<E>[] terms)
+        {
+            _terms = terms;
+            _cost = getTotalCost(terms);
+            _mayFail = mayAnyFail(terms);
+        }
+
+        @Override
+        int getCost()
+        {
+            return _cost;
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return _mayFail;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            Object value = null;
+            for (CompiledExpression<E> term : _terms)
+            {
+                value = term.evaluate(message);
+                if (value == null)
+                {
+                    return null;
+                }
+                else if (!((Boolean) value))
+                {
+                    return Boolean.FALSE;
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public boolean matches(final E message)
+        {
+            for (CompiledExpression<E> term : _terms)
+            {
+                if (!term.matches(message))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString()
+        {
+            return joinTerms(_terms, " AND ");
+        }
+    }
+
+    private static final class Or<E> extends CompiledExpression<E>
+    {
+        private final CompiledExpression<E>[] _terms;
+        private final int _cost;
+        private final boolean _mayFail;
+
+        private Or(final CompiledExpression<E>[] terms)
+        {
+            _terms = terms;
+            _cost = getTotalCost(terms);
+            _mayFail = mayAnyFail(terms);
+        }
+
+        @Override
+        int getCost()
+        {
+            return _cost;
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return _mayFail;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            final int last = _terms.length - 1;
+            for (int i = 0; i < last; i++)
+            {
+                Boolean value = (Boolean) _terms[i].evaluate(message);
+                if (value != null && value)
+                {
+                    return Boolean.TRUE;
+                }
+            }
+            return _terms[last].evaluate(message);
+        }
+
+        @Override
+        public boolean matches(final E message)
+        {
+            for (CompiledExpression<E> term : _terms)
+            {
+                if (term.matches(message))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString()
+        {
+            return joinTerms(_terms, " OR ");
+        }
+    }
+
+    private static final class Not<E> extends CompiledExpression<E>
+    {
+        private final CompiledExpression<E> _operand;
+
+        private Not(final CompiledExpression<E> operand)
+        {
+            _operand = operand;
+        }
+
+        @Override
+        int getCost()
+        {
+            return _operand.getCost();
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return _operand.mayFail();
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            Boolean value = (Boolean) _operand.evaluate(message);
+            if (value == null)
+            {
+                return null;
+            }
+            return value ? Boolean.FALSE : Boolean.TRUE;
+        }
+
+        @Override
+        public boolean matches(final E message)
+        {
+            Boolean value = (Boolean) _operand.evaluate(message);
+            return value != null && !value;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(NOT " + _operand + ")";
+        }
+    }
+
+    private static final class IsNull<E> extends CompiledExpression<E>
+    {
+        private final Expression<E> _property;
+
+        private IsNull(final Expression<E> property)
+        {
+            _property = property;
+        }
+
+        @Override
+        int getCost()
+        {
+            return PROPERTY_TEST_COST;
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return false;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            return _property.evaluate(message) == null ? Boolean.TRUE : Boolean.FALSE;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + _property + " IS NULL)";
+        }
+    }
+
+    /**
+     * Equality between a property and a string literal.  Property values other than strings are rare, and are left
+     * to the parsed expression so that its conversions (for instance of enum values) are preserved.
+     */
+    private static final class StringEquals<E> extends CompiledExpression<E>
+    {
+        private final BooleanExpression<E> _expression;
+        private final Expression<E> _property;
+        private final String _value;
+
+        private StringEquals(final BooleanExpression<E> expression, final Expression<E> property, final String value)
+        {
+            _expression = expression;
+            _property = property;
+            _value = value;
+        }
+
+        @Override
+        int getCost()
+        {
+            return PROPERTY_TEST_COST;
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return false;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            Object propertyValue = _property.evaluate(message);
+            if (propertyValue instanceof String)
+            {
+                return _value.equals(propertyValue) ? Boolean.TRUE : Boolean.FALSE;
+            }
+            else if (propertyValue == null)
+            {
+                return Boolean.FALSE;
+            }
+            return _expression.evaluate(message);
+        }
+
+        @Override
+        public String toString()
+        {
+            return _expression.toString();
+        }
+    }
+
+    private enum Operator
+    {
+        EQUAL
+        {
+            @Override
+            boolean test(final int comparison)
+            {
+                return comparison == 0;
+            }
+        },
+        LESS_THAN
+        {
+            @Override
+            boolean test(final int comparison)
+            {
+                return comparison < 0;
+            }
+        },
+        LESS_THAN_OR_EQUAL
+        {
+            @Override
+            boolean test(final int comparison)
+            {
+                return comparison <= 0;
+            }
+        },
+        GREATER_THAN
+        {
+            @Override
+            boolean test(final int comparison)
+            {
+                return comparison > 0;
+            }
+        },
+        GREATER_THAN_OR_EQUAL
+        {
+            @Override
+            boolean test(final int comparison)
+            {
+                return comparison >= 0;
+            }
+        };
+
+        abstract boolean test(int comparison);
+
+        /**
+         * Returns the operator which compares the property value to the literal, allowing for the literal being
+         * written first.
+         */
+        static Operator forSymbol(String symbol, boolean propertyOnLeft)
+        {
+            switch (symbol)
+            {
+                case "=":
+                    return EQUAL;
+                case "<":
+                    return propertyOnLeft ? LESS_THAN : GREATER_THAN;
+                case "<=":
+                    return propertyOnLeft ? LESS_THAN_OR_EQUAL : GREATER_THAN_OR_EQUAL;
+                case ">":
+                    return propertyOnLeft ? GREATER_THAN : LESS_THAN;
+                case ">=":
+                    return propertyOnLeft ? GREATER_THAN_OR_EQUAL : LESS_THAN_OR_EQUAL;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * Comparison between a property and an integer, long or double literal.  The property value is compared as a long
+     * or a double, which gives the same result as the type promotion of {@link ComparisonExpression} for the property
+     * types handled here.  Other property types are left to the parsed expression.
+     */
+    private static final class NumericComparison<E> extends CompiledExpression<E>
+    {
+        private final BooleanExpression<E> _expression;
+        private final Expression<E> _property;
+        private final boolean _integral;
+        private final long _longValue;
+        private final double _doubleValue;
+        private final Operator _operator;
+        private final boolean _propertyOnLeft;
+
+        private NumericComparison(final BooleanExpression<E> expression,
+                                  final Expression<E> property,
+                                  final Number value,
+                                  final Operator operator,
+                                  final boolean propertyOnLeft)
+        {
+            _expression = expression;
+            _property = property;
+            _integral = !(value instanceof Double);
+            _longValue = value.longValue();
+            _doubleValue = value.doubleValue();
+            _operator = operator;
+            _propertyOnLeft = propertyOnLeft;
+        }
+
+        @Override
+        int getCost()
+        {
+            return PROPERTY_TEST_COST;
+        }
+
+        @Override
+        boolean mayFail()
+        {
+            return false;
+        }
+
+        @Override
+        public Object evaluate(final E message)
+        {
+            Object propertyValue = _property.evaluate(message);
+            if (propertyValue == null)
+            {
+                // the parsed equality treats a missing property as not equal, other comparisons as unknown
+                return _operator == Operator.EQUAL ? Boolean.FALSE : null;
+            }
+
+            final Class<?> type = propertyValue.getClass();
+            final int comparison;
+            if (type == Integer.class || type == Long.class)
+            {
+                comparison = _integral
+                        ? Long.compare(((Number) propertyValue).longValue(), _longValue)
+                        : Double.compare(((Number) propertyValue).doubleValue(), _doubleValue);
+            }
+            else if (type == Double.class)
+            {
+                comparison = Double.compare((Double) propertyValue, _doubleValue);
+            }
+            else if (_propertyOnLeft && (type == Short.class || type == Byte.class))
+            {
+                // a short or byte literal on the left is not promoted by the parsed comparison
+                comparison = _integral
+                        ? Long.compare(((Number) propertyValue).longValue(), _longValue)
+                        : Double.compare(((Number) propertyValue).doubleValue(), _doubleValue);
+            }
+            else
+            {
+                return _expression.evaluate(message);
+            }
+            return _operator.test(comparison) ? Boolean.TRUE : Boolean.FALSE;
+        }
+
+        @Override
+        public String toString()
+        {
+            return _expression.toString();
+        }
+    }
+
+    private static int getTotalCost(final CompiledExpression<?>[] terms)
+    {
+        int cost = 0;
+        for (CompiledExpression<?> term : terms)
+        {
+            cost += term.getCost();
+        }
+        return cost;
+    }
+
+    private static boolean mayAnyFail(final CompiledExpression<?>[] terms)
+    {
+        for (CompiledExpression<?> term : terms)
+        {
+            if (term.mayFail())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String joinTerms(final CompiledExpression<?>[] terms, final String separator)
+    {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < terms.length; i++)
+        {
+            if (i != 0)
+            {
+                builder.append(separator);
+            }
+            builder.append(terms[i]);
+        }
+        return builder.append(')').toString();
+    }
+}
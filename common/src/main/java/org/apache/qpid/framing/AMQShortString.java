@@ -197,6 +197,21 @@ public final class AMQShortString implements Comparable<AMQShortString>
         }
     }
 
+    /**
+     * @return true if the buffer holds the octets of this string starting at the given (absolute) index
+     */
+    boolean equalsBytesAt(final QpidByteBuffer buffer, final int index)
+    {
+        for(int i = 0; i < _length; i++)
+        {
+            if(buffer.get(index + i) != _data[_offset + i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void writeToBuffer(QpidByteBuffer buffer)
     {
         final int size = length();
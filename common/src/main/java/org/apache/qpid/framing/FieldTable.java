@@ -21,6 +21,7 @@
 package org.apache.qpid.framing;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -48,6 +49,11 @@ public class FieldTable
     private Map<AMQShortString, AMQTypedValue> _properties = null;
     private long _encodedSize;
     private static final int INITIAL_HASHMAP_CAPACITY = 16;
+
+    // offsets of the entries in the encoded form, and their values once read, used to look up single properties
+    // without decoding the whole table
+    private int[] _encodedEntryOffsets;
+    private AMQTypedValue[] _encodedEntryValues;
     private final boolean _strictAMQP;
 
     public FieldTable()
@@ -97,6 +103,11 @@ public class FieldTable
     {
         checkPropertyName(string);
 
+        return findProperty(string);
+    }
+
+    private AMQTypedValue findProperty(AMQShortString string)
+    {
         synchronized (this)
         {
             if (_properties == null)
@@ -107,18 +118,106 @@ public class FieldTable
                 }
                 else
                 {
-                    populateFromBuffer();
+                    return findEncodedProperty(string);
                 }
             }
         }
 
-        if (_properties == null)
+        return _properties.get(string);
+    }
+
+    /**
+     * Finds a property in the encoded form without decoding the other entries of the table.  The first lookup records
+     * the offset of each entry, so later lookups only compare keys.  Where a key occurs more than once the last entry
+     * is used, as it would be by the decoded map.
+     */
+    private AMQTypedValue findEncodedProperty(AMQShortString name)
+    {
+        if (_encodedEntryOffsets == null)
         {
-            return null;
+            indexEncodedForm();
         }
-        else
+
+        final int base = _encodedForm.position();
+        final int nameLength = name.length();
+        for (int i = _encodedEntryOffsets.length - 1; i >= 0; i--)
         {
-            return _properties.get(string);
+            final int entryOffset = _encodedEntryOffsets[i];
+            if ((_encodedForm.get(base + entryOffset) & 0xff) == nameLength
+                && name.equalsBytesAt(_encodedForm, base + entryOffset + 1))
+            {
+                AMQTypedValue value = _encodedEntryValues[i];
+                if (value == null)
+                {
+                    final QpidByteBuffer valueBuffer = _encodedForm.view(entryOffset + 1 + nameLength,
+                                                                         _encodedForm.remaining());
+                    try
+                    {
+                        value = AMQTypedValue.readFromBuffer(valueBuffer);
+                    }
+                    finally
+                    {
+                        valueBuffer.dispose();
+                    }
+                    _encodedEntryValues[i] = value;
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private void indexEncodedForm()
+    {
+        int[] offsets = new int[INITIAL_HASHMAP_CAPACITY];
+        int count = 0;
+        if (_encodedSize > 0)
+        {
+            final QpidByteBuffer slice = _encodedForm.slice();
+            try
+            {
+                do
+                {
+                    if (count == offsets.length)
+                    {
+                        offsets = Arrays.copyOf(offsets, 2 * count);
+                    }
+                    offsets[count++] = slice.position();
+
+                    int keyLength = slice.get() & 0xff;
+                    slice.position(slice.position() + keyLength);
+                    skipValue(AMQTypeMap.getType(slice.get()), slice);
+                }
+                while (slice.hasRemaining());
+            }
+            finally
+            {
+                slice.dispose();
+            }
+        }
+        _encodedEntryOffsets = Arrays.copyOf(offsets, count);
+        _encodedEntryValues = new AMQTypedValue[count];
+    }
+
+    private static void skipValue(AMQType type, QpidByteBuffer buffer)
+    {
+        switch (type)
+        {
+            case LONG_STRING:
+            case ASCII_STRING:
+            case WIDE_STRING:
+            case BINARY:
+            case FIELD_TABLE:
+            case FIELD_ARRAY:
+                int length = buffer.getInt();
+                buffer.position(buffer.position() + length);
+                break;
+            case DECIMAL:
+                buffer.position(buffer.position() + EncodingUtils.encodedByteLength()
+                                + EncodingUtils.encodedIntegerLength());
+                break;
+            default:
+                type.readValueFromBuffer(buffer);
         }
     }
 
@@ -1001,9 +1100,13 @@ public class FieldTable
 
     public boolean containsKey(AMQShortString key)
     {
-        initMapIfNecessary();
+        if (key == null || key.length() == 0)
+        {
+            initMapIfNecessary();
 
-        return _properties.containsKey(key);
+            return _properties.containsKey(key);
+        }
+        return findProperty(key) != null;
     }
 
     public boolean containsKey(String key)
@@ -1144,6 +1247,8 @@ public class FieldTable
 
 
             _properties = new LinkedHashMap<>(INITIAL_HASHMAP_CAPACITY);
+            _encodedEntryOffsets = null;
+            _encodedEntryValues = null;
 
             do
             {
@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -43,6 +44,7 @@ public class IoNetworkTransport
     private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(IoNetworkTransport.class);
     private static final int TIMEOUT = Integer.getInteger(CommonProperties.IO_NETWORK_TRANSPORT_TIMEOUT_PROP_NAME,
                                                               CommonProperties.IO_NETWORK_TRANSPORT_TIMEOUT_DEFAULT);
+    private static final boolean USE_NIO = Boolean.getBoolean(CommonProperties.NIO_NETWORK_TRANSPORT_PROP_NAME);
     private NetworkConnection _connection;
 
     private final static Map<String, Socket> _registeredSockets = new ConcurrentHashMap<>();
@@ -58,6 +60,16 @@ public class IoNetworkTransport
                                 ticker);
     }
 
+    protected NetworkConnection createNioNetworkConnection(final SocketChannel channel,
+                                                           final ExceptionHandlingByteBufferReceiver engine,
+                                                           final Integer sendBufferSize,
+                                                           final Integer receiveBufferSize,
+                                                           final int timeout,
+                                                           final IdleTimeoutTicker ticker)
+    {
+        return new NioNetworkConnection(channel, engine, sendBufferSize, receiveBufferSize, timeout, ticker);
+    }
+
     public NetworkConnection connect(ConnectionSettings settings,
                                      ExceptionHandlingByteBufferReceiver delegate,
                                      TransportActivity transportActivity)
@@ -86,7 +98,16 @@ public class IoNetworkTransport
         try
         {
             IdleTimeoutTicker ticker = new IdleTimeoutTicker(transportActivity, TIMEOUT);
-            _connection = createNetworkConnection(socket, delegate, sendBufferSize, receiveBufferSize, TIMEOUT, ticker);
+            if(USE_NIO && socket.getChannel() != null)
+            {
+                _connection = createNioNetworkConnection(socket.getChannel(), delegate, sendBufferSize,
+                                                         receiveBufferSize, TIMEOUT, ticker);
+            }
+            else
+            {
+                _connection = createNetworkConnection(socket, delegate, sendBufferSize, receiveBufferSize, TIMEOUT,
+                                                      ticker);
+            }
             ticker.setConnection(_connection);
             _connection.start();
         }
@@ -109,7 +130,16 @@ public class IoNetworkTransport
 
     private Socket connectTcp(final ConnectionSettings settings)
     {
-        final Socket socket = new Socket();
+        final Socket socket;
+        try
+        {
+            socket = USE_NIO ? SocketChannel.open().socket() : new Socket();
+        }
+        catch (IOException e)
+        {
+            throw new TransportException("Error connecting to broker", e);
+        }
+
         try
         {
             socket.setReuseAddress(true);
@@ -0,0 +1,525 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.transport.network.io;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.security.Principal;
+import java.security.cert.Certificate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.transport.ByteBufferSender;
+import org.apache.qpid.transport.ExceptionHandlingByteBufferReceiver;
+import org.apache.qpid.transport.SenderClosedException;
+import org.apache.qpid.transport.SenderException;
+import org.apache.qpid.transport.TransportException;
+import org.apache.qpid.transport.network.NetworkConnection;
+import org.apache.qpid.transport.network.Ticker;
+
+/**
+ * A network connection which, rather than using its own IoSender and IoReceiver threads, is serviced by one of a
+ * small pool of shared {@link NioSelector} threads.
+ *
+ * Outgoing data is copied into a send buffer of at most twice the socket send buffer size, in the same way as
+ * IoSender, and written to the socket by the sending thread when flushed.  Anything the socket cannot accept
+ * immediately is written by the selector thread once the socket becomes writable.
+ */
+public class NioNetworkConnection implements NetworkConnection, ByteBufferSender
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(NioNetworkConnection.class);
+
+    private static final int INITIAL_SEND_BUFFER_SIZE = 16 * 1024;
+
+    private final SocketChannel _channel;
+    private final ExceptionHandlingByteBufferReceiver _receiver;
+    private final int _receiveBufferSize;
+    private final int _maxSendBufferSize;
+    private final long _timeout;
+    private final Ticker _ticker;
+    private final NioSelector _selector;
+    private final String _socketEndpointDescription;
+
+    private final Object _sendLock = new Object();
+    private final AtomicBoolean _closed = new AtomicBoolean();
+    private final AtomicBoolean _writeInterestRequested = new AtomicBoolean();
+    private ByteBuffer _sendBuffer;
+
+    private byte[] _receiveBuffer;
+    private int _receiveOffset;
+    private SelectionKey _key;
+    private volatile boolean _channelClosed;
+    private volatile Throwable _exception;
+
+    private volatile long _maxWriteIdleMillis;
+    private volatile long _maxReadIdleMillis;
+
+    private final Runnable _enableWriteInterest = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            if (_key != null && _key.isValid())
+            {
+                _key.interestOps(_key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+    };
+
+    private final Runnable _closeChannel = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            closeChannel();
+        }
+    };
+
+    public NioNetworkConnection(SocketChannel channel, ExceptionHandlingByteBufferReceiver delegate,
+                                int sendBufferSize, int receiveBufferSize, long timeout, Ticker ticker)
+    {
+        _channel = channel;
+        _receiver = delegate;
+        _receiveBufferSize = receiveBufferSize;
+        _maxSendBufferSize = 2 * sendBufferSize;
+        _timeout = timeout;
+        _ticker = ticker;
+        _socketEndpointDescription = String.format("%s-%s",
+                                                   channel.socket().getLocalSocketAddress(),
+                                                   channel.socket().getRemoteSocketAddress());
+        _sendBuffer = ByteBuffer.allocate(Math.min(INITIAL_SEND_BUFFER_SIZE, _maxSendBufferSize));
+        _receiveBuffer = new byte[_receiveBufferSize];
+
+        try
+        {
+            _channel.configureBlocking(false);
+        }
+        catch (IOException e)
+        {
+            throw new TransportException("Error configuring socket " + _socketEndpointDescription, e);
+        }
+        _selector = NioSelector.next();
+    }
+
+    @Override
+    public void start()
+    {
+        _selector.schedule(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                register();
+            }
+        });
+    }
+
+    @Override
+    public ByteBufferSender getSender()
+    {
+        return this;
+    }
+
+    @Override
+    public boolean isDirectBufferPreferred()
+    {
+        return false;
+    }
+
+    @Override
+    public void send(QpidByteBuffer buf)
+    {
+        checkNotAlreadyClosed();
+
+        synchronized (_sendLock)
+        {
+            int remaining = buf.remaining();
+            while (remaining > 0)
+            {
+                if (!_sendBuffer.hasRemaining())
+                {
+                    makeSpace(remaining);
+                }
+                final int length = Math.min(remaining, _sendBuffer.remaining());
+                buf.get(_sendBuffer.array(), _sendBuffer.arrayOffset() + _sendBuffer.position(), length);
+                _sendBuffer.position(_sendBuffer.position() + length);
+                remaining -= length;
+            }
+        }
+    }
+
+    @Override
+    public void flush()
+    {
+        synchronized (_sendLock)
+        {
+            if (_sendBuffer.position() != 0 && !_channelClosed)
+            {
+                write();
+                if (_sendBuffer.position() != 0)
+                {
+                    requestWriteInterest();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (_closed.compareAndSet(false, true))
+        {
+            try
+            {
+                if (!_selector.isSelectorThread())
+                {
+                    awaitSendBufferDrained();
+                }
+            }
+            finally
+            {
+                _selector.schedule(_closeChannel);
+            }
+
+            if (_exception != null)
+            {
+                throw new SenderException(_exception);
+            }
+        }
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress()
+    {
+        return _channel.socket().getRemoteSocketAddress();
+    }
+
+    @Override
+    public SocketAddress getLocalAddress()
+    {
+        return _channel.socket().getLocalSocketAddress();
+    }
+
+    @Override
+    public void setMaxWriteIdleMillis(final long millis)
+    {
+        _maxWriteIdleMillis = millis;
+    }
+
+    @Override
+    public void setMaxReadIdleMillis(final long millis)
+    {
+        _maxReadIdleMillis = millis;
+    }
+
+    @Override
+    public Principal getPeerPrincipal()
+    {
+        return null;
+    }
+
+    @Override
+    public Certificate getPeerCertificate()
+    {
+        return null;
+    }
+
+    @Override
+    public long getMaxReadIdleMillis()
+    {
+        return _maxReadIdleMillis;
+    }
+
+    @Override
+    public long getMaxWriteIdleMillis()
+    {
+        return _maxWriteIdleMillis;
+    }
+
+    /* the methods below are only called on the selector thread */
+
+    private void register()
+    {
+        try
+        {
+            int interestOps = SelectionKey.OP_READ;
+            if (_writeInterestRequested.get())
+            {
+                interestOps |= SelectionKey.OP_WRITE;
+            }
+            _key = _selector.register(this, _channel, interestOps);
+        }
+        catch (IOException e)
+        {
+            if (!_closed.get())
+            {
+                _receiver.exception(e);
+            }
+            closeChannel();
+        }
+    }
+
+    void process(final int readyOps)
+    {
+        if ((readyOps & SelectionKey.OP_WRITE) != 0)
+        {
+            synchronized (_sendLock)
+            {
+                write();
+                if (_sendBuffer.position() == 0 && _key.isValid())
+                {
+                    _writeInterestRequested.set(false);
+                    _key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        }
+
+        if ((readyOps & SelectionKey.OP_READ) != 0 && !_channelClosed)
+        {
+            read();
+        }
+    }
+
+    int getTimeToNextTick(final long currentTime)
+    {
+        return _ticker == null ? Integer.MAX_VALUE : _ticker.getTimeToNextTick(currentTime);
+    }
+
+    void tick(final long currentTime)
+    {
+        if (_ticker != null && !_channelClosed)
+        {
+            try
+            {
+                if (_ticker.getTimeToNextTick(currentTime) <= 0)
+                {
+                    _ticker.tick(currentTime);
+                }
+            }
+            catch (RuntimeException e)
+            {
+                _receiver.exception(e);
+                _selector.schedule(_closeChannel);
+            }
+        }
+    }
+
+    private void read()
+    {
+        try
+        {
+            final int read = _channel.read(ByteBuffer.wrap(_receiveBuffer,
+                                                           _receiveOffset,
+                                                           _receiveBufferSize - _receiveOffset));
+            if (read > 0)
+            {
+                _receiver.received(ByteBuffer.wrap(_receiveBuffer, _receiveOffset, read));
+                _receiveOffset += read;
+                // the receiver may keep hold of what it has been given, so never overwrite it
+                if (_receiveOffset > _receiveBufferSize / 2)
+                {
+                    _receiveOffset = 0;
+                    _receiveBuffer = new byte[_receiveBufferSize];
+                }
+            }
+            else if (read == -1)
+            {
+                closeChannel();
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            if (!_closed.get())
+            {
+                _receiver.exception(e);
+            }
+            closeChannel();
+        }
+    }
+
+    private void closeChannel()
+    {
+        if (!_channelClosed)
+        {
+            synchronized (_sendLock)
+            {
+                if (_exception == null && _sendBuffer.position() != 0)
+                {
+                    write();
+                }
+                _channelClosed = true;
+                _closed.set(true);
+                _sendLock.notifyAll();
+            }
+            _selector.deregister(this, _key);
+
+            try
+            {
+                _receiver.closed();
+            }
+            finally
+            {
+                try
+                {
+                    _channel.close();
+                }
+                catch (IOException e)
+                {
+                    LOGGER.warn("Error closing socket", e);
+                }
+            }
+        }
+    }
+
+    /* the methods below must be called holding the send lock */
+
+    private void write()
+    {
+        _sendBuffer.flip();
+        try
+        {
+            while (_sendBuffer.hasRemaining() && _channel.write(_sendBuffer) > 0)
+            {
+                // keep writing until the socket accepts no more
+            }
+        }
+        catch (IOException e)
+        {
+            LOGGER.info("Exception sending for socket '{}' : {}", _socketEndpointDescription, e.getMessage());
+            _exception = e;
+            _sendBuffer.position(_sendBuffer.limit());
+            _closed.set(true);
+            _selector.schedule(_closeChannel);
+        }
+        finally
+        {
+            _sendBuffer.compact();
+            _sendLock.notifyAll();
+        }
+    }
+
+    private void makeSpace(final int required)
+    {
+        final int capacity = _sendBuffer.capacity();
+        if (capacity < _maxSendBufferSize || _selector.isSelectorThread())
+        {
+            // the selector thread cannot wait for itself to drain the buffer, so it is allowed to exceed the maximum
+            final int newCapacity = _selector.isSelectorThread()
+                    ? Math.max(capacity * 2, _sendBuffer.position() + required)
+                    : Math.min(_maxSendBufferSize, Math.max(capacity * 2, _sendBuffer.position() + required));
+            final ByteBuffer sendBuffer = ByteBuffer.allocate(newCapacity);
+            _sendBuffer.flip();
+            sendBuffer.put(_sendBuffer);
+            _sendBuffer = sendBuffer;
+            return;
+        }
+
+        write();
+        if (!_sendBuffer.hasRemaining())
+        {
+            requestWriteInterest();
+            awaitSendBufferSpace();
+        }
+    }
+
+    private void awaitSendBufferSpace()
+    {
+        final long start = System.currentTimeMillis();
+        long elapsed = 0;
+        while (!_channelClosed && !_sendBuffer.hasRemaining() && elapsed < _timeout)
+        {
+            try
+            {
+                _sendLock.wait(_timeout - elapsed);
+            }
+            catch (InterruptedException e)
+            {
+                // pass
+            }
+            elapsed = System.currentTimeMillis() - start;
+        }
+
+        checkNotAlreadyClosed();
+
+        if (!_sendBuffer.hasRemaining())
+        {
+            LOGGER.error("write timed out for socket {}", _socketEndpointDescription);
+            _closed.set(true);
+            _selector.schedule(_closeChannel);
+            throw new SenderException(String.format("write timed out for socket %s", _socketEndpointDescription));
+        }
+    }
+
+    private void awaitSendBufferDrained()
+    {
+        synchronized (_sendLock)
+        {
+            if (_sendBuffer.position() != 0 && !_channelClosed)
+            {
+                write();
+            }
+
+            final long start = System.currentTimeMillis();
+            long elapsed = 0;
+            while (!_channelClosed && _sendBuffer.position() != 0 && elapsed < _timeout)
+            {
+                requestWriteInterest();
+                try
+                {
+                    _sendLock.wait(_timeout - elapsed);
+                }
+                catch (InterruptedException e)
+                {
+                    // pass
+                }
+                elapsed = System.currentTimeMillis() - start;
+            }
+
+            if (_sendBuffer.position() != 0 && !_channelClosed)
+            {
+                LOGGER.error("timed out waiting to send remaining data for socket {}", _socketEndpointDescription);
+            }
+        }
+    }
+
+    private void requestWriteInterest()
+    {
+        if (_writeInterestRequested.compareAndSet(false, true))
+        {
+            _selector.schedule(_enableWriteInterest);
+        }
+    }
+
+    private void checkNotAlreadyClosed()
+    {
+        if (_closed.get())
+        {
+            throw new SenderClosedException(String.format("sender for socket %s is closed",
+                                                          _socketEndpointDescription), _exception);
+        }
+    }
+}
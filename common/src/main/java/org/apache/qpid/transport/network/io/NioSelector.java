@@ -0,0 +1,200 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.transport.network.io;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.qpid.configuration.CommonProperties;
+import org.apache.qpid.thread.Threading;
+import org.apache.qpid.transport.TransportException;
+
+/**
+ * A thread servicing the reads, writes and idle timeouts of many {@link NioNetworkConnection}s through a single
+ * {@link Selector}.  The threads are created on first use and shared by all connections in the JVM.
+ *
+ * Connections are only registered, deregistered and have their interest set changed on the selector thread itself;
+ * other threads hand such work to the selector thread with {@link #schedule(Runnable)}.
+ */
+final class NioSelector implements Runnable
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(NioSelector.class);
+
+    private static final int THREAD_COUNT =
+            Math.max(1, Integer.getInteger(CommonProperties.NIO_NETWORK_TRANSPORT_THREADS_PROP_NAME,
+                                           Runtime.getRuntime().availableProcessors()));
+    private static final int DEFAULT_SELECT_TIMEOUT =
+            Integer.getInteger(CommonProperties.IO_NETWORK_TRANSPORT_TIMEOUT_PROP_NAME,
+                               CommonProperties.IO_NETWORK_TRANSPORT_TIMEOUT_DEFAULT);
+
+    private static final AtomicInteger NEXT_SELECTOR = new AtomicInteger();
+    private static NioSelector[] _selectors;
+
+    private final Selector _selector;
+    private final Thread _thread;
+    private final Queue<Runnable> _tasks = new ConcurrentLinkedQueue<>();
+    private final Set<NioNetworkConnection> _connections = new HashSet<>();
+
+    private NioSelector(final int id)
+    {
+        try
+        {
+            _selector = Selector.open();
+        }
+        catch (IOException e)
+        {
+            throw new TransportException("Error opening selector", e);
+        }
+
+        try
+        {
+            _thread = Threading.getThreadFactory().createThread(this);
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException("Error creating selector thread", e);
+        }
+        _thread.setDaemon(true);
+        _thread.setName("NioSelector-" + id);
+        _thread.start();
+    }
+
+    static NioSelector next()
+    {
+        final NioSelector[] selectors = getSelectors();
+        return selectors[(NEXT_SELECTOR.getAndIncrement() & Integer.MAX_VALUE) % selectors.length];
+    }
+
+    private static synchronized NioSelector[] getSelectors()
+    {
+        if (_selectors == null)
+        {
+            NioSelector[] selectors = new NioSelector[THREAD_COUNT];
+            for (int i = 0; i < selectors.length; i++)
+            {
+                selectors[i] = new NioSelector(i);
+            }
+            _selectors = selectors;
+        }
+        return _selectors;
+    }
+
+    void schedule(final Runnable task)
+    {
+        _tasks.add(task);
+        _selector.wakeup();
+    }
+
+    boolean isSelectorThread()
+    {
+        return Thread.currentThread() == _thread;
+    }
+
+    SelectionKey register(final NioNetworkConnection connection, final SocketChannel channel, final int interestOps)
+            throws ClosedChannelException
+    {
+        final SelectionKey key = channel.register(_selector, interestOps, connection);
+        _connections.add(connection);
+        return key;
+    }
+
+    void deregister(final NioNetworkConnection connection, final SelectionKey key)
+    {
+        _connections.remove(connection);
+        if (key != null)
+        {
+            key.cancel();
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        while (true)
+        {
+            try
+            {
+                _selector.select(getTimeToNextTick(System.currentTimeMillis()));
+
+                runTasks();
+
+                final Iterator<SelectionKey> selectedKeys = _selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext())
+                {
+                    final SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (key.isValid())
+                    {
+                        ((NioNetworkConnection) key.attachment()).process(key.readyOps());
+                    }
+                }
+
+                final long currentTime = System.currentTimeMillis();
+                for (NioNetworkConnection connection : _connections)
+                {
+                    connection.tick(currentTime);
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                LOGGER.error("Unexpected exception in selector thread {}", _thread.getName(), e);
+            }
+        }
+    }
+
+    private int getTimeToNextTick(final long currentTime)
+    {
+        int timeout = DEFAULT_SELECT_TIMEOUT;
+        for (NioNetworkConnection connection : _connections)
+        {
+            timeout = Math.min(timeout, Math.max(1, connection.getTimeToNextTick(currentTime)));
+        }
+        return timeout;
+    }
+
+    private void runTasks()
+    {
+        Runnable task;
+        while ((task = _tasks.poll()) != null)
+        {
+            try
+            {
+                task.run();
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.error("Unexpected exception running task on selector thread {}", _thread.getName(), e);
+            }
+        }
+    }
+}
@@ -21,7 +21,9 @@
 package org.apache.qpid.util;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import org.apache.qpid.bytebuffer.QpidByteBuffer;
 
@@ -68,4 +70,38 @@ public class ByteBufferUtils
         }
         return size;
     }
+
+    /**
+     * Returns views of the given range of bytes of a sequence of buffers, without copying them.  The range may span
+     * any number of the buffers, and is truncated if the buffers hold fewer bytes.  The caller must dispose of the
+     * views.
+     *
+     * @param offset the number of bytes to skip from the start of the remaining bytes of the buffers
+     * @param length the maximum number of bytes to include
+     */
+    public static List<QpidByteBuffer> view(Collection<QpidByteBuffer> bufs, int offset, int length)
+    {
+        List<QpidByteBuffer> views = new ArrayList<>(bufs.size());
+        int skip = offset;
+        int remaining = length;
+        for (QpidByteBuffer buf : bufs)
+        {
+            if (remaining == 0)
+            {
+                break;
+            }
+            if (skip >= buf.remaining())
+            {
+                skip -= buf.remaining();
+            }
+            else
+            {
+                QpidByteBuffer view = buf.view(skip, remaining);
+                remaining -= view.remaining();
+                skip = 0;
+                views.add(view);
+            }
+        }
+        return views;
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.bytebuffer;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class BufferPoolTest extends QpidTestCase
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    public void testBuffersAreTakenFromSmallestSizeClass()
+    {
+        BufferPool pool = new BufferPool(BUFFER_SIZE, 16, 3, 4);
+        assertEquals("Unexpected maximum buffer size", 4 * BUFFER_SIZE, pool.getMaxBufferSize());
+
+        assertEquals("Unexpected capacity", BUFFER_SIZE, pool.getBuffer(BUFFER_SIZE).capacity());
+        assertEquals("Unexpected capacity", 2 * BUFFER_SIZE, pool.getBuffer(BUFFER_SIZE + 1).capacity());
+        assertEquals("Unexpected capacity", 4 * BUFFER_SIZE, pool.getBuffer(3 * BUFFER_SIZE).capacity());
+    }
+
+    public void testReturnedBufferIsReused()
+    {
+        BufferPool pool = new BufferPool(BUFFER_SIZE, 16, 2, 4);
+
+        ByteBuffer buffer = pool.getBuffer(2 * BUFFER_SIZE);
+        pool.returnBuffer(buffer);
+        assertSame("Returned buffer not reused", buffer, pool.getBuffer(2 * BUFFER_SIZE));
+
+        ByteBuffer smallBuffer = pool.getBuffer(BUFFER_SIZE);
+        pool.returnBuffer(smallBuffer);
+        assertSame("Returned buffer not reused", smallBuffer, pool.getBuffer(BUFFER_SIZE));
+    }
+
+    public void testStatistics()
+    {
+        BufferPool pool = new BufferPool(BUFFER_SIZE, 16, 2, 4);
+
+        ByteBuffer first = pool.getBuffer(2 * BUFFER_SIZE);
+        ByteBuffer second = pool.getBuffer(2 * BUFFER_SIZE);
+        pool.returnBuffer(first);
+        pool.getBuffer(2 * BUFFER_SIZE);
+
+        List<BufferPoolStatistics> statistics = pool.getStatistics();
+        assertEquals("Unexpected number of size classes", 2, statistics.size());
+
+        BufferPoolStatistics small = statistics.get(0);
+        assertEquals("Unexpected buffer size", BUFFER_SIZE, small.getBufferSize());
+        assertEquals("Unexpected hits", 0, small.getHits());
+        assertEquals("Unexpected misses", 0, small.getMisses());
+
+        BufferPoolStatistics large = statistics.get(1);
+        assertEquals("Unexpected buffer size", 2 * BUFFER_SIZE, large.getBufferSize());
+        assertEquals("Unexpected hits", 1, large.getHits());
+        assertEquals("Unexpected misses", 2, large.getMisses());
+        assertEquals("Unexpected outstanding bytes", 4 * BUFFER_SIZE, large.getOutstandingBytes());
+        assertEquals("Unexpected pooled bytes", 0, large.getPooledBytes());
+
+        pool.returnBuffer(second);
+        large = pool.getStatistics().get(1);
+        assertEquals("Unexpected outstanding bytes", 2 * BUFFER_SIZE, large.getOutstandingBytes());
+        assertEquals("Unexpected pooled bytes", 2 * BUFFER_SIZE, large.getPooledBytes());
+    }
+
+    public void testSmallestSizeClassHasWholePoolSize()
+    {
+        for (int sizeClassCount = 1; sizeClassCount <= 4; sizeClassCount++)
+        {
+            BufferPool pool = new BufferPool(BUFFER_SIZE, 1024, sizeClassCount, 256);
+            assertEquals("Unexpected capacity of smallest size class with " + sizeClassCount + " size classes",
+                         1024, pool.getMaxPooledCount(0));
+        }
+    }
+
+    public void testLargerSizeClassesShareLargeBufferPoolSize()
+    {
+        BufferPool pool = new BufferPool(BUFFER_SIZE, 1024, 3, 256);
+        assertEquals("Unexpected capacity of size class 1", 64, pool.getMaxPooledCount(1));
+        assertEquals("Unexpected capacity of size class 2", 32, pool.getMaxPooledCount(2));
+
+        pool = new BufferPool(BUFFER_SIZE, 1024, 2, 256);
+        assertEquals("Unexpected capacity of size class 1", 128, pool.getMaxPooledCount(1));
+
+        pool = new BufferPool(BUFFER_SIZE, 1024, 4, 256);
+        assertEquals("Unexpected capacity of size class 1", 64, pool.getMaxPooledCount(1));
+        assertEquals("Unexpected capacity of size class 2", 16, pool.getMaxPooledCount(2));
+        assertEquals("Unexpected capacity of size class 3", 8, pool.getMaxPooledCount(3));
+    }
+
+    public void testMaxPooledBytes()
+    {
+        assertEquals("Unexpected maximum pooled bytes with 1 size class",
+                     1024L * BUFFER_SIZE, new BufferPool(BUFFER_SIZE, 1024, 1, 256).getMaxPooledBytes());
+        for (int sizeClassCount = 2; sizeClassCount <= 4; sizeClassCount++)
+        {
+            BufferPool pool = new BufferPool(BUFFER_SIZE, 1024, sizeClassCount, 256);
+            assertEquals("Unexpected maximum pooled bytes with " + sizeClassCount + " size classes",
+                         (1024L + 256L) * BUFFER_SIZE, pool.getMaxPooledBytes());
+        }
+    }
+
+    public void testPoolSizeIsLimited()
+    {
+        BufferPool pool = new BufferPool(BUFFER_SIZE, 0, 1, 0);
+
+        ByteBuffer buffer = pool.getBuffer(BUFFER_SIZE);
+        pool.returnBuffer(buffer);
+        assertNotSame("Buffer unexpectedly pooled", buffer, pool.getBuffer(BUFFER_SIZE));
+        assertEquals("Unexpected pooled bytes", 0, pool.getStatistics().get(0).getPooledBytes());
+    }
+}
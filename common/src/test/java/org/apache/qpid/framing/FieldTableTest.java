@@ -21,6 +21,7 @@
 package org.apache.qpid.framing;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -929,6 +930,47 @@ public class FieldTableTest extends QpidTestCase
         assertTrue("unexpected property value", destinationTable.getBoolean(myBooleanTestProperty));
     }
 
+    public void testLookupOfSinglePropertiesInEncodedTable() throws Exception
+    {
+        FieldTable nested = new FieldTable();
+        nested.setString("inner", "value");
+
+        FieldTable encodeTable = new FieldTable();
+        encodeTable.setString("string", "hello");
+        encodeTable.setLong("long", 1234567890123L);
+        encodeTable.setInteger("int", 42);
+        encodeTable.setBytes("bytes", new byte[]{1, 2, 3});
+        encodeTable.setFieldTable("table", nested);
+        encodeTable.setDecimal(new AMQShortString("decimal"), new BigDecimal("12.5"));
+        encodeTable.setFieldArray("array", Arrays.asList("a", "b"));
+        encodeTable.setVoid(new AMQShortString("void"));
+        encodeTable.setDouble("double", 1.5);
+        byte[] data = encodeTable.getDataAsBytes();
+
+        FieldTable tableFromBytes = new FieldTable(QpidByteBuffer.wrap(data));
+
+        assertEquals("unexpected double", 1.5, tableFromBytes.getDouble("double"));
+        assertEquals("unexpected string", "hello", tableFromBytes.getString("string"));
+        assertEquals("unexpected long", Long.valueOf(1234567890123L), tableFromBytes.getLong("long"));
+        assertEquals("unexpected int", Integer.valueOf(42), tableFromBytes.getInteger("int"));
+        assertTrue("unexpected bytes", Arrays.equals(new byte[]{1, 2, 3}, tableFromBytes.getBytes("bytes")));
+        assertEquals("unexpected nested table value", "value", tableFromBytes.getFieldTable("table").getString("inner"));
+        FieldTable decodedTable = new FieldTable(QpidByteBuffer.wrap(data));
+        assertEquals("unexpected size", 9, decodedTable.size());
+        assertEquals("unexpected decimal",
+                     decodedTable.getDecimal(new AMQShortString("decimal")),
+                     tableFromBytes.getDecimal(new AMQShortString("decimal")));
+        assertTrue("unexpected void", tableFromBytes.isNullStringValue("void"));
+        assertTrue("expected property not present", tableFromBytes.containsKey("array"));
+        assertFalse("unexpected property present", tableFromBytes.containsKey("missing"));
+        assertNull("unexpected property value", tableFromBytes.getObject("missing"));
+
+        tableFromBytes.setString("string", "updated");
+        assertEquals("unexpected string after update", "updated", tableFromBytes.getString("string"));
+        assertEquals("unexpected double after update", 1.5, tableFromBytes.getDouble("double"));
+        assertEquals("unexpected size after update", 9, tableFromBytes.size());
+    }
+
     private void assertBytesEqual(byte[] expected, byte[] actual)
     {
         Assert.assertEquals(expected.length, actual.length);
@@ -0,0 +1,169 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.transport.network.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.test.utils.QpidTestCase;
+import org.apache.qpid.transport.ExceptionHandlingByteBufferReceiver;
+
+public class NioNetworkConnectionTest extends QpidTestCase
+{
+    private static final int BUFFER_SIZE = 1024;
+
+    private ServerSocket _serverSocket;
+    private Socket _peer;
+    private NioNetworkConnection _connection;
+    private RecordingReceiver _receiver;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _serverSocket = new ServerSocket(0);
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", _serverSocket.getLocalPort()));
+        _peer = _serverSocket.accept();
+        _receiver = new RecordingReceiver();
+        _connection = new NioNetworkConnection(channel, _receiver, BUFFER_SIZE, BUFFER_SIZE, 10000, null);
+        _connection.start();
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            _peer.close();
+            _serverSocket.close();
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testSendLargerThanSendBuffer() throws Exception
+    {
+        final byte[] data = new byte[BUFFER_SIZE * 20];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) i;
+        }
+
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        Thread reader = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    InputStream in = _peer.getInputStream();
+                    byte[] buf = new byte[256];
+                    int read;
+                    while (received.size() < data.length && (read = in.read(buf)) != -1)
+                    {
+                        received.write(buf, 0, read);
+                    }
+                }
+                catch (Exception e)
+                {
+                    // test fails on the comparison below
+                }
+            }
+        });
+        reader.start();
+
+        _connection.send(QpidByteBuffer.wrap(data));
+        _connection.flush();
+
+        reader.join(10000);
+        assertTrue("Unexpected data received by peer", Arrays.equals(data, received.toByteArray()));
+    }
+
+    public void testReceiveAndPeerClose() throws Exception
+    {
+        final byte[] data = new byte[BUFFER_SIZE * 3];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) (i * 7);
+        }
+        OutputStream out = _peer.getOutputStream();
+        out.write(data);
+        out.flush();
+        _peer.close();
+
+        assertTrue("Receiver not notified of close", _receiver._closed.await(10, TimeUnit.SECONDS));
+        assertTrue("Unexpected data received", Arrays.equals(data, _receiver._data.toByteArray()));
+        assertNull("Unexpected exception", _receiver._exception);
+    }
+
+    public void testCloseNotifiesReceiver() throws Exception
+    {
+        _connection.send(QpidByteBuffer.wrap(new byte[]{1, 2, 3}));
+        _connection.close();
+
+        assertTrue("Receiver not notified of close", _receiver._closed.await(10, TimeUnit.SECONDS));
+        InputStream in = _peer.getInputStream();
+        assertEquals(1, in.read());
+        assertEquals(2, in.read());
+        assertEquals(3, in.read());
+        assertEquals(-1, in.read());
+    }
+
+    private static class RecordingReceiver implements ExceptionHandlingByteBufferReceiver
+    {
+        private final ByteArrayOutputStream _data = new ByteArrayOutputStream();
+        private final CountDownLatch _closed = new CountDownLatch(1);
+        private volatile Throwable _exception;
+
+        @Override
+        public void exception(final Throwable t)
+        {
+            _exception = t;
+        }
+
+        @Override
+        public void received(final ByteBuffer msg)
+        {
+            byte[] bytes = new byte[msg.remaining()];
+            msg.get(bytes);
+            _data.write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void closed()
+        {
+            _closed.countDown();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.qpid.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.qpid.bytebuffer.QpidByteBuffer;
+import org.apache.qpid.test.utils.QpidTestCase;
+
+public class ByteBufferUtilsTest extends QpidTestCase
+{
+    private static final byte[] DATA = "0123456789".getBytes();
+
+    private List<QpidByteBuffer> _fragments;
+
+    @Override
+    public void setUp() throws Exception
+    {
+        super.setUp();
+        _fragments = new ArrayList<>();
+        _fragments.add(QpidByteBuffer.wrap(DATA, 0, 3));
+        _fragments.add(QpidByteBuffer.wrap(DATA, 3, 4));
+        _fragments.add(QpidByteBuffer.wrap(DATA, 7, 3));
+    }
+
+    @Override
+    public void tearDown() throws Exception
+    {
+        try
+        {
+            for (QpidByteBuffer fragment : _fragments)
+            {
+                fragment.dispose();
+            }
+        }
+        finally
+        {
+            super.tearDown();
+        }
+    }
+
+    public void testViewOfWholeSequence()
+    {
+        assertView("0123456789", 3, 0, 10);
+    }
+
+    public void testViewWithinSingleFragment()
+    {
+        assertView("45", 1, 4, 2);
+    }
+
+    public void testViewSpanningFragments()
+    {
+        assertView("234567", 3, 2, 6);
+    }
+
+    public void testViewStartingOnFragmentBoundary()
+    {
+        assertView("3456", 1, 3, 4);
+    }
+
+    public void testViewTruncatedAtEnd()
+    {
+        assertView("89", 1, 8, 5);
+    }
+
+    public void testViewBeyondEndIsEmpty()
+    {
+        assertView("", 0, 10, 5);
+    }
+
+    public void testViewDoesNotMoveFragments()
+    {
+        dispose(ByteBufferUtils.view(_fragments, 2, 6));
+        assertEquals("Unexpected remaining", DATA.length, ByteBufferUtils.remaining(_fragments));
+        assertEquals("Unexpected position", 0, _fragments.get(0).position());
+    }
+
+    public void testViewOfPartiallyConsumedFragment()
+    {
+        _fragments.get(0).position(1);
+        assertView("1234", 2, 0, 4);
+    }
+
+    private void assertView(final String expected, final int expectedViewCount, final int offset, final int length)
+    {
+        final List<QpidByteBuffer> views = ByteBufferUtils.view(_fragments, offset, length);
+        try
+        {
+            assertEquals("Unexpected number of views", expectedViewCount, views.size());
+            final byte[] actual = new byte[ByteBufferUtils.remaining(views)];
+            int pos = 0;
+            for (QpidByteBuffer view : views)
+            {
+                final int size = view.remaining();
+                view.get(actual, pos, size);
+                pos += size;
+            }
+            assertTrue("Unexpected content: " + new String(actual),
+                       Arrays.equals(expected.getBytes(), actual));
+        }
+        finally
+        {
+            dispose(views);
+        }
+    }
+
+    private void dispose(final List<QpidByteBuffer> buffers)
+    {
+        for (QpidByteBuffer buffer : buffers)
+        {
+            buffer.dispose();
+        }
+    }
+}